@@ -21,6 +21,8 @@ package org.quartz;
 import java.io.Serializable;
 import java.util.Map;
 
+import org.quartz.utils.CompactMap;
+import org.quartz.utils.OverlayMap;
 import org.quartz.utils.StringKeyDirtyFlagMap;
 
 /**
@@ -74,11 +76,12 @@ public class JobDataMap extends StringKeyDirtyFlagMap implements Serializable {
 
     /**
      * <p>
-     * Create an empty <code>JobDataMap</code>.
+     * Create an empty <code>JobDataMap</code>, stored in a
+     * <code>{@link CompactMap}</code>.
      * </p>
      */
     public JobDataMap() {
-        super(15);
+        super(new CompactMap<String, Object>());
     }
 
     /**
@@ -97,6 +100,27 @@ public class JobDataMap extends StringKeyDirtyFlagMap implements Serializable {
         clearDirtyFlag();
     }
 
+    private JobDataMap(OverlayMap<String, Object> overlayMap) {
+        super(overlayMap);
+    }
+
+    /**
+     * <p>
+     * Create a <code>JobDataMap</code> of the entries of <code>base</code>,
+     * overridden by those of <code>overlay</code>, as done for the merged
+     * map of a <code>JobExecutionContext</code>.
+     * </p>
+     *
+     * <p>
+     * The entries are not copied until the returned map is modified or
+     * iterated: until then, lookups read through to the given maps and see
+     * their current contents.
+     * </p>
+     */
+    public static JobDataMap overlay(JobDataMap base, JobDataMap overlay) {
+        return new JobDataMap(new OverlayMap<String, Object>(base, overlay));
+    }
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -0,0 +1,164 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The execution statistics of a <code>{@link Job}</code>, or of a group of
+ * jobs, as collected by a <code>{@link Scheduler}</code> instance since its
+ * job statistics were enabled or last reset.
+ * 
+ * <p>
+ * Statistics are kept for a bounded number of jobs: once the bound is
+ * reached, the jobs that took the least total run time are evicted, so the
+ * counts of a job that was evicted and fired again start over.
+ * </p>
+ * 
+ * @see Scheduler#getJobStatistics(JobKey)
+ * @see Scheduler#getTopJobStatistics(int)
+ */
+public class JobStatistics implements java.io.Serializable {
+
+    private static final long serialVersionUID = -4726573839135046131L;
+
+    private final JobKey jobKey;
+
+    private final String group;
+
+    private final long fireCount;
+
+    private final long failureCount;
+
+    private final long misfireCount;
+
+    private final long totalRunTime;
+
+    private final long medianRunTime;
+
+    private final long ninetyNinthPercentileRunTime;
+
+    private final long lastFireLag;
+
+    public JobStatistics(JobKey jobKey, String group, long fireCount, long failureCount,
+            long misfireCount, long totalRunTime, long medianRunTime,
+            long ninetyNinthPercentileRunTime, long lastFireLag) {
+        this.jobKey = jobKey;
+        this.group = group;
+        this.fireCount = fireCount;
+        this.failureCount = failureCount;
+        this.misfireCount = misfireCount;
+        this.totalRunTime = totalRunTime;
+        this.medianRunTime = medianRunTime;
+        this.ninetyNinthPercentileRunTime = ninetyNinthPercentileRunTime;
+        this.lastFireLag = lastFireLag;
+    }
+
+    /**
+     * Returns the key of the job, or <code>null</code> for the statistics of
+     * a group of jobs.
+     */
+    public JobKey getJobKey() {
+        return jobKey;
+    }
+
+    /**
+     * Returns the group of the job(s).
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * Returns the number of times the job(s) were executed.
+     */
+    public long getFireCount() {
+        return fireCount;
+    }
+
+    /**
+     * Returns the number of executions that threw an exception.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the number of times a trigger of the job(s) misfired.
+     */
+    public long getMisfireCount() {
+        return misfireCount;
+    }
+
+    /**
+     * Returns the total run time of the executions, in milliseconds: the
+     * worker time consumed by the job(s).
+     */
+    public long getTotalRunTime() {
+        return totalRunTime;
+    }
+
+    /**
+     * Returns the median run time of the executions, in milliseconds,
+     * accurate to within 25%.
+     */
+    public long getMedianRunTime() {
+        return medianRunTime;
+    }
+
+    /**
+     * Returns the 99th percentile of the run time of the executions, in
+     * milliseconds, accurate to within 25%.
+     */
+    public long getNinetyNinthPercentileRunTime() {
+        return ninetyNinthPercentileRunTime;
+    }
+
+    /**
+     * Returns how late the last execution started, compared to the scheduled
+     * fire time of its trigger, in milliseconds.
+     */
+    public long getLastFireLag() {
+        return lastFireLag;
+    }
+
+    /**
+     * The given statistics that took the most total run time, in descending
+     * order of total run time.
+     */
+    static List<JobStatistics> top(List<JobStatistics> statistics, int count) {
+        Collections.sort(statistics, new Comparator<JobStatistics>() {
+            public int compare(JobStatistics s1, JobStatistics s2) {
+                return s1.totalRunTime < s2.totalRunTime ? 1 : (s1.totalRunTime == s2.totalRunTime ? 0 : -1);
+            }
+        });
+        return statistics.size() > count ? new ArrayList<JobStatistics>(statistics.subList(0, Math.max(count, 0))) : statistics;
+    }
+
+    @Override
+    public String toString() {
+        return (jobKey != null ? "Job " + jobKey : "Job group " + group)
+                + ": fired " + fireCount + ", failed " + failureCount
+                + ", misfired " + misfireCount + ", total run time " + totalRunTime
+                + "ms, median " + medianRunTime + "ms, 99th percentile "
+                + ninetyNinthPercentileRunTime + "ms, last fire lag " + lastFireLag + "ms";
+    }
+}
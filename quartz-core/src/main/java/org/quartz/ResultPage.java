@@ -0,0 +1,75 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the results of a query that may match more items than can be
+ * returned at once, such as all of the triggers of a large scheduler.
+ * 
+ * <p>
+ * The items of a page are ordered by group and then by name. The next page
+ * is requested by passing the <code>nextPageToken</code> of this page back
+ * to the query; as the token holds the key of the last item of this page,
+ * paging is not disturbed by items being added or removed meanwhile.
+ * </p>
+ * 
+ * @see TriggerQuery
+ * @see org.quartz.spi.JobStore#retrieveJobPage(org.quartz.impl.matchers.GroupMatcher, String, int)
+ */
+public class ResultPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 4326174102581735468L;
+
+    private final List<T> items;
+
+    private final String nextPageToken;
+
+    public ResultPage(List<? extends T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(new ArrayList<T>(items));
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Returns the items of this page, which may be empty.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the token from which the next page is requested, or
+     * <code>null</code> if this is the last page.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultPage[items=" + items.size() + ", nextPageToken=" + nextPageToken + "]";
+    }
+}
@@ -18,7 +18,9 @@
 
 package org.quartz;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +29,7 @@ import org.quartz.Trigger.TriggerState;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.spi.JobFactory;
 import org.quartz.utils.Key;
+import org.quartz.utils.PageToken;
 
 /**
  * This is the main interface of a Quartz Scheduler.
@@ -376,6 +379,80 @@ public interface Scheduler {
      */
     List<JobExecutionContext> getCurrentlyExecutingJobs() throws SchedulerException;
 
+    /**
+     * Get the execution statistics of the identified <code>{@link Job}</code>
+     * in this Scheduler instance.
+     * 
+     * <p>
+     * Statistics are only collected when enabled, with the
+     * <code>org.quartz.scheduler.jobStatisticsEnabled</code> property or the
+     * <code>JobStatisticsEnabled</code> attribute of the scheduler MBean.
+     * </p>
+     * 
+     * @return the statistics of the job, or <code>null</code> if they are not
+     * collected or the job neither executed nor misfired since.
+     * @see JobStatistics
+     */
+    default JobStatistics getJobStatistics(JobKey jobKey) throws SchedulerException {
+        return null;
+    }
+
+    /**
+     * Get the execution statistics of the jobs of the given group in this
+     * Scheduler instance.
+     * 
+     * <p>
+     * The percentiles of a group can not be derived from those of its jobs,
+     * so this returns <code>null</code> unless overridden.
+     * </p>
+     * 
+     * @return the statistics of the group, or <code>null</code> if they are
+     * not collected or none of its jobs executed nor misfired since.
+     * @see #getJobStatistics(JobKey)
+     */
+    default JobStatistics getJobGroupStatistics(String groupName) throws SchedulerException {
+        return null;
+    }
+
+    /**
+     * Get the execution statistics of the jobs that consumed the most worker
+     * time in this Scheduler instance, in descending order of total run time.
+     * 
+     * @param count the maximum number of jobs to return.
+     * @return the statistics of the jobs, empty if they are not collected.
+     * @see #getJobStatistics(JobKey)
+     */
+    default List<JobStatistics> getTopJobStatistics(int count) throws SchedulerException {
+        List<JobStatistics> statistics = new ArrayList<JobStatistics>();
+        for (JobKey jobKey : getJobKeys(GroupMatcher.anyJobGroup())) {
+            JobStatistics jobStatistics = getJobStatistics(jobKey);
+            if (jobStatistics != null) {
+                statistics.add(jobStatistics);
+            }
+        }
+        return JobStatistics.top(statistics, count);
+    }
+
+    /**
+     * Get the execution statistics of the job groups that consumed the most
+     * worker time in this Scheduler instance, in descending order of total
+     * run time.
+     * 
+     * @param count the maximum number of groups to return.
+     * @return the statistics of the groups, empty if they are not collected.
+     * @see #getJobStatistics(JobKey)
+     */
+    default List<JobStatistics> getTopJobGroupStatistics(int count) throws SchedulerException {
+        List<JobStatistics> statistics = new ArrayList<JobStatistics>();
+        for (String groupName : getJobGroupNames()) {
+            JobStatistics groupStatistics = getJobGroupStatistics(groupName);
+            if (groupStatistics != null) {
+                statistics.add(groupStatistics);
+            }
+        }
+        return JobStatistics.top(statistics, count);
+    }
+
     /**
      * Set the <code>JobFactory</code> that will be responsible for producing 
      * instances of <code>Job</code> classes.
@@ -449,6 +526,26 @@ public interface Scheduler {
      * are not unique and the replace flag is not set to true. 
      */
     void scheduleJobs(Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace) throws SchedulerException;
+
+    /**
+     * Schedule the jobs and related sets of triggers produced by the given
+     * iterator, for loading more jobs than can be comfortably held in memory
+     * at once.
+     * 
+     * <p>The iterator is consumed in chunks of a configurable number of
+     * triggers (see <code>org.quartz.scheduler.bulkScheduleChunkSize</code>),
+     * each of which is stored like a call to 
+     * {@link #scheduleJobs(Map, boolean)} - i.e. in its own transaction, when
+     * using a JDBC job store. If storing a chunk fails, the chunks stored 
+     * before it remain scheduled.</p>
+     * 
+     * <p>As with {@link #scheduleJobs(Map, boolean)}, the job of an entry may
+     * be <code>null</code> for adding triggers of pre-existing jobs.</p>
+     * 
+     * @throws ObjectAlreadyExistsException if the job/trigger keys
+     * are not unique and the replace flag is not set to true. 
+     */
+    void scheduleJobsStreaming(Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> triggersAndJobs, boolean replace) throws SchedulerException;
     
     /**
      * Schedule the given job with the related set of triggers.
@@ -797,6 +894,49 @@ public interface Scheduler {
      */
     Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher) throws SchedulerException;
 
+    /**
+     * Get one page of the <code>{@link Trigger}s</code> matching the given
+     * query, such as the triggers in the <code>ERROR</code> or
+     * <code>BLOCKED</code> state, or the triggers that fire within the next
+     * ten minutes, in one call to the <code>JobStore</code>.
+     * 
+     * <p>
+     * The following page is requested with a copy of the query given the
+     * <code>{@link ResultPage#getNextPageToken() next page token}</code> of
+     * the page. Triggers changed between the requests may be missed or
+     * returned twice when a query orders them by next fire time.
+     * </p>
+     * 
+     * <p>
+     * The default implementation gets the keys of all of the triggers of the
+     * matching groups and then the triggers one at a time.
+     * </p>
+     * 
+     * @param query the query, or <code>null</code> for the first page of all
+     *        of the triggers.
+     * @see TriggerQuery
+     */
+    default ResultPage<Trigger> getTriggerPage(TriggerQuery query) throws SchedulerException {
+        if (query == null) {
+            query = new TriggerQuery();
+        }
+        boolean ordered = query.isOrderedByNextFireTime();
+        int pageSize = query.getPageSize();
+        List<Trigger> page = new ArrayList<Trigger>();
+        for (TriggerKey key : PageToken.sortedAfter(getTriggerKeys(query.getMatcher()),
+                ordered ? null : PageToken.decodeTriggerKey(query.getPageToken()))) {
+            Trigger trigger = getTrigger(key);
+            if (trigger == null || !query.isMatch(getTriggerState(key), trigger.getNextFireTime())) {
+                continue;
+            }
+            if (!ordered && page.size() == pageSize) {
+                return new ResultPage<Trigger>(page, PageToken.encode(page.get(pageSize - 1).getKey()));
+            }
+            page.add(trigger);
+        }
+        return ordered ? PageToken.pageByNextFireTime(page, query) : new ResultPage<Trigger>(page, null);
+    }
+
     /**
      * Get the names of all <code>{@link Trigger}</code> groups that are paused.
      */
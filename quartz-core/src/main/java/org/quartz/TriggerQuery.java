@@ -0,0 +1,193 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.matchers.GroupMatcher;
+
+/**
+ * The criteria of a paged query of the triggers of a scheduler: the groups
+ * of the triggers, their states, and a window of their next fire times.
+ * 
+ * <pre>
+ * TriggerQuery query = new TriggerQuery()
+ *     .withMatcher(GroupMatcher.triggerGroupStartsWith("reports."))
+ *     .withStates(TriggerState.PAUSED, TriggerState.ERROR)
+ *     .withPageSize(500);
+ * </pre>
+ * 
+ * <p>
+ * By default every trigger matches, pages hold
+ * <code>{@link #DEFAULT_PAGE_SIZE}</code> triggers, and triggers are ordered
+ * by group and name. To list the triggers that fire next, order them by next
+ * fire time instead:
+ * </p>
+ * 
+ * <pre>
+ * TriggerQuery query = new TriggerQuery()
+ *     .withNextFireTimeBetween(now, tenMinutesLater)
+ *     .orderByNextFireTime();
+ * </pre>
+ * 
+ * @see ResultPage
+ * @see org.quartz.spi.JobStore#retrieveTriggerPage(TriggerQuery)
+ */
+public class TriggerQuery implements Serializable {
+
+    private static final long serialVersionUID = -2861950392518740237L;
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private GroupMatcher<TriggerKey> matcher = GroupMatcher.anyTriggerGroup();
+
+    private EnumSet<TriggerState> states = EnumSet.noneOf(TriggerState.class);
+
+    private Date nextFireTimeFrom;
+
+    private Date nextFireTimeTo;
+
+    private String pageToken;
+
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    private boolean orderedByNextFireTime;
+
+    /**
+     * Match the triggers of the groups matched by the given matcher.
+     */
+    public TriggerQuery withMatcher(GroupMatcher<TriggerKey> matcher) {
+        if (matcher == null) {
+            throw new IllegalArgumentException("Matcher cannot be null.");
+        }
+        this.matcher = matcher;
+        return this;
+    }
+
+    /**
+     * Match the triggers in any of the given states, or in any state if none
+     * are given.
+     */
+    public TriggerQuery withStates(TriggerState... states) {
+        this.states = EnumSet.noneOf(TriggerState.class);
+        if (states != null) {
+            Collections.addAll(this.states, states);
+        }
+        return this;
+    }
+
+    /**
+     * Match the triggers whose next fire time is not before <code>from</code>
+     * and before <code>to</code>. Either bound may be <code>null</code> to
+     * leave the window open on that side; triggers that will not fire again
+     * never match a window with a bound.
+     */
+    public TriggerQuery withNextFireTimeBetween(Date from, Date to) {
+        this.nextFireTimeFrom = from;
+        this.nextFireTimeTo = to;
+        return this;
+    }
+
+    /**
+     * Start after the last trigger of the page that returned the given
+     * token, or from the first trigger if it is <code>null</code>.
+     */
+    public TriggerQuery withPageToken(String pageToken) {
+        this.pageToken = pageToken;
+        return this;
+    }
+
+    public TriggerQuery withPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Order the triggers by next fire time, then by key, rather than by
+     * group and name. Triggers that will not fire again are left out.
+     */
+    public TriggerQuery orderByNextFireTime() {
+        this.orderedByNextFireTime = true;
+        return this;
+    }
+
+    public GroupMatcher<TriggerKey> getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the states to match, empty to match any state.
+     */
+    public Set<TriggerState> getStates() {
+        return Collections.unmodifiableSet(states);
+    }
+
+    public Date getNextFireTimeFrom() {
+        return nextFireTimeFrom;
+    }
+
+    public Date getNextFireTimeTo() {
+        return nextFireTimeTo;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isOrderedByNextFireTime() {
+        return orderedByNextFireTime;
+    }
+
+    /**
+     * Whether a trigger in the given state, with the given next fire time,
+     * matches the states and the next fire time window of this query.
+     */
+    public boolean isMatch(TriggerState state, Date nextFireTime) {
+        if (!states.isEmpty() && !states.contains(state)) {
+            return false;
+        }
+        if (nextFireTimeFrom == null && nextFireTimeTo == null) {
+            return !orderedByNextFireTime || nextFireTime != null;
+        }
+        if (nextFireTime == null) {
+            return false;
+        }
+        return (nextFireTimeFrom == null || !nextFireTime.before(nextFireTimeFrom))
+                && (nextFireTimeTo == null || nextFireTime.before(nextFireTimeTo));
+    }
+
+    @Override
+    public String toString() {
+        return "TriggerQuery[matcher=" + matcher + ", states=" + states
+                + ", nextFireTimeFrom=" + nextFireTimeFrom + ", nextFireTimeTo=" + nextFireTimeTo
+                + ", pageToken=" + pageToken + ", pageSize=" + pageSize
+                + ", orderedByNextFireTime=" + orderedByNextFireTime + "]";
+    }
+}
@@ -28,6 +28,7 @@ import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.impl.JobExecutionContextImpl;
 import org.quartz.listeners.SchedulerListenerSupport;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerMetricsRecorder.Metric;
 import org.quartz.spi.TriggerFiredBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +75,15 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
 
     protected volatile boolean shutdownRequested = false;
 
+    /** the pool this shell returns to after running, if recycled */
+    JobRunShellPool pool = null;
+
+    /** the cleared context of the previous run, if recycled */
+    private JobExecutionContextImpl recycledContext = null;
+
+    /** when the shell was handed to the thread pool, in nanoseconds */
+    private long handedOffAt = 0L;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     /*
@@ -140,14 +150,41 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
             throw se;
         }
 
-        this.jec = new JobExecutionContextImpl(scheduler, firedTriggerBundle, job);
+        if (recycledContext != null) {
+            recycledContext.reset(scheduler, firedTriggerBundle, job);
+            this.jec = recycledContext;
+            recycledContext = null;
+        } else {
+            this.jec = new JobExecutionContextImpl(scheduler, firedTriggerBundle, job);
+        }
+    }
+
+    /**
+     * Prepare a recycled shell for running the given fired trigger.
+     */
+    void reset(Scheduler scheduler, TriggerFiredBundle bndle) {
+        this.scheduler = scheduler;
+        this.firedTriggerBundle = bndle;
+        this.shutdownRequested = false;
     }
 
     public void requestShutdown() {
         shutdownRequested = true;
     }
 
+    /**
+     * Note that the shell is being handed to the thread pool, to measure
+     * how long it waits for a thread.
+     */
+    void handedOff() {
+        handedOffAt = System.nanoTime();
+    }
+
     public void run() {
+        if (handedOffAt != 0L) {
+            qs.recordMetric(Metric.THREAD_POOL_HANDOFF, System.nanoTime() - handedOffAt);
+            handedOffAt = 0L;
+        }
         qs.addInternalSchedulerListener(this);
 
         try {
@@ -195,18 +232,28 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
 
                 long startTime = System.currentTimeMillis();
                 long endTime = startTime;
+                long fireLag = Long.MIN_VALUE;
+                if (jec.getRefireCount() == 0 && jec.getScheduledFireTime() != null) {
+                    fireLag = startTime - jec.getScheduledFireTime().getTime();
+                    qs.recordMetric(Metric.FIRE_LAG, fireLag * 1000000L);
+                }
+                long startNanos = System.nanoTime();
+                long endNanos;
 
                 // execute the job
                 try {
                     log.debug("Calling execute on job " + jobDetail.getKey());
                     job.execute(jec);
+                    endNanos = System.nanoTime();
                     endTime = System.currentTimeMillis();
                 } catch (JobExecutionException jee) {
+                    endNanos = System.nanoTime();
                     endTime = System.currentTimeMillis();
                     jobExEx = jee;
                     getLog().info("Job " + jobDetail.getKey() +
                             " threw a JobExecutionException: ", jobExEx);
                 } catch (Throwable e) {
+                    endNanos = System.nanoTime();
                     endTime = System.currentTimeMillis();
                     getLog().error("Job " + jobDetail.getKey() +
                             " threw an unhandled Exception: ", e);
@@ -219,6 +266,8 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
                 }
 
                 jec.setJobRunTime(endTime - startTime);
+                qs.recordMetric(Metric.JOB_RUN_TIME, endNanos - startNanos);
+                qs.recordJobExecution(jobDetail.getKey(), endNanos - startNanos, fireLag, jobExEx != null);
 
                 // notify all job listeners
                 if (!notifyJobListenersComplete(jec, jobExEx)) {
@@ -272,7 +321,21 @@ public class JobRunShell extends SchedulerListenerSupport implements Runnable {
 
         } finally {
             qs.removeInternalSchedulerListener(this);
+            if (pool != null) {
+                recycle();
+            }
+        }
+    }
+
+    private void recycle() {
+        JobExecutionContextImpl context = jec;
+        passivate();
+        firedTriggerBundle = null;
+        if (context != null) {
+            context.clear();
+            recycledContext = context;
         }
+        pool.release(this);
     }
 
     protected void begin() throws SchedulerException {
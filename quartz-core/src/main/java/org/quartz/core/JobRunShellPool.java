@@ -0,0 +1,84 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.quartz.Scheduler;
+import org.quartz.spi.TriggerFiredBundle;
+
+/**
+ * <p>
+ * Keeps <code>{@link JobRunShell}</code>s that finished running, together
+ * with their <code>JobExecutionContext</code>, so that they can be reused
+ * for later fires instead of being garbage.
+ * </p>
+ *
+ * <p>
+ * A recycled shell clears and reuses its <code>JobExecutionContext</code>,
+ * so recycling must only be enabled if no listener or job keeps a reference
+ * to a context after the execution completed. Callers of
+ * <code>getCurrentlyExecutingJobs()</code> and asynchronous listeners get
+ * snapshots of the contexts; <code>StdSchedulerFactory</code> still refuses
+ * to combine recycling with configured asynchronous listeners.
+ * </p>
+ *
+ * @see org.quartz.impl.StdSchedulerFactory#PROP_SCHED_RECYCLE_JOB_RUN_SHELLS
+ */
+public class JobRunShellPool {
+
+    private final BlockingQueue<JobRunShell> idleShells;
+
+    /**
+     * @param maxIdleShells the maximum number of shells kept, usually the
+     *          number of worker threads.
+     */
+    public JobRunShellPool(int maxIdleShells) {
+        if (maxIdleShells < 1) {
+            throw new IllegalArgumentException("maxIdleShells must be positive.");
+        }
+        this.idleShells = new ArrayBlockingQueue<JobRunShell>(maxIdleShells);
+    }
+
+    /**
+     * Get an idle shell prepared for the given fired trigger, or create a
+     * new one, which returns itself to this pool once it ran.
+     */
+    public JobRunShell acquire(Scheduler scheduler, TriggerFiredBundle bndle) {
+        JobRunShell shell = idleShells.poll();
+        if (shell == null) {
+            shell = new JobRunShell(scheduler, bndle);
+            shell.pool = this;
+        } else {
+            shell.reset(scheduler, bndle);
+        }
+        return shell;
+    }
+
+    void release(JobRunShell shell) {
+        idleShells.offer(shell);
+    }
+
+    /**
+     * The number of shells currently available for reuse.
+     */
+    public int getIdleShellCount() {
+        return idleShells.size();
+    }
+}
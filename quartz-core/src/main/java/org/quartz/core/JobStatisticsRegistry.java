@@ -0,0 +1,270 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.utils.counter.LatencyHistogram;
+
+/**
+ * <p>
+ * Keeps the <code>{@link JobStatistics}</code> of each job and of each job
+ * group executed by a <code>{@link QuartzScheduler}</code>.
+ * </p>
+ *
+ * <p>
+ * Statistics are updated by the worker threads and the misfire handling
+ * without any lock: each job has its own atomic counters and
+ * <code>{@link LatencyHistogram}</code> of run times, found in a
+ * <code>ConcurrentHashMap</code>. To bound the memory used when there are
+ * many jobs, at most <code>maxJobs</code> jobs (and as many groups) are
+ * tracked: once there are more, the tenth of them that took the least total
+ * run time are evicted, by whichever thread got there first while the others
+ * carry on. Jobs that consume most of the worker time thus stay tracked,
+ * which is what {@link #getTopJobStatistics(int)} reports.
+ * </p>
+ */
+public class JobStatisticsRegistry {
+
+    public static final int DEFAULT_MAX_JOBS = 10000;
+
+    /**
+     * The precision of the run time histograms, 248 buckets each: the median
+     * and 99th percentile run times are accurate to within 25%. The
+     * scheduler-wide default precision would take 3712 buckets per tracked
+     * job and group, i.e. hundreds of megabytes for the default maximum of
+     * tracked jobs.
+     */
+    private static final int RUN_TIME_PRECISION = 3;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final int maxJobs;
+
+    private final ConcurrentHashMap<JobKey, Entry> jobs = new ConcurrentHashMap<JobKey, Entry>();
+
+    private final ConcurrentHashMap<String, Entry> groups = new ConcurrentHashMap<String, Entry>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public JobStatisticsRegistry() {
+        this(DEFAULT_MAX_JOBS);
+    }
+
+    public JobStatisticsRegistry(int maxJobs) {
+        if (maxJobs < 1) {
+            throw new IllegalArgumentException("Max jobs (" + maxJobs + ") must be greater than or equal to 1");
+        }
+        this.maxJobs = maxJobs;
+    }
+
+    public int getMaxJobs() {
+        return maxJobs;
+    }
+
+    /**
+     * Record an execution of the given job.
+     *
+     * @param runTimeNanos how long the job ran, in nanoseconds.
+     * @param fireLag how late the job started compared to the scheduled fire
+     *        time of its trigger, in milliseconds; or <code>Long.MIN_VALUE</code>
+     *        if unknown, e.g. for a re-execution.
+     * @param failed whether the job threw an exception.
+     */
+    public void jobExecuted(JobKey jobKey, long runTimeNanos, long fireLag, boolean failed) {
+        getEntry(jobs, jobKey, jobKey).executed(runTimeNanos, fireLag, failed);
+        getEntry(groups, jobKey.getGroup(), null).executed(runTimeNanos, fireLag, failed);
+    }
+
+    /**
+     * Record a misfire of a trigger of the given job.
+     */
+    public void triggerMisfired(JobKey jobKey) {
+        getEntry(jobs, jobKey, jobKey).misfireCount.incrementAndGet();
+        getEntry(groups, jobKey.getGroup(), null).misfireCount.incrementAndGet();
+    }
+
+    /**
+     * Get the statistics of the given job, or <code>null</code> if it was
+     * not executed nor misfired since it was last tracked.
+     */
+    public JobStatistics getJobStatistics(JobKey jobKey) {
+        Entry entry = jobs.get(jobKey);
+        return entry == null ? null : entry.toJobStatistics(jobKey.getGroup());
+    }
+
+    /**
+     * Get the statistics of the given job group, or <code>null</code> if
+     * none of its jobs was executed nor misfired since it was last tracked.
+     */
+    public JobStatistics getJobGroupStatistics(String groupName) {
+        Entry entry = groups.get(groupName);
+        return entry == null ? null : entry.toJobStatistics(groupName);
+    }
+
+    /**
+     * Get the statistics of the jobs that took the most total run time,
+     * in descending order of total run time.
+     *
+     * @param count the maximum number of jobs to return.
+     */
+    public List<JobStatistics> getTopJobStatistics(int count) {
+        return top(jobs, count);
+    }
+
+    /**
+     * Get the statistics of the job groups that took the most total run time,
+     * in descending order of total run time.
+     *
+     * @param count the maximum number of groups to return.
+     */
+    public List<JobStatistics> getTopJobGroupStatistics(int count) {
+        return top(groups, count);
+    }
+
+    /**
+     * Forget the statistics of all jobs and groups.
+     */
+    public void reset() {
+        jobs.clear();
+        groups.clear();
+    }
+
+    private <K> List<JobStatistics> top(Map<K, Entry> entries, int count) {
+        List<Ranked<K>> ranked = rankByTotalRunTime(entries);
+        List<JobStatistics> result = new ArrayList<JobStatistics>(Math.min(Math.max(count, 0), ranked.size()));
+        for (Ranked<K> r : ranked) {
+            if (result.size() >= count) {
+                break;
+            }
+            result.add(r.entry.toJobStatistics(r.key instanceof JobKey ? ((JobKey) r.key).getGroup() : (String) r.key));
+        }
+        return result;
+    }
+
+    /**
+     * Sort the entries in descending order of total run time, as read once
+     * since it keeps changing.
+     */
+    private static <K> List<Ranked<K>> rankByTotalRunTime(Map<K, Entry> entries) {
+        List<Ranked<K>> ranked = new ArrayList<Ranked<K>>(entries.size());
+        for (Map.Entry<K, Entry> entry : entries.entrySet()) {
+            ranked.add(new Ranked<K>(entry.getKey(), entry.getValue()));
+        }
+        Collections.sort(ranked, new Comparator<Ranked<K>>() {
+            public int compare(Ranked<K> r1, Ranked<K> r2) {
+                return r1.totalRunTime > r2.totalRunTime ? -1 : (r1.totalRunTime == r2.totalRunTime ? 0 : 1);
+            }
+        });
+        return ranked;
+    }
+
+    private <K> Entry getEntry(ConcurrentHashMap<K, Entry> entries, K key, JobKey jobKey) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry newEntry = new Entry(jobKey);
+            entry = entries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+                if (entries.size() > maxJobs) {
+                    evict(entries, newEntry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Evict the tenth of the entries that took the least total run time,
+     * except the given one that was just added and was not updated yet.
+     */
+    private <K> void evict(ConcurrentHashMap<K, Entry> entries, Entry newEntry) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Ranked<K>> ranked = rankByTotalRunTime(entries);
+            int keep = maxJobs - Math.max(1, maxJobs / 10);
+            for (int i = ranked.size() - 1; i >= keep; i--) {
+                if (ranked.get(i).entry != newEntry) {
+                    entries.remove(ranked.get(i).key, ranked.get(i).entry);
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static class Ranked<K> {
+        final K key;
+        final Entry entry;
+        final long totalRunTime;
+
+        Ranked(K key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.totalRunTime = entry.totalRunTime.get();
+        }
+    }
+
+    /**
+     * The statistics of one job or group.
+     */
+    private static class Entry {
+        final JobKey jobKey;
+        final AtomicLong fireCount = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final AtomicLong misfireCount = new AtomicLong();
+        final AtomicLong totalRunTime = new AtomicLong();
+        final LatencyHistogram runTimes = new LatencyHistogram(RUN_TIME_PRECISION);
+        volatile long lastFireLag;
+
+        Entry(JobKey jobKey) {
+            this.jobKey = jobKey;
+        }
+
+        void executed(long runTimeNanos, long fireLag, boolean failed) {
+            fireCount.incrementAndGet();
+            if (failed) {
+                failureCount.incrementAndGet();
+            }
+            totalRunTime.addAndGet(runTimeNanos);
+            runTimes.record(runTimeNanos);
+            if (fireLag != Long.MIN_VALUE) {
+                lastFireLag = fireLag;
+            }
+        }
+
+        JobStatistics toJobStatistics(String group) {
+            LatencyHistogram.Snapshot snapshot = runTimes.snapshot();
+            return new JobStatistics(jobKey, group, fireCount.get(), failureCount.get(),
+                    misfireCount.get(), totalRunTime.get() / NANOS_PER_MILLI,
+                    snapshot.getValueAtPercentile(50.0) / NANOS_PER_MILLI,
+                    snapshot.getValueAtPercentile(99.0) / NANOS_PER_MILLI, lastFireLag);
+        }
+    }
+}
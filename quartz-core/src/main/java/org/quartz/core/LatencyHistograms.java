@@ -0,0 +1,83 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.quartz.spi.SchedulerMetricsRecorder;
+import org.quartz.utils.counter.LatencyHistogram;
+
+/**
+ * <p>
+ * A <code>{@link SchedulerMetricsRecorder}</code> that keeps a
+ * <code>{@link LatencyHistogram}</code> of each metric, as exposed by
+ * <code>{@link org.quartz.core.jmx.QuartzSchedulerMBean#getLatencyMetrics()}</code>.
+ * </p>
+ */
+public class LatencyHistograms implements SchedulerMetricsRecorder {
+
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+    private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+    private final LatencyHistogram[] histograms;
+
+    public LatencyHistograms() {
+        histograms = new LatencyHistogram[Metric.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(Metric metric, long nanos) {
+        histograms[metric.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram getHistogram(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    /**
+     * Clear the recorded values of all of the metrics.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Get the count, mean, maximum and percentiles of each metric, keyed
+     * like <code>JobRunTime.p99</code>, in microseconds.
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram.Snapshot snapshot = getHistogram(metric).snapshot();
+            String name = metric.getDisplayName();
+            result.put(name + ".count", snapshot.getCount());
+            result.put(name + ".mean", (long) snapshot.getMean() / 1000L);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                result.put(name + "." + PERCENTILE_NAMES[i], snapshot.getValueAtPercentile(PERCENTILES[i]) / 1000L);
+            }
+            result.put(name + ".max", snapshot.getMax() / 1000L);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.quartz.Matcher;
+import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.KeyMatcher;
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+import org.quartz.utils.Key;
+
+/**
+ * <p>
+ * An immutable snapshot of a set of listeners and their matchers, compiled
+ * for fast lookup of the listeners interested in a given key. Built by
+ * <code>{@link ListenerManagerImpl}</code> whenever its listeners or
+ * matchers change, and read without locking on every fire.
+ * </p>
+ *
+ * <p>
+ * Key and group equality matchers are resolved with hash lookups, other
+ * matchers are evaluated. The resolved listeners of each key are cached for
+ * the lifetime of the table, which assumes matchers only depend on the key
+ * they are given. Once <code>MAX_CACHED_KEYS</code> keys are cached, the keys
+ * not looked up since the previous eviction are dropped (a "second chance"
+ * approximation of least recently used), without locking the lookups.
+ * </p>
+ */
+final class ListenerDispatchTable<T extends Key<T>, L> {
+
+    /**
+     * The maximum number of keys whose resolved listeners are cached.
+     */
+    static final int MAX_CACHED_KEYS = 10000;
+
+    /**
+     * The number of cached keys an eviction shrinks the cache to.
+     */
+    static final int EVICT_TO_KEYS = MAX_CACHED_KEYS * 3 / 4;
+
+    private final L[] none;
+
+    private final L[] listeners;
+
+    private final Entry<T>[] entries;
+
+    /** all listeners match every key, or there are none */
+    private final boolean trivial;
+
+    private final ConcurrentHashMap<T, Resolved<L>> resolved = new ConcurrentHashMap<T, Resolved<L>>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * @param listeners the listeners by name, in notification order.
+     * @param matchers the matchers of the listeners by name. A listener
+     *          without matchers matches every key.
+     * @param internalListeners listeners notified after all others.
+     * @param none an empty array of the listener type.
+     */
+    @SuppressWarnings("unchecked")
+    ListenerDispatchTable(Map<String, ? extends L> listeners, Map<String, List<Matcher<T>>> matchers,
+            Map<String, ? extends L> internalListeners, L[] none) {
+        this.none = none;
+
+        List<L> all = new ArrayList<L>(listeners.size() + internalListeners.size());
+        List<Entry<T>> compiled = new ArrayList<Entry<T>>(listeners.size() + internalListeners.size());
+        for (Map<String, ? extends L> source : Arrays.asList(listeners, internalListeners)) {
+            for (Map.Entry<String, ? extends L> listener : source.entrySet()) {
+                all.add(listener.getValue());
+                compiled.add(new Entry<T>(matchers.get(listener.getKey())));
+            }
+        }
+
+        boolean matchesAll = true;
+        for (Entry<T> entry : compiled) {
+            matchesAll &= entry.all;
+        }
+
+        this.listeners = all.toArray(none);
+        this.entries = compiled.toArray(new Entry[compiled.size()]);
+        this.trivial = matchesAll;
+    }
+
+    /**
+     * Get the listeners whose matchers match the given key, in notification
+     * order. The returned array must not be modified.
+     */
+    L[] getListeners(T key) {
+        if (trivial) {
+            return listeners;
+        }
+
+        Resolved<L> cached = resolved.get(key);
+        if (cached != null) {
+            if (!cached.used) {
+                cached.used = true;
+            }
+            return cached.listeners;
+        }
+
+        L[] result = resolve(key);
+        resolved.put(key, new Resolved<L>(result));
+        if (resolved.size() > MAX_CACHED_KEYS) {
+            evict();
+        }
+        return result;
+    }
+
+    int getCachedKeyCount() {
+        return resolved.size();
+    }
+
+    /**
+     * Drop the keys not looked up since they were added or last spared, until
+     * at most <code>EVICT_TO_KEYS</code> remain. Takes at most two passes: the
+     * first one spares (and un-marks) the keys used in the meantime.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return; // another thread is at it
+        }
+        try {
+            for (int pass = 0; pass < 2 && resolved.size() > EVICT_TO_KEYS; pass++) {
+                Iterator<Resolved<L>> it = resolved.values().iterator();
+                while (it.hasNext() && resolved.size() > EVICT_TO_KEYS) {
+                    Resolved<L> cached = it.next();
+                    if (cached.used) {
+                        cached.used = false;
+                    } else {
+                        it.remove();
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private L[] resolve(T key) {
+        int count = 0;
+        boolean[] matches = new boolean[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].isMatch(key)) {
+                matches[i] = true;
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return none;
+        }
+        if (count == listeners.length) {
+            return listeners;
+        }
+
+        L[] result = Arrays.copyOf(none, count);
+        for (int i = 0, j = 0; i < entries.length; i++) {
+            if (matches[i]) {
+                result[j++] = listeners[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The resolved listeners of one key, with its "used since the last
+     * eviction" mark. The mark is deliberately not synchronized, a lost
+     * update merely costs a key its second chance.
+     */
+    private static final class Resolved<L> {
+
+        final L[] listeners;
+
+        volatile boolean used;
+
+        Resolved(L[] listeners) {
+            this.listeners = listeners;
+        }
+    }
+
+    /**
+     * The matchers of one listener, split by kind.
+     */
+    private static final class Entry<T extends Key<T>> {
+
+        final boolean all;
+
+        final Set<T> keys = new HashSet<T>();
+
+        final Set<String> groups = new HashSet<String>();
+
+        final List<Matcher<T>> others = new ArrayList<Matcher<T>>();
+
+        @SuppressWarnings("unchecked")
+        Entry(List<Matcher<T>> matchers) {
+            boolean matchesAll = (matchers == null);
+            if (matchers != null) {
+                for (Matcher<T> matcher : matchers) {
+                    if (matcher instanceof EverythingMatcher) {
+                        matchesAll = true;
+                    } else if (matcher.getClass() == KeyMatcher.class) {
+                        keys.add(((KeyMatcher<T>) matcher).getCompareToValue());
+                    } else if (matcher.getClass() == GroupMatcher.class
+                            && ((GroupMatcher<T>) matcher).getCompareWithOperator() == StringOperatorName.EQUALS) {
+                        groups.add(((GroupMatcher<T>) matcher).getCompareToValue());
+                    } else {
+                        others.add(matcher);
+                    }
+                }
+            }
+            this.all = matchesAll;
+        }
+
+        boolean isMatch(T key) {
+            if (all || keys.contains(key) || groups.contains(key.getGroup())) {
+                return true;
+            }
+            for (Matcher<T> matcher : others) {
+                if (matcher.isMatch(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
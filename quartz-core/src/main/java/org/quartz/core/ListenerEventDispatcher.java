@@ -0,0 +1,362 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.impl.JobExecutionContextImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Delivers the events of <code>{@link org.quartz.listeners.AsynchronousListener}</code>s
+ * on a small number of event threads, so that they run outside of the worker
+ * and scheduler threads.
+ * </p>
+ *
+ * <p>
+ * Each listener is served by one event thread, which takes events from its
+ * bounded queue in batches, so that the events of a listener are delivered
+ * in order. What happens when a queue is full is decided by the
+ * <code>{@link OverflowPolicy}</code>. The event threads are started with
+ * the first event.
+ * </p>
+ *
+ * <p>
+ * Job execution contexts are handed to the event threads as snapshots, as
+ * the worker thread goes on with (and may recycle) the live context.
+ * Queued events are delivered on shutdown, including the ones announcing
+ * the shutdown itself.
+ * </p>
+ */
+public class ListenerEventDispatcher {
+
+    /**
+     * What to do with an event when the queue of its listener is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for room in the queue. */
+        BLOCK,
+        /** Drop the new event. */
+        DISCARD_NEWEST,
+        /** Drop the oldest queued event to make room for the new one. */
+        DISCARD_OLDEST,
+        /** Deliver the new event on the thread it happened on. */
+        CALLER_RUNS
+    }
+
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public static final int DEFAULT_THREAD_COUNT = 1;
+
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+
+    private static final Runnable STOP = new Runnable() {
+        public void run() {
+        }
+    };
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String threadNamePrefix;
+
+    private final int batchSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Worker[] workers;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private boolean started;
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param queueSize the total number of events that can be queued, divided
+     *          evenly among the event threads.
+     */
+    public ListenerEventDispatcher(String threadNamePrefix, int queueSize, int batchSize,
+            int threadCount, OverflowPolicy overflowPolicy) {
+        if (queueSize < 1 || batchSize < 1 || threadCount < 1) {
+            throw new IllegalArgumentException(
+                    "Queue size, batch size and thread count must be positive.");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null.");
+        }
+
+        this.threadNamePrefix = threadNamePrefix;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.workers = new Worker[threadCount];
+        int workerQueueSize = Math.max(1, queueSize / threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Worker(workerQueueSize);
+        }
+    }
+
+    /**
+     * Create a listener of the given type that queues the events for the
+     * given listener. The <code>getName()</code> method is answered directly,
+     * and <code>vetoJobExecution()</code> always returns <code>false</code>.
+     */
+    public <L> L asynchronous(Class<L> type, final L listener) {
+        final Worker worker = workers[(System.identityHashCode(listener) & Integer.MAX_VALUE) % workers.length];
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+                        if (method.getReturnType() != void.class) {
+                            if (method.getName().equals("vetoJobExecution")) {
+                                return Boolean.FALSE;
+                            }
+                            try {
+                                return method.invoke(listener, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+
+                        final Object[] eventArgs = snapshot(args);
+                        dispatch(worker, new Runnable() {
+                            public void run() {
+                                deliver(listener, method, eventArgs);
+                            }
+
+                            @Override
+                            public String toString() {
+                                return "event " + method.getName() + "() of asynchronous listener '" + listener + "'";
+                            }
+                        });
+                        return null;
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    /**
+     * The number of events dropped because of full queues.
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stop the event threads, once they delivered the events queued so far.
+     * Events that happen afterwards are delivered on the thread they happen
+     * on.
+     *
+     * @param waitForEvents whether to wait for the event threads to deliver
+     *          the queued events.
+     */
+    public void shutdown(boolean waitForEvents) {
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            if (!started) {
+                return;
+            }
+        }
+
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+
+        if (waitForEvents) {
+            for (Worker worker : workers) {
+                try {
+                    worker.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(Worker worker, Runnable event) {
+        if (shutdown || !start()) {
+            event.run();
+            return;
+        }
+
+        if (worker.queue.offer(event)) {
+            afterQueued(worker, event);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    worker.queue.put(event);
+                    afterQueued(worker, event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped(event);
+                }
+                break;
+            case DISCARD_NEWEST:
+                dropped(event);
+                break;
+            case DISCARD_OLDEST:
+                while (!worker.queue.offer(event)) {
+                    Runnable oldest = worker.queue.poll();
+                    if (oldest != null) {
+                        dropped(oldest);
+                    }
+                }
+                afterQueued(worker, event);
+                break;
+            case CALLER_RUNS:
+                event.run();
+                break;
+        }
+    }
+
+    /**
+     * An event queued concurrently with <code>shutdown()</code> may end up
+     * behind the stop marker. Deliver it here, unless the event thread
+     * already took it.
+     */
+    private void afterQueued(Worker worker, Runnable event) {
+        if (shutdown && worker.queue.remove(event)) {
+            event.run();
+        }
+    }
+
+    private synchronized boolean start() {
+        if (shutdown) {
+            return false;
+        }
+        if (!started) {
+            for (int i = 0; i < workers.length; i++) {
+                Thread thread = new Thread(workers[i], threadNamePrefix + "_ListenerEvents-" + (i + 1));
+                thread.setDaemon(true);
+                workers[i].thread = thread;
+                thread.start();
+            }
+            started = true;
+        }
+        return true;
+    }
+
+    private void dropped(Runnable event) {
+        long count = droppedEvents.incrementAndGet();
+        log.warn("Dropped " + event + " as the asynchronous listener queue was full (" + count + " dropped so far).");
+    }
+
+    /**
+     * Copy the arguments of an event, replacing the live job execution
+     * contexts with snapshots.
+     */
+    private static Object[] snapshot(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] copy = args.clone();
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] instanceof JobExecutionContextImpl) {
+                copy[i] = ((JobExecutionContextImpl) copy[i]).snapshot();
+            }
+        }
+        return copy;
+    }
+
+    private void deliver(Object listener, Method method, Object[] args) {
+        try {
+            method.invoke(listener, args);
+        } catch (InvocationTargetException e) {
+            log.error("Asynchronous listener '" + listener + "' threw exception from "
+                    + method.getName() + "(): " + e.getCause(), e.getCause());
+        } catch (Exception e) {
+            log.error("Couldn't deliver event " + method.getName() + "() to asynchronous listener '"
+                    + listener + "'", e);
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+
+        private Thread thread;
+
+        Worker(int queueSize) {
+            this.queue = new ArrayBlockingQueue<Runnable>(queueSize);
+        }
+
+        void stop() {
+            // the stop marker must be queued for the thread to end
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    queue.put(STOP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public void run() {
+            List<Runnable> batch = new ArrayList<Runnable>(batchSize);
+            while (true) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException ignore) {
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+
+                boolean stopped = false;
+                for (Runnable event : batch) {
+                    if (event == STOP) {
+                        stopped = true;
+                    } else {
+                        event.run();
+                    }
+                }
+                batch.clear();
+
+                if (stopped) {
+                    // events that slipped in behind the marker
+                    for (Runnable event = queue.poll(); event != null; event = queue.poll()) {
+                        event.run();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
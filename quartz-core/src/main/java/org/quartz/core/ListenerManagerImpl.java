@@ -16,6 +16,7 @@ import org.quartz.SchedulerListener;
 import org.quartz.TriggerKey;
 import org.quartz.TriggerListener;
 import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.listeners.AsynchronousListener;
 
 public class ListenerManagerImpl implements ListenerManager {
 
@@ -29,6 +30,18 @@ public class ListenerManagerImpl implements ListenerManager {
 
     private ArrayList<SchedulerListener> schedulerListeners = new ArrayList<SchedulerListener>(10);
 
+    private volatile ListenerEventDispatcher eventDispatcher;
+
+    private Map<String, JobListener> internalJobListeners = Collections.emptyMap();
+
+    private Map<String, TriggerListener> internalTriggerListeners = Collections.emptyMap();
+
+    private volatile ListenerDispatchTable<JobKey, JobListener> jobListenerTable = buildJobListenerTable();
+
+    private volatile ListenerDispatchTable<TriggerKey, TriggerListener> triggerListenerTable = buildTriggerListenerTable();
+
+    private volatile SchedulerListener[] schedulerListenerTable = buildSchedulerListenerTable();
+
     
     public void addJobListener(JobListener jobListener, Matcher<JobKey> ... matchers) {
         addJobListener(jobListener, Arrays.asList(matchers));
@@ -49,6 +62,7 @@ public class ListenerManagerImpl implements ListenerManager {
                 matchersL.add(EverythingMatcher.allJobs());
             
             globalJobListenersMatchers.put(jobListener.getName(), matchersL);
+            jobListenerTable = buildJobListenerTable();
         }
     }
 
@@ -72,6 +86,7 @@ public class ListenerManagerImpl implements ListenerManager {
                 matchersL.add(EverythingMatcher.allJobs());
             
             globalJobListenersMatchers.put(jobListener.getName(), matchersL);
+            jobListenerTable = buildJobListenerTable();
         }
     }
 
@@ -85,6 +100,7 @@ public class ListenerManagerImpl implements ListenerManager {
             if(matchers == null)
                 return false;
             matchers.add(matcher);
+            jobListenerTable = buildJobListenerTable();
             return true;
         }
     }
@@ -97,7 +113,9 @@ public class ListenerManagerImpl implements ListenerManager {
             List<Matcher<JobKey>> matchers = globalJobListenersMatchers.get(listenerName);
             if(matchers == null)
                 return false;
-            return matchers.remove(matcher);
+            boolean removed = matchers.remove(matcher);
+            jobListenerTable = buildJobListenerTable();
+            return removed;
         }
     }
 
@@ -118,7 +136,8 @@ public class ListenerManagerImpl implements ListenerManager {
             List<Matcher<JobKey>> oldMatchers = globalJobListenersMatchers.get(listenerName);
             if(oldMatchers == null)
                 return false;
-            globalJobListenersMatchers.put(listenerName, matchers);
+            globalJobListenersMatchers.put(listenerName, new LinkedList<Matcher<JobKey>>(matchers));
+            jobListenerTable = buildJobListenerTable();
             return true;
         }
     }
@@ -126,7 +145,11 @@ public class ListenerManagerImpl implements ListenerManager {
 
     public boolean removeJobListener(String name) {
         synchronized (globalJobListeners) {
-            return (globalJobListeners.remove(name) != null);
+            if (globalJobListeners.remove(name) == null) {
+                return false;
+            }
+            jobListenerTable = buildJobListenerTable();
+            return true;
         }
     }
     
@@ -163,6 +186,7 @@ public class ListenerManagerImpl implements ListenerManager {
                 matchersL.add(EverythingMatcher.allTriggers());
 
             globalTriggerListenersMatchers.put(triggerListener.getName(), matchersL);
+            triggerListenerTable = buildTriggerListenerTable();
         }
     }
     
@@ -185,6 +209,7 @@ public class ListenerManagerImpl implements ListenerManager {
             List<Matcher<TriggerKey>> matchers = new LinkedList<Matcher<TriggerKey>>();
             matchers.add(matcher);
             globalTriggerListenersMatchers.put(triggerListener.getName(), matchers);
+            triggerListenerTable = buildTriggerListenerTable();
         }
     }
 
@@ -197,6 +222,7 @@ public class ListenerManagerImpl implements ListenerManager {
             if(matchers == null)
                 return false;
             matchers.add(matcher);
+            triggerListenerTable = buildTriggerListenerTable();
             return true;
         }
     }
@@ -209,7 +235,9 @@ public class ListenerManagerImpl implements ListenerManager {
             List<Matcher<TriggerKey>> matchers = globalTriggerListenersMatchers.get(listenerName);
             if(matchers == null)
                 return false;
-            return matchers.remove(matcher);
+            boolean removed = matchers.remove(matcher);
+            triggerListenerTable = buildTriggerListenerTable();
+            return removed;
         }
     }
 
@@ -230,14 +258,19 @@ public class ListenerManagerImpl implements ListenerManager {
             List<Matcher<TriggerKey>> oldMatchers = globalTriggerListenersMatchers.get(listenerName);
             if(oldMatchers == null)
                 return false;
-            globalTriggerListenersMatchers.put(listenerName, matchers);
+            globalTriggerListenersMatchers.put(listenerName, new LinkedList<Matcher<TriggerKey>>(matchers));
+            triggerListenerTable = buildTriggerListenerTable();
             return true;
         }
     }
 
     public boolean removeTriggerListener(String name) {
         synchronized (globalTriggerListeners) {
-            return (globalTriggerListeners.remove(name) != null);
+            if (globalTriggerListeners.remove(name) == null) {
+                return false;
+            }
+            triggerListenerTable = buildTriggerListenerTable();
+            return true;
         }
     }
     
@@ -258,12 +291,17 @@ public class ListenerManagerImpl implements ListenerManager {
     public void addSchedulerListener(SchedulerListener schedulerListener) {
         synchronized (schedulerListeners) {
             schedulerListeners.add(schedulerListener);
+            schedulerListenerTable = buildSchedulerListenerTable();
         }
     }
 
     public boolean removeSchedulerListener(SchedulerListener schedulerListener) {
         synchronized (schedulerListeners) {
-            return schedulerListeners.remove(schedulerListener);
+            if (!schedulerListeners.remove(schedulerListener)) {
+                return false;
+            }
+            schedulerListenerTable = buildSchedulerListenerTable();
+            return true;
         }
     }
 
@@ -272,4 +310,106 @@ public class ListenerManagerImpl implements ListenerManager {
             return java.util.Collections.unmodifiableList(new ArrayList<SchedulerListener>(schedulerListeners));
         }
     }
+
+    /**
+     * Set the dispatcher that delivers the events of
+     * <code>{@link AsynchronousListener}</code>s. Without one, they are
+     * notified like all other listeners.
+     */
+    void setListenerEventDispatcher(ListenerEventDispatcher eventDispatcher) {
+        this.eventDispatcher = eventDispatcher;
+        synchronized (globalJobListeners) {
+            jobListenerTable = buildJobListenerTable();
+        }
+        synchronized (globalTriggerListeners) {
+            triggerListenerTable = buildTriggerListenerTable();
+        }
+        synchronized (schedulerListeners) {
+            schedulerListenerTable = buildSchedulerListenerTable();
+        }
+    }
+
+    /**
+     * Set the scheduler's internal job listeners, which are notified after
+     * all others, so that they are part of the dispatch table.
+     */
+    void setInternalJobListeners(Map<String, JobListener> listeners) {
+        synchronized (globalJobListeners) {
+            internalJobListeners = new LinkedHashMap<String, JobListener>(listeners);
+            jobListenerTable = buildJobListenerTable();
+        }
+    }
+
+    /**
+     * Set the scheduler's internal trigger listeners, which are notified
+     * after all others, so that they are part of the dispatch table.
+     */
+    void setInternalTriggerListeners(Map<String, TriggerListener> listeners) {
+        synchronized (globalTriggerListeners) {
+            internalTriggerListeners = new LinkedHashMap<String, TriggerListener>(listeners);
+            triggerListenerTable = buildTriggerListenerTable();
+        }
+    }
+
+    /**
+     * Get the current job listener dispatch table, which includes the
+     * internal job listeners. Never locks.
+     */
+    ListenerDispatchTable<JobKey, JobListener> getJobListenerTable() {
+        return jobListenerTable;
+    }
+
+    /**
+     * Get the current trigger listener dispatch table, which includes the
+     * internal trigger listeners. Never locks.
+     */
+    ListenerDispatchTable<TriggerKey, TriggerListener> getTriggerListenerTable() {
+        return triggerListenerTable;
+    }
+
+    /**
+     * Get the scheduler listeners to notify, in order. Never locks.
+     */
+    SchedulerListener[] getSchedulerListenerTable() {
+        return schedulerListenerTable;
+    }
+
+    private ListenerDispatchTable<JobKey, JobListener> buildJobListenerTable() {
+        return new ListenerDispatchTable<JobKey, JobListener>(
+                deliverableListeners(JobListener.class, globalJobListeners), globalJobListenersMatchers,
+                internalJobListeners, new JobListener[0]);
+    }
+
+    private ListenerDispatchTable<TriggerKey, TriggerListener> buildTriggerListenerTable() {
+        return new ListenerDispatchTable<TriggerKey, TriggerListener>(
+                deliverableListeners(TriggerListener.class, globalTriggerListeners), globalTriggerListenersMatchers,
+                internalTriggerListeners, new TriggerListener[0]);
+    }
+
+    private SchedulerListener[] buildSchedulerListenerTable() {
+        SchedulerListener[] table = new SchedulerListener[schedulerListeners.size()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = deliverable(SchedulerListener.class, schedulerListeners.get(i));
+        }
+        return table;
+    }
+
+    private <L> Map<String, L> deliverableListeners(Class<L> type, Map<String, L> listeners) {
+        if (eventDispatcher == null) {
+            return listeners;
+        }
+        Map<String, L> result = new LinkedHashMap<String, L>(listeners);
+        for (Map.Entry<String, L> entry : result.entrySet()) {
+            entry.setValue(deliverable(type, entry.getValue()));
+        }
+        return result;
+    }
+
+    private <L> L deliverable(Class<L> type, L listener) {
+        ListenerEventDispatcher dispatcher = eventDispatcher;
+        if (dispatcher != null && listener instanceof AsynchronousListener) {
+            return dispatcher.asynchronous(type, listener);
+        }
+        return listener;
+    }
 }
@@ -18,6 +18,7 @@
 
 package org.quartz.core;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.management.ManagementFactory;
 import java.rmi.RemoteException;
@@ -25,9 +26,12 @@ import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +39,8 @@ import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.MBeanServer;
@@ -49,9 +55,11 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.JobStatistics;
 import org.quartz.ListenerManager;
 import org.quartz.Matcher;
 import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.ResultPage;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerContext;
 import org.quartz.SchedulerException;
@@ -61,19 +69,25 @@ import org.quartz.Trigger;
 import static org.quartz.TriggerBuilder.*;
 import org.quartz.TriggerKey;
 import org.quartz.TriggerListener;
+import org.quartz.TriggerQuery;
 import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.jmx.QuartzSchedulerMBean;
+import org.quartz.core.remoting.RemotingServer;
+import org.quartz.impl.JobExecutionContextImpl;
 import org.quartz.impl.SchedulerRepository;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.listeners.SchedulerListenerSupport;
 import org.quartz.simpl.PropertySettingJobFactory;
 import org.quartz.spi.JobFactory;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerMetricsRecorder;
+import org.quartz.spi.SchedulerMetricsRecorder.Metric;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.ThreadExecutor;
+import org.quartz.utils.ParallelChunks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -149,6 +163,12 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
 
+    /**
+     * The number of triggers whose first fire times are computed by one
+     * parallel task when scheduling many triggers at once.
+     */
+    private static final int FIRST_FIRE_TIME_CHUNK_SIZE = 250;
+
     private QuartzSchedulerResources resources;
 
     private QuartzSchedulerThread schedThread;
@@ -157,7 +177,9 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
     private SchedulerContext context = new SchedulerContext();
 
-    private ListenerManager listenerManager = new ListenerManagerImpl();
+    private final ListenerManagerImpl listenerManager = new ListenerManagerImpl();
+
+    private ListenerEventDispatcher listenerEventDispatcher;
     
     private HashMap<String, JobListener> internalJobListeners = new HashMap<String, JobListener>(10);
 
@@ -165,6 +187,13 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
     private ArrayList<SchedulerListener> internalSchedulerListeners = new ArrayList<SchedulerListener>(10);
 
+    private final Object metricsRecordersLock = new Object();
+
+    // copied on write, so that recording doesn't lock
+    private volatile SchedulerMetricsRecorder[] metricsRecorders = new SchedulerMetricsRecorder[0];
+
+    private volatile JobStatisticsRegistry jobStatistics;
+
     private JobFactory jobFactory = new PropertySettingJobFactory();
     
     ExecutingJobsManager jobMgr = null;
@@ -183,6 +212,8 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
     private volatile boolean shuttingDown = false;
     private boolean boundRemotely = false;
 
+    private RemotingServer remotingServer = null;
+
     private QuartzSchedulerMBean jmxBean = null;
     
     private Date initialStart = null;
@@ -212,6 +243,12 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
     public QuartzScheduler(QuartzSchedulerResources resources, long idleWaitTime, @Deprecated long dbRetryInterval)
         throws SchedulerException {
         this.resources = resources;
+
+        listenerEventDispatcher = new ListenerEventDispatcher(resources.getName(),
+                resources.getAsyncListenerQueueSize(), resources.getAsyncListenerBatchSize(),
+                resources.getAsyncListenerThreadCount(), resources.getAsyncListenerOverflowPolicy());
+        listenerManager.setListenerEventDispatcher(listenerEventDispatcher);
+
         if (resources.getJobStore() instanceof JobListener) {
             addInternalJobListener((JobListener)resources.getJobStore());
         }
@@ -223,12 +260,16 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             this.schedThread.setIdleWaitTime(idleWaitTime);
         }
 
-        jobMgr = new ExecutingJobsManager();
+        jobMgr = new ExecutingJobsManager(resources.isRecycleJobRunShells());
         addInternalJobListener(jobMgr);
         errLogger = new ErrorLogger();
         addInternalSchedulerListener(errLogger);
 
         signaler = new SchedulerSignalerImpl(this, this.schedThread);
+
+        if (resources.isJobStatisticsEnabled()) {
+            setJobStatisticsEnabled(true);
+        }
         
         getLog().info("Quartz Scheduler v." + getVersion() + " created.");
     }
@@ -249,6 +290,15 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
                     "Unable to bind scheduler to RMI Registry.", re);
         }
         
+        if (resources.getRemotingPort() >= 0) {
+            try {
+                startRemotingServer();
+            } catch (Exception e) {
+                throw new SchedulerException(
+                        "Unable to start scheduler remoting server.", e);
+            }
+        }
+
         if (resources.getJMXExport()) {
             try {
                 registerJMX();
@@ -304,7 +354,7 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         
         getLog().info("Scheduler meta-data: " +
                 (new SchedulerMetaData(getSchedulerName(),
-                        getSchedulerInstanceId(), getClass(), boundRemotely, runningSince() != null, 
+                        getSchedulerInstanceId(), getClass(), boundRemotely || remotingServer != null, runningSince() != null, 
                         isInStandbyMode(), isShutdown(), runningSince(), 
                         numJobsExecuted(), getJobStoreClass(), 
                         supportsPersistence(), isClustered(), getThreadPoolClass(), 
@@ -362,6 +412,7 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
         mbs.unregisterMBean(new ObjectName(jmxObjectName));
         jmxBean.setSampledStatisticsEnabled(false);
+        jmxBean.setLatencyHistogramsEnabled(false);
         getLog().info("Scheduler unregistered from name '" + jmxObjectName + "' in the local MBeanServer.");
     }
 
@@ -458,6 +509,39 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         getLog().info("Scheduler un-bound from name '" + bindName + "' in RMI registry");
     }
 
+    /**
+     * <p>
+     * Start serving this scheduler over the binary remoting transport, on
+     * the port given by the <code>QuartzSchedulerResources</code>.
+     * </p>
+     */
+    private void startRemotingServer() throws IOException {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = getClass().getClassLoader();
+        }
+        RemotingServer server = new RemotingServer(this, resources.getName(),
+                resources.getRemotingBindAddress(), resources.getRemotingPort(),
+                resources.getRemotingThreadCount(), resources.getRemotingSecret(), cl,
+                resources.getRemotingAllowedClasses());
+        server.start();
+        remotingServer = server;
+        addInternalSchedulerListener(server.getSchedulerListener());
+
+        getLog().info("Scheduler served by remoting server on port " + server.getPort());
+    }
+
+    /**
+     * <p>
+     * Get the port the remoting server of this scheduler listens on, or -1
+     * if it is not served over the remoting transport.
+     * </p>
+     */
+    public int getRemotingPort() {
+        RemotingServer server = remotingServer;
+        return server == null ? -1 : server.getPort();
+    }
+
     /**
      * <p>
      * Returns the name of the <code>QuartzScheduler</code>.
@@ -759,12 +843,20 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             }
         }
         
+        if (remotingServer != null) {
+            removeInternalSchedulerListener(remotingServer.getSchedulerListener());
+            remotingServer.shutdown();
+            remotingServer = null;
+        }
+
         shutdownPlugins();
 
         resources.getJobStore().shutdown();
 
         notifySchedulerListenersShutdown();
 
+        listenerEventDispatcher.shutdown(waitForJobsToComplete);
+
         SchedulerRepository.getInstance().remove(resources.getName());
 
         holdToPreventGC.clear();
@@ -820,6 +912,92 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return jobMgr.getExecutingJobs();
     }
 
+    /**
+     * <p>
+     * Start or stop collecting the execution statistics of each job and job
+     * group. Stopping discards the statistics collected so far.
+     * </p>
+     */
+    public void setJobStatisticsEnabled(boolean enabled) {
+        synchronized (metricsRecordersLock) {
+            if (enabled != (jobStatistics != null)) {
+                jobStatistics = enabled ? new JobStatisticsRegistry(resources.getJobStatisticsMaxJobs()) : null;
+            }
+        }
+    }
+
+    public boolean isJobStatisticsEnabled() {
+        return jobStatistics != null;
+    }
+
+    /**
+     * <p>
+     * Discard the execution statistics collected so far.
+     * </p>
+     */
+    public void resetJobStatistics() {
+        JobStatisticsRegistry statistics = jobStatistics;
+        if (statistics != null) {
+            statistics.reset();
+        }
+    }
+
+    /**
+     * <p>
+     * Get the execution statistics of the identified job, or <code>null</code>
+     * if they are not collected or the job did not execute nor misfire since.
+     * </p>
+     */
+    public JobStatistics getJobStatistics(JobKey jobKey) {
+        JobStatisticsRegistry statistics = jobStatistics;
+        return statistics == null ? null : statistics.getJobStatistics(jobKey);
+    }
+
+    /**
+     * <p>
+     * Get the execution statistics of the given job group, or
+     * <code>null</code> if they are not collected or none of its jobs
+     * executed nor misfired since.
+     * </p>
+     */
+    public JobStatistics getJobGroupStatistics(String groupName) {
+        JobStatisticsRegistry statistics = jobStatistics;
+        return statistics == null ? null : statistics.getJobGroupStatistics(groupName);
+    }
+
+    /**
+     * <p>
+     * Get the execution statistics of the jobs that took the most total run
+     * time, in descending order, or an empty list if they are not collected.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobStatistics(int count) {
+        JobStatisticsRegistry statistics = jobStatistics;
+        return statistics == null ? new ArrayList<JobStatistics>() : statistics.getTopJobStatistics(count);
+    }
+
+    /**
+     * <p>
+     * Get the execution statistics of the job groups that took the most total
+     * run time, in descending order, or an empty list if they are not
+     * collected.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobGroupStatistics(int count) {
+        JobStatisticsRegistry statistics = jobStatistics;
+        return statistics == null ? new ArrayList<JobStatistics>() : statistics.getTopJobGroupStatistics(count);
+    }
+
+    /**
+     * Record an execution in the job statistics, if they are collected.
+     */
+    void recordJobExecution(JobKey jobKey, long runTimeNanos, long fireLag, boolean failed) {
+        JobStatisticsRegistry statistics = jobStatistics;
+        if (statistics != null) {
+            statistics.jobExecuted(jobKey, runTimeNanos, fireLag, failed);
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     ///
     /// Scheduling-related Methods
@@ -1024,6 +1202,8 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         validateState();
 
         // make sure all triggers refer to their associated job
+        List<OperableTrigger> triggersToCompute = new ArrayList<OperableTrigger>();
+        Map<String, Calendar> calendars = new HashMap<String, Calendar>();
         for(Entry<JobDetail, Set<? extends Trigger>> e: triggersAndJobs.entrySet()) {
             JobDetail job = e.getKey();
             if(job == null) // there can be one of these (for adding a bulk set of triggers for pre-existing jobs)
@@ -1037,23 +1217,20 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
                 opt.validate();
 
-                Calendar cal = null;
-                if (trigger.getCalendarName() != null) {
-                    cal = resources.getJobStore().retrieveCalendar(trigger.getCalendarName());
+                if (trigger.getCalendarName() != null && !calendars.containsKey(trigger.getCalendarName())) {
+                    Calendar cal = resources.getJobStore().retrieveCalendar(trigger.getCalendarName());
                     if(cal == null) {
                         throw new SchedulerException(
                             "Calendar '" + trigger.getCalendarName() + "' not found for trigger: " + trigger.getKey());
                     }
+                    calendars.put(trigger.getCalendarName(), cal);
                 }
-                Date ft = opt.computeFirstFireTime(cal);
-
-                if (ft == null) {
-                    throw new SchedulerException(
-                            "Based on configured schedule, the given trigger will never fire.");
-                }                
+                triggersToCompute.add(opt);
             }
         }
 
+        computeFirstFireTimes(triggersToCompute, calendars);
+
         resources.getJobStore().storeJobsAndTriggers(triggersAndJobs, replace);
         notifySchedulerThread(0L);
         for (JobDetail job : triggersAndJobs.keySet()) {
@@ -1066,6 +1243,81 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         }
     }
 
+    /**
+     * <p>
+     * Compute the first fire times of the given triggers, in parallel for
+     * large sets of triggers.
+     * </p>
+     */
+    private void computeFirstFireTimes(List<OperableTrigger> triggers,
+            final Map<String, Calendar> calendars) throws SchedulerException {
+
+        // calendars need not be thread-safe, so parallel chunks work on copies
+        final boolean parallel = triggers.size() > FIRST_FIRE_TIME_CHUNK_SIZE;
+
+        ParallelChunks.execute(triggers, FIRST_FIRE_TIME_CHUNK_SIZE, ParallelChunks.DEFAULT_THREAD_COUNT,
+                "QuartzFirstFireTime", SchedulerException.class,
+                new ParallelChunks.ChunkTask<OperableTrigger, SchedulerException>() {
+                    public void run(List<OperableTrigger> chunk) throws SchedulerException {
+                        Map<String, Calendar> chunkCalendars = calendars;
+                        if (parallel && !calendars.isEmpty()) {
+                            chunkCalendars = new HashMap<String, Calendar>();
+                            for (Entry<String, Calendar> e : calendars.entrySet()) {
+                                chunkCalendars.put(e.getKey(), (Calendar) e.getValue().clone());
+                            }
+                        }
+
+                        for (OperableTrigger trigger : chunk) {
+                            Calendar cal = null;
+                            if (trigger.getCalendarName() != null) {
+                                cal = chunkCalendars.get(trigger.getCalendarName());
+                            }
+                            Date ft = trigger.computeFirstFireTime(cal);
+
+                            if (ft == null) {
+                                throw new SchedulerException(
+                                        "Based on configured schedule, the given trigger will never fire.");
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * <p>
+     * Schedule the jobs and triggers produced by the given iterator, in
+     * chunks of <code>bulkScheduleChunkSize</code> triggers, each stored like
+     * a call to <code>{@link #scheduleJobs(Map, boolean)}</code>.
+     * </p>
+     */
+    public void scheduleJobsStreaming(Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> triggersAndJobs,
+            boolean replace) throws SchedulerException {
+        validateState();
+
+        int chunkSize = resources.getBulkScheduleChunkSize();
+        Map.Entry<JobDetail, Set<? extends Trigger>> pending = null;
+
+        while (pending != null || triggersAndJobs.hasNext()) {
+            Map<JobDetail, Set<? extends Trigger>> chunk = new LinkedHashMap<JobDetail, Set<? extends Trigger>>();
+            int triggerCount = 0;
+
+            while (triggerCount < chunkSize && (pending != null || triggersAndJobs.hasNext())) {
+                Map.Entry<JobDetail, Set<? extends Trigger>> e = (pending != null) ? pending : triggersAndJobs.next();
+                pending = null;
+
+                if (chunk.containsKey(e.getKey())) {
+                    // the same job again (e.g. triggers of pre-existing jobs), keep for the next chunk
+                    pending = e;
+                    break;
+                }
+                chunk.put(e.getKey(), e.getValue());
+                triggerCount += (e.getValue() == null) ? 1 : Math.max(1, e.getValue().size());
+            }
+
+            scheduleJobs(chunk, replace);
+        }
+    }
+
     public void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob,
             boolean replace) throws SchedulerException {
         Map<JobDetail, Set<? extends Trigger>> triggersAndJobs = new HashMap<JobDetail, Set<? extends Trigger>>();
@@ -1513,6 +1765,42 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return resources.getJobStore().getTriggerKeys(matcher);
     }
 
+    /**
+     * <p>
+     * Get one page of the <code>{@link org.quartz.JobDetail}s</code> in the
+     * matching groups, ordered by group and then by name.
+     * </p>
+     */
+    public ResultPage<JobDetail> getJobDetailPage(GroupMatcher<JobKey> matcher, String pageToken, int pageSize)
+        throws SchedulerException {
+        validateState();
+
+        if(matcher == null) {
+            matcher = GroupMatcher.anyJobGroup();
+        }
+
+        return resources.getJobStore().retrieveJobPage(matcher, pageToken, pageSize);
+    }
+
+    /**
+     * <p>
+     * Get one page of the <code>{@link org.quartz.Trigger}s</code> matching
+     * the given query, ordered by group and then by name, or by next fire
+     * time if the query says so.
+     * </p>
+     */
+    public ResultPage<Trigger> getTriggerPage(TriggerQuery query)
+        throws SchedulerException {
+        validateState();
+
+        if(query == null) {
+            query = new TriggerQuery();
+        }
+
+        ResultPage<OperableTrigger> page = resources.getJobStore().retrieveTriggerPage(query);
+        return new ResultPage<Trigger>(page.getItems(), page.getNextPageToken());
+    }
+
     /**
      * <p>
      * Get the <code>{@link JobDetail}</code> for the <code>Job</code>
@@ -1525,6 +1813,18 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return resources.getJobStore().retrieveJob(jobKey);
     }
 
+    /**
+     * <p>
+     * Get the <code>{@link JobDetail}</code>s of the given keys, retrieved
+     * from the <code>JobStore</code> at once.
+     * </p>
+     */
+    public Map<JobKey, JobDetail> getJobDetails(Collection<JobKey> jobKeys) throws SchedulerException {
+        validateState();
+
+        return resources.getJobStore().retrieveJobs(jobKeys);
+    }
+
     /**
      * <p>
      * Get the <code>{@link Trigger}</code> instance with the given name and
@@ -1537,6 +1837,18 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return resources.getJobStore().retrieveTrigger(triggerKey);
     }
 
+    /**
+     * <p>
+     * Get the <code>{@link Trigger}</code>s of the given keys, retrieved
+     * from the <code>JobStore</code> at once.
+     * </p>
+     */
+    public Map<TriggerKey, ? extends Trigger> getTriggers(Collection<TriggerKey> triggerKeys) throws SchedulerException {
+        validateState();
+
+        return resources.getJobStore().retrieveTriggers(triggerKeys);
+    }
+
     /**
      * Determine whether a {@link Job} with the given identifier already 
      * exists within the scheduler.
@@ -1661,6 +1973,52 @@ J     *
         return listenerManager;
     }
     
+    /**
+     * <p>
+     * Add the given <code>{@link SchedulerMetricsRecorder}</code>, which
+     * will receive the latencies measured along the scheduling pipeline.
+     * </p>
+     */
+    public void addMetricsRecorder(SchedulerMetricsRecorder recorder) {
+        synchronized (metricsRecordersLock) {
+            SchedulerMetricsRecorder[] recorders = Arrays.copyOf(metricsRecorders, metricsRecorders.length + 1);
+            recorders[recorders.length - 1] = recorder;
+            metricsRecorders = recorders;
+        }
+    }
+
+    /**
+     * <p>
+     * Remove the given <code>{@link SchedulerMetricsRecorder}</code>.
+     * </p>
+     * 
+     * @return true if the recorder was found, and removed.
+     */
+    public boolean removeMetricsRecorder(SchedulerMetricsRecorder recorder) {
+        synchronized (metricsRecordersLock) {
+            List<SchedulerMetricsRecorder> recorders = new ArrayList<SchedulerMetricsRecorder>(Arrays.asList(metricsRecorders));
+            if (!recorders.remove(recorder)) {
+                return false;
+            }
+            metricsRecorders = recorders.toArray(new SchedulerMetricsRecorder[recorders.size()]);
+            return true;
+        }
+    }
+
+    /**
+     * Pass one measurement to the metrics recorders, if there are any.
+     */
+    void recordMetric(Metric metric, long nanos) {
+        SchedulerMetricsRecorder[] recorders = metricsRecorders;
+        for (int i = 0; i < recorders.length; i++) {
+            try {
+                recorders[i].record(metric, nanos);
+            } catch (RuntimeException e) {
+                getLog().error("Metrics recorder " + recorders[i] + " threw an exception.", e);
+            }
+        }
+    }
+
     /**
      * <p>
      * Add the given <code>{@link org.quartz.JobListener}</code> to the
@@ -1676,6 +2034,7 @@ J     *
         
         synchronized (internalJobListeners) {
             internalJobListeners.put(jobListener.getName(), jobListener);
+            listenerManager.setInternalJobListeners(internalJobListeners);
         }
     }
 
@@ -1690,7 +2049,11 @@ J     *
      */
     public boolean removeInternalJobListener(String name) {
         synchronized (internalJobListeners) {
-            return (internalJobListeners.remove(name) != null);
+            if (internalJobListeners.remove(name) == null) {
+                return false;
+            }
+            listenerManager.setInternalJobListeners(internalJobListeners);
+            return true;
         }
     }
     
@@ -1733,6 +2096,7 @@ J     *
 
         synchronized (internalTriggerListeners) {
             internalTriggerListeners.put(triggerListener.getName(), triggerListener);
+            listenerManager.setInternalTriggerListeners(internalTriggerListeners);
         }
     }
 
@@ -1747,7 +2111,11 @@ J     *
      */
     public boolean removeinternalTriggerListener(String name) {
         synchronized (internalTriggerListeners) {
-            return (internalTriggerListeners.remove(name) != null);
+            if (internalTriggerListeners.remove(name) == null) {
+                return false;
+            }
+            listenerManager.setInternalTriggerListeners(internalTriggerListeners);
+            return true;
         }
     }
 
@@ -1815,7 +2183,9 @@ J     *
     }
 
     protected void notifyJobStoreJobComplete(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
+        long start = System.nanoTime();
         resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
+        recordMetric(Metric.TRIGGERED_JOB_COMPLETE, System.nanoTime() - start);
     }
 
     protected void notifyJobStoreJobVetoed(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
@@ -1828,67 +2198,25 @@ J     *
         }
     }
 
-    private List<TriggerListener> buildTriggerListenerList()
-        throws SchedulerException {
-        List<TriggerListener> allListeners = new LinkedList<TriggerListener>();
-        allListeners.addAll(getListenerManager().getTriggerListeners());
-        allListeners.addAll(getInternalTriggerListeners());
-
-        return allListeners;
-    }
-
-    private List<JobListener> buildJobListenerList()
-        throws SchedulerException {
-        List<JobListener> allListeners = new LinkedList<JobListener>();
-        allListeners.addAll(getListenerManager().getJobListeners());
-        allListeners.addAll(getInternalJobListeners());
-
-        return allListeners;
-    }
-
     private List<SchedulerListener> buildSchedulerListenerList() {
         List<SchedulerListener> allListeners = new LinkedList<SchedulerListener>();
-        allListeners.addAll(getListenerManager().getSchedulerListeners());
+        allListeners.addAll(Arrays.asList(listenerManager.getSchedulerListenerTable()));
         allListeners.addAll(getInternalSchedulerListeners());
     
         return allListeners;
     }
     
-    private boolean matchJobListener(JobListener listener, JobKey key) {
-        List<Matcher<JobKey>> matchers = getListenerManager().getJobListenerMatchers(listener.getName());
-        if(matchers == null)
-            return true;
-        for(Matcher<JobKey> matcher: matchers) {
-            if(matcher.isMatch(key))
-                return true;
-        }
-        return false;
-    }
-
-    private boolean matchTriggerListener(TriggerListener listener, TriggerKey key) {
-        List<Matcher<TriggerKey>> matchers = getListenerManager().getTriggerListenerMatchers(listener.getName());
-        if(matchers == null)
-            return true;
-        for(Matcher<TriggerKey> matcher: matchers) {
-            if(matcher.isMatch(key))
-                return true;
-        }
-        return false;
-    }
-
     public boolean notifyTriggerListenersFired(JobExecutionContext jec)
         throws SchedulerException {
 
         boolean vetoedExecution = false;
         
-        // build a list of all trigger listeners that are to be notified...
-        List<TriggerListener> triggerListeners = buildTriggerListenerList();
+        // the trigger listeners that are to be notified...
+        TriggerListener[] triggerListeners = listenerManager.getTriggerListenerTable().getListeners(jec.getTrigger().getKey());
 
         // notify all trigger listeners in the list
         for(TriggerListener tl: triggerListeners) {
             try {
-                if(!matchTriggerListener(tl, jec.getTrigger().getKey()))
-                    continue;
                 tl.triggerFired(jec.getTrigger(), jec);
                 
                 if(tl.vetoJobExecution(jec.getTrigger(), jec)) {
@@ -1908,14 +2236,17 @@ J     *
 
     public void notifyTriggerListenersMisfired(Trigger trigger)
         throws SchedulerException {
-        // build a list of all trigger listeners that are to be notified...
-        List<TriggerListener> triggerListeners = buildTriggerListenerList();
+        JobStatisticsRegistry statistics = jobStatistics;
+        if (statistics != null) {
+            statistics.triggerMisfired(trigger.getJobKey());
+        }
+
+        // the trigger listeners that are to be notified...
+        TriggerListener[] triggerListeners = listenerManager.getTriggerListenerTable().getListeners(trigger.getKey());
 
         // notify all trigger listeners in the list
         for(TriggerListener tl: triggerListeners) {
             try {
-                if(!matchTriggerListener(tl, trigger.getKey()))
-                    continue;
                 tl.triggerMisfired(trigger);
             } catch (Exception e) {
                 SchedulerException se = new SchedulerException(
@@ -1928,14 +2259,12 @@ J     *
 
     public void notifyTriggerListenersComplete(JobExecutionContext jec,
             CompletedExecutionInstruction instCode) throws SchedulerException {
-        // build a list of all trigger listeners that are to be notified...
-        List<TriggerListener> triggerListeners = buildTriggerListenerList();
+        // the trigger listeners that are to be notified...
+        TriggerListener[] triggerListeners = listenerManager.getTriggerListenerTable().getListeners(jec.getTrigger().getKey());
 
         // notify all trigger listeners in the list
         for(TriggerListener tl: triggerListeners) {
             try {
-                if(!matchTriggerListener(tl, jec.getTrigger().getKey()))
-                    continue;
                 tl.triggerComplete(jec.getTrigger(), jec, instCode);
             } catch (Exception e) {
                 SchedulerException se = new SchedulerException(
@@ -1948,14 +2277,12 @@ J     *
 
     public void notifyJobListenersToBeExecuted(JobExecutionContext jec)
         throws SchedulerException {
-        // build a list of all job listeners that are to be notified...
-        List<JobListener> jobListeners = buildJobListenerList();
+        // the job listeners that are to be notified...
+        JobListener[] jobListeners = listenerManager.getJobListenerTable().getListeners(jec.getJobDetail().getKey());
 
         // notify all job listeners
         for(JobListener jl: jobListeners) {
             try {
-                if(!matchJobListener(jl, jec.getJobDetail().getKey()))
-                    continue;
                 jl.jobToBeExecuted(jec);
             } catch (Exception e) {
                 SchedulerException se = new SchedulerException(
@@ -1968,14 +2295,12 @@ J     *
 
     public void notifyJobListenersWasVetoed(JobExecutionContext jec)
         throws SchedulerException {
-        // build a list of all job listeners that are to be notified...
-        List<JobListener> jobListeners = buildJobListenerList();
+        // the job listeners that are to be notified...
+        JobListener[] jobListeners = listenerManager.getJobListenerTable().getListeners(jec.getJobDetail().getKey());
 
         // notify all job listeners
         for(JobListener jl: jobListeners) {
             try {
-                if(!matchJobListener(jl, jec.getJobDetail().getKey()))
-                    continue;
                 jl.jobExecutionVetoed(jec);
             } catch (Exception e) {
                 SchedulerException se = new SchedulerException(
@@ -1988,14 +2313,12 @@ J     *
 
     public void notifyJobListenersWasExecuted(JobExecutionContext jec,
             JobExecutionException je) throws SchedulerException {
-        // build a list of all job listeners that are to be notified...
-        List<JobListener> jobListeners = buildJobListenerList();
+        // the job listeners that are to be notified...
+        JobListener[] jobListeners = listenerManager.getJobListenerTable().getListeners(jec.getJobDetail().getKey());
 
         // notify all job listeners
         for(JobListener jl: jobListeners) {
             try {
-                if(!matchJobListener(jl, jec.getJobDetail().getKey()))
-                    continue;
                 jl.jobWasExecuted(jec, je);
             } catch (Exception e) {
                 SchedulerException se = new SchedulerException(
@@ -2346,27 +2669,23 @@ J     *
      */
     public boolean interrupt(JobKey jobKey) throws UnableToInterruptJobException {
 
-        List<JobExecutionContext> jobs = getCurrentlyExecutingJobs();
+        List<JobExecutionContext> jobs = jobMgr.getExecutingJobs(jobKey);
         
-        JobDetail jobDetail = null;
         Job job = null;
         
         boolean interrupted = false;
         
         for(JobExecutionContext jec : jobs) {
-            jobDetail = jec.getJobDetail();
-            if (jobKey.equals(jobDetail.getKey())) {
-                job = jec.getJobInstance();
-                if (job instanceof InterruptableJob) {
-                    ((InterruptableJob)job).interrupt();
-                    interrupted = true;
-                } else {
-                    throw new UnableToInterruptJobException(
-                            "Job " + jobDetail.getKey() +
-                            " can not be interrupted, since it does not implement " +                        
-                            InterruptableJob.class.getName());
-                }
-            }                        
+            job = jec.getJobInstance();
+            if (job instanceof InterruptableJob) {
+                ((InterruptableJob)job).interrupt();
+                interrupted = true;
+            } else {
+                throw new UnableToInterruptJobException(
+                        "Job " + jec.getJobDetail().getKey() +
+                        " can not be interrupted, since it does not implement " +                        
+                        InterruptableJob.class.getName());
+            }
         }
         
         return interrupted;
@@ -2384,26 +2703,21 @@ J     *
      * @see org.quartz.core.RemotableQuartzScheduler#interrupt(JobKey)
      */
     public boolean interrupt(String fireInstanceId) throws UnableToInterruptJobException {
-        List<JobExecutionContext> jobs = getCurrentlyExecutingJobs();
-        
-        Job job = null;
-        
-        for(JobExecutionContext jec : jobs) {
-            if (jec.getFireInstanceId().equals(fireInstanceId)) {
-                job = jec.getJobInstance();
-                if (job instanceof InterruptableJob) {
-                    ((InterruptableJob)job).interrupt();
-                    return true;
-                } else {
-                    throw new UnableToInterruptJobException(
-                        "Job " + jec.getJobDetail().getKey() +
-                        " can not be interrupted, since it does not implement " +                        
-                        InterruptableJob.class.getName());
-                }
-            }                        
+        JobExecutionContext jec = jobMgr.getExecutingJob(fireInstanceId);
+        if (jec == null) {
+            return false;
+        }
+
+        Job job = jec.getJobInstance();
+        if (job instanceof InterruptableJob) {
+            ((InterruptableJob)job).interrupt();
+            return true;
+        } else {
+            throw new UnableToInterruptJobException(
+                "Job " + jec.getJobDetail().getKey() +
+                " can not be interrupted, since it does not implement " +                        
+                InterruptableJob.class.getName());
         }
-        
-        return false;
     }
     
     private void shutdownPlugins() {
@@ -2448,11 +2762,17 @@ class ErrorLogger extends SchedulerListenerSupport {
 /////////////////////////////////////////////////////////////////////////////
 
 class ExecutingJobsManager implements JobListener {
-    HashMap<String, JobExecutionContext> executingJobs = new HashMap<String, JobExecutionContext>();
+    private final ConcurrentMap<String, JobExecutionContext> executingJobs = new ConcurrentHashMap<String, JobExecutionContext>();
+
+    private final ConcurrentMap<JobKey, JobExecutionContext[]> executingJobsByJob = new ConcurrentHashMap<JobKey, JobExecutionContext[]>();
 
     AtomicInteger numJobsFired = new AtomicInteger(0);
 
-    ExecutingJobsManager() {
+    /** whether contexts are cleared and reused once their job completed */
+    private final boolean recycling;
+
+    ExecutingJobsManager(boolean recycling) {
+        this.recycling = recycling;
     }
 
     public String getName() {
@@ -2460,24 +2780,20 @@ class ExecutingJobsManager implements JobListener {
     }
 
     public int getNumJobsCurrentlyExecuting() {
-        synchronized (executingJobs) {
-            return executingJobs.size();
-        }
+        return executingJobs.size();
     }
 
     public void jobToBeExecuted(JobExecutionContext context) {
         numJobsFired.incrementAndGet();
 
-        synchronized (executingJobs) {
-            executingJobs
-                    .put(((OperableTrigger)context.getTrigger()).getFireInstanceId(), context);
-        }
+        executingJobs.put(((OperableTrigger)context.getTrigger()).getFireInstanceId(), context);
+        add(executingJobsByJob, context.getJobDetail().getKey(), context);
     }
 
     public void jobWasExecuted(JobExecutionContext context,
             JobExecutionException jobException) {
-        synchronized (executingJobs) {
-            executingJobs.remove(((OperableTrigger)context.getTrigger()).getFireInstanceId());
+        if (executingJobs.remove(((OperableTrigger)context.getTrigger()).getFireInstanceId(), context)) {
+            remove(executingJobsByJob, context.getJobDetail().getKey(), context);
         }
     }
 
@@ -2485,10 +2801,116 @@ class ExecutingJobsManager implements JobListener {
         return numJobsFired.get();
     }
 
+    /**
+     * The executing jobs; snapshots of them if contexts are recycled.
+     */
     public List<JobExecutionContext> getExecutingJobs() {
-        synchronized (executingJobs) {
-            return java.util.Collections.unmodifiableList(new ArrayList<JobExecutionContext>(
-                    executingJobs.values()));
+        if (!recycling) {
+            return java.util.Collections.unmodifiableList(
+                    new ArrayList<JobExecutionContext>(executingJobs.values()));
+        }
+        List<JobExecutionContext> jobs = new ArrayList<JobExecutionContext>(executingJobs.size());
+        for (Map.Entry<String, JobExecutionContext> entry : executingJobs.entrySet()) {
+            JobExecutionContext job = snapshot(entry.getKey(), entry.getValue());
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        return java.util.Collections.unmodifiableList(jobs);
+    }
+
+    /**
+     * The identified executing job, or <code>null</code>; a snapshot of it
+     * if contexts are recycled.
+     */
+    public JobExecutionContext getExecutingJob(String fireInstanceId) {
+        JobExecutionContext job = executingJobs.get(fireInstanceId);
+        if (job == null || !recycling) {
+            return job;
+        }
+        return snapshot(fireInstanceId, job);
+    }
+
+    /**
+     * The executing instances of the given job; snapshots of them if
+     * contexts are recycled.
+     */
+    public List<JobExecutionContext> getExecutingJobs(JobKey jobKey) {
+        JobExecutionContext[] current = executingJobsByJob.get(jobKey);
+        if (current == null) {
+            return java.util.Collections.emptyList();
+        }
+        if (!recycling) {
+            return java.util.Collections.unmodifiableList(Arrays.asList(current));
+        }
+        List<JobExecutionContext> jobs = new ArrayList<JobExecutionContext>(current.length);
+        for (JobExecutionContext context : current) {
+            JobExecutionContext job = snapshot(((OperableTrigger) context.getTrigger()).getFireInstanceId(), context);
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        return java.util.Collections.unmodifiableList(jobs);
+    }
+
+    /**
+     * Copy a live context, which a recycled <code>JobRunShell</code> clears
+     * and reuses once the job completed. Returns <code>null</code> if that
+     * already happened to the given context.
+     */
+    private static JobExecutionContext snapshot(String fireInstanceId, JobExecutionContext context) {
+        if (!(context instanceof JobExecutionContextImpl)) {
+            return context;
+        }
+        JobExecutionContextImpl copy = ((JobExecutionContextImpl) context).snapshot();
+        if (copy.getTrigger() == null || !fireInstanceId.equals(copy.getFireInstanceId())) {
+            return null;
+        }
+        return copy;
+    }
+
+    private static <K> void add(ConcurrentMap<K, JobExecutionContext[]> index, K key, JobExecutionContext context) {
+        while (true) {
+            JobExecutionContext[] current = index.get(key);
+            if (current == null) {
+                if (index.putIfAbsent(key, new JobExecutionContext[] { context }) == null) {
+                    return;
+                }
+            } else {
+                JobExecutionContext[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = context;
+                if (index.replace(key, current, updated)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static <K> void remove(ConcurrentMap<K, JobExecutionContext[]> index, K key, JobExecutionContext context) {
+        while (true) {
+            JobExecutionContext[] current = index.get(key);
+            if (current == null) {
+                return;
+            }
+            int i = 0;
+            while (i < current.length && current[i] != context) {
+                i++;
+            }
+            if (i == current.length) {
+                return;
+            }
+            if (current.length == 1) {
+                if (index.remove(key, current)) {
+                    return;
+                }
+            } else {
+                JobExecutionContext[] updated = new JobExecutionContext[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                if (index.replace(key, current, updated)) {
+                    return;
+                }
+            }
         }
     }
 
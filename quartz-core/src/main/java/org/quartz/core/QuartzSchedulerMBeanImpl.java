@@ -11,6 +11,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -41,13 +42,17 @@ import org.quartz.SchedulerListener;
 import org.quartz.Trigger;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.core.jmx.JobDetailSupport;
 import org.quartz.core.jmx.JobExecutionContextSupport;
+import org.quartz.core.jmx.JobStatisticsSupport;
 import org.quartz.core.jmx.QuartzSchedulerMBean;
 import org.quartz.core.jmx.TriggerSupport;
 import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
 import org.quartz.impl.triggers.AbstractTrigger;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.utils.Key;
 
 public class QuartzSchedulerMBeanImpl extends StandardMBean implements
         NotificationEmitter, QuartzSchedulerMBean, JobListener,
@@ -57,6 +62,7 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
     private final QuartzScheduler scheduler;
     private boolean sampledStatisticsEnabled;
     private SampledStatistics sampledStatistics;
+    private LatencyHistograms latencyHistograms;
 
     private final static SampledStatistics NULL_SAMPLED_STATISTICS = new NullSampledStatisticsImpl();
 
@@ -105,12 +111,7 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
 
     public TabularData getAllJobDetails() throws Exception {
         try {
-            List<JobDetail> detailList = new ArrayList<JobDetail>();
-            for (String jobGroupName : scheduler.getJobGroupNames()) {
-                for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroupName))) {
-                    detailList.add(scheduler.getJobDetail(jobKey));
-                }
-            }
+            Collection<JobDetail> detailList = scheduler.getJobDetails(scheduler.getJobKeys(GroupMatcher.anyJobGroup())).values();
             return JobDetailSupport.toTabularData(detailList.toArray(new JobDetail[detailList.size()]));
         } catch (Exception e) {
             throw newPlainException(e);
@@ -119,18 +120,63 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
 
     public List<CompositeData> getAllTriggers() throws Exception {
         try {
-            List<Trigger> triggerList = new ArrayList<Trigger>();
-            for (String triggerGroupName : scheduler.getTriggerGroupNames()) {
-                for (TriggerKey triggerKey : scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(triggerGroupName))) {
-                    triggerList.add(scheduler.getTrigger(triggerKey));
+            List<Trigger> triggerList = new ArrayList<Trigger>(
+                    scheduler.getTriggers(scheduler.getTriggerKeys(GroupMatcher.anyTriggerGroup())).values());
+            return TriggerSupport.toCompositeList(triggerList);
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public CompositeData getJobDetailPage(String groupOperator, String groupValue, String pageToken,
+            int pageSize) throws Exception {
+        try {
+            GroupMatcher<JobKey> matcher = newGroupMatcher(groupOperator, groupValue);
+            return JobDetailSupport.toPageCompositeData(scheduler.getJobDetailPage(matcher, pageToken, pageSize));
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public CompositeData getTriggerPage(String groupOperator, String groupValue, String[] states,
+            Date nextFireTimeFrom, Date nextFireTimeTo, String pageToken, int pageSize) throws Exception {
+        try {
+            TriggerQuery query = new TriggerQuery()
+                .withMatcher(QuartzSchedulerMBeanImpl.<TriggerKey>newGroupMatcher(groupOperator, groupValue))
+                .withNextFireTimeBetween(nextFireTimeFrom, nextFireTimeTo)
+                .withPageToken(pageToken)
+                .withPageSize(pageSize);
+            if (states != null) {
+                TriggerState[] triggerStates = new TriggerState[states.length];
+                for (int i = 0; i < states.length; i++) {
+                    triggerStates[i] = TriggerState.valueOf(states[i]);
                 }
+                query.withStates(triggerStates);
             }
-            return TriggerSupport.toCompositeList(triggerList);
+            return TriggerSupport.toPageCompositeData(scheduler.getTriggerPage(query));
         } catch (Exception e) {
             throw newPlainException(e);
         }
     }
 
+    private static <T extends Key<T>> GroupMatcher<T> newGroupMatcher(String operator, String value) {
+        if (operator == null) {
+            return GroupMatcher.anyGroup();
+        }
+        switch (StringOperatorName.valueOf(operator)) {
+            case EQUALS:
+                return GroupMatcher.groupEquals(value);
+            case STARTS_WITH:
+                return GroupMatcher.groupStartsWith(value);
+            case ENDS_WITH:
+                return GroupMatcher.groupEndsWith(value);
+            case CONTAINS:
+                return GroupMatcher.groupContains(value);
+            default:
+                return GroupMatcher.anyGroup();
+        }
+    }
+
     public void addJob(CompositeData jobDetail, boolean replace) throws Exception {
         try {
             scheduler.addJob(JobDetailSupport.newJobDetail(jobDetail), replace);
@@ -986,6 +1032,87 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
         }
     }
 
+    public synchronized boolean isLatencyHistogramsEnabled() {
+        return latencyHistograms != null;
+    }
+
+    public synchronized void setLatencyHistogramsEnabled(boolean enabled) {
+        if (enabled != isLatencyHistogramsEnabled()) {
+            if (enabled) {
+                latencyHistograms = new LatencyHistograms();
+                scheduler.addMetricsRecorder(latencyHistograms);
+            } else {
+                scheduler.removeMetricsRecorder(latencyHistograms);
+                latencyHistograms = null;
+            }
+            sendNotification(LATENCY_HISTOGRAMS_ENABLED, Boolean.valueOf(enabled));
+        }
+    }
+
+    public synchronized void resetLatencyHistograms() {
+        if (latencyHistograms != null) {
+            latencyHistograms.reset();
+            sendNotification(LATENCY_HISTOGRAMS_RESET);
+        }
+    }
+
+    public boolean isJobStatisticsEnabled() {
+        return scheduler.isJobStatisticsEnabled();
+    }
+
+    public synchronized void setJobStatisticsEnabled(boolean enabled) {
+        if (enabled != isJobStatisticsEnabled()) {
+            scheduler.setJobStatisticsEnabled(enabled);
+            sendNotification(JOB_STATISTICS_ENABLED, Boolean.valueOf(enabled));
+        }
+    }
+
+    public synchronized void resetJobStatistics() {
+        if (isJobStatisticsEnabled()) {
+            scheduler.resetJobStatistics();
+            sendNotification(JOB_STATISTICS_RESET);
+        }
+    }
+
+    public CompositeData getJobStatistics(String jobName, String jobGroupName) throws Exception {
+        try {
+            return JobStatisticsSupport.toCompositeData(scheduler.getJobStatistics(jobKey(jobName, jobGroupName)));
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public CompositeData getJobGroupStatistics(String jobGroupName) throws Exception {
+        try {
+            return JobStatisticsSupport.toCompositeData(scheduler.getJobGroupStatistics(jobGroupName));
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public List<CompositeData> getTopJobStatistics(int count) throws Exception {
+        try {
+            return JobStatisticsSupport.toCompositeList(scheduler.getTopJobStatistics(count));
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public List<CompositeData> getTopJobGroupStatistics(int count) throws Exception {
+        try {
+            return JobStatisticsSupport.toCompositeList(scheduler.getTopJobGroupStatistics(count));
+        } catch (Exception e) {
+            throw newPlainException(e);
+        }
+    }
+
+    public synchronized Map<String, Long> getLatencyMetrics() {
+        if (latencyHistograms == null) {
+            return new HashMap<String, Long>();
+        }
+        return latencyHistograms.toMap();
+    }
+
     public long getJobsCompletedMostRecentSample() {
         return this.sampledStatistics.getJobsCompletedMostRecentSample();
     }
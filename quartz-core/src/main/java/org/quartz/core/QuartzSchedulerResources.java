@@ -21,6 +21,7 @@ package org.quartz.core;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.quartz.core.remoting.RemotingServer;
 import org.quartz.management.ManagementRESTServiceConfiguration;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.SchedulerPlugin;
@@ -95,8 +96,37 @@ public class QuartzSchedulerResources {
 
     private int maxBatchSize = 1;
 
+    public static final int DEFAULT_BULK_SCHEDULE_CHUNK_SIZE = 1000;
+
+    private int bulkScheduleChunkSize = DEFAULT_BULK_SCHEDULE_CHUNK_SIZE;
+
+    private int asyncListenerQueueSize = ListenerEventDispatcher.DEFAULT_QUEUE_SIZE;
+
+    private int asyncListenerBatchSize = ListenerEventDispatcher.DEFAULT_BATCH_SIZE;
+
+    private int asyncListenerThreadCount = ListenerEventDispatcher.DEFAULT_THREAD_COUNT;
+
+    private ListenerEventDispatcher.OverflowPolicy asyncListenerOverflowPolicy =
+            ListenerEventDispatcher.DEFAULT_OVERFLOW_POLICY;
+
     private boolean interruptJobsOnShutdown = false;
     private boolean interruptJobsOnShutdownWithWait = false;
+
+    private boolean recycleJobRunShells = false;
+
+    private boolean jobStatisticsEnabled = false;
+
+    private int jobStatisticsMaxJobs = JobStatisticsRegistry.DEFAULT_MAX_JOBS;
+
+    private int remotingPort = -1;
+
+    private String remotingBindAddress;
+
+    private int remotingThreadCount = RemotingServer.DEFAULT_THREAD_COUNT;
+
+    private String remotingSecret;
+
+    private List<String> remotingAllowedClasses = new ArrayList<String>();
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -559,6 +589,77 @@ public class QuartzSchedulerResources {
     public void setMaxBatchSize(int maxBatchSize) {
       this.maxBatchSize = maxBatchSize;
     }
+
+    /**
+     * The number of triggers stored per chunk by 
+     * <code>scheduleJobsStreaming(Iterator, boolean)</code>.
+     */
+    public int getBulkScheduleChunkSize() {
+        return bulkScheduleChunkSize;
+    }
+
+    public void setBulkScheduleChunkSize(int bulkScheduleChunkSize) {
+        if (bulkScheduleChunkSize < 1) {
+            throw new IllegalArgumentException("Bulk schedule chunk size must be positive.");
+        }
+        this.bulkScheduleChunkSize = bulkScheduleChunkSize;
+    }
+
+    /**
+     * The number of events of asynchronous listeners that can be queued.
+     */
+    public int getAsyncListenerQueueSize() {
+        return asyncListenerQueueSize;
+    }
+
+    public void setAsyncListenerQueueSize(int asyncListenerQueueSize) {
+        if (asyncListenerQueueSize < 1) {
+            throw new IllegalArgumentException("Asynchronous listener queue size must be positive.");
+        }
+        this.asyncListenerQueueSize = asyncListenerQueueSize;
+    }
+
+    /**
+     * The maximum number of queued events an event thread takes at once.
+     */
+    public int getAsyncListenerBatchSize() {
+        return asyncListenerBatchSize;
+    }
+
+    public void setAsyncListenerBatchSize(int asyncListenerBatchSize) {
+        if (asyncListenerBatchSize < 1) {
+            throw new IllegalArgumentException("Asynchronous listener batch size must be positive.");
+        }
+        this.asyncListenerBatchSize = asyncListenerBatchSize;
+    }
+
+    /**
+     * The number of threads delivering the events of asynchronous listeners.
+     */
+    public int getAsyncListenerThreadCount() {
+        return asyncListenerThreadCount;
+    }
+
+    public void setAsyncListenerThreadCount(int asyncListenerThreadCount) {
+        if (asyncListenerThreadCount < 1) {
+            throw new IllegalArgumentException("Asynchronous listener thread count must be positive.");
+        }
+        this.asyncListenerThreadCount = asyncListenerThreadCount;
+    }
+
+    /**
+     * What to do with events of asynchronous listeners when their queue is full.
+     */
+    public ListenerEventDispatcher.OverflowPolicy getAsyncListenerOverflowPolicy() {
+        return asyncListenerOverflowPolicy;
+    }
+
+    public void setAsyncListenerOverflowPolicy(ListenerEventDispatcher.OverflowPolicy asyncListenerOverflowPolicy) {
+        if (asyncListenerOverflowPolicy == null) {
+            throw new IllegalArgumentException("Asynchronous listener overflow policy cannot be null.");
+        }
+        this.asyncListenerOverflowPolicy = asyncListenerOverflowPolicy;
+    }
     
     public boolean isInterruptJobsOnShutdown() {
         return interruptJobsOnShutdown;
@@ -577,6 +678,109 @@ public class QuartzSchedulerResources {
         this.interruptJobsOnShutdownWithWait = interruptJobsOnShutdownWithWait;
     }
 
+    /**
+     * Whether job run shells, and their execution contexts, are reused once
+     * their job completed.
+     */
+    public boolean isRecycleJobRunShells() {
+        return recycleJobRunShells;
+    }
+
+    public void setRecycleJobRunShells(boolean recycleJobRunShells) {
+        this.recycleJobRunShells = recycleJobRunShells;
+    }
+
+    /**
+     * Whether per job execution statistics are collected from start up.
+     */
+    public boolean isJobStatisticsEnabled() {
+        return jobStatisticsEnabled;
+    }
+
+    public void setJobStatisticsEnabled(boolean jobStatisticsEnabled) {
+        this.jobStatisticsEnabled = jobStatisticsEnabled;
+    }
+
+    /**
+     * The maximum number of jobs, and of job groups, to keep execution
+     * statistics of.
+     */
+    public int getJobStatisticsMaxJobs() {
+        return jobStatisticsMaxJobs;
+    }
+
+    public void setJobStatisticsMaxJobs(int jobStatisticsMaxJobs) {
+        if (jobStatisticsMaxJobs < 1) {
+            throw new IllegalArgumentException("Job statistics max jobs must be positive.");
+        }
+        this.jobStatisticsMaxJobs = jobStatisticsMaxJobs;
+    }
+
+    /**
+     * Get the port on which the scheduler serves
+     * <code>{@link RemotingServer}</code> clients, or -1 if it doesn't.
+     */
+    public int getRemotingPort() {
+        return remotingPort;
+    }
+
+    /**
+     * Set the port on which the scheduler serves remoting clients, 0 for any
+     * free port, or -1 to not serve them.
+     */
+    public void setRemotingPort(int remotingPort) {
+        this.remotingPort = remotingPort;
+    }
+
+    /**
+     * Get the address on which the scheduler serves remoting clients, or
+     * <code>null</code> for the loopback address.
+     */
+    public String getRemotingBindAddress() {
+        return remotingBindAddress;
+    }
+
+    public void setRemotingBindAddress(String remotingBindAddress) {
+        this.remotingBindAddress = remotingBindAddress;
+    }
+
+    /**
+     * Get the number of threads that run the calls of remoting clients.
+     */
+    public int getRemotingThreadCount() {
+        return remotingThreadCount;
+    }
+
+    public void setRemotingThreadCount(int remotingThreadCount) {
+        if (remotingThreadCount < 1) {
+            throw new IllegalArgumentException("Remoting thread count must be positive.");
+        }
+        this.remotingThreadCount = remotingThreadCount;
+    }
+
+    /**
+     * Get the secret remoting clients must send to be served.
+     */
+    public String getRemotingSecret() {
+        return remotingSecret;
+    }
+
+    public void setRemotingSecret(String remotingSecret) {
+        this.remotingSecret = remotingSecret;
+    }
+
+    /**
+     * Get the names of the classes, or of their packages followed by
+     * <code>.*</code>, that remoting clients may send serialized besides
+     * those allowed by default.
+     */
+    public List<String> getRemotingAllowedClasses() {
+        return remotingAllowedClasses;
+    }
+
+    public void setRemotingAllowedClasses(List<String> remotingAllowedClasses) {
+        this.remotingAllowedClasses = remotingAllowedClasses;
+    }
 
     public ManagementRESTServiceConfiguration getManagementRESTServiceConfiguration() {
         return managementRESTServiceConfiguration;
@@ -29,6 +29,7 @@ import org.quartz.Trigger;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerMetricsRecorder.Metric;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
 import org.slf4j.Logger;
@@ -290,8 +291,10 @@ public class QuartzSchedulerThread extends Thread {
 
                     clearSignaledSchedulingChange();
                     try {
+                        long acquireStart = System.nanoTime();
                         triggers = qsRsrcs.getJobStore().acquireNextTriggers(
                                 now + idleWaitTime, Math.min(availThreadCount, qsRsrcs.getMaxBatchSize()), qsRsrcs.getBatchTimeWindow());
+                        qs.recordMetric(Metric.ACQUIRE_NEXT_TRIGGERS, System.nanoTime() - acquireStart);
                         acquiresFailed = 0;
                         if (log.isDebugEnabled())
                             log.debug("batch acquisition of " + (triggers == null ? 0 : triggers.size()) + " triggers");
@@ -356,7 +359,9 @@ public class QuartzSchedulerThread extends Thread {
                         }
                         if(goAhead) {
                             try {
+                                long firedStart = System.nanoTime();
                                 List<TriggerFiredResult> res = qsRsrcs.getJobStore().triggersFired(triggers);
+                                qs.recordMetric(Metric.TRIGGERS_FIRED, System.nanoTime() - firedStart);
                                 if(res != null)
                                     bndles = res;
                             } catch (SchedulerException se) {
@@ -401,6 +406,7 @@ public class QuartzSchedulerThread extends Thread {
                                 continue;
                             }
 
+                            shell.handedOff();
                             if (qsRsrcs.getThreadPool().runInThread(shell) == false) {
                                 // this case should never happen, as it is indicative of the
                                 // scheduler being shutdown or a bug in the thread pool or
@@ -20,6 +20,7 @@ package org.quartz.core;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -30,10 +31,13 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.ResultPage;
 import org.quartz.SchedulerContext;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.impl.matchers.GroupMatcher;
@@ -92,6 +96,14 @@ public interface RemotableQuartzScheduler extends Remote {
     
     List<JobExecutionContext> getCurrentlyExecutingJobs() throws SchedulerException, RemoteException;
 
+    JobStatistics getJobStatistics(JobKey jobKey) throws RemoteException;
+
+    JobStatistics getJobGroupStatistics(String groupName) throws RemoteException;
+
+    List<JobStatistics> getTopJobStatistics(int count) throws RemoteException;
+
+    List<JobStatistics> getTopJobGroupStatistics(int count) throws RemoteException;
+
     Date scheduleJob(JobDetail jobDetail, Trigger trigger) throws SchedulerException, RemoteException;
 
     Date scheduleJob(Trigger trigger) throws SchedulerException, RemoteException;
@@ -142,8 +154,14 @@ public interface RemotableQuartzScheduler extends Remote {
 
     Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher) throws SchedulerException, RemoteException;
 
+    ResultPage<Trigger> getTriggerPage(TriggerQuery query) throws SchedulerException, RemoteException;
+
     JobDetail getJobDetail(JobKey jobKey) throws SchedulerException, RemoteException;
 
+    Map<JobKey, JobDetail> getJobDetails(Collection<JobKey> jobKeys) throws SchedulerException, RemoteException;
+
+    Map<TriggerKey, ? extends Trigger> getTriggers(Collection<TriggerKey> triggerKeys) throws SchedulerException, RemoteException;
+
     Trigger getTrigger(TriggerKey triggerKey) throws SchedulerException, RemoteException;
 
     TriggerState getTriggerState(TriggerKey triggerKey) throws SchedulerException, RemoteException;
@@ -1,7 +1,5 @@
 package org.quartz.core;
 
-import java.util.Timer;
-
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -12,9 +10,9 @@ import org.quartz.listeners.SchedulerListenerSupport;
 import org.quartz.utils.counter.CounterConfig;
 import org.quartz.utils.counter.CounterManager;
 import org.quartz.utils.counter.CounterManagerImpl;
-import org.quartz.utils.counter.sampled.SampledCounter;
 import org.quartz.utils.counter.sampled.SampledCounterConfig;
 import org.quartz.utils.counter.sampled.SampledRateCounterConfig;
+import org.quartz.utils.counter.sampled.StripedSampledCounterImpl;
 
 public class SampledStatisticsImpl extends SchedulerListenerSupport implements SampledStatistics, JobListener, SchedulerListener {
     @SuppressWarnings("unused")
@@ -31,14 +29,14 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
             DEFAULT_HISTORY_SIZE, true);
 
     private volatile CounterManager counterManager;
-    private final SampledCounter jobsScheduledCount;
-    private final SampledCounter jobsExecutingCount;
-    private final SampledCounter jobsCompletedCount;
+    private final StripedSampledCounterImpl jobsScheduledCount;
+    private final StripedSampledCounterImpl jobsExecutingCount;
+    private final StripedSampledCounterImpl jobsCompletedCount;
     
     SampledStatisticsImpl(QuartzScheduler scheduler) {
         this.scheduler = scheduler;
         
-        counterManager = new CounterManagerImpl(new Timer(NAME+"Timer"));
+        counterManager = new CounterManagerImpl();
         jobsScheduledCount = createSampledCounter(DEFAULT_SAMPLED_COUNTER_CONFIG);
         jobsExecutingCount = createSampledCounter(DEFAULT_SAMPLED_COUNTER_CONFIG);
         jobsCompletedCount = createSampledCounter(DEFAULT_SAMPLED_COUNTER_CONFIG);
@@ -51,8 +49,8 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
         counterManager.shutdown(true);
     }
     
-    private SampledCounter createSampledCounter(CounterConfig defaultCounterConfig) {
-        return (SampledCounter) counterManager.createCounter(defaultCounterConfig);
+    private StripedSampledCounterImpl createSampledCounter(CounterConfig defaultCounterConfig) {
+        return (StripedSampledCounterImpl) counterManager.createCounter(defaultCounterConfig);
     }
     
     /**
@@ -65,15 +63,15 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
     }
     
     public long getJobsCompletedMostRecentSample() {
-        return jobsCompletedCount.getMostRecentSample().getCounterValue();
+        return jobsCompletedCount.getMostRecentSampleValue();
     }
 
     public long getJobsExecutingMostRecentSample() {
-        return jobsExecutingCount.getMostRecentSample().getCounterValue();
+        return jobsExecutingCount.getMostRecentSampleValue();
     }
 
     public long getJobsScheduledMostRecentSample() {
-        return jobsScheduledCount.getMostRecentSample().getCounterValue();
+        return jobsScheduledCount.getMostRecentSampleValue();
     }
 
     public String getName() {
@@ -82,7 +80,7 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
 
     @Override
     public void jobScheduled(Trigger trigger) {
-        jobsScheduledCount.increment();
+        jobsScheduledCount.add(1L);
     }
     
     public void jobExecutionVetoed(JobExecutionContext context) {
@@ -90,12 +88,12 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
     }
 
     public void jobToBeExecuted(JobExecutionContext context) {
-        jobsExecutingCount.increment();
+        jobsExecutingCount.add(1L);
     }
 
     public void jobWasExecuted(JobExecutionContext context,
             JobExecutionException jobException) {
-        jobsCompletedCount.increment();
+        jobsCompletedCount.add(1L);
     }
 
     @Override
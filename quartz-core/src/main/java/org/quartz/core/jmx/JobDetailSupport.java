@@ -17,6 +17,7 @@ import javax.management.openmbean.TabularType;
 
 import org.quartz.Job;
 import org.quartz.JobDetail;
+import org.quartz.ResultPage;
 import org.quartz.impl.JobDetailImpl;
 
 public class JobDetailSupport {
@@ -34,6 +35,9 @@ public class JobDetailSupport {
     private static final String TABULAR_TYPE_DESCRIPTION = "JobDetail collection";
     private static final String[] INDEX_NAMES = new String[] { "name", "group" };
     private static final TabularType TABULAR_TYPE;
+    private static final String PAGE_TYPE_NAME = "JobDetail page";
+    private static final String[] PAGE_ITEM_NAMES = new String[] { "items", "nextPageToken" };
+    private static final CompositeType PAGE_TYPE;
 
     static {
         try {
@@ -42,6 +46,8 @@ public class JobDetailSupport {
                     ITEM_TYPES);
             TABULAR_TYPE = new TabularType(TABULAR_TYPE_NAME,
                     TABULAR_TYPE_DESCRIPTION, COMPOSITE_TYPE, INDEX_NAMES);
+            PAGE_TYPE = new CompositeType(PAGE_TYPE_NAME, PAGE_TYPE_NAME,
+                    PAGE_ITEM_NAMES, PAGE_ITEM_NAMES, new OpenType[] { TABULAR_TYPE, STRING });
         } catch (OpenDataException e) {
             throw new RuntimeException(e);
         }
@@ -139,4 +145,17 @@ public class JobDetailSupport {
         return tData;
     }
 
+    /**
+     * @return CompositeData of the JobDetail collection of the page and of the
+     * token of the next page, <code>null</code> on the last page.
+     */
+    public static CompositeData toPageCompositeData(ResultPage<? extends JobDetail> page) {
+        try {
+            return new CompositeDataSupport(PAGE_TYPE, PAGE_ITEM_NAMES,
+                    new Object[] { toTabularData(page.getItems().toArray(new JobDetail[page.getItems().size()])), page.getNextPageToken() });
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
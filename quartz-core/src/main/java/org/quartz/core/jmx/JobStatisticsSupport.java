@@ -0,0 +1,106 @@
+package org.quartz.core.jmx;
+
+import static javax.management.openmbean.SimpleType.LONG;
+import static javax.management.openmbean.SimpleType.STRING;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+
+import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+
+public class JobStatisticsSupport {
+    private static final String COMPOSITE_TYPE_NAME = "JobStatistics";
+    private static final String COMPOSITE_TYPE_DESCRIPTION = "Job Execution Statistics";
+    private static final String[] ITEM_NAMES = new String[] { "jobName",
+            "jobGroup", "fireCount", "failureCount", "misfireCount",
+            "totalRunTime", "medianRunTime", "ninetyNinthPercentileRunTime",
+            "lastFireLag" };
+    private static final String[] ITEM_DESCRIPTIONS = new String[] {
+            "jobName", "jobGroup", "fireCount", "failureCount", "misfireCount",
+            "totalRunTime", "medianRunTime (ms, accurate to within 25%)",
+            "ninetyNinthPercentileRunTime (ms, accurate to within 25%)",
+            "lastFireLag" };
+    private static final OpenType[] ITEM_TYPES = new OpenType[] { STRING,
+            STRING, LONG, LONG, LONG, LONG, LONG, LONG, LONG };
+    private static final CompositeType COMPOSITE_TYPE;
+
+    static {
+        try {
+            COMPOSITE_TYPE = new CompositeType(COMPOSITE_TYPE_NAME,
+                    COMPOSITE_TYPE_DESCRIPTION, ITEM_NAMES, ITEM_DESCRIPTIONS,
+                    ITEM_TYPES);
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param cData
+     * @return JobStatistics, null if cData is null
+     */
+    public static JobStatistics newJobStatistics(CompositeData cData) {
+        if (cData == null) {
+            return null;
+        }
+        String jobName = (String) cData.get("jobName");
+        String jobGroup = (String) cData.get("jobGroup");
+        return new JobStatistics(jobName != null ? new JobKey(jobName, jobGroup) : null, jobGroup,
+                (Long) cData.get("fireCount"), (Long) cData.get("failureCount"),
+                (Long) cData.get("misfireCount"), (Long) cData.get("totalRunTime"),
+                (Long) cData.get("medianRunTime"), (Long) cData.get("ninetyNinthPercentileRunTime"),
+                (Long) cData.get("lastFireLag"));
+    }
+
+    /**
+     * @return composite data, null if jobStatistics is null
+     */
+    public static CompositeData toCompositeData(JobStatistics jobStatistics) {
+        if (jobStatistics == null) {
+            return null;
+        }
+        try {
+            return new CompositeDataSupport(COMPOSITE_TYPE, ITEM_NAMES,
+                    new Object[] {
+                            jobStatistics.getJobKey() != null ? jobStatistics.getJobKey().getName() : null,
+                            jobStatistics.getGroup(),
+                            jobStatistics.getFireCount(),
+                            jobStatistics.getFailureCount(),
+                            jobStatistics.getMisfireCount(),
+                            jobStatistics.getTotalRunTime(),
+                            jobStatistics.getMedianRunTime(),
+                            jobStatistics.getNinetyNinthPercentileRunTime(),
+                            jobStatistics.getLastFireLag() });
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return list of composite data, in the same order
+     */
+    public static List<CompositeData> toCompositeList(List<JobStatistics> jobStatistics) {
+        List<CompositeData> result = new ArrayList<CompositeData>(jobStatistics.size());
+        for (JobStatistics statistics : jobStatistics) {
+            result.add(toCompositeData(statistics));
+        }
+        return result;
+    }
+
+    /**
+     * @return list of JobStatistics, in the same order
+     */
+    public static List<JobStatistics> newJobStatisticsList(List<CompositeData> cDataList) {
+        List<JobStatistics> result = new ArrayList<JobStatistics>(cDataList.size());
+        for (CompositeData cData : cDataList) {
+            result.add(newJobStatistics(cData));
+        }
+        return result;
+    }
+}
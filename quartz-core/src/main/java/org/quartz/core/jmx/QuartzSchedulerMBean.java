@@ -36,6 +36,12 @@ public interface QuartzSchedulerMBean {
     static final String SAMPLED_STATISTICS_ENABLED = "sampledStatisticsEnabled";
     static final String SAMPLED_STATISTICS_RESET = "sampledStatisticsReset";
 
+    static final String LATENCY_HISTOGRAMS_ENABLED = "latencyHistogramsEnabled";
+    static final String LATENCY_HISTOGRAMS_RESET = "latencyHistogramsReset";
+
+    static final String JOB_STATISTICS_ENABLED = "jobStatisticsEnabled";
+    static final String JOB_STATISTICS_RESET = "jobStatisticsReset";
+
     String getSchedulerName();
 
     String getSchedulerInstanceId();
@@ -60,6 +66,16 @@ public interface QuartzSchedulerMBean {
 
     Map<String, Long> getPerformanceMetrics();
 
+    /**
+     * The count, mean, maximum and percentiles of the latencies measured along
+     * the scheduling pipeline since the latency histograms were enabled or
+     * reset, in microseconds, keyed like <code>JobRunTime.p99</code>.
+     * Empty if the latency histograms are not enabled.
+     * 
+     * @see org.quartz.spi.SchedulerMetricsRecorder.Metric
+     */
+    Map<String, Long> getLatencyMetrics();
+
     /**
      * @return TabularData of CompositeData:JobExecutionContext
      * @throws Exception
@@ -80,6 +96,42 @@ public interface QuartzSchedulerMBean {
      */
     List<CompositeData> getAllTriggers() throws Exception;
 
+    /**
+     * Get one page of the jobs of the matching groups, ordered by group and
+     * then by name, without loading every job of the scheduler as
+     * <code>getAllJobDetails()</code> does.
+     * 
+     * @param groupOperator the name of a <code>StringMatcher.StringOperatorName</code>
+     *        comparing the group with <code>groupValue</code>, or <code>null</code>
+     *        for any group
+     * @param pageToken the <code>nextPageToken</code> of the previous page, or
+     *        <code>null</code> for the first page
+     * @return CompositeData of the <code>items</code> TabularData of
+     *         CompositeData:JobDetail and of the <code>nextPageToken</code>
+     * @see JobDetailSupport
+     */
+    CompositeData getJobDetailPage(String groupOperator, String groupValue, String pageToken,
+            int pageSize) throws Exception;
+
+    /**
+     * Get one page of the triggers of the matching groups, ordered by group
+     * and then by name, without loading every trigger of the scheduler as
+     * <code>getAllTriggers()</code> does.
+     * 
+     * @param states the names of the <code>TriggerState</code>s of the
+     *        triggers, or <code>null</code> for any state
+     * @param nextFireTimeFrom the time the next fire time of the triggers
+     *        must not be before, or <code>null</code>
+     * @param nextFireTimeTo the time the next fire time of the triggers
+     *        must be before, or <code>null</code>
+     * @return CompositeData of the <code>items</code> TabularData of
+     *         CompositeData:Trigger and of the <code>nextPageToken</code>
+     * @see #getJobDetailPage(String, String, String, int)
+     * @see TriggerSupport
+     */
+    CompositeData getTriggerPage(String groupOperator, String groupValue, String[] states,
+            Date nextFireTimeFrom, Date nextFireTimeTo, String pageToken, int pageSize) throws Exception;
+
     List<String> getJobGroupNames() throws Exception;
 
     List<String> getJobNames(String groupName)
@@ -316,4 +368,42 @@ public interface QuartzSchedulerMBean {
     void setSampledStatisticsEnabled(boolean enabled);
 
     boolean isSampledStatisticsEnabled();
+
+    void setLatencyHistogramsEnabled(boolean enabled);
+
+    boolean isLatencyHistogramsEnabled();
+
+    void resetLatencyHistograms();
+
+    void setJobStatisticsEnabled(boolean enabled);
+
+    boolean isJobStatisticsEnabled();
+
+    void resetJobStatistics();
+
+    /**
+     * The median and 99th percentile run times of the job statistics are
+     * accurate to within 25%, as they are kept in coarse histograms to bound
+     * the memory taken per tracked job.
+     * 
+     * @return CompositeData:JobStatistics of the job, null if none
+     */
+    CompositeData getJobStatistics(String jobName, String jobGroupName) throws Exception;
+
+    /**
+     * @return CompositeData:JobStatistics of the group, null if none
+     */
+    CompositeData getJobGroupStatistics(String jobGroupName) throws Exception;
+
+    /**
+     * @return List of CompositeData:JobStatistics of the jobs that took the
+     *         most total run time, in descending order.
+     */
+    List<CompositeData> getTopJobStatistics(int count) throws Exception;
+
+    /**
+     * @return List of CompositeData:JobStatistics of the job groups that took
+     *         the most total run time, in descending order.
+     */
+    List<CompositeData> getTopJobGroupStatistics(int count) throws Exception;
 }
@@ -20,6 +20,7 @@ import javax.management.openmbean.TabularDataSupport;
 import javax.management.openmbean.TabularType;
 
 import org.quartz.JobKey;
+import org.quartz.ResultPage;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
 import org.quartz.spi.MutableTrigger;
@@ -45,6 +46,9 @@ public class TriggerSupport {
     private static final String TABULAR_TYPE_DESCRIPTION = "Trigger collection";
     private static final String[] INDEX_NAMES = new String[] { "name", "group" };
     private static final TabularType TABULAR_TYPE;
+    private static final String PAGE_TYPE_NAME = "Trigger page";
+    private static final String[] PAGE_ITEM_NAMES = new String[] { "items", "nextPageToken" };
+    private static final CompositeType PAGE_TYPE;
 
     static {
         try {
@@ -53,6 +57,8 @@ public class TriggerSupport {
                     ITEM_TYPES);
             TABULAR_TYPE = new TabularType(TABULAR_TYPE_NAME,
                     TABULAR_TYPE_DESCRIPTION, COMPOSITE_TYPE, INDEX_NAMES);
+            PAGE_TYPE = new CompositeType(PAGE_TYPE_NAME, PAGE_TYPE_NAME,
+                    PAGE_ITEM_NAMES, PAGE_ITEM_NAMES, new OpenType[] { TABULAR_TYPE, STRING });
         } catch (OpenDataException e) {
             throw new RuntimeException(e);
         }
@@ -108,6 +114,19 @@ public class TriggerSupport {
         }
         return tData;
     }
+
+    /**
+     * @return CompositeData of the Trigger collection of the page and of the
+     * token of the next page, <code>null</code> on the last page.
+     */
+    public static CompositeData toPageCompositeData(ResultPage<? extends Trigger> page) {
+        try {
+            return new CompositeDataSupport(PAGE_TYPE, PAGE_ITEM_NAMES,
+                    new Object[] { toTabularData(page.getItems()), page.getNextPageToken() });
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
     
     public static List<CompositeData> toCompositeList(List<? extends Trigger> triggers) {
         List<CompositeData> result = new ArrayList<CompositeData>();
@@ -0,0 +1,539 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.core.remoting;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.core.RemotableQuartzScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A connection to a <code>{@link RemotingServer}</code>, through which
+ * many threads may call the remote scheduler at once: each call is written
+ * as soon as it is made, and a reader thread hands each response to the
+ * thread waiting for it.
+ * </p>
+ * 
+ * <p>
+ * The client uses a blocking socket rather than a channel, which would be
+ * closed for every caller if one of them were interrupted while writing.
+ * </p>
+ * 
+ * <p>
+ * <code>{@link #newProxy()}</code> gets a
+ * <code>{@link RemotableQuartzScheduler}</code> that makes one call per
+ * method, while <code>{@link #invokeAll(List)}</code> makes several calls
+ * in a single round trip. When the connection fails, the pending and later
+ * calls throw a <code>RemoteException</code>, and a new client must be
+ * connected. A call that times out or is interrupted throws a
+ * <code>{@link RemotingTimeoutException}</code> instead, and leaves the
+ * connection open for the other calls.
+ * </p>
+ * 
+ * <p>
+ * <code>{@link #subscribe(SchedulerListener)}</code> has the server push
+ * the events of the scheduler to a listener.
+ * </p>
+ */
+public class RemotingClient {
+
+    public static final long DEFAULT_CALL_TIMEOUT = 60000L;
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String host;
+
+    private final int port;
+
+    private final long callTimeout;
+
+    private final String secret;
+
+    private final RemotingCodec codec;
+
+    private final AtomicInteger nextCallId = new AtomicInteger();
+
+    private final ConcurrentHashMap<Integer, PendingCall> pendingCalls = new ConcurrentHashMap<Integer, PendingCall>();
+
+    private final Object writeLock = new Object();
+
+    private Socket socket;
+
+    private OutputStream out;
+
+    private DataInputStream in;
+
+    private volatile IOException failure;
+
+    private volatile SchedulerListener listener;
+
+    /**
+     * @param callTimeout how long to wait for the response to a call, in
+     *        milliseconds, or 0 to wait until the connection fails.
+     * @param secret the secret shared with the server, sent when connecting.
+     * @param classLoader the loader of the classes of the jobs, triggers and
+     *        calendars returned by the server.
+     * @param allowedClasses the classes, besides those of Quartz and of the
+     *        <code>java.lang</code>, <code>java.math</code> and
+     *        <code>java.util</code> packages, that may be deserialized.
+     * @see RemotingCodec#RemotingCodec(ClassLoader, Collection)
+     */
+    public RemotingClient(String host, int port, long callTimeout, String secret, ClassLoader classLoader,
+            Collection<String> allowedClasses) {
+        if (secret == null || secret.length() == 0) {
+            throw new IllegalArgumentException("Remoting secret must be set.");
+        }
+        if (secret.getBytes(RemotingCodec.UTF_8).length > RemotingProtocol.MAX_HELLO_LENGTH - 32) {
+            throw new IllegalArgumentException("Remoting secret is too long.");
+        }
+        this.host = host;
+        this.port = port;
+        this.callTimeout = callTimeout;
+        this.secret = secret;
+        this.codec = new RemotingCodec(classLoader, allowedClasses);
+    }
+
+    /**
+     * Connect to the server, and check that it speaks the same protocol and
+     * shares the same secret.
+     */
+    public synchronized void connect() throws IOException {
+        if (socket != null) {
+            throw new IllegalStateException("Remoting client already connected.");
+        }
+        socket = new Socket(host, port);
+        try {
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.HELLO, 0);
+            out.writeInt(RemotingProtocol.MAGIC);
+            out.writeInt(RemotingProtocol.VERSION);
+            out.writeInt(RemotingProtocol.SIGNATURE);
+            RemotingCodec.writeString(out, secret);
+            write(RemotingProtocol.toBuffer(bytes));
+
+            byte[] frame = readFrame();
+            if (RemotingProtocol.getType(frame) == RemotingProtocol.FAILURE) {
+                Object cause = codec.read(payload(frame));
+                throw new IOException("Remote scheduler refused the connection: " + cause,
+                        cause instanceof Throwable ? (Throwable) cause : null);
+            }
+            if (RemotingProtocol.getType(frame) != RemotingProtocol.HELLO) {
+                throw new IOException("Not a Quartz remoting server at " + host + ":" + port);
+            }
+        } catch (IOException e) {
+            socket.close();
+            socket = null;
+            throw e;
+        }
+
+        Thread reader = new Thread(new Runnable() {
+            public void run() {
+                readResponses();
+            }
+        }, "QuartzRemotingClient-" + host + ":" + port);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public boolean isConnected() {
+        return socket != null && failure == null;
+    }
+
+    /**
+     * Close the connection, failing the calls waiting for a response.
+     */
+    public void close() {
+        fail(new IOException("Remoting client closed."));
+    }
+
+    /**
+     * Get a <code>RemotableQuartzScheduler</code> whose methods are called
+     * through this client.
+     */
+    public RemotableQuartzScheduler newProxy() {
+        return (RemotableQuartzScheduler) Proxy.newProxyInstance(RemotableQuartzScheduler.class.getClassLoader(),
+                new Class<?>[] { RemotableQuartzScheduler.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getDeclaringClass() == Object.class) {
+                            if (method.getName().equals("equals")) {
+                                return proxy == args[0];
+                            } else if (method.getName().equals("hashCode")) {
+                                return System.identityHashCode(proxy);
+                            }
+                            return "RemotingClient proxy to " + host + ":" + port;
+                        }
+                        return RemotingClient.this.invoke(method, args);
+                    }
+                });
+    }
+
+    /**
+     * Have the server push the events of the scheduler to the given
+     * listener, which is called on the thread reading the responses, so it
+     * must be fast. Only the events that change the jobs, triggers or state
+     * of the scheduler are pushed: <code>jobAdded</code>,
+     * <code>jobDeleted</code>, <code>jobScheduled</code>,
+     * <code>jobUnscheduled</code>, <code>triggerFinalized</code>,
+     * <code>schedulingDataCleared</code>, <code>schedulerStarted</code>,
+     * <code>schedulerInStandbyMode</code> and <code>schedulerShutdown</code>.
+     * <p>
+     * As events may be missed when the connection fails, the listener is
+     * then told with <code>schedulerError()</code>.
+     * </p>
+     */
+    public void subscribe(SchedulerListener listener) throws RemoteException {
+        this.listener = listener;
+        PendingCall call = new PendingCall();
+        int callId = nextCallId.incrementAndGet();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            RemotingProtocol.newFrame(bytes, RemotingProtocol.SUBSCRIBE, callId);
+            byte[] frame = call(callId, call, RemotingProtocol.toBuffer(bytes));
+            if (RemotingProtocol.getType(frame) == RemotingProtocol.FAILURE) {
+                throw new RemoteException("Remote scheduler refused the subscription: " + codec.read(payload(frame)));
+            }
+        } catch (RemoteException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RemoteException("Error subscribing to remote scheduler at " + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Call a method of the remote scheduler.
+     * 
+     * @throws RemoteException if the call could not be made.
+     * @throws Throwable the exception thrown by the remote method.
+     */
+    public Object invoke(Method method, Object[] args) throws Throwable {
+        PendingCall call = new PendingCall();
+        int callId = nextCallId.incrementAndGet();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.CALL, callId);
+            writeCall(out, method, args);
+            byte[] frame = call(callId, call, RemotingProtocol.toBuffer(bytes));
+
+            DataInputStream in = payload(frame);
+            if (RemotingProtocol.getType(frame) == RemotingProtocol.FAILURE) {
+                throw (Throwable) codec.read(in);
+            }
+            return codec.read(in);
+        } catch (RemoteException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RemoteException("Error calling " + method.getName() + " on remote scheduler at "
+                    + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Make the given calls in a single round trip. The server runs them one
+     * after the other, on the same thread, and a call that fails does not
+     * stop the following ones.
+     * 
+     * @throws RemoteException if the calls could not be made.
+     */
+    public void invokeAll(List<Invocation> invocations) throws RemoteException {
+        if (invocations.isEmpty()) {
+            return;
+        }
+        PendingCall call = new PendingCall();
+        int callId = nextCallId.incrementAndGet();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.BATCH, callId);
+            RemotingCodec.writeVarLong(out, invocations.size());
+            for (Invocation invocation : invocations) {
+                writeCall(out, invocation.method, invocation.args);
+            }
+            byte[] frame = call(callId, call, RemotingProtocol.toBuffer(bytes));
+
+            DataInputStream in = payload(frame);
+            if (RemotingProtocol.getType(frame) == RemotingProtocol.FAILURE) {
+                Object cause = codec.read(in);
+                throw new RemoteException("Remote scheduler couldn't run the batch: " + cause,
+                        cause instanceof Throwable ? (Throwable) cause : null);
+            }
+            int count = (int) RemotingCodec.readVarLong(in);
+            if (count != invocations.size()) {
+                throw new IOException("Expected " + invocations.size() + " results, got " + count);
+            }
+            for (Invocation invocation : invocations) {
+                if (in.readBoolean()) {
+                    invocation.result = codec.read(in);
+                } else {
+                    invocation.failure = (Throwable) codec.read(in);
+                }
+            }
+        } catch (RemoteException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RemoteException("Error calling remote scheduler at " + host + ":" + port, e);
+        }
+    }
+
+    private void writeCall(DataOutputStream out, Method method, Object[] args) throws IOException {
+        out.writeShort(RemotingProtocol.indexOf(method));
+        for (Object arg : args == null ? NO_ARGS : args) {
+            codec.write(out, arg);
+        }
+    }
+
+    private byte[] call(int callId, PendingCall call, ByteBuffer request) throws IOException {
+        pendingCalls.put(callId, call);
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            // a broken connection is closed by the reader thread
+            write(request);
+            return call.await(callTimeout);
+        } finally {
+            pendingCalls.remove(callId);
+        }
+    }
+
+    private void readResponses() {
+        try {
+            while (true) {
+                byte[] frame = readFrame();
+                if (RemotingProtocol.getType(frame) == RemotingProtocol.EVENT) {
+                    dispatch(frame);
+                    continue;
+                }
+                PendingCall call = pendingCalls.get(RemotingProtocol.getCallId(frame));
+                if (call != null) {
+                    // else timed out
+                    call.complete(frame);
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void dispatch(byte[] frame) throws IOException {
+        SchedulerListener listener = this.listener;
+        if (listener == null) {
+            return;
+        }
+        DataInputStream in = payload(frame);
+        byte event = in.readByte();
+        Object value = codec.read(in);
+        try {
+            switch (event) {
+            case RemotingProtocol.EVENT_JOB_ADDED:
+                listener.jobAdded((JobDetail) value);
+                break;
+            case RemotingProtocol.EVENT_JOB_DELETED:
+                listener.jobDeleted((JobKey) value);
+                break;
+            case RemotingProtocol.EVENT_JOB_SCHEDULED:
+                listener.jobScheduled((Trigger) value);
+                break;
+            case RemotingProtocol.EVENT_JOB_UNSCHEDULED:
+                listener.jobUnscheduled((TriggerKey) value);
+                break;
+            case RemotingProtocol.EVENT_TRIGGER_FINALIZED:
+                listener.triggerFinalized((Trigger) value);
+                break;
+            case RemotingProtocol.EVENT_SCHEDULING_DATA_CLEARED:
+                listener.schedulingDataCleared();
+                break;
+            case RemotingProtocol.EVENT_SCHEDULER_STARTED:
+                listener.schedulerStarted();
+                break;
+            case RemotingProtocol.EVENT_SCHEDULER_IN_STANDBY_MODE:
+                listener.schedulerInStandbyMode();
+                break;
+            case RemotingProtocol.EVENT_SCHEDULER_SHUTDOWN:
+                listener.schedulerShutdown();
+                break;
+            default:
+                log.debug("Ignoring unknown scheduler event " + event);
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduler listener failed to handle event " + event, e);
+        }
+    }
+
+    private void fail(IOException e) {
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            failure = e;
+        }
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignore) {
+        }
+        for (PendingCall call : pendingCalls.values()) {
+            call.fail(e);
+        }
+        SchedulerListener listener = this.listener;
+        if (listener != null) {
+            try {
+                listener.schedulerError("Connection to remote scheduler at " + host + ":" + port + " failed.",
+                        new SchedulerException(e));
+            } catch (RuntimeException re) {
+                log.error("Scheduler listener failed to handle connection failure", re);
+            }
+        }
+    }
+
+    private void write(ByteBuffer frame) throws IOException {
+        synchronized (writeLock) {
+            out.write(frame.array(), frame.position(), frame.remaining());
+            out.flush();
+        }
+    }
+
+    private byte[] readFrame() throws IOException {
+        int length = in.readInt();
+        RemotingProtocol.checkLength(length);
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+
+    private static DataInputStream payload(byte[] frame) {
+        return new DataInputStream(new ByteArrayInputStream(frame,
+                RemotingProtocol.HEADER_LENGTH, frame.length - RemotingProtocol.HEADER_LENGTH));
+    }
+
+    /**
+     * A call made by <code>{@link RemotingClient#invokeAll(List)}</code>,
+     * which holds its outcome once made.
+     */
+    public static class Invocation {
+
+        private final Method method;
+
+        private final Object[] args;
+
+        private Object result;
+
+        private Throwable failure;
+
+        public Invocation(Method method, Object... args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        /**
+         * Get a call of the method of <code>RemotableQuartzScheduler</code>
+         * with the given name and parameter types.
+         */
+        public static Invocation of(String methodName, Class<?>[] parameterTypes, Object... args) {
+            try {
+                return new Invocation(RemotableQuartzScheduler.class.getMethod(methodName, parameterTypes), args);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("No method " + methodName + Arrays.toString(parameterTypes)
+                        + " in RemotableQuartzScheduler", e);
+            }
+        }
+
+        /**
+         * Get the value returned by the call.
+         * 
+         * @throws Throwable the exception thrown by the call.
+         */
+        public Object getResult() throws Throwable {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+
+    private static class PendingCall {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile byte[] frame;
+
+        private volatile IOException failure;
+
+        void complete(byte[] frame) {
+            this.frame = frame;
+            done.countDown();
+        }
+
+        void fail(IOException failure) {
+            this.failure = failure;
+            done.countDown();
+        }
+
+        byte[] await(long timeout) throws IOException {
+            try {
+                if (timeout > 0) {
+                    if (!done.await(timeout, TimeUnit.MILLISECONDS)) {
+                        throw new RemotingTimeoutException("No response from remote scheduler in " + timeout + " ms");
+                    }
+                } else {
+                    done.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemotingTimeoutException("Interrupted while waiting for remote scheduler");
+            }
+            // the response may have been read just before the connection failed
+            if (frame == null) {
+                throw failure;
+            }
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.core.remoting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.triggers.AbstractTrigger;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+
+/**
+ * <p>
+ * Encodes the arguments and results of remote scheduler calls as compact
+ * binary values: a tag byte followed by the value, with variable-length
+ * integers and UTF-8 strings.
+ * </p>
+ * 
+ * <p>
+ * Keys, dates, job data maps, job details, simple and cron triggers and the
+ * <code>java.util</code> lists, sets and maps of such values have their own
+ * encodings. Any other value, e.g. a <code>Calendar</code> or an exception,
+ * falls back to Java serialization.
+ * </p>
+ * 
+ * <p>
+ * As the peer may not be trusted, only the classes of Quartz, of the
+ * <code>java.lang</code>, <code>java.math</code> and <code>java.util</code>
+ * packages and the configured classes are deserialized, exceptions
+ * included.
+ * </p>
+ */
+final class RemotingCodec {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte STRING = 5;
+    private static final byte DATE = 6;
+    private static final byte JOB_KEY = 7;
+    private static final byte TRIGGER_KEY = 8;
+    private static final byte TRIGGER_STATE = 9;
+    private static final byte CLASS = 10;
+    private static final byte LIST = 11;
+    private static final byte SET = 12;
+    private static final byte MAP = 13;
+    private static final byte JOB_DATA_MAP = 14;
+    private static final byte JOB_DETAIL = 15;
+    private static final byte SIMPLE_TRIGGER = 16;
+    private static final byte CRON_TRIGGER = 17;
+    private static final byte SERIALIZED = 18;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final TriggerState[] TRIGGER_STATES = TriggerState.values();
+
+    private static final String[] ALLOWED_PACKAGES = { "java.lang.", "java.math.", "java.util.", "org.quartz." };
+
+    private final ClassLoader classLoader;
+
+    private final Set<String> allowedClasses = new HashSet<String>();
+
+    private final List<String> allowedPackages = new ArrayList<String>(Arrays.asList(ALLOWED_PACKAGES));
+
+    /**
+     * @param classLoader the loader of the classes of decoded values, or
+     *        <code>null</code> for the loader of this class.
+     * @param allowedClasses the names of the other classes that may be
+     *        deserialized, or of their packages followed by <code>.*</code>
+     *        to allow the classes of a package and of its sub-packages. May
+     *        be <code>null</code>.
+     */
+    RemotingCodec(ClassLoader classLoader, Collection<String> allowedClasses) {
+        this.classLoader = classLoader != null ? classLoader : RemotingCodec.class.getClassLoader();
+        if (allowedClasses != null) {
+            for (String name : allowedClasses) {
+                name = name.trim();
+                if (name.endsWith(".*")) {
+                    allowedPackages.add(name.substring(0, name.length() - 1));
+                } else if (name.length() > 0) {
+                    this.allowedClasses.add(name);
+                }
+            }
+        }
+    }
+
+    void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            writeVarLong(out, (Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeVarLong(out, (Long) value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            writeVarLong(out, ((Date) value).getTime());
+        } else if (value instanceof JobKey) {
+            out.writeByte(JOB_KEY);
+            writeString(out, ((JobKey) value).getName());
+            writeString(out, ((JobKey) value).getGroup());
+        } else if (value instanceof TriggerKey) {
+            out.writeByte(TRIGGER_KEY);
+            writeString(out, ((TriggerKey) value).getName());
+            writeString(out, ((TriggerKey) value).getGroup());
+        } else if (value instanceof TriggerState) {
+            out.writeByte(TRIGGER_STATE);
+            out.writeByte(((TriggerState) value).ordinal());
+        } else if (value instanceof Class) {
+            out.writeByte(CLASS);
+            writeString(out, ((Class<?>) value).getName());
+        } else if (value instanceof JobDataMap) {
+            out.writeByte(JOB_DATA_MAP);
+            writeJobDataMap(out, (JobDataMap) value);
+        } else if (value.getClass() == JobDetailImpl.class) {
+            out.writeByte(JOB_DETAIL);
+            writeJobDetail(out, (JobDetailImpl) value);
+        } else if (value.getClass() == SimpleTriggerImpl.class) {
+            SimpleTriggerImpl trigger = (SimpleTriggerImpl) value;
+            out.writeByte(SIMPLE_TRIGGER);
+            writeTrigger(out, trigger);
+            writeVarLong(out, trigger.getRepeatCount());
+            writeVarLong(out, trigger.getRepeatInterval());
+            writeVarLong(out, trigger.getTimesTriggered());
+        } else if (value.getClass() == CronTriggerImpl.class) {
+            CronTriggerImpl trigger = (CronTriggerImpl) value;
+            out.writeByte(CRON_TRIGGER);
+            writeTrigger(out, trigger);
+            write(out, trigger.getCronExpression());
+            writeString(out, trigger.getTimeZone().getID());
+        } else if (value instanceof List && isJdkCollection(value)) {
+            out.writeByte(LIST);
+            writeCollection(out, (List<?>) value);
+        } else if (value instanceof Set && isJdkCollection(value)) {
+            out.writeByte(SET);
+            writeCollection(out, (Set<?>) value);
+        } else if (value instanceof Map && isJdkCollection(value)) {
+            out.writeByte(MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeVarLong(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream objectOut = new ObjectOutputStream(bytes);
+            objectOut.writeObject(value);
+            objectOut.close();
+            writeVarLong(out, bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    Object read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) readVarLong(in);
+            case LONG:
+                return readVarLong(in);
+            case STRING:
+                return readString(in);
+            case DATE:
+                return new Date(readVarLong(in));
+            case JOB_KEY:
+                return new JobKey(readString(in), readString(in));
+            case TRIGGER_KEY:
+                return new TriggerKey(readString(in), readString(in));
+            case TRIGGER_STATE:
+                return TRIGGER_STATES[in.readUnsignedByte()];
+            case CLASS:
+                return loadClass(readString(in));
+            case LIST:
+                return readCollection(in, new ArrayList<Object>());
+            case SET:
+                return readCollection(in, new LinkedHashSet<Object>());
+            case MAP: {
+                int size = readSize(in);
+                Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in), read(in));
+                }
+                return map;
+            }
+            case JOB_DATA_MAP:
+                return readJobDataMap(in);
+            case JOB_DETAIL:
+                return readJobDetail(in);
+            case SIMPLE_TRIGGER: {
+                SimpleTriggerImpl trigger = new SimpleTriggerImpl();
+                readTrigger(in, trigger);
+                trigger.setRepeatCount((int) readVarLong(in));
+                trigger.setRepeatInterval(readVarLong(in));
+                trigger.setTimesTriggered((int) readVarLong(in));
+                return trigger;
+            }
+            case CRON_TRIGGER: {
+                CronTriggerImpl trigger = new CronTriggerImpl();
+                readTrigger(in, trigger);
+                String cronExpression = (String) read(in);
+                trigger.setTimeZone(TimeZone.getTimeZone(readString(in)));
+                if (cronExpression != null) {
+                    try {
+                        trigger.setCronExpression(cronExpression);
+                    } catch (ParseException e) {
+                        throw new IOException("Invalid cron expression: " + cronExpression, e);
+                    }
+                }
+                return trigger;
+            }
+            case SERIALIZED: {
+                byte[] bytes = new byte[readSize(in)];
+                in.readFully(bytes);
+                ObjectInputStream objectIn = new FilteringObjectInputStream(new ByteArrayInputStream(bytes));
+                try {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Couldn't load class: " + e.getMessage(), e);
+                } finally {
+                    objectIn.close();
+                }
+            }
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private void writeCollection(DataOutputStream out, Collection<?> collection) throws IOException {
+        writeVarLong(out, collection.size());
+        for (Object item : collection) {
+            write(out, item);
+        }
+    }
+
+    private Collection<Object> readCollection(DataInputStream in, Collection<Object> collection) throws IOException {
+        int size = readSize(in);
+        for (int i = 0; i < size; i++) {
+            collection.add(read(in));
+        }
+        return collection;
+    }
+
+    private void writeJobDataMap(DataOutputStream out, JobDataMap map) throws IOException {
+        out.writeBoolean(map.isDirty());
+        writeVarLong(out, map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            write(out, entry.getValue());
+        }
+    }
+
+    private JobDataMap readJobDataMap(DataInputStream in) throws IOException {
+        boolean dirty = in.readBoolean();
+        int size = readSize(in);
+        JobDataMap map = new JobDataMap();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), read(in));
+        }
+        if (!dirty) {
+            map.clearDirtyFlag();
+        }
+        return map;
+    }
+
+    private void writeJobDetail(DataOutputStream out, JobDetailImpl jobDetail) throws IOException {
+        write(out, jobDetail.getKey());
+        write(out, jobDetail.getDescription());
+        write(out, jobDetail.getJobClass());
+        out.writeBoolean(jobDetail.isDurable());
+        out.writeBoolean(jobDetail.requestsRecovery());
+        writeJobDataMap(out, jobDetail.getJobDataMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private JobDetailImpl readJobDetail(DataInputStream in) throws IOException {
+        JobDetailImpl jobDetail = new JobDetailImpl();
+        jobDetail.setKey((JobKey) read(in));
+        jobDetail.setDescription((String) read(in));
+        Class<?> jobClass = (Class<?>) read(in);
+        if (jobClass != null) {
+            if (!Job.class.isAssignableFrom(jobClass)) {
+                throw new IOException("Not a job class: " + jobClass.getName());
+            }
+            jobDetail.setJobClass((Class<? extends Job>) jobClass);
+        }
+        jobDetail.setDurability(in.readBoolean());
+        jobDetail.setRequestsRecovery(in.readBoolean());
+        jobDetail.setJobDataMap(readJobDataMap(in));
+        return jobDetail;
+    }
+
+    private void writeTrigger(DataOutputStream out, AbstractTrigger<?> trigger) throws IOException {
+        write(out, trigger.getKey());
+        write(out, trigger.getJobKey());
+        write(out, trigger.getDescription());
+        write(out, trigger.getCalendarName());
+        writeJobDataMap(out, trigger.getJobDataMap());
+        writeVarLong(out, trigger.getPriority());
+        writeVarLong(out, trigger.getMisfireInstruction());
+        write(out, trigger.getStartTime());
+        write(out, trigger.getEndTime());
+        write(out, trigger.getNextFireTime());
+        write(out, trigger.getPreviousFireTime());
+        write(out, trigger.getFireInstanceId());
+    }
+
+    private void readTrigger(DataInputStream in, AbstractTrigger<?> trigger) throws IOException {
+        TriggerKey key = (TriggerKey) read(in);
+        if (key != null) {
+            trigger.setKey(key);
+        }
+        JobKey jobKey = (JobKey) read(in);
+        if (jobKey != null) {
+            trigger.setJobKey(jobKey);
+        }
+        trigger.setDescription((String) read(in));
+        trigger.setCalendarName((String) read(in));
+        trigger.setJobDataMap(readJobDataMap(in));
+        trigger.setPriority((int) readVarLong(in));
+        trigger.setMisfireInstruction((int) readVarLong(in));
+        Date startTime = (Date) read(in);
+        if (startTime != null) {
+            trigger.setStartTime(startTime);
+        }
+        trigger.setEndTime((Date) read(in));
+        trigger.setNextFireTime((Date) read(in));
+        trigger.setPreviousFireTime((Date) read(in));
+        trigger.setFireInstanceId((String) read(in));
+    }
+
+    private static boolean isJdkCollection(Object value) {
+        return value.getClass().getName().startsWith("java.util.");
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readSize(in)];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Write a zig-zag encoded variable-length integer, seven bits per byte,
+     * so that small values of either sign take a single byte.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    static int readSize(DataInputStream in) throws IOException {
+        long size = readVarLong(in);
+        if (size < 0 || size > RemotingProtocol.MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid size: " + size);
+        }
+        return (int) size;
+    }
+
+    private Class<?> loadClass(String name) throws IOException {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Couldn't load class: " + name, e);
+        }
+    }
+
+    private boolean isAllowed(String name) {
+        if (allowedClasses.contains(name)) {
+            return true;
+        }
+        for (String allowedPackage : allowedPackages) {
+            if (name.startsWith(allowedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves only the allowed classes, before any of their code runs.
+     */
+    private class FilteringObjectInputStream extends ObjectInputStream {
+
+        FilteringObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            // checked by name, so that a class that is not allowed is not even loaded
+            String name = desc.getName();
+            int dimensions = 0;
+            while (name.charAt(dimensions) == '[') {
+                dimensions++;
+            }
+            if (dimensions == 0 ? !isAllowed(name)
+                    : name.charAt(dimensions) == 'L' && !isAllowed(name.substring(dimensions + 1, name.length() - 1))) {
+                throw new InvalidClassException(desc.getName(), "Class not allowed by remoting");
+            }
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes not allowed by remoting");
+        }
+    }
+}
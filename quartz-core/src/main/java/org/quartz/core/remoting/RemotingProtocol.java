@@ -0,0 +1,184 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.core.remoting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.quartz.core.RemotableQuartzScheduler;
+
+/**
+ * <p>
+ * The frames exchanged by <code>{@link RemotingClient}</code> and
+ * <code>{@link RemotingServer}</code>.
+ * </p>
+ * 
+ * <p>
+ * Every frame is the length of the rest of the frame as an
+ * <code>int</code>, a type byte, and an <code>int</code> call id that
+ * matches a response to its request, so that a connection may carry many
+ * calls at once. A call names the method of
+ * <code>{@link RemotableQuartzScheduler}</code> by its index in the methods
+ * sorted by signature, followed by the arguments encoded by
+ * <code>{@link RemotingCodec}</code>. A client opens a connection with a
+ * <code>HELLO</code> frame holding a hash of these signatures, so that a
+ * client and a server of different versions refuse each other, and the
+ * secret they share, without which the server refuses the client.
+ * </p>
+ * 
+ * <p>
+ * A client that sends a <code>SUBSCRIBE</code> frame is then pushed an
+ * <code>EVENT</code> frame for each of the events of the scheduler that
+ * change its jobs, triggers or state, as its
+ * <code>SchedulerListener</code>s see them.
+ * </p>
+ */
+final class RemotingProtocol {
+
+    static final int MAGIC = 0x51525A52;
+
+    static final int VERSION = 3;
+
+    /**
+     * Client greeting: magic, version, signature and the secret shared with
+     * the server. The server echoes it back, without the secret.
+     */
+    static final byte HELLO = 1;
+
+    /** A call: the method index and the arguments. */
+    static final byte CALL = 2;
+
+    /** Calls run in order: their count, then the method index and the arguments of each. */
+    static final byte BATCH = 3;
+
+    /** The value returned by a call. */
+    static final byte RESULT = 4;
+
+    /** The exception thrown by a call, or by the frame as a whole. */
+    static final byte FAILURE = 5;
+
+    /** The outcome of each call of a batch: a success flag, then the value or the exception. */
+    static final byte BATCH_RESULT = 6;
+
+    /** A request for the events of the scheduler, answered by a <code>RESULT</code>. */
+    static final byte SUBSCRIBE = 7;
+
+    /** An event of the scheduler pushed to a subscribed client, with call id 0: the event code, then its value. */
+    static final byte EVENT = 8;
+
+    static final byte EVENT_JOB_ADDED = 1;
+
+    static final byte EVENT_JOB_DELETED = 2;
+
+    static final byte EVENT_JOB_SCHEDULED = 3;
+
+    static final byte EVENT_JOB_UNSCHEDULED = 4;
+
+    static final byte EVENT_TRIGGER_FINALIZED = 5;
+
+    static final byte EVENT_SCHEDULING_DATA_CLEARED = 6;
+
+    static final byte EVENT_SCHEDULER_STARTED = 7;
+
+    static final byte EVENT_SCHEDULER_IN_STANDBY_MODE = 8;
+
+    static final byte EVENT_SCHEDULER_SHUTDOWN = 9;
+
+    /** The length of the type and the call id that follow the frame length. */
+    static final int HEADER_LENGTH = 5;
+
+    static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+    /** The longest frame a client may send before it is authenticated, i.e. its <code>HELLO</code>. */
+    static final int MAX_HELLO_LENGTH = 1024;
+
+    private static final Method[] METHODS;
+
+    private static final Map<Method, Integer> INDEXES = new HashMap<Method, Integer>();
+
+    static final int SIGNATURE;
+
+    static {
+        TreeMap<String, Method> sorted = new TreeMap<String, Method>();
+        for (Method method : RemotableQuartzScheduler.class.getMethods()) {
+            sorted.put(method.getName() + Arrays.toString(method.getParameterTypes()), method);
+        }
+        METHODS = sorted.values().toArray(new Method[sorted.size()]);
+        for (int i = 0; i < METHODS.length; i++) {
+            INDEXES.put(METHODS[i], i);
+        }
+        SIGNATURE = sorted.keySet().toString().hashCode();
+    }
+
+    private RemotingProtocol() {
+    }
+
+    static Method getMethod(int index) throws IOException {
+        if (index < 0 || index >= METHODS.length) {
+            throw new IOException("Unknown method index: " + index);
+        }
+        return METHODS[index];
+    }
+
+    static int indexOf(Method method) {
+        Integer index = INDEXES.get(method);
+        if (index == null) {
+            throw new IllegalArgumentException("Not a method of RemotableQuartzScheduler: " + method);
+        }
+        return index;
+    }
+
+    /**
+     * Start a frame of the given type and call id, to be completed with its
+     * payload and passed to <code>{@link #toBuffer(ByteArrayOutputStream)}</code>.
+     */
+    static DataOutputStream newFrame(ByteArrayOutputStream bytes, byte type, int callId) throws IOException {
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(type);
+        out.writeInt(callId);
+        return out;
+    }
+
+    static ByteBuffer toBuffer(ByteArrayOutputStream bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.remaining() - 4);
+        return buffer;
+    }
+
+    static byte getType(byte[] frame) {
+        return frame[0];
+    }
+
+    static int getCallId(byte[] frame) {
+        return ByteBuffer.wrap(frame, 1, 4).getInt();
+    }
+
+    static void checkLength(int length) throws IOException {
+        if (length < HEADER_LENGTH || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+    }
+}
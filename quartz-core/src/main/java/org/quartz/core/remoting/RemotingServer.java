@@ -0,0 +1,645 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.core.remoting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.core.RemotableQuartzScheduler;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Serves the calls of <code>{@link RemotingClient}s</code> to a
+ * <code>{@link RemotableQuartzScheduler}</code>, as an alternative to
+ * exporting it through RMI.
+ * </p>
+ * 
+ * <p>
+ * One selector thread accepts the connections, reads their frames and
+ * writes their responses, while the calls run on a pool of worker threads.
+ * A client may send calls without waiting for the previous responses, so
+ * the responses of a connection are written in the order the calls
+ * complete, each with the id of its call.
+ * </p>
+ * 
+ * <p>
+ * The events seen by <code>{@link #getSchedulerListener()}</code>, once it
+ * is registered with the scheduler, are pushed to the clients that
+ * subscribed to them.
+ * </p>
+ * 
+ * <p>
+ * Only the clients that send the secret of the server when connecting are
+ * served, and the server listens on the loopback address unless given
+ * another one.
+ * </p>
+ * 
+ * @see RemotingProtocol
+ */
+public class RemotingServer {
+
+    public static final int DEFAULT_PORT = 9099;
+
+    public static final int DEFAULT_THREAD_COUNT = 4;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final RemotableQuartzScheduler scheduler;
+
+    private final String name;
+
+    private final InetSocketAddress address;
+
+    private final int threadCount;
+
+    private final byte[] secret;
+
+    private final RemotingCodec codec;
+
+    private final ConcurrentLinkedQueue<Connection> pendingWrites = new ConcurrentLinkedQueue<Connection>();
+
+    private final CopyOnWriteArrayList<Connection> subscribers = new CopyOnWriteArrayList<Connection>();
+
+    private final SchedulerListener eventPublisher = new EventPublisher();
+
+    private ServerSocketChannel serverChannel;
+
+    private Selector selector;
+
+    private ExecutorService workers;
+
+    private Thread selectorThread;
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param name the name of the threads of the server.
+     * @param bindAddress the address to listen on, or <code>null</code> for
+     *        the loopback address.
+     * @param port the port to listen on, or 0 for any free port.
+     * @param secret the secret the clients must send when connecting.
+     * @param classLoader the loader of the classes of the jobs, triggers and
+     *        calendars sent by clients.
+     * @param allowedClasses the classes, besides those of Quartz and of the
+     *        <code>java.lang</code>, <code>java.math</code> and
+     *        <code>java.util</code> packages, that may be deserialized.
+     * @see RemotingCodec#RemotingCodec(ClassLoader, Collection)
+     */
+    public RemotingServer(RemotableQuartzScheduler scheduler, String name, String bindAddress, int port,
+            int threadCount, String secret, ClassLoader classLoader, Collection<String> allowedClasses) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be > 0.");
+        }
+        if (secret == null || secret.length() == 0) {
+            throw new IllegalArgumentException("Remoting secret must be set.");
+        }
+        this.scheduler = scheduler;
+        this.name = name;
+        this.address = bindAddress == null ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(bindAddress, port);
+        this.threadCount = threadCount;
+        this.secret = secret.getBytes(RemotingCodec.UTF_8);
+        this.codec = new RemotingCodec(classLoader, allowedClasses);
+    }
+
+    public synchronized void start() throws IOException {
+        if (selectorThread != null) {
+            throw new IllegalStateException("Remoting server already started.");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+
+        final AtomicInteger workerCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new WorkerThread(r, name + "_RemotingWorker-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        selectorThread = new Thread(new Runnable() {
+            public void run() {
+                select();
+            }
+        }, name + "_RemotingServer");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+
+        log.info("Scheduler remoting server listening on " + serverChannel.socket().getLocalSocketAddress());
+    }
+
+    /**
+     * Get the port the server listens on, which is chosen when it starts if
+     * it was created with port 0.
+     */
+    public int getPort() {
+        return serverChannel == null ? address.getPort() : serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stop accepting calls and close the connections, once the calls that
+     * are running have completed and their responses have been written, or
+     * after 5 seconds.
+     * <p>
+     * When called by a remote client, e.g. through
+     * <code>Scheduler.shutdown()</code>, this returns without waiting so the
+     * response of that call can be written.
+     * </p>
+     */
+    public synchronized void shutdown() {
+        if (selectorThread == null || shutdown) {
+            return;
+        }
+        shutdown = true;
+        selector.wakeup();
+        Thread current = Thread.currentThread();
+        if (!(current instanceof WorkerThread) || ((WorkerThread) current).getServer() != this) {
+            try {
+                selectorThread.join(10000L);
+            } catch (InterruptedException e) {
+                current.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Get the <code>{@link SchedulerListener}</code> to register with the
+     * scheduler, which pushes its events to the subscribed clients.
+     */
+    public SchedulerListener getSchedulerListener() {
+        return eventPublisher;
+    }
+
+    void publish(byte event, Object value) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ByteBuffer frame;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.EVENT, 0);
+            out.writeByte(event);
+            codec.write(out, value);
+            frame = RemotingProtocol.toBuffer(bytes);
+        } catch (IOException e) {
+            log.warn("Couldn't encode scheduler event " + event + " for remoting clients.", e);
+            return;
+        }
+        for (Connection connection : subscribers) {
+            connection.send(frame.duplicate());
+        }
+    }
+
+    private void select() {
+        try {
+            while (!shutdown) {
+                selector.select();
+
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null) {
+                    connection.flush();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        log.debug("Closing remoting connection from " + connection.remoteAddress + ": " + e);
+                        connection.close();
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Scheduler remoting server failed.", t);
+        } finally {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(5000L, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // best effort, without waiting for slow clients
+            Connection connection;
+            while ((connection = pendingWrites.poll()) != null) {
+                connection.flush();
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ignore) {
+            }
+            log.info("Scheduler remoting server stopped.");
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Run the calls of a <code>CALL</code> or <code>BATCH</code> frame, and
+     * get the frame of their results.
+     */
+    ByteBuffer process(byte[] frame) {
+        int callId = RemotingProtocol.getCallId(frame);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame,
+                RemotingProtocol.HEADER_LENGTH, frame.length - RemotingProtocol.HEADER_LENGTH));
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            if (RemotingProtocol.getType(frame) == RemotingProtocol.CALL) {
+                Method method = RemotingProtocol.getMethod(in.readUnsignedShort());
+                Object[] args = readArguments(in, method);
+                Object result;
+                try {
+                    result = invoke(method, args);
+                } catch (Throwable t) {
+                    return failure(callId, t);
+                }
+                DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.RESULT, callId);
+                codec.write(out, result);
+                return RemotingProtocol.toBuffer(bytes);
+            }
+
+            int count = (int) RemotingCodec.readVarLong(in);
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.BATCH_RESULT, callId);
+            RemotingCodec.writeVarLong(out, count);
+            for (int i = 0; i < count; i++) {
+                Method method = RemotingProtocol.getMethod(in.readUnsignedShort());
+                Object[] args = readArguments(in, method);
+                try {
+                    Object result = invoke(method, args);
+                    out.writeBoolean(true);
+                    codec.write(out, result);
+                } catch (Throwable t) {
+                    out.writeBoolean(false);
+                    writeFailure(out, t);
+                }
+            }
+            return RemotingProtocol.toBuffer(bytes);
+        } catch (IOException e) {
+            // without the cause, whose class the client may not allow
+            return failure(callId, new SchedulerException("Couldn't process remote call: " + e));
+        }
+    }
+
+    private Object[] readArguments(DataInputStream in, Method method) throws IOException {
+        Object[] args = new Object[method.getParameterTypes().length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = codec.read(in);
+        }
+        return args;
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(scheduler, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    ByteBuffer failure(int callId, Throwable t) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            writeFailure(RemotingProtocol.newFrame(bytes, RemotingProtocol.FAILURE, callId), t);
+            return RemotingProtocol.toBuffer(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't encode failure", e);
+        }
+    }
+
+    private void writeFailure(DataOutputStream out, Throwable t) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            codec.write(new DataOutputStream(bytes), t);
+        } catch (IOException e) {
+            // e.g. an exception holding something that is not serializable
+            bytes.reset();
+            codec.write(new DataOutputStream(bytes), new SchedulerException(t.toString()));
+        }
+        bytes.writeTo(out);
+    }
+
+    /**
+     * A client connection, read and written by the selector thread only,
+     * while the workers queue their responses.
+     */
+    private class Connection {
+
+        private final SocketChannel channel;
+
+        private final String remoteAddress;
+
+        private SelectionKey key;
+
+        private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+
+        private ByteBuffer frameBuffer;
+
+        private boolean greeted;
+
+        private boolean closeWhenFlushed;
+
+        // guarded by this
+        private final LinkedList<ByteBuffer> outbound = new LinkedList<ByteBuffer>();
+
+        private volatile boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.remoteAddress = String.valueOf(channel.socket().getRemoteSocketAddress());
+        }
+
+        void read() throws IOException {
+            while (true) {
+                if (frameBuffer == null) {
+                    if (channel.read(lengthBuffer) < 0) {
+                        throw new EOFException("Connection closed by client");
+                    }
+                    if (lengthBuffer.hasRemaining()) {
+                        return;
+                    }
+                    int length = lengthBuffer.getInt(0);
+                    RemotingProtocol.checkLength(length);
+                    // not to allocate large buffers for clients that are not authenticated
+                    if (!greeted && length > RemotingProtocol.MAX_HELLO_LENGTH) {
+                        throw new IOException("Frame of " + length + " bytes before HELLO");
+                    }
+                    lengthBuffer.clear();
+                    frameBuffer = ByteBuffer.allocate(length);
+                }
+                if (channel.read(frameBuffer) < 0) {
+                    throw new EOFException("Connection closed by client");
+                }
+                if (frameBuffer.hasRemaining()) {
+                    return;
+                }
+                byte[] frame = frameBuffer.array();
+                frameBuffer = null;
+                received(frame);
+            }
+        }
+
+        private void received(final byte[] frame) throws IOException {
+            byte type = RemotingProtocol.getType(frame);
+            if (!greeted) {
+                if (type != RemotingProtocol.HELLO) {
+                    throw new IOException("Expected a HELLO frame, got " + type);
+                }
+                greet(frame);
+                return;
+            }
+            if (type == RemotingProtocol.SUBSCRIBE) {
+                subscribers.addIfAbsent(this);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                codec.write(RemotingProtocol.newFrame(bytes, RemotingProtocol.RESULT,
+                        RemotingProtocol.getCallId(frame)), null);
+                send(RemotingProtocol.toBuffer(bytes));
+                return;
+            }
+            if (type != RemotingProtocol.CALL && type != RemotingProtocol.BATCH) {
+                throw new IOException("Unexpected frame type: " + type);
+            }
+            workers.execute(new Runnable() {
+                public void run() {
+                    send(process(frame));
+                }
+            });
+        }
+
+        private void greet(byte[] frame) throws IOException {
+            DataInputStream hello = new DataInputStream(new ByteArrayInputStream(frame,
+                    RemotingProtocol.HEADER_LENGTH, frame.length - RemotingProtocol.HEADER_LENGTH));
+            int callId = RemotingProtocol.getCallId(frame);
+            if (hello.available() < 12 || hello.readInt() != RemotingProtocol.MAGIC) {
+                throw new IOException("Not a Quartz remoting client");
+            }
+            int version = hello.readInt();
+            int signature = hello.readInt();
+            if (version != RemotingProtocol.VERSION || signature != RemotingProtocol.SIGNATURE) {
+                send(failure(callId, new SchedulerException("Incompatible remoting client: protocol version "
+                        + version + ", signature " + signature + ", expected version " + RemotingProtocol.VERSION
+                        + ", signature " + RemotingProtocol.SIGNATURE)));
+                closeWhenFlushed = true;
+                return;
+            }
+            int secretLength = RemotingCodec.readSize(hello);
+            if (secretLength > hello.available()) {
+                throw new IOException("Truncated HELLO frame");
+            }
+            byte[] clientSecret = new byte[secretLength];
+            hello.readFully(clientSecret);
+            // compared in constant time, not to tell how much of it matched
+            if (!MessageDigest.isEqual(secret, clientSecret)) {
+                log.warn("Refused remoting client " + remoteAddress + ": wrong secret.");
+                send(failure(callId, new SchedulerException("Remoting client not authorized.")));
+                closeWhenFlushed = true;
+                return;
+            }
+            greeted = true;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = RemotingProtocol.newFrame(bytes, RemotingProtocol.HELLO, callId);
+            out.writeInt(RemotingProtocol.MAGIC);
+            out.writeInt(RemotingProtocol.VERSION);
+            out.writeInt(RemotingProtocol.SIGNATURE);
+            send(RemotingProtocol.toBuffer(bytes));
+        }
+
+        void send(ByteBuffer response) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                outbound.add(response);
+            }
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        void flush() {
+            if (closed) {
+                return;
+            }
+            try {
+                synchronized (this) {
+                    while (!outbound.isEmpty()) {
+                        ByteBuffer buffer = outbound.getFirst();
+                        channel.write(buffer);
+                        if (buffer.hasRemaining()) {
+                            break;
+                        }
+                        outbound.removeFirst();
+                    }
+                    if (outbound.isEmpty() && closeWhenFlushed) {
+                        close();
+                        return;
+                    }
+                    key.interestOps(outbound.isEmpty()
+                            ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                log.debug("Closing remoting connection from " + remoteAddress + ": " + e);
+                close();
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            synchronized (this) {
+                closed = true;
+                outbound.clear();
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private class EventPublisher extends SchedulerListenerSupport {
+
+        @Override
+        public void jobAdded(JobDetail jobDetail) {
+            publish(RemotingProtocol.EVENT_JOB_ADDED, jobDetail);
+        }
+
+        @Override
+        public void jobDeleted(JobKey jobKey) {
+            publish(RemotingProtocol.EVENT_JOB_DELETED, jobKey);
+        }
+
+        @Override
+        public void jobScheduled(Trigger trigger) {
+            publish(RemotingProtocol.EVENT_JOB_SCHEDULED, trigger);
+        }
+
+        @Override
+        public void jobUnscheduled(TriggerKey triggerKey) {
+            publish(RemotingProtocol.EVENT_JOB_UNSCHEDULED, triggerKey);
+        }
+
+        @Override
+        public void triggerFinalized(Trigger trigger) {
+            publish(RemotingProtocol.EVENT_TRIGGER_FINALIZED, trigger);
+        }
+
+        @Override
+        public void schedulingDataCleared() {
+            publish(RemotingProtocol.EVENT_SCHEDULING_DATA_CLEARED, null);
+        }
+
+        @Override
+        public void schedulerStarted() {
+            publish(RemotingProtocol.EVENT_SCHEDULER_STARTED, null);
+        }
+
+        @Override
+        public void schedulerInStandbyMode() {
+            publish(RemotingProtocol.EVENT_SCHEDULER_IN_STANDBY_MODE, null);
+        }
+
+        @Override
+        public void schedulerShutdown() {
+            publish(RemotingProtocol.EVENT_SCHEDULER_SHUTDOWN, null);
+        }
+    }
+
+    private class WorkerThread extends Thread {
+
+        WorkerThread(Runnable target, String name) {
+            super(target, name);
+        }
+
+        RemotingServer getServer() {
+            return RemotingServer.this;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.core.remoting;
+
+import java.rmi.RemoteException;
+
+/**
+ * <p>
+ * Thrown by a call of a <code>{@link RemotingClient}</code> that got no
+ * response in time, or whose thread was interrupted while waiting for it.
+ * </p>
+ * 
+ * <p>
+ * The connection is still usable by the other calls: a late response is
+ * discarded, so the caller need not connect a new client.
+ * </p>
+ */
+public class RemotingTimeoutException extends RemoteException {
+
+    private static final long serialVersionUID = 2594125366264925135L;
+
+    public RemotingTimeoutException(String msg) {
+        super(msg);
+    }
+}
@@ -24,6 +24,7 @@ import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerException;
 import org.quartz.core.JobRunShell;
 import org.quartz.core.JobRunShellFactory;
+import org.quartz.core.JobRunShellPool;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.utils.ClassUtils;
 
@@ -55,6 +56,8 @@ public class JTAAnnotationAwareJobRunShellFactory implements JobRunShellFactory
 
     private Scheduler scheduler;
 
+    private JobRunShellPool jobRunShellPool;
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -88,6 +91,17 @@ public class JTAAnnotationAwareJobRunShellFactory implements JobRunShellFactory
         this.scheduler = sched;
     }
 
+    /**
+     * <p>
+     * Recycle the <code>JobRunShell</code>s of jobs that do not execute in a
+     * JTA transaction through the given pool, or create a new one for each
+     * fire if <code>null</code> (the default).
+     * </p>
+     */
+    public void setJobRunShellPool(JobRunShellPool jobRunShellPool) {
+        this.jobRunShellPool = jobRunShellPool;
+    }
+
     /**
      * <p>
      * Called by the <class>{@link org.quartz.core.QuartzSchedulerThread}
@@ -98,9 +112,12 @@ public class JTAAnnotationAwareJobRunShellFactory implements JobRunShellFactory
     public JobRunShell createJobRunShell(TriggerFiredBundle bundle)
             throws SchedulerException {
         ExecuteInJTATransaction jtaAnnotation = ClassUtils.getAnnotation(bundle.getJobDetail().getJobClass(), ExecuteInJTATransaction.class);
-        if(jtaAnnotation == null)
+        if(jtaAnnotation == null) {
+            if (jobRunShellPool != null) {
+                return jobRunShellPool.acquire(scheduler, bundle);
+            }
             return new JobRunShell(scheduler, bundle);
-        else {
+        } else {
             int timeout = jtaAnnotation.timeout();
             if (timeout >= 0) {
                 return new JTAJobRunShell(scheduler, bundle, timeout);
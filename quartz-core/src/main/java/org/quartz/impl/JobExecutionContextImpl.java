@@ -18,6 +18,8 @@
 
 package org.quartz.impl;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.Date;
 import java.util.HashMap;
 
@@ -73,7 +75,7 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
     
     private Object result;
     
-    private HashMap<Object, Object> data = new HashMap<Object, Object>();
+    private HashMap<Object, Object> data;
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -90,6 +92,19 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
      */
     public JobExecutionContextImpl(Scheduler scheduler,
             TriggerFiredBundle firedBundle, Job job) {
+        reset(scheduler, firedBundle, job);
+    }
+
+    /**
+     * <p>
+     * Re-initialize a cleared context with the given context data, so that it
+     * can be reused for another execution.
+     * </p>
+     * 
+     * @see #clear()
+     */
+    public synchronized void reset(Scheduler scheduler,
+            TriggerFiredBundle firedBundle, Job job) {
         this.scheduler = scheduler;
         this.trigger = firedBundle.getTrigger();
         this.calendar = firedBundle.getCalendar();
@@ -100,10 +115,67 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
         this.scheduledFireTime = firedBundle.getScheduledFireTime();
         this.prevFireTime = firedBundle.getPrevFireTime();
         this.nextFireTime = firedBundle.getNextFireTime();
+        this.numRefires = 0;
+        this.jobRunTime = -1;
+        this.result = null;
         
-        this.jobDataMap = new JobDataMap();
-        this.jobDataMap.putAll(jobDetail.getJobDataMap());
-        this.jobDataMap.putAll(trigger.getJobDataMap());
+        // built when first asked for
+        this.jobDataMap = null;
+    }
+
+    private JobExecutionContextImpl(JobExecutionContextImpl context) {
+        this.scheduler = context.scheduler;
+        this.trigger = context.trigger;
+        this.calendar = context.calendar;
+        this.jobDetail = context.jobDetail;
+        this.job = context.job;
+        this.recovering = context.recovering;
+        this.fireTime = context.fireTime;
+        this.scheduledFireTime = context.scheduledFireTime;
+        this.prevFireTime = context.prevFireTime;
+        this.nextFireTime = context.nextFireTime;
+        this.numRefires = context.numRefires;
+        this.jobRunTime = context.jobRunTime;
+        this.result = context.result;
+        this.jobDataMap = (context.jobDetail == null) ? null : context.getMergedJobDataMap();
+        if (context.data != null) {
+            this.data = new HashMap<Object, Object>(context.data);
+        }
+    }
+
+    /**
+     * <p>
+     * Get a copy of the current state of this context, for handing to other
+     * threads: it is not affected when this context is cleared or reused.
+     * The job data map, trigger and job detail are shared, not copied. The
+     * snapshot of a cleared context has no trigger or job detail.
+     * </p>
+     */
+    public synchronized JobExecutionContextImpl snapshot() {
+        return new JobExecutionContextImpl(this);
+    }
+
+    /**
+     * <p>
+     * Release all references held by this context, once its execution is
+     * complete and before it is reused.
+     * </p>
+     */
+    public synchronized void clear() {
+        this.scheduler = null;
+        this.trigger = null;
+        this.calendar = null;
+        this.jobDetail = null;
+        this.job = null;
+        this.fireTime = null;
+        this.scheduledFireTime = null;
+        this.prevFireTime = null;
+        this.nextFireTime = null;
+        this.result = null;
+        this.jobDataMap = null;
+        if (data != null) {
+            data.clear();
+        }
     }
 
     /*
@@ -144,8 +216,9 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
 
     public TriggerKey getRecoveringTriggerKey() {
         if (isRecovering()) {
-            return new TriggerKey(jobDataMap.getString(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_NAME),
-                                  jobDataMap.getString(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_GROUP));
+            JobDataMap mergedJobDataMap = getMergedJobDataMap();
+            return new TriggerKey(mergedJobDataMap.getString(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_NAME),
+                                  mergedJobDataMap.getString(Scheduler.FAILED_JOB_ORIGINAL_TRIGGER_GROUP));
         } else {
             throw new IllegalStateException("Not a recovering job");
         }
@@ -165,7 +238,11 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
     /**
      * {@inheritDoc}
      */
-    public JobDataMap getMergedJobDataMap() {
+    public synchronized JobDataMap getMergedJobDataMap() {
+        if (jobDataMap == null) {
+            // trigger entries over job entries, copied only once modified
+            jobDataMap = JobDataMap.overlay(jobDetail.getJobDataMap(), trigger.getJobDataMap());
+        }
         return jobDataMap;
     }
 
@@ -254,6 +331,9 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
      * {@inheritDoc}
      */
     public void put(Object key, Object value) {
+        if (data == null) {
+            data = new HashMap<Object, Object>();
+        }
         data.put(key, value);
     }
     
@@ -261,7 +341,7 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
      * {@inheritDoc}
      */
     public Object get(Object key) {
-        return data.get(key);
+        return (data == null) ? null : data.get(key);
     }
 
     /**
@@ -270,4 +350,10 @@ public class JobExecutionContextImpl implements java.io.Serializable, JobExecuti
     public String getFireInstanceId() {
         return ((OperableTrigger)trigger).getFireInstanceId();
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the merged map is built lazily, make sure remote callers get it
+        getMergedJobDataMap();
+        out.defaultWriteObject();
+    }
 }
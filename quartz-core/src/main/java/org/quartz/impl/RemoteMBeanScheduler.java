@@ -20,6 +20,7 @@ import java.text.ParseException;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +28,8 @@ import java.util.Set;
 import javax.management.Attribute;
 import javax.management.AttributeList;
 import javax.management.MalformedObjectNameException;
+import javax.management.Notification;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 import javax.management.openmbean.CompositeData;
 
@@ -35,6 +38,8 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.ResultPage;
 import org.quartz.ListenerManager;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerContext;
@@ -42,9 +47,12 @@ import org.quartz.SchedulerException;
 import org.quartz.SchedulerMetaData;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.jmx.JobDetailSupport;
+import org.quartz.core.jmx.JobStatisticsSupport;
+import org.quartz.core.jmx.QuartzSchedulerMBean;
 import org.quartz.core.jmx.TriggerSupport;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.matchers.StringMatcher;
@@ -75,6 +83,12 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
 
     private ObjectName schedulerObjectName;
+
+    private int cacheMaxEntries = RemoteSchedulerCache.DEFAULT_MAX_ENTRIES;
+
+    private volatile RemoteSchedulerCache cache = new RemoteSchedulerCache(0L, cacheMaxEntries);
+
+    private volatile boolean notificationsRequested;
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -123,6 +137,56 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         this.schedulerObjectName = schedulerObjectName;
     }
 
+    /**
+     * Set how long the job details, meta-data, job group names and trigger
+     * existence read from the remote Scheduler MBean are cached, in
+     * milliseconds. The default of 0 caches nothing.
+     * <p>
+     * Writes made through this scheduler clear the cache. Changes made by
+     * others invalidate it as soon as their notifications are received, if
+     * <code>{@link #addNotificationListener(NotificationListener)}</code>
+     * is implemented, else once the time to live elapses.
+     * </p>
+     */
+    public void setCacheTimeToLive(long cacheTimeToLive) {
+        cache = new RemoteSchedulerCache(cacheTimeToLive, cacheMaxEntries);
+    }
+
+    public long getCacheTimeToLive() {
+        return cache.getTimeToLive();
+    }
+
+    /**
+     * Set the maximum number of job details and existence checks cached,
+     * the least recently used ones being evicted first.
+     */
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        RemoteSchedulerCache newCache = new RemoteSchedulerCache(cache.getTimeToLive(), cacheMaxEntries);
+        this.cacheMaxEntries = cacheMaxEntries;
+        cache = newCache;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    /**
+     * Get the cache, listening for the notifications that invalidate it
+     * the first time it is used.
+     */
+    RemoteSchedulerCache getCache() throws SchedulerException {
+        RemoteSchedulerCache current = cache;
+        if (current.isEnabled() && !notificationsRequested) {
+            synchronized (this) {
+                if (!notificationsRequested) {
+                    notificationsRequested = true;
+                    addNotificationListener(new CacheInvalidator());
+                }
+            }
+        }
+        return current;
+    }
+
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -157,6 +221,23 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         String operationName,
         Object[] params,
         String[] signature) throws SchedulerException;
+
+    /**
+     * Add the given listener for the notifications of the remote Scheduler
+     * MBean, which invalidate the cache set up by
+     * <code>{@link #setCacheTimeToLive(long)}</code>.
+     * <p>
+     * Subclasses whose connector can deliver notifications should override
+     * this, e.g. with <code>MBeanServerConnection.addNotificationListener()</code>.
+     * By default notifications are not received, and <code>false</code> is
+     * returned.
+     * </p>
+     * 
+     * @return whether notifications will be received.
+     */
+    protected boolean addNotificationListener(NotificationListener listener) throws SchedulerException {
+        return false;
+    }
         
 
     /*
@@ -186,6 +267,18 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
     }
 
     public SchedulerMetaData getMetaData() throws SchedulerException {
+        RemoteSchedulerCache cache = getCache();
+        Object cached = cache.get(RemoteSchedulerCache.META_DATA);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (SchedulerMetaData) cached;
+        }
+        long generation = cache.getGeneration();
+        SchedulerMetaData metaData = fetchMetaData();
+        cache.put(RemoteSchedulerCache.META_DATA, metaData, generation);
+        return metaData;
+    }
+
+    private SchedulerMetaData fetchMetaData() throws SchedulerException {
         AttributeList attributeList =
             getAttributes(
                 new String[] {
@@ -245,7 +338,11 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      * </p>
      */
     public void start() throws SchedulerException {
-        invoke("start", new Object[] {}, new String[] {});
+        try {
+            invoke("start", new Object[] {}, new String[] {});
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -254,7 +351,11 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      * </p>
      */
     public void startDelayed(int seconds) throws SchedulerException {
-        invoke("startDelayed", new Object[] {seconds}, new String[] {int.class.getName()});
+        try {
+            invoke("startDelayed", new Object[] {seconds}, new String[] {int.class.getName()});
+        } finally {
+            cache.clear();
+        }
     }
     
     /**
@@ -263,7 +364,11 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      * </p>
      */
     public void standby() throws SchedulerException {
-        invoke("standby", new Object[] {}, new String[] {});
+        try {
+            invoke("standby", new Object[] {}, new String[] {});
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -302,8 +407,12 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         // Have to get the scheduler name before we actually call shutdown.
         String schedulerName = getSchedulerName();
         
-        invoke("shutdown", new Object[] {}, new String[] {});
-        SchedulerRepository.getInstance().remove(schedulerName);
+        try {
+            invoke("shutdown", new Object[] {}, new String[] {});
+            SchedulerRepository.getInstance().remove(schedulerName);
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -334,6 +443,56 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobStatistics(JobKey jobKey) throws SchedulerException {
+        return JobStatisticsSupport.newJobStatistics((CompositeData)invoke(
+                "getJobStatistics",
+                new Object[] { jobKey.getName(), jobKey.getGroup() },
+                new String[] { String.class.getName(), String.class.getName() }));
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobGroupStatistics(String groupName) throws SchedulerException {
+        return JobStatisticsSupport.newJobStatistics((CompositeData)invoke(
+                "getJobGroupStatistics",
+                new Object[] { groupName },
+                new String[] { String.class.getName() }));
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public List<JobStatistics> getTopJobStatistics(int count) throws SchedulerException {
+        return JobStatisticsSupport.newJobStatisticsList((List<CompositeData>)invoke(
+                "getTopJobStatistics",
+                new Object[] { count },
+                new String[] { int.class.getName() }));
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public List<JobStatistics> getTopJobGroupStatistics(int count) throws SchedulerException {
+        return JobStatisticsSupport.newJobStatisticsList((List<CompositeData>)invoke(
+                "getTopJobGroupStatistics",
+                new Object[] { count },
+                new String[] { int.class.getName() }));
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     ///
     /// Scheduling-related Methods
@@ -372,10 +531,14 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
     public void addJob(JobDetail jobDetail, boolean replace)
         throws SchedulerException {
-        invoke(
-            "addJob", 
-            new Object[] { JobDetailSupport.toCompositeData(jobDetail), replace },
-            new String[] { CompositeData.class.getName(), boolean.class.getName() });
+        try {
+            invoke(
+                "addJob", 
+                new Object[] { JobDetailSupport.toCompositeData(jobDetail), replace },
+                new String[] { CompositeData.class.getName(), boolean.class.getName() });
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -387,10 +550,14 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
     public void addJob(JobDetail jobDetail, boolean replace, boolean storeNonDurableWhileAwaitingScheduling)
             throws SchedulerException {
-        invoke(
-                "addJob",
-                new Object[] { JobDetailSupport.toCompositeData(jobDetail), replace , storeNonDurableWhileAwaitingScheduling},
-                new String[] { CompositeData.class.getName(), boolean.class.getName(), boolean.class.getName() });
+        try {
+            invoke(
+                    "addJob",
+                    new Object[] { JobDetailSupport.toCompositeData(jobDetail), replace , storeNonDurableWhileAwaitingScheduling},
+                    new String[] { CompositeData.class.getName(), boolean.class.getName(), boolean.class.getName() });
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -402,10 +569,14 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
     public boolean deleteJob(JobKey jobKey)
         throws SchedulerException {
-        return (Boolean)invoke(
-                "deleteJob",
-                new Object[] { jobKey.getName(), jobKey.getGroup() },
-                new String[] { String.class.getName(), String.class.getName() });
+        try {
+            return (Boolean)invoke(
+                    "deleteJob",
+                    new Object[] { jobKey.getName(), jobKey.getGroup() },
+                    new String[] { String.class.getName(), String.class.getName() });
+        } finally {
+            cache.clear();
+        }
     }
 
     /**
@@ -417,10 +588,14 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
     public boolean unscheduleJob(TriggerKey triggerKey)
         throws SchedulerException {
-        return (Boolean)invoke(
-                "unscheduleJob",
-                new Object[] { triggerKey.getName(), triggerKey.getGroup() },
-                new String[] { String.class.getName(), String.class.getName() });
+        try {
+            return (Boolean)invoke(
+                    "unscheduleJob",
+                    new Object[] { triggerKey.getName(), triggerKey.getGroup() },
+                    new String[] { String.class.getName(), String.class.getName() });
+        } finally {
+            cache.clear();
+        }
     }
 
 
@@ -432,6 +607,10 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
 
+    public void scheduleJobsStreaming(Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> triggersAndJobs, boolean replace) throws SchedulerException {
+        throw new SchedulerException("Operation not supported for remote schedulers.");
+    }
+
     public void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
@@ -702,7 +881,15 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      */
     @SuppressWarnings("unchecked")
     public List<String> getJobGroupNames() throws SchedulerException {
-        return (List<String>)getAttribute("JobGroupNames");
+        RemoteSchedulerCache cache = getCache();
+        Object cached = cache.get(RemoteSchedulerCache.JOB_GROUP_NAMES);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (List<String>) cached;
+        }
+        long generation = cache.getGeneration();
+        List<String> groupNames = (List<String>)getAttribute("JobGroupNames");
+        cache.put(RemoteSchedulerCache.JOB_GROUP_NAMES, groupNames, generation);
+        return groupNames;
     }
 
     /**
@@ -770,11 +957,19 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      * </p>
      */
     public JobDetail getJobDetail(JobKey jobKey) throws SchedulerException {
+        RemoteSchedulerCache cache = getCache();
+        Object cached = cache.get(jobKey);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (JobDetail) cached;
+        }
+        long generation = cache.getGeneration();
         try {
-            return JobDetailSupport.newJobDetail((CompositeData)invoke(
+            JobDetail jobDetail = JobDetailSupport.newJobDetail((CompositeData)invoke(
                     "getJobDetail",
                     new Object[] { jobKey.getName(), jobKey.getGroup() },
                     new String[] { String.class.getName(), String.class.getName() }));
+            cache.put(jobKey, jobDetail, generation);
+            return jobDetail;
         } catch (ClassNotFoundException e) {
             throw new SchedulerException("Unable to resolve job class", e);
         }
@@ -789,6 +984,15 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public ResultPage<Trigger> getTriggerPage(TriggerQuery query) throws SchedulerException {
+        throw new SchedulerException("Operation not supported for remote schedulers.");
+    }
+
     /**
      * <p>
      * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
@@ -804,17 +1008,29 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
      * </p>
      */
     public boolean checkExists(TriggerKey triggerKey) throws SchedulerException {
-        return (Boolean)invoke(
+        RemoteSchedulerCache cache = getCache();
+        Boolean cached = cache.exists(triggerKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.getGeneration();
+        boolean exists = (Boolean)invoke(
                 "checkExists", 
                 new Object[] { triggerKey }, 
                 new String[] { TriggerKey.class.getName() });
+        cache.putExists(triggerKey, exists, generation);
+        return exists;
     }
     
     public void clear() throws SchedulerException {
-        invoke(
-                "clear", 
-                new Object[] {  }, 
-                new String[] {  });
+        try {
+            invoke(
+                    "clear", 
+                    new Object[] {  }, 
+                    new String[] {  });
+        } finally {
+            cache.clear();
+        }
     }
 
 
@@ -960,4 +1176,38 @@ public abstract class RemoteMBeanScheduler implements Scheduler {
         throw new SchedulerException("Operation not supported for remote schedulers.");
     }
     
+
+    /**
+     * Invalidates the cache on the notifications of the remote Scheduler
+     * MBean, as sent by <code>QuartzSchedulerMBeanImpl</code>.
+     */
+    private class CacheInvalidator implements NotificationListener {
+
+        @SuppressWarnings("unchecked")
+        public void handleNotification(Notification notification, Object handback) {
+            String type = notification.getType();
+            Object data = notification.getUserData();
+            if (QuartzSchedulerMBean.JOB_ADDED.equals(type)) {
+                CompositeData jobDetail = (CompositeData) data;
+                cache.jobChanged(new JobKey((String) jobDetail.get("name"), (String) jobDetail.get("group")));
+            } else if (QuartzSchedulerMBean.JOB_DELETED.equals(type)) {
+                Map<String, String> map = (Map<String, String>) data;
+                cache.jobChanged(new JobKey(map.get("jobName"), map.get("jobGroup")));
+            } else if (QuartzSchedulerMBean.JOB_SCHEDULED.equals(type)) {
+                CompositeData trigger = (CompositeData) data;
+                cache.triggerAdded(new TriggerKey((String) trigger.get("name"), (String) trigger.get("group")),
+                        new JobKey((String) trigger.get("jobName"), (String) trigger.get("jobGroup")));
+            } else if (QuartzSchedulerMBean.JOB_UNSCHEDULED.equals(type)
+                    || QuartzSchedulerMBean.TRIGGER_FINALIZED.equals(type)) {
+                Map<String, String> map = (Map<String, String>) data;
+                cache.triggerRemoved(new TriggerKey(map.get("triggerName"), map.get("triggerGroup")));
+            } else if (QuartzSchedulerMBean.SCHEDULER_STARTED.equals(type)
+                    || QuartzSchedulerMBean.SCHEDULER_PAUSED.equals(type)) {
+                cache.invalidate(RemoteSchedulerCache.META_DATA);
+            } else if (QuartzSchedulerMBean.SCHEDULING_DATA_CLEARED.equals(type)
+                    || QuartzSchedulerMBean.SCHEDULER_SHUTDOWN.equals(type)) {
+                cache.clear();
+            }
+        }
+    }
 }
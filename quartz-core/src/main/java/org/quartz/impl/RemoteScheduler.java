@@ -20,7 +20,10 @@ package org.quartz.impl;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +33,8 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.ResultPage;
 import org.quartz.ListenerManager;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerContext;
@@ -37,6 +42,7 @@ import org.quartz.SchedulerException;
 import org.quartz.SchedulerMetaData;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.RemotableQuartzScheduler;
@@ -65,6 +71,12 @@ public class RemoteScheduler implements Scheduler {
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
 
+    /**
+     * The number of triggers sent per remote call by
+     * <code>scheduleJobsStreaming(Iterator, boolean)</code>.
+     */
+    public static final int BULK_SCHEDULE_CHUNK_SIZE = 1000;
+
     private RemotableQuartzScheduler rsched;
 
     private String schedId;
@@ -73,6 +85,10 @@ public class RemoteScheduler implements Scheduler {
 
     private int rmiPort;
 
+    private int cacheMaxEntries = RemoteSchedulerCache.DEFAULT_MAX_ENTRIES;
+
+    private volatile RemoteSchedulerCache cache = new RemoteSchedulerCache(0L, cacheMaxEntries);
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -123,6 +139,48 @@ public class RemoteScheduler implements Scheduler {
         return rsched;
     }
 
+    /**
+     * <p>
+     * Set how long the job details, triggers, meta-data and job group names
+     * read from the remote scheduler are cached, in milliseconds. The default
+     * of 0 caches nothing.
+     * </p>
+     * 
+     * <p>
+     * A write made through this <code>RemoteScheduler</code> clears the
+     * cache, but changes made by others are only seen once the time to live
+     * elapses, unless the transport delivers the events of the remote
+     * scheduler, as <code>{@link RemotingScheduler}</code> does.
+     * </p>
+     */
+    public void setCacheTimeToLive(long cacheTimeToLive) {
+        cache = new RemoteSchedulerCache(cacheTimeToLive, cacheMaxEntries);
+    }
+
+    public long getCacheTimeToLive() {
+        return cache.getTimeToLive();
+    }
+
+    /**
+     * <p>
+     * Set the maximum number of job details, triggers and existence checks
+     * cached, the least recently used ones being evicted first.
+     * </p>
+     */
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        RemoteSchedulerCache newCache = new RemoteSchedulerCache(cache.getTimeToLive(), cacheMaxEntries);
+        this.cacheMaxEntries = cacheMaxEntries;
+        cache = newCache;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    RemoteSchedulerCache getCache() {
+        return cache;
+    }
+
     protected SchedulerException invalidateHandleCreateException(String msg,
             Exception cause) {
         rsched = null;
@@ -159,6 +217,23 @@ public class RemoteScheduler implements Scheduler {
     }
 
     public SchedulerMetaData getMetaData() throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Object cached = cache.get(RemoteSchedulerCache.META_DATA);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (SchedulerMetaData) cached;
+        }
+        long generation = cache.getGeneration();
+        SchedulerMetaData metaData = fetchMetaData();
+        cache.put(RemoteSchedulerCache.META_DATA, metaData, generation);
+        return metaData;
+    }
+
+    /**
+     * <p>
+     * Read the meta-data of the remote scheduler, bypassing the cache.
+     * </p>
+     */
+    protected SchedulerMetaData fetchMetaData() throws SchedulerException {
         try {
             RemotableQuartzScheduler sched = getRemoteScheduler();
             return new SchedulerMetaData(getSchedulerName(),
@@ -206,6 +281,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -220,6 +297,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
     
@@ -234,6 +313,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -289,6 +370,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -308,6 +391,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -339,6 +424,62 @@ public class RemoteScheduler implements Scheduler {
         }
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobStatistics(JobKey jobKey) throws SchedulerException {
+        try {
+            return getRemoteScheduler().getJobStatistics(jobKey);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobGroupStatistics(String groupName) throws SchedulerException {
+        try {
+            return getRemoteScheduler().getJobGroupStatistics(groupName);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobStatistics(int count) throws SchedulerException {
+        try {
+            return getRemoteScheduler().getTopJobStatistics(count);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobGroupStatistics(int count) throws SchedulerException {
+        try {
+            return getRemoteScheduler().getTopJobGroupStatistics(count);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     ///
     /// Scheduling-related Methods
@@ -358,6 +499,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -372,6 +515,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -387,6 +532,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -397,6 +544,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -406,6 +555,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -415,8 +566,35 @@ public class RemoteScheduler implements Scheduler {
             } catch (RemoteException re) {
                 throw invalidateHandleCreateException(
                         "Error communicating with remote scheduler.", re);
+            } finally {
+                cache.clear();
             }
     }
+
+    /**
+     * <p>
+     * Calls <code>scheduleJobs(Map, boolean)</code> on the remote scheduler
+     * for chunks of <code>BULK_SCHEDULE_CHUNK_SIZE</code> triggers, as the
+     * iterator itself cannot be sent.
+     * </p>
+     */
+    public void scheduleJobsStreaming(Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> triggersAndJobs, boolean replace) throws SchedulerException {
+        while (triggersAndJobs.hasNext()) {
+            Map<JobDetail, Set<? extends Trigger>> chunk = new HashMap<JobDetail, Set<? extends Trigger>>();
+            int triggerCount = 0;
+            while (triggerCount < BULK_SCHEDULE_CHUNK_SIZE && triggersAndJobs.hasNext()) {
+                Map.Entry<JobDetail, Set<? extends Trigger>> e = triggersAndJobs.next();
+                if (chunk.containsKey(e.getKey())) {
+                    scheduleJobs(chunk, replace);
+                    chunk = new HashMap<JobDetail, Set<? extends Trigger>>();
+                    triggerCount = 0;
+                }
+                chunk.put(e.getKey(), e.getValue());
+                triggerCount += (e.getValue() == null) ? 1 : Math.max(1, e.getValue().size());
+            }
+            scheduleJobs(chunk, replace);
+        }
+    }
     
     public void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException {
         try {
@@ -424,6 +602,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -434,6 +614,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -450,6 +632,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -465,6 +649,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
 
@@ -481,6 +667,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
     
@@ -660,9 +848,18 @@ public class RemoteScheduler implements Scheduler {
      * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
      * </p>
      */
+    @SuppressWarnings("unchecked")
     public List<String> getJobGroupNames() throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Object cached = cache.get(RemoteSchedulerCache.JOB_GROUP_NAMES);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (List<String>) cached;
+        }
+        long generation = cache.getGeneration();
         try {
-            return getRemoteScheduler().getJobGroupNames();
+            List<String> groupNames = getRemoteScheduler().getJobGroupNames();
+            cache.put(RemoteSchedulerCache.JOB_GROUP_NAMES, groupNames, generation);
+            return groupNames;
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
@@ -726,15 +923,72 @@ public class RemoteScheduler implements Scheduler {
         }
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public ResultPage<Trigger> getTriggerPage(TriggerQuery query) throws SchedulerException {
+        try {
+            return getRemoteScheduler().getTriggerPage(query);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
     /**
      * <p>
      * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
      * </p>
      */
     public JobDetail getJobDetail(JobKey jobKey)
+        throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Object cached = cache.get(jobKey);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (JobDetail) cached;
+        }
+        if (Boolean.FALSE.equals(cache.exists(jobKey))) {
+            return null;
+        }
+        long generation = cache.getGeneration();
+        try {
+            JobDetail jobDetail = getRemoteScheduler().getJobDetail(jobKey);
+            cache.put(jobKey, jobDetail, generation);
+            return jobDetail;
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    /**
+     * <p>
+     * Get the <code>{@link JobDetail}</code>s of the given keys in a single
+     * remote call, omitting the keys of jobs that don't exist.
+     * </p>
+     */
+    public Map<JobKey, JobDetail> getJobDetails(Collection<JobKey> jobKeys)
         throws SchedulerException {
         try {
-            return getRemoteScheduler().getJobDetail(jobKey);
+            return getRemoteScheduler().getJobDetails(jobKeys);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    /**
+     * <p>
+     * Get the <code>{@link Trigger}</code>s of the given keys in a single
+     * remote call, omitting the keys of triggers that don't exist.
+     * </p>
+     */
+    public Map<TriggerKey, ? extends Trigger> getTriggers(Collection<TriggerKey> triggerKeys)
+        throws SchedulerException {
+        try {
+            return getRemoteScheduler().getTriggers(triggerKeys);
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
@@ -747,8 +1001,16 @@ public class RemoteScheduler implements Scheduler {
      * </p>
      */
     public boolean checkExists(JobKey jobKey) throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Boolean cached = cache.exists(jobKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.getGeneration();
         try {
-            return getRemoteScheduler().checkExists(jobKey);
+            boolean exists = getRemoteScheduler().checkExists(jobKey);
+            cache.putExists(jobKey, exists, generation);
+            return exists;
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
@@ -761,8 +1023,16 @@ public class RemoteScheduler implements Scheduler {
      * </p>
      */
     public boolean checkExists(TriggerKey triggerKey) throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Boolean cached = cache.exists(triggerKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.getGeneration();
         try {
-            return getRemoteScheduler().checkExists(triggerKey);
+            boolean exists = getRemoteScheduler().checkExists(triggerKey);
+            cache.putExists(triggerKey, exists, generation);
+            return exists;
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
@@ -780,6 +1050,8 @@ public class RemoteScheduler implements Scheduler {
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
+        } finally {
+            cache.clear();
         }
     }
     
@@ -790,8 +1062,19 @@ public class RemoteScheduler implements Scheduler {
      */
     public Trigger getTrigger(TriggerKey triggerKey)
         throws SchedulerException {
+        RemoteSchedulerCache cache = this.cache;
+        Object cached = cache.get(triggerKey);
+        if (cached != RemoteSchedulerCache.MISS) {
+            return (Trigger) cached;
+        }
+        if (Boolean.FALSE.equals(cache.exists(triggerKey))) {
+            return null;
+        }
+        long generation = cache.getGeneration();
         try {
-            return getRemoteScheduler().getTrigger(triggerKey);
+            Trigger trigger = getRemoteScheduler().getTrigger(triggerKey);
+            cache.put(triggerKey, trigger, generation);
+            return trigger;
         } catch (RemoteException re) {
             throw invalidateHandleCreateException(
                     "Error communicating with remote scheduler.", re);
@@ -0,0 +1,346 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.quartz.spi.MutableTrigger;
+
+/**
+ * <p>
+ * The client-side cache of the reads of a <code>{@link RemoteScheduler}</code>
+ * or <code>{@link RemoteMBeanScheduler}</code>: job details, triggers, whether
+ * they exist, the meta-data and the job group names.
+ * </p>
+ *
+ * <p>
+ * Entries expire after the time to live, and are invalidated by the
+ * <code>{@link SchedulerListener}</code> events of the remote scheduler when
+ * the proxy receives them, so the time to live bounds how stale a read can
+ * be when an event is missed, or when the data changes without an event
+ * (e.g. the next fire time of a trigger that fired, or the number of jobs
+ * executed). Writes made through the proxy clear the cache, so it reads its
+ * own writes.
+ * </p>
+ *
+ * <p>
+ * A value read before an invalidation is not cached after it: readers take
+ * the generation of the cache before calling the remote scheduler, and the
+ * value is dropped if the cache was invalidated meanwhile.
+ * </p>
+ */
+class RemoteSchedulerCache {
+
+    /**
+     * Returned by <code>get()</code> when the value is not cached.
+     */
+    static final Object MISS = new Object();
+
+    static final Object META_DATA = "metaData";
+
+    static final Object JOB_GROUP_NAMES = "jobGroupNames";
+
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final long timeToLive;
+
+    private final Map<Object, CacheEntry> entries;
+
+    // guarded by entries
+    private long generation;
+
+    private final SchedulerListener schedulerListener = new Invalidator();
+
+    /**
+     * @param timeToLive how long values are cached, in milliseconds, or 0 to
+     *        cache nothing.
+     */
+    RemoteSchedulerCache(long timeToLive, final int maxEntries) {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("Time to live must be >= 0.");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be > 0.");
+        }
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return timeToLive > 0;
+    }
+
+    long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Get the generation to pass to <code>put()</code> for a value about to
+     * be read from the remote scheduler.
+     */
+    long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Get a copy of the cached value of the given key, or <code>MISS</code>.
+     */
+    Object get(Object key) {
+        if (!isEnabled()) {
+            return MISS;
+        }
+        CacheEntry entry = getEntry(key);
+        if (entry == null || !entry.loaded) {
+            return MISS;
+        }
+        return copy(entry.value);
+    }
+
+    /**
+     * Get whether the job or trigger of the given key exists, or
+     * <code>null</code> if that is not cached.
+     */
+    Boolean exists(Object key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        CacheEntry entry = getEntry(key);
+        return entry == null ? null : Boolean.valueOf(entry.exists);
+    }
+
+    /**
+     * Cache the value of the given key, <code>null</code> meaning that the
+     * job or trigger does not exist.
+     */
+    void put(Object key, Object value, long readGeneration) {
+        put(key, new CacheEntry(copy(value), value != null, true, System.currentTimeMillis() + timeToLive),
+                readGeneration);
+    }
+
+    /**
+     * Cache whether the job or trigger of the given key exists.
+     */
+    void putExists(Object key, boolean exists, long readGeneration) {
+        put(key, new CacheEntry(null, exists, false, System.currentTimeMillis() + timeToLive), readGeneration);
+    }
+
+    private void put(Object key, CacheEntry entry, long readGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (entries) {
+            if (readGeneration != generation) {
+                return;
+            }
+            CacheEntry old = entries.get(key);
+            if (old != null && old.loaded && !entry.loaded && old.exists == entry.exists) {
+                // keep the value, which tells the existence as well
+                return;
+            }
+            entries.put(key, entry);
+        }
+    }
+
+    private CacheEntry getEntry(Object key) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.expires <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    void invalidate(Object key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Invalidate the given key, and the cached entries of the given type,
+     * e.g. all of the jobs when a trigger is removed, as a job that is not
+     * durable is removed along with its last trigger.
+     */
+    void invalidate(Object key, Class<?> keyType) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+            for (Iterator<Object> it = entries.keySet().iterator(); it.hasNext();) {
+                if (keyType.isInstance(it.next())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get a <code>{@link SchedulerListener}</code> that invalidates this
+     * cache on the events of the remote scheduler.
+     */
+    SchedulerListener getSchedulerListener() {
+        return schedulerListener;
+    }
+
+    void jobChanged(JobKey jobKey) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(jobKey);
+            entries.remove(JOB_GROUP_NAMES);
+        }
+    }
+
+    void triggerAdded(TriggerKey triggerKey, JobKey jobKey) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(triggerKey);
+            entries.remove(jobKey);
+            entries.remove(JOB_GROUP_NAMES);
+        }
+    }
+
+    void triggerRemoved(TriggerKey triggerKey) {
+        synchronized (entries) {
+            invalidate(triggerKey, JobKey.class);
+            entries.remove(JOB_GROUP_NAMES);
+        }
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof JobDetail) {
+            return ((JobDetail) value).clone();
+        }
+        if (value instanceof MutableTrigger) {
+            return ((MutableTrigger) value).clone();
+        }
+        if (value instanceof List) {
+            return new ArrayList<Object>((List<?>) value);
+        }
+        return value;
+    }
+
+    private static class CacheEntry {
+
+        private final Object value;
+
+        private final boolean exists;
+
+        private final boolean loaded;
+
+        private final long expires;
+
+        CacheEntry(Object value, boolean exists, boolean loaded, long expires) {
+            this.value = value;
+            this.exists = exists;
+            this.loaded = loaded;
+            this.expires = expires;
+        }
+    }
+
+    private class Invalidator extends SchedulerListenerSupport {
+
+        @Override
+        public void jobAdded(JobDetail jobDetail) {
+            jobChanged(jobDetail.getKey());
+        }
+
+        @Override
+        public void jobDeleted(JobKey jobKey) {
+            jobChanged(jobKey);
+        }
+
+        @Override
+        public void jobScheduled(Trigger trigger) {
+            triggerAdded(trigger.getKey(), trigger.getJobKey());
+        }
+
+        @Override
+        public void jobUnscheduled(TriggerKey triggerKey) {
+            triggerRemoved(triggerKey);
+        }
+
+        @Override
+        public void triggerFinalized(Trigger trigger) {
+            triggerRemoved(trigger.getKey());
+        }
+
+        @Override
+        public void schedulingDataCleared() {
+            clear();
+        }
+
+        @Override
+        public void schedulerStarted() {
+            invalidate(META_DATA);
+        }
+
+        @Override
+        public void schedulerInStandbyMode() {
+            invalidate(META_DATA);
+        }
+
+        @Override
+        public void schedulerShutdown() {
+            clear();
+        }
+
+        /**
+         * Called when the events of the remote scheduler may have been
+         * missed, e.g. as its connection was lost.
+         */
+        @Override
+        public void schedulerError(String msg, SchedulerException cause) {
+            clear();
+        }
+    }
+}
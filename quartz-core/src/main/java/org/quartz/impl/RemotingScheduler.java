@@ -0,0 +1,255 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.impl;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerMetaData;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.core.RemotableQuartzScheduler;
+import org.quartz.core.remoting.RemotingClient;
+import org.quartz.core.remoting.RemotingClient.Invocation;
+import org.quartz.core.remoting.RemotingServer;
+import org.quartz.core.remoting.RemotingTimeoutException;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+/**
+ * <p>
+ * A <code>{@link RemoteScheduler}</code> that proxies its calls through a
+ * <code>{@link RemotingClient}</code> to a scheduler exported by a
+ * <code>{@link RemotingServer}</code>, instead of through RMI.
+ * </p>
+ * 
+ * <p>
+ * All of the threads using a <code>RemotingScheduler</code> share one
+ * connection, on which their calls are pipelined. Besides the multi-get
+ * <code>{@link #getJobDetails(java.util.Collection)}</code> and
+ * <code>{@link #getTriggers(java.util.Collection)}</code>, and the bulk
+ * <code>scheduleJobs()</code>, <code>{@link #invokeAll(List)}</code> makes
+ * any calls in a single round trip, as <code>{@link #getMetaData()}</code>
+ * does.
+ * </p>
+ * 
+ * <p>
+ * When its cache is enabled, with
+ * <code>{@link #setCacheTimeToLive(long)}</code>, the server pushes the
+ * events of the scheduler that invalidate the cached job details, triggers,
+ * meta-data and job group names, so they are seen as soon as they happen
+ * rather than once the time to live elapses.
+ * </p>
+ * 
+ * @see org.quartz.impl.StdSchedulerFactory#PROP_SCHED_REMOTING_PROXY
+ */
+public class RemotingScheduler extends RemoteScheduler {
+
+    private final String host;
+
+    private final int port;
+
+    private final long callTimeout;
+
+    private final String secret;
+
+    private final List<String> allowedClasses;
+
+    private RemotingClient client;
+
+    private RemotableQuartzScheduler proxy;
+
+    /**
+     * @param callTimeout how long to wait for the response to a call, in
+     *        milliseconds, or 0 to wait until the connection fails.
+     * @param secret the secret shared with the served scheduler.
+     * @param allowedClasses the classes the served scheduler may send
+     *        serialized besides those allowed by default.
+     * @see StdSchedulerFactory#PROP_SCHED_REMOTING_ALLOWED_CLASSES
+     */
+    public RemotingScheduler(String schedId, String host, int port, long callTimeout, String secret,
+            List<String> allowedClasses) {
+        super(schedId, host, port);
+        this.host = host;
+        this.port = port;
+        this.callTimeout = callTimeout;
+        this.secret = secret;
+        this.allowedClasses = allowedClasses;
+    }
+
+    @Override
+    protected synchronized RemotableQuartzScheduler getRemoteScheduler() throws SchedulerException {
+        if (proxy != null) {
+            return proxy;
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        RemotingClient newClient = new RemotingClient(host, port, callTimeout, secret,
+                classLoader != null ? classLoader : getClass().getClassLoader(), allowedClasses);
+        try {
+            newClient.connect();
+        } catch (IOException e) {
+            throw new SchedulerException("Could not get handle to remote scheduler: " + e.getMessage(), e);
+        }
+        // events may have been missed while not connected
+        getCache().clear();
+        if (getCache().isEnabled()) {
+            try {
+                newClient.subscribe(new CacheInvalidator());
+            } catch (RemoteException e) {
+                newClient.close();
+                throw new SchedulerException("Could not subscribe to the events of remote scheduler: "
+                        + e.getMessage(), e);
+            }
+        }
+        client = newClient;
+        proxy = newClient.newProxy();
+        return proxy;
+    }
+
+    /**
+     * Drop the connection only once it failed: a call that timed out, or
+     * that could not encode its arguments, leaves it usable by the others.
+     */
+    @Override
+    protected synchronized SchedulerException invalidateHandleCreateException(String msg, Exception cause) {
+        if (cause instanceof RemotingTimeoutException || (client != null && client.isConnected())) {
+            return new SchedulerException(msg, cause);
+        }
+        if (client != null) {
+            client.close();
+            client = null;
+            proxy = null;
+        }
+        return super.invalidateHandleCreateException(msg, cause);
+    }
+
+    /**
+     * <p>
+     * Make the given calls of the remote <code>QuartzScheduler</code> in a
+     * single round trip, one after the other. Each
+     * <code>{@link Invocation}</code> then holds the value returned or the
+     * exception thrown by its call.
+     * </p>
+     */
+    public void invokeAll(List<Invocation> invocations) throws SchedulerException {
+        RemotingClient currentClient;
+        synchronized (this) {
+            getRemoteScheduler();
+            currentClient = client;
+        }
+        try {
+            currentClient.invokeAll(invocations);
+        } catch (RemoteException re) {
+            throw invalidateHandleCreateException(
+                    "Error communicating with remote scheduler.", re);
+        }
+    }
+
+    @Override
+    protected SchedulerMetaData fetchMetaData() throws SchedulerException {
+        String[] methodNames = { "getSchedulerName", "getSchedulerInstanceId", "runningSince",
+                "isInStandbyMode", "isShutdown", "numJobsExecuted", "getJobStoreClass",
+                "supportsPersistence", "isClustered", "getThreadPoolClass", "getThreadPoolSize", "getVersion" };
+        List<Invocation> invocations = new ArrayList<Invocation>(methodNames.length);
+        for (String methodName : methodNames) {
+            invocations.add(Invocation.of(methodName, new Class<?>[0]));
+        }
+        invokeAll(invocations);
+
+        Object[] results = new Object[methodNames.length];
+        try {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = invocations.get(i).getResult();
+            }
+        } catch (SchedulerException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SchedulerException("Couldn't get the meta-data of the remote scheduler.", t);
+        }
+
+        return new SchedulerMetaData((String) results[0], (String) results[1], getClass(), true,
+                results[2] != null, (Boolean) results[3], (Boolean) results[4], (Date) results[2],
+                (Integer) results[5], (Class<?>) results[6], (Boolean) results[7], (Boolean) results[8],
+                (Class<?>) results[9], (Integer) results[10], (String) results[11]);
+    }
+
+    /**
+     * Forwards the events pushed by the server to the current cache, which
+     * is replaced when its time to live is set.
+     */
+    private class CacheInvalidator extends SchedulerListenerSupport {
+
+        @Override
+        public void jobAdded(JobDetail jobDetail) {
+            getCache().getSchedulerListener().jobAdded(jobDetail);
+        }
+
+        @Override
+        public void jobDeleted(JobKey jobKey) {
+            getCache().getSchedulerListener().jobDeleted(jobKey);
+        }
+
+        @Override
+        public void jobScheduled(Trigger trigger) {
+            getCache().getSchedulerListener().jobScheduled(trigger);
+        }
+
+        @Override
+        public void jobUnscheduled(TriggerKey triggerKey) {
+            getCache().getSchedulerListener().jobUnscheduled(triggerKey);
+        }
+
+        @Override
+        public void triggerFinalized(Trigger trigger) {
+            getCache().getSchedulerListener().triggerFinalized(trigger);
+        }
+
+        @Override
+        public void schedulingDataCleared() {
+            getCache().getSchedulerListener().schedulingDataCleared();
+        }
+
+        @Override
+        public void schedulerStarted() {
+            getCache().getSchedulerListener().schedulerStarted();
+        }
+
+        @Override
+        public void schedulerInStandbyMode() {
+            getCache().getSchedulerListener().schedulerInStandbyMode();
+        }
+
+        @Override
+        public void schedulerShutdown() {
+            getCache().getSchedulerListener().schedulerShutdown();
+        }
+
+        @Override
+        public void schedulerError(String msg, SchedulerException cause) {
+            getCache().getSchedulerListener().schedulerError(msg, cause);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.core.JobRunShell;
 import org.quartz.core.JobRunShellFactory;
+import org.quartz.core.JobRunShellPool;
 import org.quartz.spi.TriggerFiredBundle;
 
 /**
@@ -43,6 +44,8 @@ public class StdJobRunShellFactory implements JobRunShellFactory {
 
     private Scheduler scheduler;
 
+    private JobRunShellPool jobRunShellPool;
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -62,6 +65,16 @@ public class StdJobRunShellFactory implements JobRunShellFactory {
         this.scheduler = sched;
     }
 
+    /**
+     * <p>
+     * Recycle the <code>JobRunShell</code>s through the given pool, or create
+     * a new one for each fire if <code>null</code> (the default).
+     * </p>
+     */
+    public void setJobRunShellPool(JobRunShellPool jobRunShellPool) {
+        this.jobRunShellPool = jobRunShellPool;
+    }
+
     /**
      * <p>
      * Called by the <class>{@link org.quartz.core.QuartzSchedulerThread}
@@ -70,6 +83,9 @@ public class StdJobRunShellFactory implements JobRunShellFactory {
      * </p>
      */
     public JobRunShell createJobRunShell(TriggerFiredBundle bndle) throws SchedulerException {
+        if (jobRunShellPool != null) {
+            return jobRunShellPool.acquire(scheduler, bndle);
+        }
         return new JobRunShell(scheduler, bndle);
     }
 }
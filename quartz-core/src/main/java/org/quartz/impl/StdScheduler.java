@@ -18,6 +18,7 @@
 package org.quartz.impl;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +28,8 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.ResultPage;
 import org.quartz.ListenerManager;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerContext;
@@ -34,6 +37,7 @@ import org.quartz.SchedulerException;
 import org.quartz.SchedulerMetaData;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.UnableToInterruptJobException;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.core.QuartzScheduler;
@@ -228,6 +232,42 @@ public class StdScheduler implements Scheduler {
         return sched.getCurrentlyExecutingJobs();
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobStatistics(JobKey jobKey) {
+        return sched.getJobStatistics(jobKey);
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public JobStatistics getJobGroupStatistics(String groupName) {
+        return sched.getJobGroupStatistics(groupName);
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobStatistics(int count) {
+        return sched.getTopJobStatistics(count);
+    }
+
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public List<JobStatistics> getTopJobGroupStatistics(int count) {
+        return sched.getTopJobGroupStatistics(count);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     ///
     /// Scheduling-related Methods
@@ -286,6 +326,15 @@ public class StdScheduler implements Scheduler {
         sched.scheduleJobs(triggersAndJobs, replace);
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public void scheduleJobsStreaming(Iterator<Map.Entry<JobDetail, Set<? extends Trigger>>> triggersAndJobs, boolean replace) throws SchedulerException {
+        sched.scheduleJobsStreaming(triggersAndJobs, replace);
+    }
+
     public void scheduleJob(JobDetail jobDetail, Set<? extends Trigger> triggersForJob, boolean replace) throws SchedulerException {
         sched.scheduleJob(jobDetail,  triggersForJob, replace);
     }
@@ -492,6 +541,15 @@ public class StdScheduler implements Scheduler {
         return sched.getTriggerKeys(matcher);
     }
 
+    /**
+     * <p>
+     * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
+     * </p>
+     */
+    public ResultPage<Trigger> getTriggerPage(TriggerQuery query) throws SchedulerException {
+        return sched.getTriggerPage(query);
+    }
+
     /**
      * <p>
      * Calls the equivalent method on the 'proxied' <code>QuartzScheduler</code>.
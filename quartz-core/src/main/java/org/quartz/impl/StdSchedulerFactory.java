@@ -24,8 +24,13 @@ import org.quartz.SchedulerException;
 import org.quartz.SchedulerFactory;
 import org.quartz.TriggerListener;
 import org.quartz.core.JobRunShellFactory;
+import org.quartz.core.JobRunShellPool;
+import org.quartz.core.JobStatisticsRegistry;
+import org.quartz.core.ListenerEventDispatcher;
 import org.quartz.core.QuartzScheduler;
 import org.quartz.core.QuartzSchedulerResources;
+import org.quartz.core.remoting.RemotingClient;
+import org.quartz.core.remoting.RemotingServer;
 import org.quartz.ee.jta.JTAAnnotationAwareJobRunShellFactory;
 import org.quartz.ee.jta.JTAJobRunShellFactory;
 import org.quartz.ee.jta.UserTransactionHelper;
@@ -33,6 +38,8 @@ import org.quartz.impl.jdbcjobstore.JobStoreSupport;
 import org.quartz.impl.jdbcjobstore.Semaphore;
 import org.quartz.impl.jdbcjobstore.TablePrefixAware;
 import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.listeners.AsynchronousListener;
+import org.quartz.listeners.AsynchronousListeners;
 import org.quartz.management.ManagementRESTServiceConfiguration;
 import org.quartz.simpl.RAMJobStore;
 import org.quartz.simpl.SimpleThreadPool;
@@ -40,6 +47,7 @@ import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.InstanceIdGenerator;
 import org.quartz.spi.JobFactory;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.SchedulerMetricsRecorder;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.ThreadExecutor;
 import org.quartz.spi.ThreadPool;
@@ -52,7 +60,6 @@ import org.quartz.utils.PropertiesParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
@@ -63,10 +70,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.security.AccessControlException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * <p>
@@ -152,6 +171,22 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_SCHED_MAX_BATCH_SIZE = "org.quartz.scheduler.batchTriggerAcquisitionMaxCount";
 
+    public static final String PROP_SCHED_BULK_SCHEDULE_CHUNK_SIZE = "org.quartz.scheduler.bulkScheduleChunkSize";
+
+    public static final String PROP_SCHED_RECYCLE_JOB_RUN_SHELLS = "org.quartz.scheduler.recycleJobRunShells";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_QUEUE_SIZE = "org.quartz.scheduler.asyncListenerQueueSize";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_BATCH_SIZE = "org.quartz.scheduler.asyncListenerBatchSize";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_THREAD_COUNT = "org.quartz.scheduler.asyncListenerThreadCount";
+
+    public static final String PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY = "org.quartz.scheduler.asyncListenerOverflowPolicy";
+
+    public static final String PROP_SCHED_JOB_STATISTICS_ENABLED = "org.quartz.scheduler.jobStatisticsEnabled";
+
+    public static final String PROP_SCHED_JOB_STATISTICS_MAX_JOBS = "org.quartz.scheduler.jobStatisticsMaxJobs";
+
     public static final String PROP_SCHED_JMX_EXPORT = "org.quartz.scheduler.jmx.export";
 
     public static final String PROP_SCHED_JMX_OBJECT_NAME = "org.quartz.scheduler.jmx.objectName";
@@ -174,6 +209,26 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_SCHED_RMI_BIND_NAME = "org.quartz.scheduler.rmi.bindName";
 
+    public static final String PROP_SCHED_RMI_CACHE_TIME_TO_LIVE = "org.quartz.scheduler.rmi.cacheTimeToLive";
+
+    public static final String PROP_SCHED_REMOTING_EXPORT = "org.quartz.scheduler.remoting.export";
+
+    public static final String PROP_SCHED_REMOTING_PROXY = "org.quartz.scheduler.remoting.proxy";
+
+    public static final String PROP_SCHED_REMOTING_HOST = "org.quartz.scheduler.remoting.host";
+
+    public static final String PROP_SCHED_REMOTING_PORT = "org.quartz.scheduler.remoting.port";
+
+    public static final String PROP_SCHED_REMOTING_THREAD_COUNT = "org.quartz.scheduler.remoting.threadCount";
+
+    public static final String PROP_SCHED_REMOTING_CALL_TIMEOUT = "org.quartz.scheduler.remoting.callTimeout";
+
+    public static final String PROP_SCHED_REMOTING_CACHE_TIME_TO_LIVE = "org.quartz.scheduler.remoting.cacheTimeToLive";
+
+    public static final String PROP_SCHED_REMOTING_SECRET = "org.quartz.scheduler.remoting.secret";
+
+    public static final String PROP_SCHED_REMOTING_ALLOWED_CLASSES = "org.quartz.scheduler.remoting.allowedClasses";
+
     public static final String PROP_SCHED_WRAP_JOB_IN_USER_TX = "org.quartz.scheduler.wrapJobExecutionInUserTransaction";
 
     public static final String PROP_SCHED_USER_TX_URL = "org.quartz.scheduler.userTransactionURL";
@@ -192,12 +247,18 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_SCHED_JOB_FACTORY_PREFIX = "org.quartz.scheduler.jobFactory";
 
+    public static final String PROP_SCHED_METRICS_RECORDER_CLASS = "org.quartz.scheduler.metricsRecorder.class";
+
+    public static final String PROP_SCHED_METRICS_RECORDER_PREFIX = "org.quartz.scheduler.metricsRecorder";
+
     public static final String PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN = "org.quartz.scheduler.interruptJobsOnShutdown";
 
     public static final String PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN_WITH_WAIT = "org.quartz.scheduler.interruptJobsOnShutdownWithWait";
 
     public static final String PROP_SCHED_CONTEXT_PREFIX = "org.quartz.context.key";
 
+    public static final String PROP_SCHED_FAST_START = "org.quartz.scheduler.fastStart";
+
     public static final String PROP_THREAD_POOL_PREFIX = "org.quartz.threadPool";
 
     public static final String PROP_THREAD_POOL_CLASS = "org.quartz.threadPool.class";
@@ -216,6 +277,8 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_JOB_STORE_USE_PROP = "org.quartz.jobStore.useProperties";
 
+    public static final String PROP_JOB_STORE_DEFER_RECOVERY = "org.quartz.jobStore.deferRecovery";
+
     public static final String PROP_DATASOURCE_PREFIX = "org.quartz.dataSource";
 
     public static final String PROP_CONNECTION_PROVIDER_CLASS = "connectionProvider.class";
@@ -278,6 +341,8 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_LISTENER_CLASS = "class";
 
+    public static final String PROP_LISTENER_ASYNC = "async";
+
     public static final String DEFAULT_INSTANCE_ID = "NON_CLUSTERED";
 
     public static final String AUTO_GENERATE_INSTANCE_ID = "AUTO";
@@ -626,6 +691,24 @@ public class StdSchedulerFactory implements SchedulerFactory {
      * @throws SchedulerException
      */
     private Scheduler instantiate() throws SchedulerException {
+        // DataSources started in the background, until handed to the DBConnectionManager
+        Map<String, Future<ConnectionProvider>> dsInitializers = new LinkedHashMap<String, Future<ConnectionProvider>>();
+        try {
+            return instantiate(dsInitializers);
+        } catch (SchedulerException e) {
+            shutdownDataSources(dsInitializers);
+            throw e;
+        } catch (RuntimeException re) {
+            shutdownDataSources(dsInitializers);
+            throw re;
+        } catch (Error re) {
+            shutdownDataSources(dsInitializers);
+            throw re;
+        }
+    }
+
+    private Scheduler instantiate(Map<String, Future<ConnectionProvider>> dsInitializers)
+        throws SchedulerException {
         if (cfg == null) {
             initialize();
         }
@@ -647,6 +730,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
         long dbFailureRetry = 15000L; // 15 secs
         String classLoadHelperClass;
         String jobFactoryClass;
+        String metricsRecorderClass;
         ThreadExecutor threadExecutor;
 
         // SchedulerRepository中主要保存scheduler名字到scheduler的mapping关系
@@ -692,6 +776,9 @@ public class StdSchedulerFactory implements SchedulerFactory {
         jobFactoryClass = cfg.getStringProperty(
                 PROP_SCHED_JOB_FACTORY_CLASS, null);
 
+        metricsRecorderClass = cfg.getStringProperty(
+                PROP_SCHED_METRICS_RECORDER_CLASS, null);
+
         idleWaitTime = cfg.getLongProperty(PROP_SCHED_IDLE_WAIT_TIME,
                 idleWaitTime);
         if(idleWaitTime > -1 && idleWaitTime < 1000) {
@@ -711,10 +798,38 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
         long batchTimeWindow = cfg.getLongProperty(PROP_SCHED_BATCH_TIME_WINDOW, 0L);
         int maxBatchSize = cfg.getIntProperty(PROP_SCHED_MAX_BATCH_SIZE, 1);
+        int bulkScheduleChunkSize = cfg.getIntProperty(PROP_SCHED_BULK_SCHEDULE_CHUNK_SIZE,
+                QuartzSchedulerResources.DEFAULT_BULK_SCHEDULE_CHUNK_SIZE);
+
+        boolean recycleJobRunShells = cfg.getBooleanProperty(PROP_SCHED_RECYCLE_JOB_RUN_SHELLS, false);
+
+        int asyncListenerQueueSize = cfg.getIntProperty(PROP_SCHED_ASYNC_LISTENER_QUEUE_SIZE,
+                ListenerEventDispatcher.DEFAULT_QUEUE_SIZE);
+        int asyncListenerBatchSize = cfg.getIntProperty(PROP_SCHED_ASYNC_LISTENER_BATCH_SIZE,
+                ListenerEventDispatcher.DEFAULT_BATCH_SIZE);
+        int asyncListenerThreadCount = cfg.getIntProperty(PROP_SCHED_ASYNC_LISTENER_THREAD_COUNT,
+                ListenerEventDispatcher.DEFAULT_THREAD_COUNT);
+        ListenerEventDispatcher.OverflowPolicy asyncListenerOverflowPolicy;
+        try {
+            asyncListenerOverflowPolicy = ListenerEventDispatcher.OverflowPolicy.valueOf(
+                    cfg.getStringProperty(PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY,
+                            ListenerEventDispatcher.DEFAULT_OVERFLOW_POLICY.name()).trim().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            initException = new SchedulerException("Unknown value for "
+                    + PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY + ": "
+                    + cfg.getStringProperty(PROP_SCHED_ASYNC_LISTENER_OVERFLOW_POLICY), e);
+            throw initException;
+        }
 
         boolean interruptJobsOnShutdown = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN, false);
         boolean interruptJobsOnShutdownWithWait = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN_WITH_WAIT, false);
 
+        boolean jobStatisticsEnabled = cfg.getBooleanProperty(PROP_SCHED_JOB_STATISTICS_ENABLED, false);
+        int jobStatisticsMaxJobs = cfg.getIntProperty(PROP_SCHED_JOB_STATISTICS_MAX_JOBS,
+                JobStatisticsRegistry.DEFAULT_MAX_JOBS);
+
+        boolean fastStart = cfg.getBooleanProperty(PROP_SCHED_FAST_START, false);
+
         boolean jmxExport = cfg.getBooleanProperty(PROP_SCHED_JMX_EXPORT);
         String jmxObjectName = cfg.getStringProperty(PROP_SCHED_JMX_OBJECT_NAME);
         
@@ -730,10 +845,33 @@ public class StdSchedulerFactory implements SchedulerFactory {
                 PROP_SCHED_RMI_CREATE_REGISTRY,
                 QuartzSchedulerResources.CREATE_REGISTRY_NEVER);
         String rmiBindName = cfg.getStringProperty(PROP_SCHED_RMI_BIND_NAME);
+        long rmiCacheTimeToLive = cfg.getLongProperty(PROP_SCHED_RMI_CACHE_TIME_TO_LIVE, 0L);
+
+        boolean remotingExport = cfg.getBooleanProperty(PROP_SCHED_REMOTING_EXPORT, false);
+        boolean remotingProxy = cfg.getBooleanProperty(PROP_SCHED_REMOTING_PROXY, false);
+        String remotingHost = cfg.getStringProperty(PROP_SCHED_REMOTING_HOST);
+        int remotingPort = cfg.getIntProperty(PROP_SCHED_REMOTING_PORT, RemotingServer.DEFAULT_PORT);
+        int remotingThreadCount = cfg.getIntProperty(PROP_SCHED_REMOTING_THREAD_COUNT,
+                RemotingServer.DEFAULT_THREAD_COUNT);
+        long remotingCallTimeout = cfg.getLongProperty(PROP_SCHED_REMOTING_CALL_TIMEOUT,
+                RemotingClient.DEFAULT_CALL_TIMEOUT);
+        long remotingCacheTimeToLive = cfg.getLongProperty(PROP_SCHED_REMOTING_CACHE_TIME_TO_LIVE, 0L);
+        String remotingSecret = cfg.getStringProperty(PROP_SCHED_REMOTING_SECRET);
+        List<String> remotingAllowedClasses = Arrays.asList(
+                cfg.getStringArrayProperty(PROP_SCHED_REMOTING_ALLOWED_CLASSES, new String[0]));
 
         if (jmxProxy && rmiProxy) {
             throw new SchedulerConfigException("Cannot proxy both RMI and JMX.");
         }
+        if (remotingProxy && (jmxProxy || rmiProxy)) {
+            throw new SchedulerConfigException("Cannot proxy both remoting and " + (rmiProxy ? "RMI." : "JMX."));
+        }
+        if (rmiCacheTimeToLive < 0 || remotingCacheTimeToLive < 0) {
+            throw new SchedulerConfigException("Cache time to live must be >= 0.");
+        }
+        if ((remotingExport || remotingProxy) && remotingSecret == null) {
+            throw new SchedulerConfigException("Remoting secret must be set: " + PROP_SCHED_REMOTING_SECRET);
+        }
         
         boolean managementRESTServiceEnabled = cfg.getBooleanProperty(MANAGEMENT_REST_SERVICE_ENABLED, false);
         String managementRESTServiceHostAndPort = cfg.getStringProperty(MANAGEMENT_REST_SERVICE_HOST_PORT, "0.0.0.0:9889");
@@ -752,6 +890,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     schedName, schedInstId) : rmiBindName;
 
             RemoteScheduler remoteScheduler = new RemoteScheduler(uid, rmiHost, rmiPort);
+            remoteScheduler.setCacheTimeToLive(rmiCacheTimeToLive);
 
             schedRep.bind(remoteScheduler);
 
@@ -759,6 +898,24 @@ public class StdSchedulerFactory implements SchedulerFactory {
         }
 
 
+        if (remotingProxy) {
+
+            if (autoId) {
+                schedInstId = DEFAULT_INSTANCE_ID;
+            }
+
+            String uid = QuartzSchedulerResources.getUniqueIdentifier(schedName, schedInstId);
+
+            RemotingScheduler remotingScheduler = new RemotingScheduler(uid,
+                    remotingHost == null ? "localhost" : remotingHost, remotingPort, remotingCallTimeout,
+                    remotingSecret, remotingAllowedClasses);
+            remotingScheduler.setCacheTimeToLive(remotingCacheTimeToLive);
+
+            schedRep.bind(remotingScheduler);
+
+            return remotingScheduler;
+        }
+
         // Create class load helper
         ClassLoadHelper loadHelper = null;
         try {
@@ -835,6 +992,27 @@ public class StdSchedulerFactory implements SchedulerFactory {
             }
         }
 
+        SchedulerMetricsRecorder metricsRecorder = null;
+        if(metricsRecorderClass != null) {
+            try {
+                metricsRecorder = (SchedulerMetricsRecorder) loadHelper.loadClass(metricsRecorderClass)
+                        .newInstance();
+            } catch (Exception e) {
+                throw new SchedulerConfigException(
+                        "Unable to instantiate SchedulerMetricsRecorder class: "
+                                + e.getMessage(), e);
+            }
+
+            tProps = cfg.getPropertyGroup(PROP_SCHED_METRICS_RECORDER_PREFIX, true);
+            try {
+                setBeanProps(metricsRecorder, tProps);
+            } catch (Exception e) {
+                initException = new SchedulerException("SchedulerMetricsRecorder class '"
+                        + metricsRecorderClass + "' props could not be configured.", e);
+                throw initException;
+            }
+        }
+
         InstanceIdGenerator instanceIdGenerator = null;
         if(instanceIdGeneratorClass != null) {
             try {
@@ -956,132 +1134,28 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
         String[] dsNames = cfg.getPropertyGroups(PROP_DATASOURCE_PREFIX);
         for (int i = 0; i < dsNames.length; i++) {
-            PropertiesParser pp = new PropertiesParser(cfg.getPropertyGroup(
-                    PROP_DATASOURCE_PREFIX + "." + dsNames[i], true));
-
-            String cpClass = pp.getStringProperty(PROP_CONNECTION_PROVIDER_CLASS, null);
-
-            // custom connectionProvider...
-            if(cpClass != null) {
-                ConnectionProvider cp = null;
-                try {
-                    cp = (ConnectionProvider) loadHelper.loadClass(cpClass).newInstance();
-                } catch (Exception e) {
-                    initException = new SchedulerException("ConnectionProvider class '" + cpClass
-                            + "' could not be instantiated.", e);
-                    throw initException;
-                }
-
-                try {
-                    // remove the class name, so it isn't attempted to be set
-                    pp.getUnderlyingProperties().remove(
-                            PROP_CONNECTION_PROVIDER_CLASS);
-
-                    if (cp instanceof PoolingConnectionProvider) {
-                        populateProviderWithExtraProps((PoolingConnectionProvider)cp, pp.getUnderlyingProperties());
-                    } else {
-                        setBeanProps(cp, pp.getUnderlyingProperties());
-                    }
-                    cp.initialize();
-                } catch (Exception e) {
-                    initException = new SchedulerException("ConnectionProvider class '" + cpClass
-                            + "' props could not be configured.", e);
-                    throw initException;
-                }
-
-                dbMgr = DBConnectionManager.getInstance();
-                dbMgr.addConnectionProvider(dsNames[i], cp);
-            } else {
-                String dsJndi = pp.getStringProperty(PROP_DATASOURCE_JNDI_URL, null);
-
-                if (dsJndi != null) {
-                    boolean dsAlwaysLookup = pp.getBooleanProperty(
-                            PROP_DATASOURCE_JNDI_ALWAYS_LOOKUP);
-                    String dsJndiInitial = pp.getStringProperty(
-                            PROP_DATASOURCE_JNDI_INITIAL);
-                    String dsJndiProvider = pp.getStringProperty(
-                            PROP_DATASOURCE_JNDI_PROVDER);
-                    String dsJndiPrincipal = pp.getStringProperty(
-                            PROP_DATASOURCE_JNDI_PRINCIPAL);
-                    String dsJndiCredentials = pp.getStringProperty(
-                            PROP_DATASOURCE_JNDI_CREDENTIALS);
-                    Properties props = null;
-                    if (null != dsJndiInitial || null != dsJndiProvider
-                            || null != dsJndiPrincipal || null != dsJndiCredentials) {
-                        props = new Properties();
-                        if (dsJndiInitial != null) {
-                            props.put(PROP_DATASOURCE_JNDI_INITIAL,
-                                    dsJndiInitial);
-                        }
-                        if (dsJndiProvider != null) {
-                            props.put(PROP_DATASOURCE_JNDI_PROVDER,
-                                    dsJndiProvider);
+            final String dsName = dsNames[i];
+            final PropertiesParser pp = new PropertiesParser(cfg.getPropertyGroup(
+                    PROP_DATASOURCE_PREFIX + "." + dsName, true));
+            final ClassLoadHelper dsLoadHelper = loadHelper;
+
+            FutureTask<ConnectionProvider> dsInitializer = new FutureTask<ConnectionProvider>(
+                    new Callable<ConnectionProvider>() {
+                        public ConnectionProvider call() throws SchedulerException {
+                            return createConnectionProvider(dsName, pp, dsLoadHelper);
                         }
-                        if (dsJndiPrincipal != null) {
-                            props.put(PROP_DATASOURCE_JNDI_PRINCIPAL,
-                                    dsJndiPrincipal);
-                        }
-                        if (dsJndiCredentials != null) {
-                            props.put(PROP_DATASOURCE_JNDI_CREDENTIALS,
-                                    dsJndiCredentials);
-                        }
-                    }
-                    JNDIConnectionProvider cp = new JNDIConnectionProvider(dsJndi,
-                            props, dsAlwaysLookup);
-                    dbMgr = DBConnectionManager.getInstance();
-                    dbMgr.addConnectionProvider(dsNames[i], cp);
-                } else {
-                    String poolingProvider = pp.getStringProperty(PoolingConnectionProvider.POOLING_PROVIDER);
-                    String dsDriver = pp.getStringProperty(PoolingConnectionProvider.DB_DRIVER);
-                    String dsURL = pp.getStringProperty(PoolingConnectionProvider.DB_URL);
-
-                    if (dsDriver == null) {
-                        initException = new SchedulerException(
-                                "Driver not specified for DataSource: "
-                                        + dsNames[i]);
-                        throw initException;
-                    }
-                    if (dsURL == null) {
-                        initException = new SchedulerException(
-                                "DB URL not specified for DataSource: "
-                                        + dsNames[i]);
-                        throw initException;
-                    }
-                    // we load even these "core" providers by class name in order to avoid a static dependency on
-                    // the c3p0 and hikaricp libraries
-                    if(poolingProvider != null && poolingProvider.equals(PoolingConnectionProvider.POOLING_PROVIDER_HIKARICP)) {
-                        cpClass = "org.quartz.utils.HikariCpPoolingConnectionProvider";
-                    }
-                    else {
-                        cpClass = "org.quartz.utils.C3p0PoolingConnectionProvider";
-                    }
-                    log.info("Using ConnectionProvider class '" + cpClass + "' for data source '" + dsNames[i] + "'");
-
-                    try {
-                        ConnectionProvider cp = null;
-                        try {
-                            Constructor constructor = loadHelper.loadClass(cpClass).getConstructor(Properties.class);
-                            cp = (ConnectionProvider) constructor.newInstance(pp.getUnderlyingProperties());
-                        } catch (Exception e) {
-                            initException = new SchedulerException("ConnectionProvider class '" + cpClass
-                                    + "' could not be instantiated.", e);
-                            throw initException;
-                        }
-                        dbMgr = DBConnectionManager.getInstance();
-                        dbMgr.addConnectionProvider(dsNames[i], cp);
-
-                        // Populate the underlying C3P0/HikariCP data source pool properties
-                        populateProviderWithExtraProps((PoolingConnectionProvider)cp, pp.getUnderlyingProperties());
-                    } catch (Exception sqle) {
-                        initException = new SchedulerException(
-                                "Could not initialize DataSource: " + dsNames[i],
-                                sqle);
-                        throw initException;
-                    }
-                }
-
+                    });
+
+            if (fastStart) {
+                // connection pools are filled while the rest of the scheduler is set up
+                Thread dsThread = new Thread(dsInitializer, schedName + "_DataSourceInitializer-" + dsName);
+                dsThread.setDaemon(true);
+                dsThread.start();
+                dsInitializers.put(dsName, dsInitializer);
+            } else {
+                dsInitializer.run();
+                dbMgr = addConnectionProvider(dsName, dsInitializer);
             }
-
         }
 
         // Set up any SchedulerPlugins
@@ -1134,6 +1208,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     + jobListenerNames[i], true);
 
             String listenerClass = lp.getProperty(PROP_LISTENER_CLASS, null);
+            boolean async = Boolean.valueOf((String) lp.remove(PROP_LISTENER_ASYNC));
 
             if (listenerClass == null) {
                 initException = new SchedulerException(
@@ -1169,6 +1244,9 @@ public class StdSchedulerFactory implements SchedulerFactory {
                                 + "' props could not be configured.", e);
                 throw initException;
             }
+            if (async) {
+                listener = AsynchronousListeners.jobListener(listener);
+            }
             jobListeners[i] = listener;
         }
 
@@ -1182,6 +1260,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     + triggerListenerNames[i], true);
 
             String listenerClass = lp.getProperty(PROP_LISTENER_CLASS, null);
+            boolean async = Boolean.valueOf((String) lp.remove(PROP_LISTENER_ASYNC));
 
             if (listenerClass == null) {
                 initException = new SchedulerException(
@@ -1215,9 +1294,33 @@ public class StdSchedulerFactory implements SchedulerFactory {
                                 + "' props could not be configured.", e);
                 throw initException;
             }
+            if (async) {
+                listener = AsynchronousListeners.triggerListener(listener);
+            }
             triggerListeners[i] = listener;
         }
 
+        if (recycleJobRunShells) {
+            // recycled execution contexts must not be held on other threads
+            List<String> asyncListenerNames = new ArrayList<String>();
+            for (JobListener listener : jobListeners) {
+                if (listener instanceof AsynchronousListener) {
+                    asyncListenerNames.add(listener.getName());
+                }
+            }
+            for (TriggerListener listener : triggerListeners) {
+                if (listener instanceof AsynchronousListener) {
+                    asyncListenerNames.add(listener.getName());
+                }
+            }
+            if (!asyncListenerNames.isEmpty()) {
+                initException = new SchedulerException(
+                        "Asynchronous listeners " + asyncListenerNames + " can not be used with "
+                                + PROP_SCHED_RECYCLE_JOB_RUN_SHELLS + " enabled.");
+                throw initException;
+            }
+        }
+
         boolean tpInited = false;
         boolean qsInited = false;
 
@@ -1259,7 +1362,11 @@ public class StdSchedulerFactory implements SchedulerFactory {
             if (wrapJobInTx) {
                 jrsf = new JTAJobRunShellFactory();
             } else {
-                jrsf = new JTAAnnotationAwareJobRunShellFactory();
+                JTAAnnotationAwareJobRunShellFactory annotationAwareFactory = new JTAAnnotationAwareJobRunShellFactory();
+                if (recycleJobRunShells) {
+                    annotationAwareFactory.setJobRunShellPool(new JobRunShellPool(Math.max(1, tp.getPoolSize())));
+                }
+                jrsf = annotationAwareFactory;
             }
     
             if (autoId) {
@@ -1301,6 +1408,10 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     jjs.setThreadsInheritInitializersClassLoadContext(threadsInheritInitalizersClassLoader);
                 
                 jjs.setThreadExecutor(threadExecutor);
+
+                if (fastStart && cfg.getStringProperty(PROP_JOB_STORE_DEFER_RECOVERY) == null) {
+                    jjs.setDeferRecovery(true);
+                }
             }
     
             QuartzSchedulerResources rsrcs = new QuartzSchedulerResources();
@@ -1312,8 +1423,16 @@ public class StdSchedulerFactory implements SchedulerFactory {
             rsrcs.setThreadsInheritInitializersClassLoadContext(threadsInheritInitalizersClassLoader);
             rsrcs.setBatchTimeWindow(batchTimeWindow);
             rsrcs.setMaxBatchSize(maxBatchSize);
+            rsrcs.setBulkScheduleChunkSize(bulkScheduleChunkSize);
+            rsrcs.setAsyncListenerQueueSize(asyncListenerQueueSize);
+            rsrcs.setAsyncListenerBatchSize(asyncListenerBatchSize);
+            rsrcs.setAsyncListenerThreadCount(asyncListenerThreadCount);
+            rsrcs.setAsyncListenerOverflowPolicy(asyncListenerOverflowPolicy);
             rsrcs.setInterruptJobsOnShutdown(interruptJobsOnShutdown);
             rsrcs.setInterruptJobsOnShutdownWithWait(interruptJobsOnShutdownWithWait);
+            rsrcs.setRecycleJobRunShells(recycleJobRunShells && !wrapJobInTx);
+            rsrcs.setJobStatisticsEnabled(jobStatisticsEnabled);
+            rsrcs.setJobStatisticsMaxJobs(jobStatisticsMaxJobs);
             rsrcs.setJMXExport(jmxExport);
             rsrcs.setJMXObjectName(jmxObjectName);
 
@@ -1331,6 +1450,17 @@ public class StdSchedulerFactory implements SchedulerFactory {
                 rsrcs.setRMICreateRegistryStrategy(rmiCreateRegistry);
                 rsrcs.setRMIBindName(rmiBindName);
             }
+
+            if (remotingExport) {
+                if (remotingThreadCount < 1) {
+                    throw new SchedulerConfigException("Remoting thread count must be > 0.");
+                }
+                rsrcs.setRemotingBindAddress(remotingHost);
+                rsrcs.setRemotingPort(remotingPort);
+                rsrcs.setRemotingThreadCount(remotingThreadCount);
+                rsrcs.setRemotingSecret(remotingSecret);
+                rsrcs.setRemotingAllowedClasses(remotingAllowedClasses);
+            }
     
             SchedulerDetailsSetter.setDetails(tp, schedName, schedInstId);
 
@@ -1362,7 +1492,18 @@ public class StdSchedulerFactory implements SchedulerFactory {
             if(jobFactory != null) {
                 qs.setJobFactory(jobFactory);
             }
+
+            if(metricsRecorder != null) {
+                qs.addMetricsRecorder(metricsRecorder);
+            }
     
+            Iterator<Map.Entry<String, Future<ConnectionProvider>>> dsIter = dsInitializers.entrySet().iterator();
+            while (dsIter.hasNext()) {
+                Map.Entry<String, Future<ConnectionProvider>> dsInitializer = dsIter.next();
+                dsIter.remove();
+                dbMgr = addConnectionProvider(dsInitializer.getKey(), dsInitializer.getValue());
+            }
+
             // Initialize plugins now that we have a Scheduler instance.
             for (int i = 0; i < plugins.length; i++) {
                 plugins[i].initialize(pluginNames[i], scheduler, loadHelper);
@@ -1424,6 +1565,150 @@ public class StdSchedulerFactory implements SchedulerFactory {
         }
     }
 
+    /**
+     * Create the <code>ConnectionProvider</code> of the given DataSource,
+     * which may take a while for a pooling provider that opens its initial
+     * connections.
+     */
+    private ConnectionProvider createConnectionProvider(String dsName, PropertiesParser pp, ClassLoadHelper loadHelper)
+        throws SchedulerException {
+        String cpClass = pp.getStringProperty(PROP_CONNECTION_PROVIDER_CLASS, null);
+
+        // custom connectionProvider...
+        if(cpClass != null) {
+            ConnectionProvider cp = null;
+            try {
+                cp = (ConnectionProvider) loadHelper.loadClass(cpClass).newInstance();
+            } catch (Exception e) {
+                throw new SchedulerException("ConnectionProvider class '" + cpClass
+                        + "' could not be instantiated.", e);
+            }
+
+            try {
+                // remove the class name, so it isn't attempted to be set
+                pp.getUnderlyingProperties().remove(
+                        PROP_CONNECTION_PROVIDER_CLASS);
+
+                if (cp instanceof PoolingConnectionProvider) {
+                    populateProviderWithExtraProps((PoolingConnectionProvider)cp, pp.getUnderlyingProperties());
+                } else {
+                    setBeanProps(cp, pp.getUnderlyingProperties());
+                }
+                cp.initialize();
+            } catch (Exception e) {
+                throw new SchedulerException("ConnectionProvider class '" + cpClass
+                        + "' props could not be configured.", e);
+            }
+
+            return cp;
+        } else {
+            String dsJndi = pp.getStringProperty(PROP_DATASOURCE_JNDI_URL, null);
+
+            if (dsJndi != null) {
+                boolean dsAlwaysLookup = pp.getBooleanProperty(
+                        PROP_DATASOURCE_JNDI_ALWAYS_LOOKUP);
+                String dsJndiInitial = pp.getStringProperty(
+                        PROP_DATASOURCE_JNDI_INITIAL);
+                String dsJndiProvider = pp.getStringProperty(
+                        PROP_DATASOURCE_JNDI_PROVDER);
+                String dsJndiPrincipal = pp.getStringProperty(
+                        PROP_DATASOURCE_JNDI_PRINCIPAL);
+                String dsJndiCredentials = pp.getStringProperty(
+                        PROP_DATASOURCE_JNDI_CREDENTIALS);
+                Properties props = null;
+                if (null != dsJndiInitial || null != dsJndiProvider
+                        || null != dsJndiPrincipal || null != dsJndiCredentials) {
+                    props = new Properties();
+                    if (dsJndiInitial != null) {
+                        props.put(PROP_DATASOURCE_JNDI_INITIAL,
+                                dsJndiInitial);
+                    }
+                    if (dsJndiProvider != null) {
+                        props.put(PROP_DATASOURCE_JNDI_PROVDER,
+                                dsJndiProvider);
+                    }
+                    if (dsJndiPrincipal != null) {
+                        props.put(PROP_DATASOURCE_JNDI_PRINCIPAL,
+                                dsJndiPrincipal);
+                    }
+                    if (dsJndiCredentials != null) {
+                        props.put(PROP_DATASOURCE_JNDI_CREDENTIALS,
+                                dsJndiCredentials);
+                    }
+                }
+                return new JNDIConnectionProvider(dsJndi, props, dsAlwaysLookup);
+            } else {
+                String poolingProvider = pp.getStringProperty(PoolingConnectionProvider.POOLING_PROVIDER);
+                String dsDriver = pp.getStringProperty(PoolingConnectionProvider.DB_DRIVER);
+                String dsURL = pp.getStringProperty(PoolingConnectionProvider.DB_URL);
+
+                if (dsDriver == null) {
+                    throw new SchedulerException(
+                            "Driver not specified for DataSource: "
+                                    + dsName);
+                }
+                if (dsURL == null) {
+                    throw new SchedulerException(
+                            "DB URL not specified for DataSource: "
+                                    + dsName);
+                }
+                // we load even these "core" providers by class name in order to avoid a static dependency on
+                // the c3p0 and hikaricp libraries
+                if(poolingProvider != null && poolingProvider.equals(PoolingConnectionProvider.POOLING_PROVIDER_HIKARICP)) {
+                    cpClass = "org.quartz.utils.HikariCpPoolingConnectionProvider";
+                }
+                else {
+                    cpClass = "org.quartz.utils.C3p0PoolingConnectionProvider";
+                }
+                log.info("Using ConnectionProvider class '" + cpClass + "' for data source '" + dsName + "'");
+
+                try {
+                    ConnectionProvider cp = null;
+                    try {
+                        Constructor constructor = loadHelper.loadClass(cpClass).getConstructor(Properties.class);
+                        cp = (ConnectionProvider) constructor.newInstance(pp.getUnderlyingProperties());
+                    } catch (Exception e) {
+                        throw new SchedulerException("ConnectionProvider class '" + cpClass
+                                + "' could not be instantiated.", e);
+                    }
+
+                    // Populate the underlying C3P0/HikariCP data source pool properties
+                    populateProviderWithExtraProps((PoolingConnectionProvider)cp, pp.getUnderlyingProperties());
+                    return cp;
+                } catch (Exception sqle) {
+                    throw new SchedulerException(
+                            "Could not initialize DataSource: " + dsName,
+                            sqle);
+                }
+            }
+        }
+
+    }
+
+    private DBConnectionManager addConnectionProvider(String dsName, Future<ConnectionProvider> dsInitializer)
+        throws SchedulerException {
+        ConnectionProvider cp;
+        try {
+            cp = dsInitializer.get();
+        } catch (InterruptedException e) {
+            initException = new SchedulerException(
+                    "Interrupted while initializing DataSource: " + dsName, e);
+            throw initException;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SchedulerException) {
+                initException = (SchedulerException) e.getCause();
+            } else {
+                initException = new SchedulerException(
+                        "Could not initialize DataSource: " + dsName, e.getCause());
+            }
+            throw initException;
+        }
+
+        DBConnectionManager dbMgr = DBConnectionManager.getInstance();
+        dbMgr.addConnectionProvider(dsName, cp);
+        return dbMgr;
+    }
+
     private void populateProviderWithExtraProps(PoolingConnectionProvider cp, Properties props) throws Exception {
         Properties copyProps = new Properties();
         copyProps.putAll(props);
@@ -1448,6 +1733,28 @@ public class StdSchedulerFactory implements SchedulerFactory {
         setBeanProps(cp.getDataSource(), copyProps);
     }
 
+    /**
+     * Wait for the DataSources started by a fast start to be initialized,
+     * and shut them down, as the scheduler that would use them failed to
+     * be instantiated.
+     */
+    private void shutdownDataSources(Map<String, Future<ConnectionProvider>> dsInitializers) {
+        for (Map.Entry<String, Future<ConnectionProvider>> dsInitializer : dsInitializers.entrySet()) {
+            try {
+                dsInitializer.getValue().get().shutdown();
+            } catch (ExecutionException e) {
+                // nothing to shut down
+            } catch (InterruptedException e) {
+                getLog().warn("Interrupted while shutting down DataSource: " + dsInitializer.getKey());
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                getLog().error("Got another exception while shutting down DataSource: " + dsInitializer.getKey(), e);
+            }
+        }
+        dsInitializers.clear();
+    }
+
     private void shutdownFromInstantiateException(ThreadPool tp, QuartzScheduler qs, boolean tpInited, boolean qsInited) {
         try {
             if(qsInited)
@@ -1473,8 +1780,12 @@ public class StdSchedulerFactory implements SchedulerFactory {
         props.remove("class");
         props.remove(PoolingConnectionProvider.POOLING_PROVIDER);
 
-        BeanInfo bi = Introspector.getBeanInfo(obj.getClass());
-        PropertyDescriptor[] propDescs = bi.getPropertyDescriptors();
+        Map<String, Method> setMethods;
+        try {
+            setMethods = SET_METHODS.get(obj.getClass());
+        } catch (UndeclaredThrowableException e) {
+            throw (IntrospectionException) e.getUndeclaredThrowable();
+        }
         PropertiesParser pp = new PropertiesParser(props);
 
         java.util.Enumeration<Object> keys = props.keys();
@@ -1483,7 +1794,7 @@ public class StdSchedulerFactory implements SchedulerFactory {
             String c = name.substring(0, 1).toUpperCase(Locale.US);
             String methName = "set" + c + name.substring(1);
 
-            java.lang.reflect.Method setMeth = getSetMethod(methName, propDescs);
+            java.lang.reflect.Method setMeth = setMethods.get(methName);
 
             try {
                 if (setMeth == null) {
@@ -1531,18 +1842,31 @@ public class StdSchedulerFactory implements SchedulerFactory {
         }
     }
 
-    private java.lang.reflect.Method getSetMethod(String name,
-            PropertyDescriptor[] props) {
-        for (int i = 0; i < props.length; i++) {
-            java.lang.reflect.Method wMeth = props[i].getWriteMethod();
+    /**
+     * The setters of each class configured by <code>setBeanProps()</code>,
+     * by name, so that a class is only introspected once.
+     */
+    private static final ClassValue<Map<String, Method>> SET_METHODS = new ClassValue<Map<String, Method>>() {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> type) {
+            PropertyDescriptor[] propDescs;
+            try {
+                propDescs = Introspector.getBeanInfo(type).getPropertyDescriptors();
+            } catch (IntrospectionException e) {
+                throw new UndeclaredThrowableException(e);
+            }
+
+            Map<String, Method> setMethods = new HashMap<String, Method>();
+            for (int i = 0; i < propDescs.length; i++) {
+                Method wMeth = propDescs[i].getWriteMethod();
 
-            if (wMeth != null && wMeth.getName().equals(name)) {
-                return wMeth;
+                if (wMeth != null && !setMethods.containsKey(wMeth.getName())) {
+                    setMethods.put(wMeth.getName(), wMeth);
+                }
             }
+            return setMethods;
         }
-
-        return null;
-    }
+    };
 
     private Class<?> loadClass(String className) throws ClassNotFoundException, SchedulerConfigException {
 
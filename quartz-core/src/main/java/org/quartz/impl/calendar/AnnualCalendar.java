@@ -95,6 +95,16 @@ public class AnnualCalendar extends BaseCalendar implements Calendar,
          return true;
         } 
         
+        return isExcludedDayOfYear(day);
+    }
+
+    /**
+     * <p>
+     * Return true, if the day's month and day of month are in the list of
+     * excluded days, ignoring the base calendar.
+     * </p>
+     */
+    private boolean isExcludedDayOfYear(java.util.Calendar day) {
         int dmonth = day.get(java.util.Calendar.MONTH);
         int dday = day.get(java.util.Calendar.DAY_OF_MONTH);
 
@@ -243,19 +253,25 @@ public class AnnualCalendar extends BaseCalendar implements Calendar,
      */
     @Override
     public long getNextIncludedTime(long timeStamp) {
-        // Call base calendar implementation first
-        long baseTime = super.getNextIncludedTime(timeStamp);
-        if ((baseTime > 0) && (baseTime > timeStamp)) {
-            timeStamp = baseTime;
-        }
+        return CalendarIntervals.getNextIncludedTime(this, timeStamp);
+    }
 
+    /**
+     * <p>
+     * The range excluded by this calendar that contains the given time spans
+     * the excluded days of the year in a row, up to the start of the next
+     * included day.
+     * </p>
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeStamp) {
         // Get timestamp for 00:00:00
         java.util.Calendar day = getStartOfDayJavaCalendar(timeStamp);
-        if (isDayExcluded(day) == false) { 
+        if (isExcludedDayOfYear(day) == false) { 
             return timeStamp; // return the original value
         }
 
-        while (isDayExcluded(day) == true) {
+        while (isExcludedDayOfYear(day) == true) {
             day.add(java.util.Calendar.DATE, 1);
         }
 
@@ -47,6 +47,12 @@ public class BaseCalendar implements Calendar, Serializable, Cloneable {
 
     static final long serialVersionUID = 3106623404629760239L;
 
+    /**
+     * Returned by <code>{@link #getExcludedRangeEnd(long)}</code> when a
+     * calendar cannot describe its exclusions as time ranges.
+     */
+    protected static final long RANGE_UNSUPPORTED = -1L;
+
     // <p>A optional base calendar.</p>
     private Calendar baseCalendar;
 
@@ -201,6 +207,27 @@ public class BaseCalendar implements Calendar, Serializable, Cloneable {
         return timeStamp;
     }
 
+    /**
+     * <p>
+     * Determine the end (exclusive) of the contiguous range of time that is
+     * excluded by this calendar alone - without consulting the base calendar -
+     * and that contains the given time. Return the given time if this calendar
+     * does not exclude it, and 0 if this calendar excludes every later time.
+     * </p>
+     *
+     * <p>
+     * Calendars overriding this method are resolved by
+     * <code>{@link CalendarIntervals}</code>, which computes the next included
+     * time of a whole calendar chain by merging these ranges. The base
+     * implementation returns <code>{@link #RANGE_UNSUPPORTED}</code>, in which
+     * case the calendar is consulted through <code>isTimeIncluded()</code> and
+     * <code>getNextIncludedTime()</code> instead.
+     * </p>
+     */
+    protected long getExcludedRangeEnd(long timeStamp) {
+        return RANGE_UNSUPPORTED;
+    }
+
     /**
      * Build a <code>{@link java.util.Calendar}</code> for the given timeStamp.
      * The new Calendar will use the <code>BaseCalendar</code> time zone if it
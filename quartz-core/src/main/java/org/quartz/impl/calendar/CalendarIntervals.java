@@ -0,0 +1,123 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.impl.calendar;
+
+import org.quartz.Calendar;
+
+/**
+ * <p>
+ * Resolves a chain of <code>{@link Calendar}</code>s (a calendar and its base
+ * calendars) as a union of excluded time ranges.
+ * </p>
+ *
+ * <p>
+ * Each <code>{@link BaseCalendar}</code> in the chain that can describe its own
+ * exclusions as ranges (see <code>{@link BaseCalendar#getExcludedRangeEnd(long)}</code>)
+ * is asked only for the end of the range containing the current candidate
+ * time; the candidate jumps to that end and the chain is re-checked from the
+ * top until no calendar excludes it. The ranges are produced lazily - only the
+ * ones actually containing a candidate are ever computed - and overlapping or
+ * adjacent ranges of different calendars are merged by the walk, so the next
+ * included time is found without probing individual instants.
+ * </p>
+ *
+ * <p>
+ * Calendars that cannot describe their exclusions as ranges (e.g. custom
+ * implementations of <code>{@link Calendar}</code>) are consulted through their
+ * own <code>isTimeIncluded()</code>/<code>getNextIncludedTime()</code>, which
+ * then also account for the remainder of the chain below them.
+ * </p>
+ *
+ * @see BaseCalendar#getExcludedRangeEnd(long)
+ */
+public final class CalendarIntervals {
+
+    private CalendarIntervals() {
+    }
+
+    /**
+     * <p>
+     * Determine the first time at or after <code>timeStamp</code> that is
+     * included by the given calendar and all of its base calendars.
+     * </p>
+     *
+     * @return the next included time, or 0 if no later time is included.
+     */
+    public static long getNextIncludedTime(Calendar calendar, long timeStamp) {
+
+        if (timeStamp <= 0) {
+            throw new IllegalArgumentException(
+                    "timeStamp must be greater 0");
+        }
+
+        long time = timeStamp;
+        Calendar link = calendar;
+
+        while (link != null) {
+            long end = BaseCalendar.RANGE_UNSUPPORTED;
+            if (link instanceof BaseCalendar) {
+                end = ((BaseCalendar) link).getExcludedRangeEnd(time);
+            }
+
+            boolean resolvesChain = (end == BaseCalendar.RANGE_UNSUPPORTED);
+            if (resolvesChain) {
+                end = getNextIncludedTimeOf(link, time);
+            }
+
+            if (end <= 0) {
+                // every later time is excluded (or the range end overflowed)
+                return 0;
+            }
+
+            if (end > time) {
+                // the candidate fell into an excluded range: skip past it and
+                // make sure the new candidate is acceptable to the whole chain
+                time = end;
+                link = calendar;
+            } else if (resolvesChain) {
+                // the link already accounted for the rest of the chain
+                link = null;
+            } else {
+                link = link.getBaseCalendar();
+            }
+        }
+
+        return time;
+    }
+
+    /**
+     * <p>
+     * Consult a calendar that cannot describe its exclusions as ranges. The
+     * result accounts for the calendar's own base calendars.
+     * </p>
+     */
+    private static long getNextIncludedTimeOf(Calendar link, long time) {
+
+        if (link.isTimeIncluded(time)) {
+            return time;
+        }
+
+        long next = link.getNextIncludedTime(time);
+        if (next == 0) {
+            return 0;
+        }
+
+        // never step backwards, some calendars only answer with full days
+        return (next > time) ? next : time + 1;
+    }
+}
@@ -139,29 +139,22 @@ public class CronCalendar extends BaseCalendar {
      */
     @Override
     public long getNextIncludedTime(long timeInMillis) {
-        long nextIncludedTime = timeInMillis + 1; //plus on millisecond
-        
-        while (!isTimeIncluded(nextIncludedTime)) {
+        return CalendarIntervals.getNextIncludedTime(this, 
+                timeInMillis + 1); //plus on millisecond
+    }
 
-            //If the time is in a range excluded by this calendar, we can
-            // move to the end of the excluded time range and continue testing
-            // from there. Otherwise, if nextIncludedTime is excluded by the
-            // baseCalendar, ask it the next time it includes and begin testing
-            // from there. Failing this, add one millisecond and continue
-            // testing.
-            if (cronExpression.isSatisfiedBy(new Date(nextIncludedTime))) {
-                nextIncludedTime = cronExpression.getNextInvalidTimeAfter(
-                        new Date(nextIncludedTime)).getTime();
-            } else if ((getBaseCalendar() != null) && 
-                    (!getBaseCalendar().isTimeIncluded(nextIncludedTime))){
-                nextIncludedTime = 
-                    getBaseCalendar().getNextIncludedTime(nextIncludedTime);
-            } else {
-                nextIncludedTime++;
-            }
+    /**
+     * The range excluded by this calendar that contains the given time ends at
+     * the first second that no longer satisfies the cron expression.
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeInMillis) {
+        Date time = new Date(timeInMillis);
+        if (!cronExpression.isSatisfiedBy(time)) {
+            return timeInMillis;
         }
-        
-        return nextIncludedTime;
+
+        return cronExpression.getNextInvalidTimeAfter(time).getTime();
     }
 
     /**
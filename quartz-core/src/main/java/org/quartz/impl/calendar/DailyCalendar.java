@@ -498,58 +498,41 @@ public class DailyCalendar extends BaseCalendar {
      */
     @Override
     public long getNextIncludedTime(long timeInMillis) {
-        long nextIncludedTime = timeInMillis + oneMillis;
-        
-        while (!isTimeIncluded(nextIncludedTime)) {
-            if (!invertTimeRange) {
-                //If the time is in a range excluded by this calendar, we can
-                // move to the end of the excluded time range and continue 
-                // testing from there. Otherwise, if nextIncludedTime is 
-                // excluded by the baseCalendar, ask it the next time it 
-                // includes and begin testing from there. Failing this, add one
-                // millisecond and continue testing.
-                if ((nextIncludedTime >= 
-                        getTimeRangeStartingTimeInMillis(nextIncludedTime)) && 
-                    (nextIncludedTime <= 
-                        getTimeRangeEndingTimeInMillis(nextIncludedTime))) {
-                    
-                    nextIncludedTime = 
-                        getTimeRangeEndingTimeInMillis(nextIncludedTime) + 
-                            oneMillis;
-                } else if ((getBaseCalendar() != null) && 
-                        (!getBaseCalendar().isTimeIncluded(nextIncludedTime))){
-                    nextIncludedTime = 
-                        getBaseCalendar().getNextIncludedTime(nextIncludedTime);
-                } else {
-                    nextIncludedTime++;
-                }
-            } else {
-                //If the time is in a range excluded by this calendar, we can
-                // move to the end of the excluded time range and continue 
-                // testing from there. Otherwise, if nextIncludedTime is 
-                // excluded by the baseCalendar, ask it the next time it 
-                // includes and begin testing from there. Failing this, add one
-                // millisecond and continue testing.
-                if (nextIncludedTime < 
-                        getTimeRangeStartingTimeInMillis(nextIncludedTime)) {
-                    nextIncludedTime = 
-                        getTimeRangeStartingTimeInMillis(nextIncludedTime);
-                } else if (nextIncludedTime > 
-                        getTimeRangeEndingTimeInMillis(nextIncludedTime)) {
-                    //(move to start of next day)
-                    nextIncludedTime = getEndOfDayJavaCalendar(nextIncludedTime).getTime().getTime();
-                    nextIncludedTime += 1l; 
-                } else if ((getBaseCalendar() != null) && 
-                        (!getBaseCalendar().isTimeIncluded(nextIncludedTime))){
-                    nextIncludedTime = 
-                        getBaseCalendar().getNextIncludedTime(nextIncludedTime);
-                } else {
-                    nextIncludedTime++;
-                }
+        return CalendarIntervals.getNextIncludedTime(this, 
+                timeInMillis + oneMillis);
+    }
+
+    /**
+     * The range excluded by this calendar that contains the given time is
+     * either the (non-inverted) time range itself, or the part of the day
+     * before or after the inverted time range. The first and last millisecond
+     * of a day are never included by a non-inverted <CODE>DailyCalendar</CODE>.
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeInMillis) {
+        long timeRangeStartingTimeInMillis = 
+            getTimeRangeStartingTimeInMillis(timeInMillis);
+        long timeRangeEndingTimeInMillis = 
+            getTimeRangeEndingTimeInMillis(timeInMillis);
+        if (!invertTimeRange) {
+            if ((timeInMillis >= timeRangeStartingTimeInMillis) && 
+                (timeInMillis <= timeRangeEndingTimeInMillis)) {
+                return timeRangeEndingTimeInMillis + oneMillis;
+            }
+            if ((timeInMillis == getStartOfDayJavaCalendar(timeInMillis).getTime().getTime()) ||
+                (timeInMillis == getEndOfDayJavaCalendar(timeInMillis).getTime().getTime())) {
+                return timeInMillis + oneMillis;
+            }
+        } else {
+            if (timeInMillis < timeRangeStartingTimeInMillis) {
+                return timeRangeStartingTimeInMillis;
+            }
+            if (timeInMillis > timeRangeEndingTimeInMillis) {
+                //(move to start of next day)
+                return getEndOfDayJavaCalendar(timeInMillis).getTime().getTime() + oneMillis;
             }
         }
-        
-        return nextIncludedTime;
+        return timeInMillis;
     }
 
     /**
@@ -104,18 +104,27 @@ public class HolidayCalendar extends BaseCalendar implements Calendar,
     @Override
     public long getNextIncludedTime(long timeStamp) {
 
-        // Call base calendar implementation first
-        long baseTime = super.getNextIncludedTime(timeStamp);
-        if ((baseTime > 0) && (baseTime > timeStamp)) {
-            timeStamp = baseTime;
-        }
+        return CalendarIntervals.getNextIncludedTime(this, timeStamp);
+    }
 
+    /**
+     * <p>
+     * The range excluded by this calendar that contains the given time spans
+     * consecutive holidays, up to the start of the next included day.
+     * </p>
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeStamp) {
         // Get timestamp for 00:00:00
         java.util.Calendar day = getStartOfDayJavaCalendar(timeStamp);
-        while (isTimeIncluded(day.getTime().getTime()) == false) {
-            day.add(java.util.Calendar.DATE, 1);
+        if (dates.contains(day.getTime()) == false) {
+            return timeStamp;
         }
 
+        do {
+            day.add(java.util.Calendar.DATE, 1);
+        } while (dates.contains(day.getTime()));
+
         return day.getTime().getTime();
     }
 
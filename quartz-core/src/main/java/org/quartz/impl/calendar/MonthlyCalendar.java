@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.TimeZone;
 
 import org.quartz.Calendar;
+import org.quartz.utils.TimeMath;
 
 /**
  * <p>
@@ -175,8 +176,7 @@ public class MonthlyCalendar extends BaseCalendar implements Calendar,
         // excludes the time/date, continue evaluating this calendar instance.
         if (super.isTimeIncluded(timeStamp) == false) { return false; }
 
-        java.util.Calendar cl = createJavaCalendar(timeStamp);
-        int day = cl.get(java.util.Calendar.DAY_OF_MONTH);
+        int day = TimeMath.getDayOfMonth(timeStamp, getTimeZone());
 
         return !(isDayExcluded(day));
     }
@@ -198,25 +198,35 @@ public class MonthlyCalendar extends BaseCalendar implements Calendar,
             return 0;
         }
 
-        // Call base calendar implementation first
-        long baseTime = super.getNextIncludedTime(timeStamp);
-        if ((baseTime > 0) && (baseTime > timeStamp)) {
-            timeStamp = baseTime;
+        return CalendarIntervals.getNextIncludedTime(this, timeStamp);
+    }
+
+    /**
+     * <p>
+     * The range excluded by this calendar that contains the given time spans
+     * the excluded days of the month in a row, up to the start of the next
+     * included day.
+     * </p>
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeStamp) {
+        if (excludeAll == true) {
+            return 0;
         }
 
-        // Get timestamp for 00:00:00
-        java.util.Calendar cl = getStartOfDayJavaCalendar(timeStamp);
-        int day = cl.get(java.util.Calendar.DAY_OF_MONTH);
+        int day = TimeMath.getDayOfMonth(timeStamp, getTimeZone());
 
         if (!isDayExcluded(day)) {
             return timeStamp; // return the original value
         }
 
+        // Get timestamp for 00:00:00
+        long dayStart = TimeMath.getStartOfDay(timeStamp, getTimeZone());
         while (isDayExcluded(day) == true) {
-            cl.add(java.util.Calendar.DATE, 1);
-            day = cl.get(java.util.Calendar.DAY_OF_MONTH);
+            dayStart = TimeMath.getStartOfNextDay(dayStart, getTimeZone());
+            day = TimeMath.getDayOfMonth(dayStart, getTimeZone());
         }
 
-        return cl.getTime().getTime();
+        return dayStart;
     }
 }
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.TimeZone;
 
 import org.quartz.Calendar;
+import org.quartz.utils.TimeMath;
 
 /**
  * <p>
@@ -157,8 +158,7 @@ public class WeeklyCalendar extends BaseCalendar implements Calendar,
         // excludes the time/date, continue evaluating this calendar instance.
         if (super.isTimeIncluded(timeStamp) == false) { return false; }
 
-        java.util.Calendar cl = createJavaCalendar(timeStamp);
-        int wday = cl.get(java.util.Calendar.DAY_OF_WEEK);
+        int wday = TimeMath.getDayOfWeek(timeStamp, getTimeZone());
 
         return !(isDayExcluded(wday));
     }
@@ -180,25 +180,35 @@ public class WeeklyCalendar extends BaseCalendar implements Calendar,
             return 0;
         }
 
-        // Call base calendar implementation first
-        long baseTime = super.getNextIncludedTime(timeStamp);
-        if ((baseTime > 0) && (baseTime > timeStamp)) {
-            timeStamp = baseTime;
+        return CalendarIntervals.getNextIncludedTime(this, timeStamp);
+    }
+
+    /**
+     * <p>
+     * The range excluded by this calendar that contains the given time spans
+     * the excluded week days in a row, up to the start of the next included
+     * day.
+     * </p>
+     */
+    @Override
+    protected long getExcludedRangeEnd(long timeStamp) {
+        if (excludeAll == true) {
+            return 0;
         }
 
-        // Get timestamp for 00:00:00
-        java.util.Calendar cl = getStartOfDayJavaCalendar(timeStamp);
-        int wday = cl.get(java.util.Calendar.DAY_OF_WEEK);
+        int wday = TimeMath.getDayOfWeek(timeStamp, getTimeZone());
 
         if (!isDayExcluded(wday)) {
             return timeStamp; // return the original value
         }
 
+        // Get timestamp for 00:00:00
+        long day = TimeMath.getStartOfDay(timeStamp, getTimeZone());
         while (isDayExcluded(wday) == true) {
-            cl.add(java.util.Calendar.DATE, 1);
-            wday = cl.get(java.util.Calendar.DAY_OF_WEEK);
+            day = TimeMath.getStartOfNextDay(day, getTimeZone());
+            wday = (wday == java.util.Calendar.SATURDAY) ? java.util.Calendar.SUNDAY : wday + 1;
         }
 
-        return cl.getTime().getTime();
+        return day;
     }
 }
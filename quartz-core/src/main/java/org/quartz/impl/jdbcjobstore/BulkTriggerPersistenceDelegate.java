@@ -0,0 +1,45 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.quartz.TriggerKey;
+
+/**
+ * A <code>{@link TriggerPersistenceDelegate}</code> that can load the
+ * extended properties of many triggers with a single statement, so that
+ * <code>{@link DriverDelegate#selectTriggers(Connection, java.util.Collection)}</code>
+ * does not take one statement per trigger.
+ *
+ * <p>
+ * Delegates that only implement <code>TriggerPersistenceDelegate</code>
+ * keep working, their triggers are loaded one at a time.
+ * </p>
+ */
+public interface BulkTriggerPersistenceDelegate extends TriggerPersistenceDelegate {
+
+    /**
+     * Load the extended properties of the triggers whose key matches the
+     * given predicate, which is on the trigger name and group columns.
+     *
+     * @return the properties by trigger key, without the triggers that
+     * have no extended properties row.
+     */
+    public Map<TriggerKey, TriggerPropertyBundle> loadExtendedTriggerProperties(Connection conn, SqlPredicate keys) throws SQLException;
+}
@@ -58,6 +58,8 @@ public interface Constants {
 
     String TABLE_SCHEDULER_STATE = "SCHEDULER_STATE";
 
+    String TABLE_JOB_DATA_ENTRIES = "JOB_DATA_ENTRIES";
+
     // TABLE_JOB_DETAILS columns names
     
     String COL_SCHEDULER_NAME = "SCHED_NAME";
@@ -82,6 +84,12 @@ public interface Constants {
 
     String COL_DESCRIPTION = "DESCRIPTION";
 
+    // TABLE_JOB_DATA_ENTRIES columns names
+
+    String COL_ENTRY_KEY = "ENTRY_KEY";
+
+    String COL_ENTRY_VALUE = "ENTRY_VALUE";
+
     // TABLE_TRIGGERS columns names
     String COL_TRIGGER_NAME = "TRIGGER_NAME";
 
@@ -20,6 +20,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.TimeZone;
 
 import org.quartz.CronScheduleBuilder;
@@ -29,7 +31,7 @@ import org.quartz.TriggerKey;
 import org.quartz.impl.triggers.CronTriggerImpl;
 import org.quartz.spi.OperableTrigger;
 
-public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegate, StdJDBCConstants {
+public class CronTriggerPersistenceDelegate implements BulkTriggerPersistenceDelegate, StdJDBCConstants {
 
     protected String tablePrefix;
     protected String schedNameLiteral;
@@ -99,15 +101,7 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
             rs = ps.executeQuery();
 
             if (rs.next()) {
-                String cronExpr = rs.getString(COL_CRON_EXPRESSION);
-                String timeZoneId = rs.getString(COL_TIME_ZONE_ID);
-
-                CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(cronExpr);
-              
-                if (timeZoneId != null) 
-                    cb.inTimeZone(TimeZone.getTimeZone(timeZoneId));
-                
-                return new TriggerPropertyBundle(cb, null, null);
+                return readExtendedTriggerProperties(rs);
             }
             
             throw new IllegalStateException("No record found for selection of Trigger with key: '" + triggerKey + "' and statement: " + Util.rtp(SELECT_CRON_TRIGGER, tablePrefix, schedNameLiteral));
@@ -117,6 +111,40 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
         }
     }
 
+    public Map<TriggerKey, TriggerPropertyBundle> loadExtendedTriggerProperties(Connection conn, SqlPredicate keys) throws SQLException {
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(Util.rtp(SELECT_CRON_TRIGGERS_MATCHING, tablePrefix, schedNameLiteral) + keys.getSql());
+            keys.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            Map<TriggerKey, TriggerPropertyBundle> bundles = new HashMap<TriggerKey, TriggerPropertyBundle>();
+            while (rs.next()) {
+                bundles.put(new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                        readExtendedTriggerProperties(rs));
+            }
+            return bundles;
+        } finally {
+            Util.closeResultSet(rs);
+            Util.closeStatement(ps);
+        }
+    }
+
+    private TriggerPropertyBundle readExtendedTriggerProperties(ResultSet rs) throws SQLException {
+        String cronExpr = rs.getString(COL_CRON_EXPRESSION);
+        String timeZoneId = rs.getString(COL_TIME_ZONE_ID);
+
+        CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(cronExpr);
+
+        if (timeZoneId != null) 
+            cb.inTimeZone(TimeZone.getTimeZone(timeZoneId));
+
+        return new TriggerPropertyBundle(cb, null, null);
+    }
+
     public int updateExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
         CronTrigger cronTrigger = (CronTrigger)trigger;
@@ -20,7 +20,17 @@ package org.quartz.impl.jdbcjobstore;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.quartz.Calendar;
@@ -35,6 +45,7 @@ import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.OperableTrigger;
 import org.quartz.utils.Key;
+import org.quartz.utils.PageToken;
 import org.slf4j.Logger;
 
 /**
@@ -236,6 +247,34 @@ public interface DriverDelegate {
     int insertJobDetail(Connection conn, JobDetail job)
         throws IOException, SQLException;
 
+    /**
+     * <p>
+     * Insert the job detail records of several jobs, as a single JDBC batch
+     * where the driver supports it.
+     * </p>
+     * 
+     * <p>
+     * The default implementation inserts the jobs one at a time with
+     * <code>{@link #insertJobDetail(Connection, JobDetail)}</code>.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param jobs
+     *          the jobs to insert
+     * @return number of rows inserted
+     * @throws IOException
+     *           if there were problems serializing a JobDataMap
+     */
+    default int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int inserted = 0;
+        for (JobDetail job : jobs) {
+            inserted += insertJobDetail(conn, job);
+        }
+        return inserted;
+    }
+
     /**
      * <p>
      * Update the job detail record.
@@ -338,6 +377,33 @@ public interface DriverDelegate {
         ClassLoadHelper loadHelper)
         throws ClassNotFoundException, IOException, SQLException;
 
+    /**
+     * <p>
+     * Select the JobDetail objects of the given keys, with as few
+     * statements as the database allows.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects the jobs one at a time with
+     * <code>{@link #selectJobDetail(Connection, JobKey, ClassLoadHelper)}</code>.
+     * </p>
+     * 
+     * @return the jobs by key, in the order of the given keys, without the
+     *         keys of the jobs that don't exist
+     */
+    default Map<JobKey, JobDetail> selectJobDetails(Connection conn, Collection<JobKey> jobKeys,
+        ClassLoadHelper loadHelper)
+        throws ClassNotFoundException, IOException, SQLException {
+        Map<JobKey, JobDetail> jobs = new LinkedHashMap<JobKey, JobDetail>();
+        for (JobKey key : jobKeys) {
+            JobDetail job = selectJobDetail(conn, key, loadHelper);
+            if (job != null) {
+                jobs.put(key, job);
+            }
+        }
+        return jobs;
+    }
+
     /**
      * <p>
      * Select the total number of jobs stored.
@@ -394,6 +460,35 @@ public interface DriverDelegate {
     int insertTrigger(Connection conn, OperableTrigger trigger, String state,
         JobDetail jobDetail) throws SQLException, IOException;
 
+    /**
+     * <p>
+     * Insert the base trigger data of several triggers, as a single JDBC
+     * batch where the driver supports it, followed by their extended
+     * (simple, cron, blob, ...) data.
+     * </p>
+     * 
+     * <p>
+     * The default implementation inserts the triggers one at a time with
+     * <code>{@link #insertTrigger(Connection, OperableTrigger, String, JobDetail)}</code>.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggersAndJobs
+     *          the triggers to insert, with the job each of them references
+     * @param state
+     *          the state that the triggers should be stored in
+     * @return the number of base trigger rows inserted
+     */
+    default int insertTriggers(Connection conn, Map<OperableTrigger, JobDetail> triggersAndJobs,
+        String state) throws SQLException, IOException {
+        int inserted = 0;
+        for (Map.Entry<OperableTrigger, JobDetail> entry : triggersAndJobs.entrySet()) {
+            inserted += insertTrigger(conn, entry.getKey(), state, entry.getValue());
+        }
+        return inserted;
+    }
+
     /**
      * <p>
      * Update the base trigger data.
@@ -654,6 +749,32 @@ public interface DriverDelegate {
     OperableTrigger selectTrigger(Connection conn, TriggerKey triggerKey) throws SQLException, ClassNotFoundException,
         IOException, JobPersistenceException;
 
+    /**
+     * <p>
+     * Select the triggers of the given keys, with as few statements as the
+     * database allows.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects the triggers one at a time with
+     * <code>{@link #selectTrigger(Connection, TriggerKey)}</code>.
+     * </p>
+     * 
+     * @return the triggers by key, in the order of the given keys, without
+     *         the keys of the triggers that don't exist
+     */
+    default Map<TriggerKey, OperableTrigger> selectTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException, ClassNotFoundException, IOException, JobPersistenceException {
+        Map<TriggerKey, OperableTrigger> triggers = new LinkedHashMap<TriggerKey, OperableTrigger>();
+        for (TriggerKey key : triggerKeys) {
+            OperableTrigger trigger = selectTrigger(conn, key);
+            if (trigger != null) {
+                triggers.put(key, trigger);
+            }
+        }
+        return triggers;
+    }
+
     /**
      * <p>
      * Select a trigger's JobDataMap.
@@ -721,6 +842,22 @@ public interface DriverDelegate {
 
     List<String> selectTriggerGroups(Connection conn, GroupMatcher<TriggerKey> matcher) throws SQLException;
 
+    /**
+     * <p>
+     * Select the names of the trigger groups matching the given predicate,
+     * which may only be on the trigger group column.
+     * </p>
+     */
+    default List<String> selectTriggerGroups(Connection conn, SqlPredicate predicate) throws SQLException {
+        List<String> groups = new LinkedList<String>();
+        for (String group : selectTriggerGroups(conn)) {
+            if (predicate.isGroupMatch(group)) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
     /**
      * <p>
      * Select all of the triggers contained in a given group.
@@ -752,12 +889,296 @@ public interface DriverDelegate {
     int insertPausedTriggerGroup(Connection conn, String groupName)
         throws SQLException;
 
+    /**
+     * <p>
+     * Select the keys of the jobs matching the given predicate.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects the keys of all of the jobs and
+     * evaluates the predicate against each of them in memory.
+     * </p>
+     * 
+     * @see SqlPredicate#forJobKeys(org.quartz.Matcher)
+     */
+    default Set<JobKey> selectJobKeys(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        Set<JobKey> keys = new HashSet<JobKey>();
+        for (JobKey key : selectJobsInGroup(conn, GroupMatcher.anyJobGroup())) {
+            if (predicate.isMatch(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * Select the keys of the triggers matching the given predicate, which
+     * may be on the trigger or on the job columns of the triggers.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects the keys of all of the triggers, or
+     * of the triggers of the matching jobs, and evaluates the predicate in
+     * memory. The other default methods taking a predicate build on it.
+     * </p>
+     * 
+     * @see SqlPredicate#forTriggerKeys(org.quartz.Matcher)
+     * @see SqlPredicate#forJobKeys(org.quartz.Matcher)
+     */
+    default Set<TriggerKey> selectTriggerKeys(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        Set<TriggerKey> keys = new HashSet<TriggerKey>();
+        if (predicate.isOnJobKeys()) {
+            for (JobKey jobKey : selectJobKeys(conn, predicate)) {
+                keys.addAll(selectTriggerKeysForJob(conn, jobKey));
+            }
+        } else {
+            for (TriggerKey key : selectTriggersInGroup(conn, GroupMatcher.anyTriggerGroup())) {
+                if (predicate.isMatch(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the jobs matching the given
+     * predicate that follow the given key, ordered by group and then by
+     * name.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects all of the matching keys and sorts
+     * them in memory; so does the default of
+     * <code>{@link #selectTriggerKeysPage(Connection, SqlPredicate, List, Date, Date, TriggerKey, int)}</code>.
+     * </p>
+     * 
+     * @param after the key to start after, or <code>null</code> to start
+     *          with the first job.
+     */
+    default List<JobKey> selectJobKeysPage(Connection conn, SqlPredicate predicate,
+        JobKey after, int maxCount) throws SQLException {
+        List<JobKey> keys = PageToken.sortedAfter(selectJobKeys(conn, predicate), after);
+        return keys.size() > maxCount ? new ArrayList<JobKey>(keys.subList(0, maxCount)) : keys;
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the triggers matching the
+     * given predicate that follow the given key, ordered by group and then
+     * by name.
+     * </p>
+     * 
+     * @param states the states the triggers must be in, or an empty list
+     *          for any state.
+     * @param nextFireTimeFrom the time the next fire time of the triggers
+     *          must not be before, or <code>null</code>.
+     * @param nextFireTimeTo the time the next fire time of the triggers
+     *          must be before, or <code>null</code>.
+     * @param after the key to start after, or <code>null</code> to start
+     *          with the first trigger.
+     */
+    default List<TriggerKey> selectTriggerKeysPage(Connection conn, SqlPredicate predicate,
+        List<String> states, Date nextFireTimeFrom, Date nextFireTimeTo,
+        TriggerKey after, int maxCount) throws SQLException {
+        List<TriggerKey> keys = new ArrayList<TriggerKey>();
+        for (TriggerKey key : PageToken.sortedAfter(selectTriggerKeys(conn, predicate), after)) {
+            if (keys.size() == maxCount) {
+                break;
+            }
+            TriggerStatus status = selectTriggerStatus(conn, key);
+            if (status == null || (!states.isEmpty() && !states.contains(status.getStatus()))) {
+                continue;
+            }
+            if (nextFireTimeFrom != null || nextFireTimeTo != null) {
+                Date nextFireTime = status.getNextFireTime();
+                if (nextFireTime == null || (nextFireTimeFrom != null && nextFireTime.before(nextFireTimeFrom))
+                        || (nextFireTimeTo != null && !nextFireTime.before(nextFireTimeTo))) {
+                    continue;
+                }
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the triggers matching the
+     * given predicate that follow the given next fire time and key, ordered
+     * by next fire time and then by group and name, with their next fire
+     * times. Triggers without a next fire time are left out.
+     * </p>
+     * 
+     * <p>
+     * The default implementation selects all of the matching triggers and
+     * sorts them in memory.
+     * </p>
+     * 
+     * @param afterNextFireTime the next fire time of the trigger to start
+     *          after, or <code>null</code> to start with the first trigger.
+     * @param after the key of the trigger to start after, or
+     *          <code>null</code> to start with the first trigger.
+     * @see #selectTriggerKeysPage(Connection, SqlPredicate, List, Date, Date, TriggerKey, int)
+     */
+    default Map<TriggerKey, Date> selectTriggerKeysByNextFireTime(Connection conn, SqlPredicate predicate,
+        List<String> states, Date nextFireTimeFrom, Date nextFireTimeTo,
+        Date afterNextFireTime, TriggerKey after, int maxCount) throws SQLException {
+        List<TriggerStatus> selected = new ArrayList<TriggerStatus>();
+        for (TriggerKey key : selectTriggerKeysPage(conn, predicate, states, nextFireTimeFrom, nextFireTimeTo,
+                null, Integer.MAX_VALUE)) {
+            TriggerStatus status = selectTriggerStatus(conn, key);
+            Date nextFireTime = status == null ? null : status.getNextFireTime();
+            if (nextFireTime == null) {
+                continue;
+            }
+            if (afterNextFireTime != null) {
+                int comp = nextFireTime.compareTo(afterNextFireTime);
+                if (comp < 0 || (comp == 0 && PageToken.KEY_ORDER.compare(key, after) <= 0)) {
+                    continue;
+                }
+            }
+            status.setKey(key);
+            selected.add(status);
+        }
+        Collections.sort(selected, new Comparator<TriggerStatus>() {
+            public int compare(TriggerStatus s1, TriggerStatus s2) {
+                int comp = s1.getNextFireTime().compareTo(s2.getNextFireTime());
+                return comp != 0 ? comp : PageToken.KEY_ORDER.compare(s1.getKey(), s2.getKey());
+            }
+        });
+        Map<TriggerKey, Date> keys = new LinkedHashMap<TriggerKey, Date>();
+        for (TriggerStatus status : selected) {
+            if (keys.size() == maxCount) {
+                break;
+            }
+            keys.put(status.getKey(), status.getNextFireTime());
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * Update all of the triggers matching the given predicate to the given
+     * new state, if they are in one of the given old states.
+     * </p>
+     * 
+     * @return the number of rows updated
+     */
+    default int updateTriggerStates(Connection conn, SqlPredicate predicate,
+        String newState, String... oldStates) throws SQLException {
+        List<String> states = Arrays.asList(oldStates);
+        int count = 0;
+        for (TriggerKey key : selectTriggerKeys(conn, predicate)) {
+            if (states.contains(selectTriggerState(conn, key))) {
+                count += updateTriggerState(conn, key, newState);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * Select the keys of the paused triggers matching the given predicate,
+     * whose next fire time is before the given time.
+     * </p>
+     */
+    default List<TriggerKey> selectPausedTriggerKeys(Connection conn, SqlPredicate predicate,
+        long nextFireTimeBefore) throws SQLException {
+        List<TriggerKey> keys = new LinkedList<TriggerKey>();
+        for (TriggerKey key : selectTriggerKeys(conn, predicate)) {
+            TriggerStatus status = selectTriggerStatus(conn, key);
+            if (status != null && (Constants.STATE_PAUSED.equals(status.getStatus())
+                    || Constants.STATE_PAUSED_BLOCKED.equals(status.getStatus()))
+                    && status.getNextFireTime() != null
+                    && status.getNextFireTime().getTime() < nextFireTimeBefore) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * Resume the paused triggers matching the given predicate whose next
+     * fire time is not before the given time: they become
+     * <code>BLOCKED</code> if a trigger of their job is executing a job
+     * that disallows concurrent execution, and <code>WAITING</code>
+     * otherwise.
+     * </p>
+     * 
+     * @return the number of rows updated
+     */
+    default int updatePausedTriggerStates(Connection conn, SqlPredicate predicate,
+        long nextFireTimeNotBefore) throws SQLException {
+        int count = 0;
+        for (TriggerKey key : selectTriggerKeys(conn, predicate)) {
+            TriggerStatus status = selectTriggerStatus(conn, key);
+            if (status == null || !(Constants.STATE_PAUSED.equals(status.getStatus())
+                    || Constants.STATE_PAUSED_BLOCKED.equals(status.getStatus()))
+                    || status.getNextFireTime() == null
+                    || status.getNextFireTime().getTime() < nextFireTimeNotBefore) {
+                continue;
+            }
+            String newState = Constants.STATE_WAITING;
+            for (FiredTriggerRecord rec : selectFiredTriggerRecordsByJob(conn,
+                    status.getJobKey().getName(), status.getJobKey().getGroup())) {
+                if (rec.isJobDisallowsConcurrentExecution()) {
+                    newState = Constants.STATE_BLOCKED;
+                    break;
+                }
+            }
+            count += updateTriggerState(conn, key, newState);
+        }
+        return count;
+    }
+
     int deletePausedTriggerGroup(Connection conn, String groupName)
         throws SQLException;
 
     int deletePausedTriggerGroup(Connection conn, GroupMatcher<TriggerKey> matcher)
         throws SQLException;
 
+    /**
+     * <p>
+     * Delete the paused trigger groups matching the given predicate, which
+     * may only be on the trigger group column.
+     * </p>
+     * 
+     * <p>
+     * The default implementation deletes the matching groups one at a time
+     * with <code>{@link #deletePausedTriggerGroup(Connection, String)}</code>,
+     * which takes the group name as a <code>LIKE</code> pattern, and pauses
+     * the other groups that pattern deleted again.
+     * </p>
+     * 
+     * @return the number of rows deleted
+     */
+    default int deletePausedTriggerGroups(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        Set<String> paused = new HashSet<String>(selectPausedTriggerGroups(conn));
+        int count = 0;
+        for (String group : paused) {
+            if (predicate.isGroupMatch(group)) {
+                deletePausedTriggerGroup(conn, group);
+                count++;
+            }
+        }
+        if (count > 0) {
+            paused.removeAll(selectPausedTriggerGroups(conn));
+            for (String group : paused) {
+                if (!predicate.isGroupMatch(group)) {
+                    insertPausedTriggerGroup(conn, group);
+                }
+            }
+        }
+        return count;
+    }
+
     int deleteAllPausedTriggerGroups(Connection conn)
         throws SQLException;
 
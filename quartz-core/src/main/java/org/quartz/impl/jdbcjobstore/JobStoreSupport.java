@@ -23,9 +23,12 @@ import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +40,9 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.JobPersistenceException;
+import org.quartz.Matcher;
 import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.ResultPage;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerException;
@@ -46,6 +51,7 @@ import org.quartz.Trigger;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.impl.DefaultThreadExecutor;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.matchers.StringMatcher;
@@ -58,7 +64,10 @@ import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.ThreadExecutor;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.utils.CalendarUpdates;
 import org.quartz.utils.DBConnectionManager;
+import org.quartz.utils.PageToken;
+import org.quartz.utils.PagedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -138,6 +147,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     private SchedulerSignaler schedSignaler;
 
     protected int maxToRecoverAtATime = 20;
+
+    private int recoveryChunkSize = 1000;
+
+    private int calendarUpdateChunkSize = CalendarUpdates.DEFAULT_CHUNK_SIZE;
+
+    private int calendarUpdateThreadCount = CalendarUpdates.DEFAULT_THREAD_COUNT;
     
     private boolean setTxIsolationLevelSequential = false;
     
@@ -151,6 +166,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     private ClassLoader initializersLoader = null;
     
     private boolean doubleCheckLockMisfireHandler = true;
+
+    private boolean deferRecovery = false;
     
     private final Logger log = LoggerFactory.getLogger(getClass());
     
@@ -158,6 +175,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     
     private volatile boolean schedulerRunning = false;
     private volatile boolean shutdown = false;
+    private volatile boolean recoveryPending = false;
+    private volatile boolean backgroundRecoveryPending = false;
+    private volatile long recoveredMisfiredTriggerCount = 0L;
+    private volatile long removedCompleteTriggerCount = 0L;
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -348,6 +369,72 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.maxToRecoverAtATime = maxToRecoverAtATime;
     }
 
+    /**
+     * <p>
+     * Get the maximum number of misfired or 'complete' triggers handled
+     * within one transaction by the recovery of jobs when the scheduler is
+     * started.  The default is 1000.
+     * </p>
+     */
+    public int getRecoveryChunkSize() {
+        return recoveryChunkSize;
+    }
+
+    /**
+     * <p>
+     * Set the maximum number of misfired or 'complete' triggers handled
+     * within one transaction by the recovery of jobs when the scheduler is
+     * started.  The default is 1000.
+     * </p>
+     *
+     * <p>
+     * Only the triggers left 'acquired' or 'blocked', and the jobs that were
+     * executing, are recovered before triggers are fired; the misfired and
+     * 'complete' triggers are then handled in chunks by the misfire handling
+     * thread, while the other triggers fire.  If set to 0, all of the
+     * triggers are recovered within one transaction before any is fired.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setRecoveryChunkSize(int recoveryChunkSize) {
+        this.recoveryChunkSize = recoveryChunkSize;
+    }
+
+    public int getCalendarUpdateChunkSize() {
+        return calendarUpdateChunkSize;
+    }
+
+    /**
+     * <p>
+     * Set the number of triggers whose fire times are re-computed together
+     * (by one thread, against one copy of the calendar) when a calendar is
+     * replaced with <code>updateTriggers</code> set.  The default is 500.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setCalendarUpdateChunkSize(int calendarUpdateChunkSize) {
+        if (calendarUpdateChunkSize < 1) {
+            throw new IllegalArgumentException("Calendar update chunk size must be larger than 0");
+        }
+        this.calendarUpdateChunkSize = calendarUpdateChunkSize;
+    }
+
+    public int getCalendarUpdateThreadCount() {
+        return calendarUpdateThreadCount;
+    }
+
+    /**
+     * <p>
+     * Set the maximum number of threads used to re-compute the fire times of
+     * the triggers referencing a replaced calendar.  The default is the number
+     * of available processors, 1 disables parallel re-computation.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setCalendarUpdateThreadCount(int calendarUpdateThreadCount) {
+        this.calendarUpdateThreadCount = calendarUpdateThreadCount;
+    }
+
     /**
      * @return Returns the dbRetryInterval.
      */
@@ -617,6 +704,64 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.doubleCheckLockMisfireHandler = doubleCheckLockMisfireHandler;
     }
 
+    /**
+     * Get whether the recovery of jobs (or the first check-in, when
+     * clustered) is deferred to a background thread when the scheduler is
+     * started.
+     */
+    public boolean isDeferRecovery() {
+        return deferRecovery;
+    }
+
+    /**
+     * Set whether the recovery of jobs (or the first check-in, when
+     * clustered) is deferred to a background thread when the scheduler is
+     * started, so that <code>start()</code> returns without waiting for it.
+     * No trigger is acquired for firing until the recovery has completed,
+     * but the store accepts other calls meanwhile.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setDeferRecovery(boolean deferRecovery) {
+        this.deferRecovery = deferRecovery;
+    }
+
+    /**
+     * Get whether a deferred recovery has yet to complete, in which case no
+     * trigger is acquired for firing.
+     *
+     * @see #setDeferRecovery(boolean)
+     */
+    public boolean isRecoveryPending() {
+        return recoveryPending;
+    }
+
+    /**
+     * Get whether the recovery of jobs started with the scheduler is still in
+     * progress, either before any trigger is fired or while it handles the
+     * misfired and 'complete' triggers in the background.
+     *
+     * @see #setRecoveryChunkSize(int)
+     */
+    public boolean isRecoveryInProgress() {
+        return recoveryPending || backgroundRecoveryPending;
+    }
+
+    /**
+     * Get the number of misfired triggers handled so far by the recovery of
+     * jobs started with the scheduler, in the background.
+     */
+    public long getRecoveredMisfiredTriggerCount() {
+        return recoveredMisfiredTriggerCount;
+    }
+
+    /**
+     * Get the number of 'complete' triggers removed so far by the recovery of
+     * jobs started with the scheduler, in the background.
+     */
+    public long getRemovedCompleteTriggerCount() {
+        return removedCompleteTriggerCount;
+    }
+
     @Override
     public long getAcquireRetryDelay(int failureCount) {
         return dbRetryInterval;
@@ -689,12 +834,17 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void schedulerStarted() throws SchedulerException {
 
+        if (isDeferRecovery()) {
+            // the cluster manager or the misfire handler recovers, once started
+            recoveryPending = true;
+        }
+
         if (isClustered()) {
             clusterManagementThread = new ClusterManager();
             if(initializersLoader != null)
                 clusterManagementThread.setContextClassLoader(initializersLoader);
             clusterManagementThread.initialize();
-        } else {
+        } else if (!isDeferRecovery()) {
             try {
                 recoverJobs();
             } catch (SchedulerException se) {
@@ -871,8 +1021,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     "Freed " + rows
                             + " triggers from 'acquired' / 'blocked' state.");
 
+            boolean inBackground = getRecoveryChunkSize() > 0;
+
             // clean up misfired jobs
-            recoverMisfiredJobs(conn, true);
+            if (!inBackground) {
+                recoverMisfiredJobs(conn, true);
+            }
             
             // recover jobs marked for recovery that were not fully executed
             List<OperableTrigger> recoveringJobTriggers = getDelegate()
@@ -893,16 +1047,25 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             getLog().info("Recovery complete.");
 
             // remove lingering 'complete' triggers...
-            List<TriggerKey> cts = getDelegate().selectTriggersInState(conn, STATE_COMPLETE);
-            for(TriggerKey ct: cts) {
-                removeTrigger(conn, ct);
+            if (!inBackground) {
+                List<TriggerKey> cts = getDelegate().selectTriggersInState(conn, STATE_COMPLETE);
+                for(TriggerKey ct: cts) {
+                    removeTrigger(conn, ct);
+                }
+                getLog().info(
+                    "Removed " + cts.size() + " 'complete' triggers.");
             }
-            getLog().info(
-                "Removed " + cts.size() + " 'complete' triggers.");
             
             // clean up any fired trigger entries
             int n = getDelegate().deleteFiredTriggers(conn);
             getLog().info("Removed " + n + " stale fired job entries.");
+
+            if (inBackground) {
+                recoveredMisfiredTriggerCount = 0L;
+                removedCompleteTriggerCount = 0L;
+                backgroundRecoveryPending = true;
+                getLog().info("Misfired and 'complete' triggers will be recovered in the background.");
+            }
         } catch (JobPersistenceException e) {
             throw e;
         } catch (Exception e) {
@@ -911,6 +1074,77 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    /**
+     * Called by the background thread that performed a deferred recovery,
+     * once it has completed.
+     */
+    private void recoveryCompleted() {
+        recoveryPending = false;
+        getLog().info("Deferred recovery complete, trigger acquisition resumed.");
+        signalSchedulingChangeImmediately(0L);
+    }
+
+    /**
+     * Handle the next chunk of misfired triggers of the recovery of jobs,
+     * within one transaction.
+     */
+    protected RecoverMisfiredJobsResult recoverNextMisfiredChunk() throws JobPersistenceException {
+        return executeInNonManagedTXLock(
+            LOCK_TRIGGER_ACCESS,
+            new TransactionCallback<RecoverMisfiredJobsResult>() {
+                public RecoverMisfiredJobsResult execute(Connection conn) throws JobPersistenceException {
+                    try {
+                        return recoverMisfiredJobs(conn, false, getRecoveryChunkSize());
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't recover misfired triggers: "
+                                + e.getMessage(), e);
+                    }
+                }
+            }, null);
+    }
+
+    /**
+     * Remove the given 'complete' triggers, within one transaction, unless
+     * they have been stored again meanwhile.
+     *
+     * @return the number of triggers removed
+     */
+    protected int removeCompleteTriggers(final List<TriggerKey> triggerKeys) throws JobPersistenceException {
+        return executeInNonManagedTXLock(
+            LOCK_TRIGGER_ACCESS,
+            new TransactionCallback<Integer>() {
+                public Integer execute(Connection conn) throws JobPersistenceException {
+                    int removed = 0;
+                    try {
+                        for (TriggerKey triggerKey : triggerKeys) {
+                            if (STATE_COMPLETE.equals(getDelegate().selectTriggerState(conn, triggerKey))
+                                    && removeTrigger(conn, triggerKey)) {
+                                removed++;
+                            }
+                        }
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't remove 'complete' triggers: "
+                                + e.getMessage(), e);
+                    }
+                    return removed;
+                }
+            }, null);
+    }
+
+    protected List<TriggerKey> selectCompleteTriggers() throws JobPersistenceException {
+        return executeWithoutLock(
+            new TransactionCallback<List<TriggerKey>>() {
+                public List<TriggerKey> execute(Connection conn) throws JobPersistenceException {
+                    try {
+                        return getDelegate().selectTriggersInState(conn, STATE_COMPLETE);
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't select 'complete' triggers: "
+                                + e.getMessage(), e);
+                    }
+                }
+            });
+    }
+
     protected long getMisfireTime() {
         long misfireTime = System.currentTimeMillis();
         if (getMisfireThreshold() > 0) {
@@ -956,8 +1190,17 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
         // If recovering, we want to handle all of the misfired
         // triggers right away.
-        int maxMisfiresToHandleAtATime = 
-            (recovering) ? -1 : getMaxMisfiresToHandleAtATime();
+        return recoverMisfiredJobs(conn, recovering,
+            (recovering) ? -1 : getMaxMisfiresToHandleAtATime());
+    }
+
+    /**
+     * Recover up to the given number of misfired triggers, or all of them
+     * if it is negative.
+     */
+    protected RecoverMisfiredJobsResult recoverMisfiredJobs(
+        Connection conn, boolean recovering, int maxMisfiresToHandleAtATime)
+        throws JobPersistenceException, SQLException {
         
         List<TriggerKey> misfiredTriggers = new LinkedList<TriggerKey>();
         long earliestNewTime = Long.MAX_VALUE;
@@ -1334,6 +1577,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 new VoidTransactionCallback() {
                     public void executeVoid(Connection conn) throws JobPersistenceException {
                         
+                        if (!replace) {
+                            storeNewJobsAndTriggers(conn, triggersAndJobs);
+                            return;
+                        }
+
                         // FUTURE_TODO: make this more efficient with a true bulk operation...
                         for(JobDetail job: triggersAndJobs.keySet()) {
                             storeJob(conn, job, replace);
@@ -1345,6 +1593,95 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     }
                 });
     }    
+
+    /**
+     * <p>
+     * Insert jobs and triggers that must not exist yet, using JDBC batches.
+     * The triggers' states are determined as by
+     * <code>{@link #storeTrigger(Connection, OperableTrigger, JobDetail, boolean, String, boolean, boolean)}</code>,
+     * with the paused state of each trigger group looked up only once.
+     * </p>
+     */
+    protected void storeNewJobsAndTriggers(Connection conn,
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs) throws JobPersistenceException {
+
+        List<JobDetail> jobs = new ArrayList<JobDetail>(triggersAndJobs.size());
+        Set<JobKey> jobKeys = new HashSet<JobKey>();
+        Set<TriggerKey> triggerKeys = new HashSet<TriggerKey>();
+        Map<String, Map<OperableTrigger, JobDetail>> triggersByState =
+            new HashMap<String, Map<OperableTrigger, JobDetail>>();
+        Map<String, Boolean> pausedGroups = new HashMap<String, Boolean>();
+
+        try {
+            for (Map.Entry<JobDetail, Set<? extends Trigger>> e : triggersAndJobs.entrySet()) {
+                JobDetail job = e.getKey();
+                if (job != null) {
+                    if (!jobKeys.add(job.getKey()) || jobExists(conn, job.getKey())) {
+                        throw new ObjectAlreadyExistsException(job);
+                    }
+                    jobs.add(job);
+                }
+
+                if (e.getValue() == null) {
+                    continue;
+                }
+
+                for (Trigger t : e.getValue()) {
+                    OperableTrigger trigger = (OperableTrigger) t;
+                    if (!triggerKeys.add(trigger.getKey()) || triggerExists(conn, trigger.getKey())) {
+                        throw new ObjectAlreadyExistsException(trigger);
+                    }
+
+                    String state = STATE_WAITING;
+
+                    String group = trigger.getKey().getGroup();
+                    Boolean paused = pausedGroups.get(group);
+                    if (paused == null) {
+                        paused = getDelegate().isTriggerGroupPaused(conn, group);
+                        if (!paused && getDelegate().isTriggerGroupPaused(conn, ALL_GROUPS_PAUSED)) {
+                            getDelegate().insertPausedTriggerGroup(conn, group);
+                            paused = Boolean.TRUE;
+                        }
+                        pausedGroups.put(group, paused);
+                    }
+                    if (paused) {
+                        state = STATE_PAUSED;
+                    }
+
+                    JobDetail triggerJob = job;
+                    if (triggerJob == null) {
+                        triggerJob = retrieveJob(conn, trigger.getJobKey());
+                        if (triggerJob == null) {
+                            throw new JobPersistenceException("The job ("
+                                    + trigger.getJobKey()
+                                    + ") referenced by the trigger does not exist.");
+                        }
+                    }
+                    if (triggerJob.isConcurrentExectionDisallowed()) {
+                        state = checkBlockedState(conn, triggerJob.getKey(), state);
+                    }
+
+                    Map<OperableTrigger, JobDetail> triggers = triggersByState.get(state);
+                    if (triggers == null) {
+                        triggers = new LinkedHashMap<OperableTrigger, JobDetail>();
+                        triggersByState.put(state, triggers);
+                    }
+                    triggers.put(trigger, triggerJob);
+                }
+            }
+
+            getDelegate().insertJobDetails(conn, jobs);
+            for (Map.Entry<String, Map<OperableTrigger, JobDetail>> e : triggersByState.entrySet()) {
+                getDelegate().insertTriggers(conn, e.getValue(), e.getKey());
+            }
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't store jobs and triggers: "
+                    + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't store jobs and triggers: "
+                    + e.getMessage(), e);
+        }
+    }
     
     /**
      * Delete a job and its listeners.
@@ -1407,6 +1744,40 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    /**
+     * <p>
+     * Retrieve the <code>{@link org.quartz.JobDetail}</code>s of the given
+     * keys in a single transaction, with multi-row selects.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public Map<JobKey, JobDetail> retrieveJobs(final Collection<JobKey> jobKeys) throws JobPersistenceException {
+        return (Map<JobKey, JobDetail>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    return retrieveJobs(conn, jobKeys);
+                }
+            });
+    }
+
+    protected Map<JobKey, JobDetail> retrieveJobs(Connection conn, Collection<JobKey> jobKeys)
+        throws JobPersistenceException {
+        try {
+            return getDelegate().selectJobDetails(conn, jobKeys, getClassLoadHelper());
+        } catch (ClassNotFoundException e) {
+            throw new JobPersistenceException(
+                    "Couldn't retrieve jobs because a required class was not found: "
+                            + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new JobPersistenceException(
+                    "Couldn't retrieve jobs because a BLOB couldn't be deserialized: "
+                            + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't retrieve jobs: "
+                    + e.getMessage(), e);
+        }
+    }
+
     /**
      * <p>
      * Remove (delete) the <code>{@link org.quartz.Trigger}</code> with the
@@ -1544,6 +1915,35 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    /**
+     * <p>
+     * Retrieve the <code>{@link org.quartz.Trigger}</code>s of the given
+     * keys in a single transaction, with multi-row selects.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public Map<TriggerKey, OperableTrigger> retrieveTriggers(final Collection<TriggerKey> triggerKeys)
+        throws JobPersistenceException {
+        return (Map<TriggerKey, OperableTrigger>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    return retrieveTriggers(conn, triggerKeys);
+                }
+            });
+    }
+
+    protected Map<TriggerKey, OperableTrigger> retrieveTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws JobPersistenceException {
+        try {
+            return getDelegate().selectTriggers(conn, triggerKeys);
+        } catch (JobPersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JobPersistenceException("Couldn't retrieve triggers: "
+                    + e.getMessage(), e);
+        }
+    }
+
     /**
      * <p>
      * Get the current state of the identified <code>{@link Trigger}</code>.
@@ -1694,8 +2094,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 if(updateTriggers) {
                     List<OperableTrigger> trigs = getDelegate().selectTriggersForCalendar(conn, calName);
                     
+                    // compute the new fire times up front (in parallel), then write them
+                    CalendarUpdates.updateWithNewCalendar(trigs, calendar, getMisfireThreshold(),
+                            getCalendarUpdateChunkSize(), getCalendarUpdateThreadCount());
                     for(OperableTrigger trigger: trigs) {
-                        trigger.updateWithNewCalendar(calendar, getMisfireThreshold());
                         storeTrigger(conn, trigger, null, true, STATE_WAITING, false, false);
                     }
                 }
@@ -1707,7 +2109,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
 
             if (!isClustered) {
-                calendarCache.put(calName, calendar); // lazy-cache
+                // cache a private copy, the caller may go on modifying its instance
+                calendarCache.put(calName, (Calendar) calendar.clone()); // lazy-cache
             }
 
         } catch (IOException e) {
@@ -2282,13 +2685,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             new TransactionCallback() {
                 public Set<String> execute(final Connection conn) throws JobPersistenceException {
                     Set<String> groupNames = new HashSet<String>();
-                    Set<JobKey> jobNames = getJobNames(conn, matcher);
+                    SqlPredicate predicate = SqlPredicate.forJobKeys(matcher);
+                    Set<JobKey> jobNames = getJobKeysMatching(conn, matcher);
 
+                    pauseTriggers(conn, predicate);
                     for (JobKey jobKey : jobNames) {
-                        List<OperableTrigger> triggers = getTriggersForJob(conn, jobKey);
-                        for (OperableTrigger trigger : triggers) {
-                            pauseTrigger(conn, trigger.getKey());
-                        }
                         groupNames.add(jobKey.getGroup());
                     }
 
@@ -2297,6 +2698,58 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
             );
     }
+
+    /**
+     * <p>
+     * Pause all of the <code>{@link org.quartz.Trigger}s</code> matching the
+     * given predicate with one statement per state transition, rather than
+     * one per trigger.
+     * </p>
+     */
+    protected void pauseTriggers(Connection conn, SqlPredicate predicate)
+        throws JobPersistenceException {
+        try {
+            getDelegate().updateTriggerStates(conn, predicate, STATE_PAUSED,
+                    STATE_WAITING, STATE_ACQUIRED);
+            getDelegate().updateTriggerStates(conn, predicate, STATE_PAUSED_BLOCKED,
+                    STATE_BLOCKED);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't pause triggers matching '"
+                    + predicate + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>
+     * Resume all of the paused <code>{@link org.quartz.Trigger}s</code>
+     * matching the given predicate.
+     * </p>
+     * 
+     * <p>
+     * Only the triggers whose next fire-time has already passed are resumed
+     * one by one, so that their misfire instruction can be applied; the
+     * others are resumed with one statement for those that become blocked
+     * and one for those that become waiting.
+     * </p>
+     * 
+     * @see #resumeTrigger(Connection, TriggerKey)
+     */
+    protected void resumeTriggers(Connection conn, SqlPredicate predicate)
+        throws JobPersistenceException {
+        try {
+            long now = System.currentTimeMillis();
+            if (schedulerRunning) {
+                for (TriggerKey key : getDelegate().selectPausedTriggerKeys(conn, predicate, now)) {
+                    resumeTrigger(conn, key);
+                }
+            }
+            // triggers without a next fire-time stay paused, as in resumeTrigger()
+            getDelegate().updatePausedTriggerStates(conn, predicate, schedulerRunning ? now : 1L);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't resume triggers matching '"
+                    + predicate + "': " + e.getMessage(), e);
+        }
+    }
     
     /**
      * Determines if a Trigger for the given job should be blocked.  
@@ -2462,14 +2915,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             LOCK_TRIGGER_ACCESS,
             new TransactionCallback() {
                 public Set<String> execute(Connection conn) throws JobPersistenceException {
-                    Set<JobKey> jobKeys = getJobNames(conn, matcher);
+                    SqlPredicate predicate = SqlPredicate.forJobKeys(matcher);
+                    Set<JobKey> jobKeys = getJobKeysMatching(conn, matcher);
                     Set<String> groupNames = new HashSet<String>();
 
+                    resumeTriggers(conn, predicate);
                     for (JobKey jobKey: jobKeys) {
-                        List<OperableTrigger> triggers = getTriggersForJob(conn, jobKey);
-                        for (OperableTrigger trigger: triggers) {
-                            resumeTrigger(conn, trigger.getKey());
-                        }
                         groupNames.add(jobKey.getGroup());
                     }
                     return groupNames;
@@ -2595,6 +3046,364 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
     }
     
+    /**
+     * <p>
+     * Get the keys of all of the <code>{@link org.quartz.Job}s</code>
+     * matching the given matcher, which may combine matchers with
+     * <code>{@link org.quartz.impl.matchers.AndMatcher}</code>,
+     * <code>{@link org.quartz.impl.matchers.OrMatcher}</code> and
+     * <code>{@link org.quartz.impl.matchers.NotMatcher}</code>.
+     * </p>
+     * 
+     * <p>
+     * Matchers that can not be translated into SQL are applied to the keys
+     * of all of the jobs.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public Set<JobKey> getJobKeysMatching(final Matcher<JobKey> matcher)
+        throws JobPersistenceException {
+        return (Set<JobKey>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    return getJobKeysMatching(conn, matcher);
+                }
+            });
+    }
+
+    protected Set<JobKey> getJobKeysMatching(Connection conn, Matcher<JobKey> matcher)
+        throws JobPersistenceException {
+        try {
+            SqlPredicate predicate = SqlPredicate.forJobKeys(matcher);
+            if (predicate != null) {
+                return getDelegate().selectJobKeys(conn, predicate);
+            }
+            Set<JobKey> keys = new HashSet<JobKey>();
+            for (JobKey key : getDelegate().selectJobsInGroup(conn, GroupMatcher.anyJobGroup())) {
+                if (matcher.isMatch(key)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't obtain job names: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>
+     * Get the keys of all of the <code>{@link org.quartz.Trigger}s</code>
+     * matching the given matcher.
+     * </p>
+     * 
+     * @see #getJobKeysMatching(Matcher)
+     */
+    @SuppressWarnings("unchecked")
+    public Set<TriggerKey> getTriggerKeysMatching(final Matcher<TriggerKey> matcher)
+        throws JobPersistenceException {
+        return (Set<TriggerKey>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    return getTriggerKeysMatching(conn, matcher);
+                }
+            });
+    }
+
+    protected Set<TriggerKey> getTriggerKeysMatching(Connection conn, Matcher<TriggerKey> matcher)
+        throws JobPersistenceException {
+        try {
+            SqlPredicate predicate = SqlPredicate.forTriggerKeys(matcher);
+            if (predicate != null) {
+                return getDelegate().selectTriggerKeys(conn, predicate);
+            }
+            Set<TriggerKey> keys = new HashSet<TriggerKey>();
+            for (TriggerKey key : getDelegate().selectTriggersInGroup(conn, GroupMatcher.anyTriggerGroup())) {
+                if (matcher.isMatch(key)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't obtain trigger names: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>
+     * Get one page of the jobs of the matching groups, ordered by group and
+     * then by name.
+     * </p>
+     * 
+     * <p>
+     * The keys of the page are selected by a single query, which resumes
+     * after the key held by the page token rather than skipping rows, so
+     * every page costs the same however deep it is.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    public ResultPage<JobDetail> retrieveJobPage(final GroupMatcher<JobKey> matcher,
+            final String pageToken, final int pageSize) throws JobPersistenceException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+        final JobKey after = PageToken.decodeJobKey(pageToken);
+        return (ResultPage<JobDetail>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    List<JobKey> keys;
+                    try {
+                        keys = getDelegate().selectJobKeysPage(conn,
+                                SqlPredicate.forJobKeys(matcher), after, pageSize + 1);
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't obtain job names: "
+                                + e.getMessage(), e);
+                    }
+                    String nextPageToken = null;
+                    if (keys.size() > pageSize) {
+                        keys = keys.subList(0, pageSize);
+                        nextPageToken = PageToken.encode(keys.get(pageSize - 1));
+                    }
+                    // without the jobs removed since their keys were selected
+                    return new ResultPage<JobDetail>(
+                            new ArrayList<JobDetail>(retrieveJobs(conn, keys).values()), nextPageToken);
+                }
+            });
+    }
+
+    /**
+     * <p>
+     * Get one page of the triggers matching the given query, ordered by
+     * group and then by name.
+     * </p>
+     * 
+     * @see #retrieveJobPage(GroupMatcher, String, int)
+     */
+    @SuppressWarnings("unchecked")
+    public ResultPage<OperableTrigger> retrieveTriggerPage(final TriggerQuery query)
+        throws JobPersistenceException {
+        final TriggerKey after = PageToken.decodeTriggerKey(query.getPageToken());
+        final Date afterNextFireTime = query.isOrderedByNextFireTime()
+                ? PageToken.decodeNextFireTime(query.getPageToken()) : null;
+        final int pageSize = query.getPageSize();
+        return (ResultPage<OperableTrigger>)executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback() {
+                public Object execute(Connection conn) throws JobPersistenceException {
+                    SqlPredicate predicate = SqlPredicate.forTriggerKeys(query.getMatcher());
+                    List<String> states = getDbStates(query.getStates());
+                    List<TriggerKey> keys;
+                    Map<TriggerKey, Date> nextFireTimes = null;
+                    try {
+                        if (query.isOrderedByNextFireTime()) {
+                            nextFireTimes = getDelegate().selectTriggerKeysByNextFireTime(conn, predicate, states,
+                                    query.getNextFireTimeFrom(), query.getNextFireTimeTo(),
+                                    afterNextFireTime, after, pageSize + 1);
+                            keys = new ArrayList<TriggerKey>(nextFireTimes.keySet());
+                        } else {
+                            keys = getDelegate().selectTriggerKeysPage(conn, predicate, states,
+                                    query.getNextFireTimeFrom(), query.getNextFireTimeTo(), after, pageSize + 1);
+                        }
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException("Couldn't obtain trigger names: "
+                                + e.getMessage(), e);
+                    }
+                    String nextPageToken = null;
+                    if (keys.size() > pageSize) {
+                        keys = keys.subList(0, pageSize);
+                        TriggerKey last = keys.get(pageSize - 1);
+                        nextPageToken = nextFireTimes != null
+                                ? PageToken.encode(nextFireTimes.get(last), last) : PageToken.encode(last);
+                    }
+                    // without the triggers removed since their keys were selected
+                    List<OperableTrigger> triggers =
+                            new ArrayList<OperableTrigger>(retrieveTriggers(conn, keys).values());
+                    return new ResultPage<OperableTrigger>(triggers, nextPageToken);
+                }
+            });
+    }
+
+    /**
+     * <p>
+     * Iterate over the jobs of the matching groups, with one transaction
+     * per batch, so that no connection is held between batches.
+     * </p>
+     */
+    public Iterator<JobDetail> iterateJobs(final GroupMatcher<JobKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<JobDetail>(new PagedIterator.PageSource<JobDetail>() {
+            public ResultPage<JobDetail> fetchPage(String pageToken) throws JobPersistenceException {
+                return retrieveJobPage(matcher, pageToken, batchSize);
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Iterate over the triggers of the matching groups, with one
+     * transaction per batch.
+     * </p>
+     */
+    public Iterator<OperableTrigger> iterateTriggers(final GroupMatcher<TriggerKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<OperableTrigger>(new PagedIterator.PageSource<OperableTrigger>() {
+            public ResultPage<OperableTrigger> fetchPage(String pageToken) throws JobPersistenceException {
+                return retrieveTriggerPage(new TriggerQuery().withMatcher(matcher)
+                        .withPageToken(pageToken).withPageSize(batchSize));
+            }
+        });
+    }
+
+    /**
+     * Get the states of the trigger table that
+     * <code>{@link #getTriggerState(Connection, TriggerKey)}</code> reports
+     * as one of the given states.
+     */
+    protected static List<String> getDbStates(Set<TriggerState> states) {
+        List<String> dbStates = new ArrayList<String>();
+        for (TriggerState state : states) {
+            switch (state) {
+                case NONE:
+                    dbStates.add(STATE_DELETED);
+                    break;
+                case NORMAL:
+                    dbStates.add(STATE_WAITING);
+                    dbStates.add(STATE_ACQUIRED);
+                    dbStates.add(STATE_EXECUTING);
+                    break;
+                case PAUSED:
+                    dbStates.add(STATE_PAUSED);
+                    dbStates.add(STATE_PAUSED_BLOCKED);
+                    break;
+                case COMPLETE:
+                    dbStates.add(STATE_COMPLETE);
+                    break;
+                case ERROR:
+                    dbStates.add(STATE_ERROR);
+                    break;
+                case BLOCKED:
+                    dbStates.add(STATE_BLOCKED);
+                    break;
+            }
+        }
+        return dbStates;
+    }
+
+    /**
+     * <p>
+     * Pause all of the <code>{@link org.quartz.Trigger}s</code> matching the
+     * given matcher. Unlike <code>{@link #pauseTriggers(GroupMatcher)}</code>,
+     * the groups are not remembered as paused, so triggers added to them
+     * later are not paused.
+     * </p>
+     * 
+     * @see #getTriggerKeysMatching(Matcher)
+     */
+    public void pauseTriggersMatching(final Matcher<TriggerKey> matcher)
+        throws JobPersistenceException {
+        executeInLock(
+            LOCK_TRIGGER_ACCESS,
+            new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    SqlPredicate predicate = SqlPredicate.forTriggerKeys(matcher);
+                    if (predicate != null) {
+                        pauseTriggers(conn, predicate);
+                    } else {
+                        for (TriggerKey key : getTriggerKeysMatching(conn, matcher)) {
+                            pauseTrigger(conn, key);
+                        }
+                    }
+                }
+            });
+    }
+
+    /**
+     * <p>
+     * Resume (un-pause) all of the <code>{@link org.quartz.Trigger}s</code>
+     * matching the given matcher.
+     * </p>
+     * 
+     * <p>
+     * If any <code>Trigger</code> missed one or more fire-times, then the
+     * <code>Trigger</code>'s misfire instruction will be applied.
+     * </p>
+     * 
+     * @see #getTriggerKeysMatching(Matcher)
+     */
+    public void resumeTriggersMatching(final Matcher<TriggerKey> matcher)
+        throws JobPersistenceException {
+        executeInLock(
+            LOCK_TRIGGER_ACCESS,
+            new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    SqlPredicate predicate = SqlPredicate.forTriggerKeys(matcher);
+                    if (predicate != null) {
+                        resumeTriggers(conn, predicate);
+                    } else {
+                        for (TriggerKey key : getTriggerKeysMatching(conn, matcher)) {
+                            resumeTrigger(conn, key);
+                        }
+                    }
+                }
+            });
+    }
+
+    /**
+     * <p>
+     * Pause all of the <code>{@link org.quartz.Job}s</code> matching the given
+     * matcher - by pausing all of their <code>Trigger</code>s.
+     * </p>
+     * 
+     * @see #getJobKeysMatching(Matcher)
+     */
+    public void pauseJobsMatching(final Matcher<JobKey> matcher)
+        throws JobPersistenceException {
+        executeInLock(
+            LOCK_TRIGGER_ACCESS,
+            new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    SqlPredicate predicate = SqlPredicate.forJobKeys(matcher);
+                    if (predicate != null) {
+                        pauseTriggers(conn, predicate);
+                    } else {
+                        for (JobKey jobKey : getJobKeysMatching(conn, matcher)) {
+                            for (OperableTrigger trigger : getTriggersForJob(conn, jobKey)) {
+                                pauseTrigger(conn, trigger.getKey());
+                            }
+                        }
+                    }
+                }
+            });
+    }
+
+    /**
+     * <p>
+     * Resume (un-pause) all of the <code>{@link org.quartz.Job}s</code>
+     * matching the given matcher.
+     * </p>
+     * 
+     * @see #getJobKeysMatching(Matcher)
+     */
+    public void resumeJobsMatching(final Matcher<JobKey> matcher)
+        throws JobPersistenceException {
+        executeInLock(
+            LOCK_TRIGGER_ACCESS,
+            new VoidTransactionCallback() {
+                public void executeVoid(Connection conn) throws JobPersistenceException {
+                    SqlPredicate predicate = SqlPredicate.forJobKeys(matcher);
+                    if (predicate != null) {
+                        resumeTriggers(conn, predicate);
+                    } else {
+                        for (JobKey jobKey : getJobKeysMatching(conn, matcher)) {
+                            for (OperableTrigger trigger : getTriggersForJob(conn, jobKey)) {
+                                resumeTrigger(conn, trigger.getKey());
+                            }
+                        }
+                    }
+                }
+            });
+    }
+
     /**
      * <p>
      * Resume (un-pause) all of the <code>{@link org.quartz.Trigger}s</code>
@@ -2613,52 +3422,15 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
         try {
 
-            getDelegate().deletePausedTriggerGroup(conn, matcher);
-            HashSet<String> groups = new HashSet<String>();
+            SqlPredicate predicate = SqlPredicate.forTriggerKeys(matcher);
+            getDelegate().deletePausedTriggerGroups(conn, predicate);
+            HashSet<String> groups = new HashSet<String>(
+                    getDelegate().selectTriggerGroups(conn, predicate));
 
-            Set<TriggerKey> keys = getDelegate().selectTriggersInGroup(conn,
-                    matcher);
-
-            for (TriggerKey key: keys) {
-                resumeTrigger(conn, key);
-                groups.add(key.getGroup());
-            }
+            resumeTriggers(conn, predicate);
 
             return groups;
 
-            // FUTURE_TODO: find an efficient way to resume triggers (better than the
-            // above)... logic below is broken because of
-            // findTriggersToBeBlocked()
-            /*
-             * int res =
-             * getDelegate().updateTriggerGroupStateFromOtherState(conn,
-             * groupName, STATE_WAITING, PAUSED);
-             * 
-             * if(res > 0) {
-             * 
-             * long misfireTime = System.currentTimeMillis();
-             * if(getMisfireThreshold() > 0) misfireTime -=
-             * getMisfireThreshold();
-             * 
-             * Key[] misfires =
-             * getDelegate().selectMisfiredTriggersInGroupInState(conn,
-             * groupName, STATE_WAITING, misfireTime);
-             * 
-             * List blockedTriggers = findTriggersToBeBlocked(conn,
-             * groupName);
-             * 
-             * Iterator itr = blockedTriggers.iterator(); while(itr.hasNext()) {
-             * Key key = (Key)itr.next();
-             * getDelegate().updateTriggerState(conn, key.getName(),
-             * key.getGroup(), BLOCKED); }
-             * 
-             * for(int i=0; i < misfires.length; i++) {               String
-             * newState = STATE_WAITING;
-             * if(blockedTriggers.contains(misfires[i])) newState =
-             * BLOCKED; updateMisfiredTrigger(conn,
-             * misfires[i].getName(), misfires[i].getGroup(), newState, true); } }
-             */
-
         } catch (SQLException e) {
             throw new JobPersistenceException("Couldn't pause trigger group '"
                     + matcher + "': " + e.getMessage(), e);
@@ -2796,6 +3568,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow)
         throws JobPersistenceException {
+
+        if (recoveryPending) {
+            // firing waits for the recovery, which signals its completion
+            return new ArrayList<OperableTrigger>();
+        }
         
         String lockName;
         if(isAcquireTriggersWithinLock() || maxCount > 1) { 
@@ -3921,7 +4698,9 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
 
         public void initialize() {
-            this.manage();
+            if (!recoveryPending) {
+                this.manage();
+            }
 
             ThreadExecutor executor = getThreadExecutor();
             executor.execute(ClusterManager.this);
@@ -3955,7 +4734,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         public void run() {
             while (!shutdown) {
 
-                if (!shutdown) {
+                // a deferred first check-in is done right away, retried as failures are
+                if (!shutdown && !(recoveryPending && numFails == 0)) {
                     long timeToSleep = getClusterCheckinInterval();
                     long transpiredTime = (System.currentTimeMillis() - lastCheckin);
                     timeToSleep = timeToSleep - transpiredTime;
@@ -3977,6 +4757,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     signalSchedulingChangeImmediately(0L);
                 }
 
+                if (recoveryPending && !firstCheckIn) {
+                    recoveryCompleted();
+                }
+
             }//while !shutdown
         }
     }
@@ -4027,8 +4811,81 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             return RecoverMisfiredJobsResult.NO_OP;
         }
 
+        private void recover() {
+            while (!shutdown) {
+                try {
+                    recoverJobs();
+                    recoveryCompleted();
+                    return;
+                } catch (Exception e) {
+                    getLog().error(
+                        "MisfireHandler: Error recovering jobs: "
+                                + e.getMessage(), e);
+                }
+                try {
+                    Thread.sleep(getDbRetryInterval());
+                } catch (Exception ignore) {
+                }
+            }
+        }
+
+        /**
+         * Handle the misfired and 'complete' triggers left by the recovery of
+         * jobs, a chunk per transaction, while the other triggers fire.
+         */
+        private void recoverInBackground() {
+            long sTime = System.currentTimeMillis();
+            List<TriggerKey> completeTriggers = null;
+            while (!shutdown) {
+                try {
+                    if (completeTriggers == null) {
+                        RecoverMisfiredJobsResult res = recoverNextMisfiredChunk();
+                        recoveredMisfiredTriggerCount += res.getProcessedMisfiredTriggerCount();
+                        if (res.getProcessedMisfiredTriggerCount() > 0) {
+                            signalSchedulingChangeImmediately(res.getEarliestNewTime());
+                        }
+                        if (res.hasMoreMisfiredTriggers()) {
+                            continue;
+                        }
+                        completeTriggers = new LinkedList<TriggerKey>(selectCompleteTriggers());
+                    }
+
+                    if (completeTriggers.isEmpty()) {
+                        break;
+                    }
+                    List<TriggerKey> chunk = completeTriggers.subList(0,
+                            Math.min(completeTriggers.size(), Math.max(getRecoveryChunkSize(), 1)));
+                    removedCompleteTriggerCount += removeCompleteTriggers(chunk);
+                    chunk.clear();
+                } catch (Exception e) {
+                    getLog().error(
+                        "MisfireHandler: Error recovering jobs in the background: "
+                                + e.getMessage(), e);
+                    try {
+                        Thread.sleep(getDbRetryInterval());
+                    } catch (Exception ignore) {
+                    }
+                }
+            }
+
+            if (!shutdown) {
+                backgroundRecoveryPending = false;
+                getLog().info("Background recovery complete: handled " + recoveredMisfiredTriggerCount
+                        + " misfired triggers and removed " + removedCompleteTriggerCount
+                        + " 'complete' triggers in " + (System.currentTimeMillis() - sTime) + " ms.");
+            }
+        }
+
         @Override
         public void run() {
+
+            if (recoveryPending && !isClustered()) {
+                recover();
+            }
+
+            if (backgroundRecoveryPending) {
+                recoverInBackground();
+            }
             
             while (!shutdown) {
 
@@ -27,6 +27,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 
 import org.quartz.Calendar;
 import org.quartz.JobDetail;
@@ -92,6 +94,22 @@ public class PointbaseDelegate extends StdJDBCDelegate {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Insert the job detail records one by one, as the job data is bound as
+     * a stream.
+     * </p>
+     */
+    @Override
+    public int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int insertResult = 0;
+        for (JobDetail job : jobs) {
+            insertResult += insertJobDetail(conn, job);
+        }
+        return insertResult;
+    }
+
     /**
      * <p>
      * Update the job detail record.
@@ -137,6 +155,21 @@ public class PointbaseDelegate extends StdJDBCDelegate {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Insert the triggers one by one, as the job data is bound as a stream.
+     * </p>
+     */
+    @Override
+    public int insertTriggers(Connection conn, Map<OperableTrigger, JobDetail> triggersAndJobs,
+            String state) throws SQLException, IOException {
+        int insertResult = 0;
+        for (Map.Entry<OperableTrigger, JobDetail> e : triggersAndJobs.entrySet()) {
+            insertResult += insertTrigger(conn, e.getKey(), state, e.getValue());
+        }
+        return insertResult;
+    }
+
     @Override
     public int insertTrigger(Connection conn, OperableTrigger trigger, String state,
             JobDetail jobDetail) throws SQLException, IOException {
@@ -20,6 +20,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.quartz.JobDetail;
 import org.quartz.ScheduleBuilder;
@@ -37,7 +39,7 @@ import org.quartz.spi.OperableTrigger;
  * 
  * @author jhouse
  */
-public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implements TriggerPersistenceDelegate, StdJDBCConstants {
+public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implements BulkTriggerPersistenceDelegate, StdJDBCConstants {
 
     protected static final String TABLE_SIMPLE_PROPERTIES_TRIGGERS = "SIMPROP_TRIGGERS";
     
@@ -58,6 +60,11 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
         + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    // followed by a SqlPredicate
+    protected static final String SELECT_SIMPLE_PROPS_TRIGGERS_MATCHING = "SELECT * FROM "
+        + TABLE_PREFIX_SUBST + TABLE_SIMPLE_PROPERTIES_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     protected static final String DELETE_SIMPLE_PROPS_TRIGGER = "DELETE FROM "
         + TABLE_PREFIX_SUBST + TABLE_SIMPLE_PROPERTIES_TRIGGERS + " WHERE "
         + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -152,21 +159,7 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
             rs = ps.executeQuery();
     
             if (rs.next()) {
-                SimplePropertiesTriggerProperties properties = new SimplePropertiesTriggerProperties();
-                    
-                properties.setString1(rs.getString(COL_STR_PROP_1));
-                properties.setString2(rs.getString(COL_STR_PROP_2));
-                properties.setString3(rs.getString(COL_STR_PROP_3));
-                properties.setInt1(rs.getInt(COL_INT_PROP_1));
-                properties.setInt2(rs.getInt(COL_INT_PROP_2));
-                properties.setLong1(rs.getInt(COL_LONG_PROP_1));
-                properties.setLong2(rs.getInt(COL_LONG_PROP_2));
-                properties.setDecimal1(rs.getBigDecimal(COL_DEC_PROP_1));
-                properties.setDecimal2(rs.getBigDecimal(COL_DEC_PROP_2));
-                properties.setBoolean1(rs.getBoolean(COL_BOOL_PROP_1));
-                properties.setBoolean2(rs.getBoolean(COL_BOOL_PROP_2));
-                
-                return getTriggerPropertyBundle(properties);
+                return readExtendedTriggerProperties(rs);
             }
             
             throw new IllegalStateException("No record found for selection of Trigger with key: '" + triggerKey + "' and statement: " + Util.rtp(SELECT_SIMPLE_TRIGGER, tablePrefix, schedNameLiteral));
@@ -176,6 +169,46 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         }
     }
 
+    public Map<TriggerKey, TriggerPropertyBundle> loadExtendedTriggerProperties(Connection conn, SqlPredicate keys) throws SQLException {
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(Util.rtp(SELECT_SIMPLE_PROPS_TRIGGERS_MATCHING, tablePrefix, schedNameLiteral) + keys.getSql());
+            keys.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            Map<TriggerKey, TriggerPropertyBundle> bundles = new HashMap<TriggerKey, TriggerPropertyBundle>();
+            while (rs.next()) {
+                bundles.put(new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                        readExtendedTriggerProperties(rs));
+            }
+            return bundles;
+        } finally {
+            Util.closeResultSet(rs);
+            Util.closeStatement(ps);
+        }
+    }
+
+    private TriggerPropertyBundle readExtendedTriggerProperties(ResultSet rs) throws SQLException {
+        SimplePropertiesTriggerProperties properties = new SimplePropertiesTriggerProperties();
+
+        properties.setString1(rs.getString(COL_STR_PROP_1));
+        properties.setString2(rs.getString(COL_STR_PROP_2));
+        properties.setString3(rs.getString(COL_STR_PROP_3));
+        properties.setInt1(rs.getInt(COL_INT_PROP_1));
+        properties.setInt2(rs.getInt(COL_INT_PROP_2));
+        properties.setLong1(rs.getInt(COL_LONG_PROP_1));
+        properties.setLong2(rs.getInt(COL_LONG_PROP_2));
+        properties.setDecimal1(rs.getBigDecimal(COL_DEC_PROP_1));
+        properties.setDecimal2(rs.getBigDecimal(COL_DEC_PROP_2));
+        properties.setBoolean1(rs.getBoolean(COL_BOOL_PROP_1));
+        properties.setBoolean2(rs.getBoolean(COL_BOOL_PROP_2));
+
+        return getTriggerPropertyBundle(properties);
+    }
+
     public int updateExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
         SimplePropertiesTriggerProperties properties = getTriggerProperties(trigger);
@@ -0,0 +1,296 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.quartz.JobKey;
+import org.quartz.Matcher;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.AndMatcher;
+import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.KeyMatcher;
+import org.quartz.impl.matchers.NameMatcher;
+import org.quartz.impl.matchers.NotMatcher;
+import org.quartz.impl.matchers.OrMatcher;
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+import org.quartz.utils.Key;
+
+/**
+ * <p>
+ * A SQL condition selecting the rows whose name and group columns match a
+ * <code>{@link Matcher}</code>, so that the rows can be selected or updated
+ * with a single statement instead of one per key.
+ * </p>
+ *
+ * <p>
+ * Trees of the matchers of <code>org.quartz.impl.matchers</code> can be
+ * compiled; other <code>Matcher</code> implementations can not, as they are
+ * only known by their <code>isMatch()</code> method.
+ * </p>
+ *
+ * <p>
+ * A predicate can also be evaluated in memory, by the matcher or the keys it
+ * was created from, for the default methods of <code>{@link DriverDelegate}</code>
+ * that select the matching rows one key at a time.
+ * </p>
+ *
+ * @see StdJDBCDelegate#selectJobKeys(java.sql.Connection, SqlPredicate)
+ * @see StdJDBCDelegate#selectTriggerKeys(java.sql.Connection, SqlPredicate)
+ */
+public final class SqlPredicate implements Constants {
+
+    private static final char LIKE_ESCAPE = '!';
+
+    private static final String TRUE = "1 = 1";
+
+    private static final String FALSE = "1 = 0";
+
+    private final String sql;
+
+    private final List<String> parameters;
+
+    private final Matcher<?> matcher;
+
+    private final Set<Key<?>> keys;
+
+    private final String nameColumn;
+
+    private SqlPredicate(String sql, List<String> parameters, Matcher<?> matcher, Set<Key<?>> keys,
+            String nameColumn) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.matcher = matcher;
+        this.keys = keys;
+        this.nameColumn = nameColumn;
+    }
+
+    /**
+     * Compile the given matcher against the trigger name and group columns.
+     *
+     * @return the predicate, or <code>null</code> if the matcher can not be
+     * expressed in SQL.
+     */
+    public static SqlPredicate forTriggerKeys(Matcher<TriggerKey> matcher) {
+        return compile(matcher, COL_TRIGGER_NAME, COL_TRIGGER_GROUP);
+    }
+
+    /**
+     * Compile the given matcher against the job name and group columns,
+     * which exist in both the job details and the triggers table.
+     *
+     * @return the predicate, or <code>null</code> if the matcher can not be
+     * expressed in SQL.
+     */
+    public static SqlPredicate forJobKeys(Matcher<JobKey> matcher) {
+        return compile(matcher, COL_JOB_NAME, COL_JOB_GROUP);
+    }
+
+    /**
+     * Select the rows of the given keys, by their name and group columns.
+     * Callers should bound the number of keys, as each of them adds two
+     * parameters to the statement.
+     */
+    public static SqlPredicate forKeys(Collection<? extends Key<?>> keys, String nameColumn, String groupColumn) {
+        Set<Key<?>> keySet = new HashSet<Key<?>>(keys);
+        if (keys.isEmpty()) {
+            return new SqlPredicate(FALSE, new ArrayList<String>(0), null, keySet, nameColumn);
+        }
+        List<String> parameters = new ArrayList<String>(keys.size() * 2);
+        StringBuilder sql = new StringBuilder(keys.size() * (nameColumn.length() + groupColumn.length() + 24));
+        sql.append('(');
+        for (Key<?> key : keys) {
+            if (!parameters.isEmpty()) {
+                sql.append(" OR ");
+            }
+            sql.append('(').append(nameColumn).append(" = ? AND ").append(groupColumn).append(" = ?)");
+            parameters.add(key.getName());
+            parameters.add(key.getGroup());
+        }
+        sql.append(')');
+        return new SqlPredicate(sql.toString(), parameters, null, keySet, nameColumn);
+    }
+
+    /**
+     * Compile the given matcher against the given name and group columns.
+     *
+     * @return the predicate, or <code>null</code> if the matcher can not be
+     * expressed in SQL.
+     */
+    public static SqlPredicate compile(Matcher<?> matcher, String nameColumn, String groupColumn) {
+        List<String> parameters = new ArrayList<String>();
+        StringBuilder sql = new StringBuilder();
+        if (!append(sql, parameters, matcher, nameColumn, groupColumn)) {
+            return null;
+        }
+        return new SqlPredicate(sql.toString(), parameters, matcher, null, nameColumn);
+    }
+
+    private static boolean append(StringBuilder sql, List<String> parameters, Matcher<?> matcher,
+            String nameColumn, String groupColumn) {
+        if (matcher instanceof EverythingMatcher) {
+            sql.append(TRUE);
+        } else if (matcher instanceof KeyMatcher) {
+            KeyMatcher<?> keyMatcher = (KeyMatcher<?>) matcher;
+            sql.append('(').append(nameColumn).append(" = ? AND ").append(groupColumn).append(" = ?)");
+            parameters.add(keyMatcher.getCompareToValue().getName());
+            parameters.add(keyMatcher.getCompareToValue().getGroup());
+        } else if (matcher instanceof GroupMatcher) {
+            GroupMatcher<?> groupMatcher = (GroupMatcher<?>) matcher;
+            appendString(sql, parameters, groupColumn,
+                    groupMatcher.getCompareWithOperator(), groupMatcher.getCompareToValue());
+        } else if (matcher instanceof NameMatcher) {
+            NameMatcher<?> nameMatcher = (NameMatcher<?>) matcher;
+            appendString(sql, parameters, nameColumn,
+                    nameMatcher.getCompareWithOperator(), nameMatcher.getCompareToValue());
+        } else if (matcher instanceof AndMatcher) {
+            AndMatcher<?> andMatcher = (AndMatcher<?>) matcher;
+            return appendBinary(sql, parameters, " AND ", andMatcher.getLeftOperand(),
+                    andMatcher.getRightOperand(), nameColumn, groupColumn);
+        } else if (matcher instanceof OrMatcher) {
+            OrMatcher<?> orMatcher = (OrMatcher<?>) matcher;
+            return appendBinary(sql, parameters, " OR ", orMatcher.getLeftOperand(),
+                    orMatcher.getRightOperand(), nameColumn, groupColumn);
+        } else if (matcher instanceof NotMatcher) {
+            sql.append("NOT (");
+            if (!append(sql, parameters, ((NotMatcher<?>) matcher).getOperand(), nameColumn, groupColumn)) {
+                return false;
+            }
+            sql.append(')');
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean appendBinary(StringBuilder sql, List<String> parameters, String operator,
+            Matcher<?> left, Matcher<?> right, String nameColumn, String groupColumn) {
+        sql.append('(');
+        if (!append(sql, parameters, left, nameColumn, groupColumn)) {
+            return false;
+        }
+        sql.append(operator);
+        if (!append(sql, parameters, right, nameColumn, groupColumn)) {
+            return false;
+        }
+        sql.append(')');
+        return true;
+    }
+
+    private static void appendString(StringBuilder sql, List<String> parameters, String column,
+            StringOperatorName operator, String value) {
+        switch (operator) {
+            case EQUALS:
+                sql.append(column).append(" = ?");
+                parameters.add(value);
+                return;
+            case ANYTHING:
+                sql.append(TRUE);
+                return;
+            case STARTS_WITH:
+                parameters.add(escapeLike(value) + "%");
+                break;
+            case ENDS_WITH:
+                parameters.add("%" + escapeLike(value));
+                break;
+            case CONTAINS:
+                parameters.add("%" + escapeLike(value) + "%");
+                break;
+            default:
+                throw new UnsupportedOperationException("Don't know how to translate " + operator + " into SQL");
+        }
+        sql.append(column).append(" LIKE ? ESCAPE '").append(LIKE_ESCAPE).append('\'');
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * The condition, with a <code>?</code> for each of the parameters.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Set the parameters of the condition on the given statement.
+     *
+     * @param index the index of the first parameter of the condition.
+     * @return the index of the parameter following the condition.
+     */
+    public int setParameters(PreparedStatement ps, int index) throws SQLException {
+        for (String parameter : parameters) {
+            ps.setString(index++, parameter);
+        }
+        return index;
+    }
+
+    /**
+     * Whether the predicate is on the job name and group columns, rather
+     * than on the trigger name and group columns.
+     */
+    public boolean isOnJobKeys() {
+        return COL_JOB_NAME.equals(nameColumn);
+    }
+
+    /**
+     * Evaluate the predicate against the given key in memory.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public boolean isMatch(Key<?> key) {
+        if (keys != null) {
+            return keys.contains(key);
+        }
+        return ((Matcher) matcher).isMatch(key);
+    }
+
+    /**
+     * Evaluate a predicate on the group column only, as compiled from a
+     * <code>{@link GroupMatcher}</code>, against the given group in memory.
+     */
+    public boolean isGroupMatch(String group) {
+        // group matchers don't look at the name
+        return isMatch(isOnJobKeys() ? new JobKey("", group) : new TriggerKey("", group));
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + parameters;
+    }
+}
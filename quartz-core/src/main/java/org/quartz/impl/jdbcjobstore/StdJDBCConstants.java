@@ -179,11 +179,45 @@ public interface StdJDBCConstants extends Constants {
             + " AND " + COL_JOB_NAME
             + " = ? AND " + COL_JOB_GROUP + " = ?";
 
+    String SELECT_JOB_DATA_ENTRIES = "SELECT " + COL_ENTRY_KEY + ", "
+            + COL_ENTRY_VALUE + " FROM " + TABLE_PREFIX_SUBST
+            + TABLE_JOB_DATA_ENTRIES + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_NAME
+            + " = ? AND " + COL_JOB_GROUP + " = ?";
+
+    // followed by a SqlPredicate
+    String SELECT_JOB_DATA_ENTRIES_MATCHING = "SELECT " + COL_JOB_NAME + ", "
+            + COL_JOB_GROUP + ", " + COL_ENTRY_KEY + ", " + COL_ENTRY_VALUE
+            + " FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DATA_ENTRIES + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
+    String INSERT_JOB_DATA_ENTRY = "INSERT INTO " + TABLE_PREFIX_SUBST
+            + TABLE_JOB_DATA_ENTRIES + " (" + COL_SCHEDULER_NAME + ", "
+            + COL_JOB_NAME + ", " + COL_JOB_GROUP + ", " + COL_ENTRY_KEY + ", "
+            + COL_ENTRY_VALUE + ") " + " VALUES(" + SCHED_NAME_SUBST + ", ?, ?, ?, ?)";
+
+    String DELETE_JOB_DATA_ENTRY = "DELETE FROM " + TABLE_PREFIX_SUBST
+            + TABLE_JOB_DATA_ENTRIES + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_NAME + " = ? AND " + COL_JOB_GROUP
+            + " = ? AND " + COL_ENTRY_KEY + " = ?";
+
+    String DELETE_JOB_DATA_ENTRIES = "DELETE FROM " + TABLE_PREFIX_SUBST
+            + TABLE_JOB_DATA_ENTRIES + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_JOB_NAME + " = ? AND " + COL_JOB_GROUP + " = ?";
+
     String SELECT_JOB_DETAIL = "SELECT *" + " FROM "
             + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS + " WHERE "
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST 
             + " AND " + COL_JOB_NAME
             + " = ? AND " + COL_JOB_GROUP + " = ?";
+
+    // followed by a SqlPredicate
+    String SELECT_JOB_DETAILS_MATCHING = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
             
 
     String SELECT_NUM_JOBS = "SELECT COUNT(" + COL_JOB_NAME
@@ -200,6 +234,51 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_JOB_GROUP + " LIKE ?";
 
+    // followed by a SqlPredicate
+    String SELECT_JOB_KEYS_MATCHING = "SELECT " + COL_JOB_NAME + ", " + COL_JOB_GROUP
+            + " FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
+    // followed by a SqlPredicate
+    String SELECT_TRIGGER_KEYS_MATCHING = "SELECT " + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP
+            + " FROM " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
+    String SELECT_TRIGGER_KEYS_AND_FIRE_TIMES_MATCHING = "SELECT " + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP
+            + ", " + COL_NEXT_FIRE_TIME + " FROM " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
+    // followed by a SqlPredicate
+    String SELECT_PAUSED_TRIGGER_KEYS_MATCHING = "SELECT " + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP
+            + " FROM " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (" + COL_TRIGGER_STATE + " = ? OR " + COL_TRIGGER_STATE + " = ?)"
+            + " AND " + COL_NEXT_FIRE_TIME + " > 0 AND " + COL_NEXT_FIRE_TIME + " < ? AND ";
+
+    // followed by the old states and a SqlPredicate
+    String UPDATE_TRIGGER_STATES_MATCHING = "UPDATE " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+            + " SET " + COL_TRIGGER_STATE + " = ? WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND " + COL_TRIGGER_STATE + " IN ";
+
+    // followed by a SqlPredicate
+    String UPDATE_PAUSED_TRIGGER_STATES_OF_BLOCKED_JOBS_MATCHING = "UPDATE "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " SET " + COL_TRIGGER_STATE + " = ? WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (" + COL_TRIGGER_STATE + " = ? OR " + COL_TRIGGER_STATE + " = ?)"
+            + " AND " + COL_NEXT_FIRE_TIME + " >= ? AND EXISTS (SELECT F." + COL_JOB_NAME
+            + " FROM " + TABLE_PREFIX_SUBST + TABLE_FIRED_TRIGGERS + " F WHERE F."
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND F." + COL_JOB_NAME + " = "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + "." + COL_JOB_NAME + " AND F." + COL_JOB_GROUP
+            + " = " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + "." + COL_JOB_GROUP
+            + " AND F." + COL_IS_NONCONCURRENT + " = ?) AND ";
+
+    // followed by a SqlPredicate
+    String UPDATE_PAUSED_TRIGGER_STATES_MATCHING = "UPDATE "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " SET " + COL_TRIGGER_STATE + " = ? WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (" + COL_TRIGGER_STATE + " = ? OR " + COL_TRIGGER_STATE + " = ?)"
+            + " AND " + COL_NEXT_FIRE_TIME + " >= ? AND ";
+
     String SELECT_JOBS_IN_GROUP = "SELECT " + COL_JOB_NAME + ", " + COL_JOB_GROUP
             + " FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS + " WHERE "
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -396,6 +475,11 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    // followed by a SqlPredicate
+    String SELECT_TRIGGERS_MATCHING = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String SELECT_TRIGGER_DATA = "SELECT " + 
             COL_JOB_DATAMAP + " FROM "
             + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
@@ -420,16 +504,31 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    // followed by a SqlPredicate
+    String SELECT_SIMPLE_TRIGGERS_MATCHING = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_SIMPLE_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String SELECT_CRON_TRIGGER = "SELECT *" + " FROM "
             + TABLE_PREFIX_SUBST + TABLE_CRON_TRIGGERS + " WHERE "
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    // followed by a SqlPredicate
+    String SELECT_CRON_TRIGGERS_MATCHING = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_CRON_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String SELECT_BLOB_TRIGGER = "SELECT *" + " FROM "
             + TABLE_PREFIX_SUBST + TABLE_BLOB_TRIGGERS + " WHERE "
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
 
+    // followed by a SqlPredicate
+    String SELECT_BLOB_TRIGGERS_MATCHING = "SELECT * FROM "
+            + TABLE_PREFIX_SUBST + TABLE_BLOB_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String SELECT_NUM_TRIGGERS = "SELECT COUNT("
             + COL_TRIGGER_NAME + ") " + " FROM " + TABLE_PREFIX_SUBST
             + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
@@ -447,6 +546,11 @@ public interface StdJDBCConstants extends Constants {
             + COL_TRIGGER_GROUP + ") FROM " + TABLE_PREFIX_SUBST
             + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND " + COL_TRIGGER_GROUP + " LIKE ?";
 
+    // followed by a SqlPredicate on the group column
+    String SELECT_TRIGGER_GROUPS_MATCHING = "SELECT DISTINCT("
+            + COL_TRIGGER_GROUP + ") FROM " + TABLE_PREFIX_SUBST
+            + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String SELECT_TRIGGERS_IN_GROUP_LIKE = "SELECT "
             + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + " FROM " + TABLE_PREFIX_SUBST + TABLE_TRIGGERS
             + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -602,6 +706,7 @@ public interface StdJDBCConstants extends Constants {
     String DELETE_ALL_BLOB_TRIGGERS = "DELETE FROM " + TABLE_PREFIX_SUBST + "BLOB_TRIGGERS" + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
     String DELETE_ALL_TRIGGERS = "DELETE FROM " + TABLE_PREFIX_SUBST + "TRIGGERS" + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
     String DELETE_ALL_JOB_DETAILS = "DELETE FROM " + TABLE_PREFIX_SUBST + "JOB_DETAILS" + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
+    String DELETE_ALL_JOB_DATA_ENTRIES = "DELETE FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DATA_ENTRIES + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
     String DELETE_ALL_CALENDARS = "DELETE FROM " + TABLE_PREFIX_SUBST + "CALENDARS" + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
     String DELETE_ALL_PAUSED_TRIGGER_GRPS = "DELETE FROM " + TABLE_PREFIX_SUBST + "PAUSED_TRIGGER_GRPS" + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
     
@@ -658,6 +763,11 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_TRIGGER_GROUP + " LIKE ?";
 
+    // followed by a SqlPredicate on the group column
+    String DELETE_PAUSED_TRIGGER_GROUPS_MATCHING = "DELETE FROM "
+            + TABLE_PREFIX_SUBST + TABLE_PAUSED_TRIGGERS + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND ";
+
     String DELETE_PAUSED_TRIGGER_GROUPS = "DELETE FROM "
             + TABLE_PREFIX_SUBST + TABLE_PAUSED_TRIGGERS
             + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
@@ -35,10 +35,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +67,7 @@ import org.quartz.impl.matchers.StringMatcher;
 import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.utils.Key;
 import org.slf4j.Logger;
 
 /**
@@ -86,6 +91,12 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
 
+    // the length of the ENTRY_KEY column
+    private static final int MAX_JOB_DATA_ENTRY_KEY_LENGTH = 200;
+
+    // the keys selected by one statement, two parameters each
+    protected static final int MAX_KEYS_PER_STATEMENT = 100;
+
     protected Logger logger = null;
 
     protected String tablePrefix = DEFAULT_TABLE_PREFIX;
@@ -95,6 +106,8 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     protected String schedName;
 
     protected boolean useProperties;
+
+    protected boolean persistJobDataDeltas;
     
     protected ClassLoadHelper classLoadHelper;
 
@@ -163,6 +176,9 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
                     } 
                 }
             }
+            else if(name.equals("persistJobDataDeltas")) {
+                persistJobDataDeltas = Boolean.parseBoolean(parts[1]);
+            }
             else
                 throw new NoSuchDelegateException("Unknown setting: '" + name + "'");
         }
@@ -573,6 +589,11 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             ps = conn.prepareStatement(rtp(DELETE_ALL_JOB_DETAILS));
             ps.executeUpdate();
             ps.close();
+            if (persistJobDataDeltas) {
+                ps = conn.prepareStatement(rtp(DELETE_ALL_JOB_DATA_ENTRIES));
+                ps.executeUpdate();
+                ps.close();
+            }
             ps = conn.prepareStatement(rtp(DELETE_ALL_CALENDARS));
             ps.executeUpdate();
             ps.close();
@@ -611,15 +632,7 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
-            ps.setString(1, job.getKey().getName());
-            ps.setString(2, job.getKey().getGroup());
-            ps.setString(3, job.getDescription());
-            ps.setString(4, job.getJobClass().getName());
-            setBoolean(ps, 5, job.isDurable());
-            setBoolean(ps, 6, job.isConcurrentExectionDisallowed());
-            setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
-            setBoolean(ps, 8, job.requestsRecovery());
-            setBytes(ps, 9, baos);
+            setJobDetailParameters(ps, job, baos);
 
             insertResult = ps.executeUpdate();
         } finally {
@@ -629,6 +642,69 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Insert the job detail records of several jobs, as a single JDBC batch.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param jobs
+     *          the jobs to insert
+     * @return number of rows inserted
+     * @throws IOException
+     *           if there were problems serializing a JobDataMap
+     */
+    public int insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
+            for (JobDetail job : jobs) {
+                setJobDetailParameters(ps, job, serializeJobData(job.getJobDataMap()));
+                ps.addBatch();
+            }
+
+            return countBatchResults(ps.executeBatch());
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    private void setJobDetailParameters(PreparedStatement ps, JobDetail job, ByteArrayOutputStream jobData)
+        throws IOException, SQLException {
+        ps.setString(1, job.getKey().getName());
+        ps.setString(2, job.getKey().getGroup());
+        ps.setString(3, job.getDescription());
+        ps.setString(4, job.getJobClass().getName());
+        setBoolean(ps, 5, job.isDurable());
+        setBoolean(ps, 6, job.isConcurrentExectionDisallowed());
+        setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
+        setBoolean(ps, 8, job.requestsRecovery());
+        setBytes(ps, 9, jobData);
+    }
+
+    /**
+     * Sum up the update counts of a JDBC batch, counting statements the
+     * driver reports as successful without a row count as one row each.
+     */
+    protected int countBatchResults(int[] results) {
+        int count = 0;
+        for (int result : results) {
+            if (result == Statement.SUCCESS_NO_INFO) {
+                count++;
+            } else if (result > 0) {
+                count += result;
+            }
+        }
+        return count;
+    }
+
     /**
      * <p>
      * Update the job detail record.
@@ -667,6 +743,10 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             closeStatement(ps);
         }
 
+        if (persistJobDataDeltas) {
+            deleteJobDataEntries(conn, job.getKey());
+        }
+
         return insertResult;
     }
 
@@ -720,6 +800,9 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             if (logger.isDebugEnabled()) {
                 logger.debug("Deleting job: " + jobKey);
             }
+            if (persistJobDataDeltas) {
+                deleteJobDataEntries(conn, jobKey);
+            }
             ps = conn.prepareStatement(rtp(DELETE_JOB_DETAIL));
             ps.setString(1, jobKey.getName());
             ps.setString(2, jobKey.getGroup());
@@ -791,6 +874,12 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      * Update the job data map for the given job.
      * </p>
      * 
+     * <p>
+     * If the <code>persistJobDataDeltas</code> setting is enabled, and only
+     * a few known entries of the map changed, only those entries are written
+     * to the <code>JOB_DATA_ENTRIES</code> table instead of the whole map.
+     * </p>
+     * 
      * @param conn
      *          the DB Connection
      * @param job
@@ -799,22 +888,180 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      */
     public int updateJobData(Connection conn, JobDetail job)
         throws IOException, SQLException {
+        Set<String> changedKeys = getJobDataDelta(job.getJobDataMap());
+        if (changedKeys != null) {
+            return updateJobDataEntries(conn, job.getKey(), job.getJobDataMap(), changedKeys);
+        }
+
         ByteArrayOutputStream baos = serializeJobData(job.getJobDataMap());
 
         PreparedStatement ps = null;
 
+        int updateResult;
         try {
             ps = conn.prepareStatement(rtp(UPDATE_JOB_DATA));
             setBytes(ps, 1, baos);
             ps.setString(2, job.getKey().getName());
             ps.setString(3, job.getKey().getGroup());
 
+            updateResult = ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+
+        if (persistJobDataDeltas) {
+            deleteJobDataEntries(conn, job.getKey());
+        }
+
+        return updateResult;
+    }
+
+    /**
+     * Get the keys of the entries to write as a delta, or null if the whole
+     * map is to be written.
+     */
+    protected Set<String> getJobDataDelta(JobDataMap data) {
+        if (!persistJobDataDeltas || canUseProperties()) {
+            return null;
+        }
+
+        Set<String> changedKeys = data.getDirtyKeys();
+        // many changes are cheaper to write at once
+        if (changedKeys == null || changedKeys.size() * 2 > data.size()) {
+            return null;
+        }
+        for (String key : changedKeys) {
+            // an entry without value marks a removed key
+            if (key.length() > MAX_JOB_DATA_ENTRY_KEY_LENGTH
+                    || (data.containsKey(key) && data.get(key) == null)) {
+                return null;
+            }
+        }
+        return changedKeys;
+    }
+
+    /**
+     * <p>
+     * Write the given entries of the job data map for the given job to the
+     * <code>JOB_DATA_ENTRIES</code> table, where they override the entries
+     * of the job data map of the job detail record.
+     * </p>
+     * 
+     * @return the number of entries written
+     */
+    protected int updateJobDataEntries(Connection conn, JobKey jobKey, JobDataMap data,
+            Set<String> keys) throws IOException, SQLException {
+        PreparedStatement delete = null;
+        PreparedStatement insert = null;
+
+        try {
+            delete = conn.prepareStatement(rtp(DELETE_JOB_DATA_ENTRY));
+            insert = conn.prepareStatement(rtp(INSERT_JOB_DATA_ENTRY));
+            for (String key : keys) {
+                delete.setString(1, jobKey.getName());
+                delete.setString(2, jobKey.getGroup());
+                delete.setString(3, key);
+                delete.addBatch();
+
+                insert.setString(1, jobKey.getName());
+                insert.setString(2, jobKey.getGroup());
+                insert.setString(3, key);
+                setBytes(insert, 4, data.containsKey(key) ? serializeJobDataValue(key, data.get(key)) : null);
+                insert.addBatch();
+            }
+            delete.executeBatch();
+            return insert.executeBatch().length;
+        } finally {
+            closeStatement(delete);
+            closeStatement(insert);
+        }
+    }
+
+    /**
+     * <p>
+     * Delete the entries written by <code>{@link #updateJobDataEntries}</code>
+     * for the given job.
+     * </p>
+     * 
+     * @return the number of entries deleted
+     */
+    protected int deleteJobDataEntries(Connection conn, JobKey jobKey)
+        throws SQLException {
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(DELETE_JOB_DATA_ENTRIES));
+            ps.setString(1, jobKey.getName());
+            ps.setString(2, jobKey.getGroup());
             return ps.executeUpdate();
         } finally {
             closeStatement(ps);
         }
     }
 
+    /**
+     * Apply the entries written by <code>{@link #updateJobDataEntries}</code>
+     * to the job data map of the given job.
+     */
+    protected void selectJobDataEntries(Connection conn, JobDetailImpl job)
+        throws ClassNotFoundException, IOException, SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_JOB_DATA_ENTRIES));
+            ps.setString(1, job.getName());
+            ps.setString(2, job.getGroup());
+            rs = ps.executeQuery();
+
+            JobDataMap data = job.getJobDataMap();
+            while (rs.next()) {
+                applyJobDataEntry(data, rs);
+            }
+            data.clearDirtyFlag();
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * Apply the entries of the jobs matching the given predicate to the job
+     * data maps of the given jobs, with a single statement.
+     */
+    protected void selectJobDataEntries(Connection conn, SqlPredicate predicate, Map<JobKey, JobDetailImpl> jobs)
+        throws ClassNotFoundException, IOException, SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_JOB_DATA_ENTRIES_MATCHING) + predicate.getSql());
+            predicate.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                JobDetailImpl job = jobs.get(jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)));
+                if (job != null) {
+                    applyJobDataEntry(job.getJobDataMap(), rs);
+                }
+            }
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    private void applyJobDataEntry(JobDataMap data, ResultSet rs)
+        throws ClassNotFoundException, IOException, SQLException {
+        String key = rs.getString(COL_ENTRY_KEY);
+        Object value = getObjectFromBlob(rs, COL_ENTRY_VALUE);
+        if (value == null) {
+            data.remove(key);
+        } else {
+            data.put(key, value);
+        }
+    }
+
     /**
      * <p>
      * Select the JobDetail object for a given job name / group name.
@@ -844,25 +1091,13 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             JobDetailImpl job = null;
 
             if (rs.next()) {
-                job = new JobDetailImpl();
-
-                job.setName(rs.getString(COL_JOB_NAME));
-                job.setGroup(rs.getString(COL_JOB_GROUP));
-                job.setDescription(rs.getString(COL_DESCRIPTION));
-                job.setJobClass( loadHelper.loadClass(rs.getString(COL_JOB_CLASS), Job.class));
-                job.setDurability(getBoolean(rs, COL_IS_DURABLE));
-                job.setRequestsRecovery(getBoolean(rs, COL_REQUESTS_RECOVERY));
-
-                Map<?, ?> map = null;
-                if (canUseProperties()) {
-                    map = getMapFromProperties(rs);
-                } else {
-                    map = (Map<?, ?>) getObjectFromBlob(rs, COL_JOB_DATAMAP);
-                }
+                job = readJobDetail(rs, loadHelper);
+            }
 
-                if (null != map) {
-                    job.setJobDataMap(new JobDataMap(map));
-                }
+            if (job != null && persistJobDataDeltas) {
+                closeResultSet(rs);
+                rs = null;
+                selectJobDataEntries(conn, job);
             }
 
             return job;
@@ -872,6 +1107,84 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Select the <code>{@link org.quartz.JobDetail}</code>s of the given
+     * keys, with one statement per <code>MAX_KEYS_PER_STATEMENT</code> keys.
+     * </p>
+     * 
+     * @return the jobs by key, in the order of the given keys, without the
+     *         keys of the jobs that don't exist
+     */
+    public Map<JobKey, JobDetail> selectJobDetails(Connection conn, Collection<JobKey> jobKeys,
+            ClassLoadHelper loadHelper)
+        throws ClassNotFoundException, IOException, SQLException {
+        List<JobKey> keys = new ArrayList<JobKey>(new LinkedHashSet<JobKey>(jobKeys));
+        Map<JobKey, JobDetailImpl> found = new HashMap<JobKey, JobDetailImpl>();
+
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_STATEMENT) {
+            SqlPredicate predicate = SqlPredicate.forKeys(
+                    keys.subList(from, Math.min(from + MAX_KEYS_PER_STATEMENT, keys.size())),
+                    COL_JOB_NAME, COL_JOB_GROUP);
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(rtp(SELECT_JOB_DETAILS_MATCHING) + predicate.getSql());
+                predicate.setParameters(ps, 1);
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    JobDetailImpl job = readJobDetail(rs, loadHelper);
+                    found.put(job.getKey(), job);
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+
+            if (persistJobDataDeltas) {
+                selectJobDataEntries(conn, predicate, found);
+            }
+        }
+
+        Map<JobKey, JobDetail> jobs = new LinkedHashMap<JobKey, JobDetail>();
+        for (JobKey key : keys) {
+            JobDetailImpl job = found.get(key);
+            if (job != null) {
+                if (persistJobDataDeltas) {
+                    job.getJobDataMap().clearDirtyFlag();
+                }
+                jobs.put(key, job);
+            }
+        }
+        return jobs;
+    }
+
+    private JobDetailImpl readJobDetail(ResultSet rs, ClassLoadHelper loadHelper)
+        throws ClassNotFoundException, IOException, SQLException {
+        JobDetailImpl job = new JobDetailImpl();
+
+        job.setName(rs.getString(COL_JOB_NAME));
+        job.setGroup(rs.getString(COL_JOB_GROUP));
+        job.setDescription(rs.getString(COL_DESCRIPTION));
+        job.setJobClass( loadHelper.loadClass(rs.getString(COL_JOB_CLASS), Job.class));
+        job.setDurability(getBoolean(rs, COL_IS_DURABLE));
+        job.setRequestsRecovery(getBoolean(rs, COL_REQUESTS_RECOVERY));
+
+        Map<?, ?> map = null;
+        if (canUseProperties()) {
+            map = getMapFromProperties(rs);
+        } else {
+            map = (Map<?, ?>) getObjectFromBlob(rs, COL_JOB_DATAMAP);
+        }
+
+        if (null != map) {
+            job.setJobDataMap(new JobDataMap(map));
+        }
+        return job;
+    }
+
     /**
      * build Map from java.util.Properties encoding.
      */
@@ -903,49 +1216,375 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      *          the DB Connection
      * @return the total number of jobs stored
      */
-    public int selectNumJobs(Connection conn) throws SQLException {
+    public int selectNumJobs(Connection conn) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            int count = 0;
+            ps = conn.prepareStatement(rtp(SELECT_NUM_JOBS));
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                count = rs.getInt(1);
+            }
+
+            return count;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select all of the job group names that are stored.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @return an array of <code>String</code> group names
+     */
+    public List<String> selectJobGroups(Connection conn) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_JOB_GROUPS));
+            rs = ps.executeQuery();
+
+            LinkedList<String> list = new LinkedList<String>();
+            while (rs.next()) {
+                list.add(rs.getString(1));
+            }
+
+            return list;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select all of the jobs contained in a given group.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param matcher
+     *          the groupMatcher to evaluate the jobs against
+     * @return an array of <code>String</code> job names
+     */
+    public Set<JobKey> selectJobsInGroup(Connection conn, GroupMatcher<JobKey> matcher)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            if(isMatcherEquals(matcher)) {
+                ps = conn.prepareStatement(rtp(SELECT_JOBS_IN_GROUP));
+                ps.setString(1, toSqlEqualsClause(matcher));
+            }
+            else {
+                ps = conn.prepareStatement(rtp(SELECT_JOBS_IN_GROUP_LIKE));
+                ps.setString(1, toSqlLikeClause(matcher));
+            }
+            rs = ps.executeQuery();
+
+            LinkedList<JobKey> list = new LinkedList<JobKey>();
+            while (rs.next()) {
+                list.add(jobKey(rs.getString(1), rs.getString(2)));
+            }
+
+            return new HashSet<JobKey>(list);
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select the keys of the jobs matching the given predicate.
+     * </p>
+     */
+    public Set<JobKey> selectJobKeys(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_JOB_KEYS_MATCHING) + predicate.getSql());
+            predicate.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            Set<JobKey> keys = new HashSet<JobKey>();
+            while (rs.next()) {
+                keys.add(jobKey(rs.getString(1), rs.getString(2)));
+            }
+            return keys;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select the keys of the triggers matching the given predicate.
+     * </p>
+     */
+    public Set<TriggerKey> selectTriggerKeys(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_TRIGGER_KEYS_MATCHING) + predicate.getSql());
+            predicate.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            Set<TriggerKey> keys = new HashSet<TriggerKey>();
+            while (rs.next()) {
+                keys.add(triggerKey(rs.getString(1), rs.getString(2)));
+            }
+            return keys;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the jobs matching the given
+     * predicate that follow the given key, ordered by group and then by
+     * name.
+     * </p>
+     */
+    public List<JobKey> selectJobKeysPage(Connection conn, SqlPredicate predicate,
+            JobKey after, int maxCount) throws SQLException {
+        StringBuilder sql = new StringBuilder(rtp(SELECT_JOB_KEYS_MATCHING)).append(predicate.getSql());
+        appendPageClauses(sql, after, COL_JOB_NAME, COL_JOB_GROUP);
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(sql.toString());
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(maxCount);
+            int index = predicate.setParameters(ps, 1);
+            setPageParameters(ps, index, after);
+            rs = ps.executeQuery();
+
+            List<JobKey> keys = new ArrayList<JobKey>(maxCount);
+            while (rs.next()) {
+                keys.add(jobKey(rs.getString(1), rs.getString(2)));
+            }
+            return keys;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the triggers matching the
+     * given predicate, states and next fire time window that follow the
+     * given key, ordered by group and then by name.
+     * </p>
+     */
+    public List<TriggerKey> selectTriggerKeysPage(Connection conn, SqlPredicate predicate,
+            List<String> states, Date nextFireTimeFrom, Date nextFireTimeTo,
+            TriggerKey after, int maxCount) throws SQLException {
+        StringBuilder sql = new StringBuilder(rtp(SELECT_TRIGGER_KEYS_MATCHING)).append(predicate.getSql());
+        appendTriggerFilters(sql, states, nextFireTimeFrom, nextFireTimeTo);
+        appendPageClauses(sql, after, COL_TRIGGER_NAME, COL_TRIGGER_GROUP);
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(sql.toString());
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(maxCount);
+            int index = predicate.setParameters(ps, 1);
+            index = setTriggerFilterParameters(ps, index, states, nextFireTimeFrom, nextFireTimeTo);
+            setPageParameters(ps, index, after);
+            rs = ps.executeQuery();
+
+            List<TriggerKey> keys = new ArrayList<TriggerKey>(maxCount);
+            while (rs.next()) {
+                keys.add(triggerKey(rs.getString(1), rs.getString(2)));
+            }
+            return keys;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Select up to <code>maxCount</code> keys of the triggers matching the
+     * given predicate, states and next fire time window that follow the
+     * given next fire time and key, ordered by next fire time and then by
+     * group and name. Triggers without a next fire time are left out.
+     * </p>
+     */
+    public Map<TriggerKey, Date> selectTriggerKeysByNextFireTime(Connection conn, SqlPredicate predicate,
+            List<String> states, Date nextFireTimeFrom, Date nextFireTimeTo,
+            Date afterNextFireTime, TriggerKey after, int maxCount) throws SQLException {
+        StringBuilder sql = new StringBuilder(rtp(SELECT_TRIGGER_KEYS_AND_FIRE_TIMES_MATCHING)).append(predicate.getSql());
+        // triggers without a next fire time are stored with -1
+        sql.append(" AND ").append(COL_NEXT_FIRE_TIME).append(" >= 0");
+        appendTriggerFilters(sql, states, nextFireTimeFrom, nextFireTimeTo);
+        if (after != null) {
+            sql.append(" AND (").append(COL_NEXT_FIRE_TIME).append(" > ? OR (")
+                .append(COL_NEXT_FIRE_TIME).append(" = ? AND (")
+                .append(COL_TRIGGER_GROUP).append(" > ? OR (")
+                .append(COL_TRIGGER_GROUP).append(" = ? AND ").append(COL_TRIGGER_NAME).append(" > ?))))");
+        }
+        sql.append(" ORDER BY ").append(COL_NEXT_FIRE_TIME).append(", ")
+            .append(COL_TRIGGER_GROUP).append(", ").append(COL_TRIGGER_NAME);
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(sql.toString());
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(maxCount);
+            int index = predicate.setParameters(ps, 1);
+            index = setTriggerFilterParameters(ps, index, states, nextFireTimeFrom, nextFireTimeTo);
+            if (after != null) {
+                BigDecimal afterTime = new BigDecimal(String.valueOf(afterNextFireTime.getTime()));
+                ps.setBigDecimal(index++, afterTime);
+                ps.setBigDecimal(index++, afterTime);
+                setPageParameters(ps, index, after);
+            }
+            rs = ps.executeQuery();
+
+            Map<TriggerKey, Date> keys = new LinkedHashMap<TriggerKey, Date>();
+            while (rs.next()) {
+                keys.put(triggerKey(rs.getString(1), rs.getString(2)), new Date(rs.getLong(3)));
+            }
+            return keys;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    private static void appendTriggerFilters(StringBuilder sql, List<String> states,
+            Date nextFireTimeFrom, Date nextFireTimeTo) {
+        if (!states.isEmpty()) {
+            sql.append(" AND ").append(COL_TRIGGER_STATE).append(" IN (");
+            for (int i = 0; i < states.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+        if (nextFireTimeFrom != null) {
+            sql.append(" AND ").append(COL_NEXT_FIRE_TIME).append(" >= ?");
+        } else if (nextFireTimeTo != null) {
+            // not the triggers without a next fire time, stored with -1
+            sql.append(" AND ").append(COL_NEXT_FIRE_TIME).append(" >= 0");
+        }
+        if (nextFireTimeTo != null) {
+            sql.append(" AND ").append(COL_NEXT_FIRE_TIME).append(" < ?");
+        }
+    }
+
+    private static int setTriggerFilterParameters(PreparedStatement ps, int index, List<String> states,
+            Date nextFireTimeFrom, Date nextFireTimeTo) throws SQLException {
+        for (String state : states) {
+            ps.setString(index++, state);
+        }
+        if (nextFireTimeFrom != null) {
+            ps.setBigDecimal(index++, new BigDecimal(String.valueOf(nextFireTimeFrom.getTime())));
+        }
+        if (nextFireTimeTo != null) {
+            ps.setBigDecimal(index++, new BigDecimal(String.valueOf(nextFireTimeTo.getTime())));
+        }
+        return index;
+    }
+
+    private static void appendPageClauses(StringBuilder sql, Key<?> after, String nameColumn, String groupColumn) {
+        if (after != null) {
+            // keyset pagination: rows strictly after the last key of the previous page
+            sql.append(" AND (").append(groupColumn).append(" > ? OR (")
+                .append(groupColumn).append(" = ? AND ").append(nameColumn).append(" > ?))");
+        }
+        sql.append(" ORDER BY ").append(groupColumn).append(", ").append(nameColumn);
+    }
+
+    private static int setPageParameters(PreparedStatement ps, int index, Key<?> after) throws SQLException {
+        if (after != null) {
+            ps.setString(index++, after.getGroup());
+            ps.setString(index++, after.getGroup());
+            ps.setString(index++, after.getName());
+        }
+        return index;
+    }
+
+    /**
+     * <p>
+     * Update all of the triggers matching the given predicate to the given
+     * new state, if they are in one of the given old states.
+     * </p>
+     */
+    public int updateTriggerStates(Connection conn, SqlPredicate predicate,
+            String newState, String... oldStates) throws SQLException {
+        StringBuilder sql = new StringBuilder(rtp(UPDATE_TRIGGER_STATES_MATCHING)).append('(');
+        for (int i = 0; i < oldStates.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") AND ").append(predicate.getSql());
+
         PreparedStatement ps = null;
-        ResultSet rs = null;
 
         try {
-            int count = 0;
-            ps = conn.prepareStatement(rtp(SELECT_NUM_JOBS));
-            rs = ps.executeQuery();
-
-            if (rs.next()) {
-                count = rs.getInt(1);
+            ps = conn.prepareStatement(sql.toString());
+            int index = 1;
+            ps.setString(index++, newState);
+            for (String oldState : oldStates) {
+                ps.setString(index++, oldState);
             }
-
-            return count;
+            predicate.setParameters(ps, index);
+            return ps.executeUpdate();
         } finally {
-            closeResultSet(rs);
             closeStatement(ps);
         }
     }
 
     /**
      * <p>
-     * Select all of the job group names that are stored.
+     * Select the keys of the paused triggers matching the given predicate,
+     * whose next fire time is before the given time.
      * </p>
-     * 
-     * @param conn
-     *          the DB Connection
-     * @return an array of <code>String</code> group names
      */
-    public List<String> selectJobGroups(Connection conn) throws SQLException {
+    public List<TriggerKey> selectPausedTriggerKeys(Connection conn, SqlPredicate predicate,
+            long nextFireTimeBefore) throws SQLException {
         PreparedStatement ps = null;
         ResultSet rs = null;
 
         try {
-            ps = conn.prepareStatement(rtp(SELECT_JOB_GROUPS));
+            ps = conn.prepareStatement(rtp(SELECT_PAUSED_TRIGGER_KEYS_MATCHING) + predicate.getSql());
+            ps.setString(1, STATE_PAUSED);
+            ps.setString(2, STATE_PAUSED_BLOCKED);
+            ps.setBigDecimal(3, new BigDecimal(String.valueOf(nextFireTimeBefore)));
+            predicate.setParameters(ps, 4);
             rs = ps.executeQuery();
 
-            LinkedList<String> list = new LinkedList<String>();
+            List<TriggerKey> keys = new LinkedList<TriggerKey>();
             while (rs.next()) {
-                list.add(rs.getString(1));
+                keys.add(triggerKey(rs.getString(1), rs.getString(2)));
             }
-
-            return list;
+            return keys;
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
@@ -954,39 +1593,36 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
     /**
      * <p>
-     * Select all of the jobs contained in a given group.
+     * Resume the paused triggers matching the given predicate whose next
+     * fire time is not before the given time.
      * </p>
-     * 
-     * @param conn
-     *          the DB Connection
-     * @param matcher
-     *          the groupMatcher to evaluate the jobs against
-     * @return an array of <code>String</code> job names
      */
-    public Set<JobKey> selectJobsInGroup(Connection conn, GroupMatcher<JobKey> matcher)
-        throws SQLException {
+    public int updatePausedTriggerStates(Connection conn, SqlPredicate predicate,
+            long nextFireTimeNotBefore) throws SQLException {
         PreparedStatement ps = null;
-        ResultSet rs = null;
+        int count = 0;
 
         try {
-            if(isMatcherEquals(matcher)) {
-                ps = conn.prepareStatement(rtp(SELECT_JOBS_IN_GROUP));
-                ps.setString(1, toSqlEqualsClause(matcher));
-            }
-            else {
-                ps = conn.prepareStatement(rtp(SELECT_JOBS_IN_GROUP_LIKE));
-                ps.setString(1, toSqlLikeClause(matcher));
-            }
-            rs = ps.executeQuery();
-
-            LinkedList<JobKey> list = new LinkedList<JobKey>();
-            while (rs.next()) {
-                list.add(jobKey(rs.getString(1), rs.getString(2)));
-            }
+            ps = conn.prepareStatement(rtp(UPDATE_PAUSED_TRIGGER_STATES_OF_BLOCKED_JOBS_MATCHING)
+                    + predicate.getSql());
+            ps.setString(1, STATE_BLOCKED);
+            ps.setString(2, STATE_PAUSED);
+            ps.setString(3, STATE_PAUSED_BLOCKED);
+            ps.setBigDecimal(4, new BigDecimal(String.valueOf(nextFireTimeNotBefore)));
+            setBoolean(ps, 5, true);
+            predicate.setParameters(ps, 6);
+            count += ps.executeUpdate();
+            ps.close();
 
-            return new HashSet<JobKey>(list);
+            ps = conn.prepareStatement(rtp(UPDATE_PAUSED_TRIGGER_STATES_MATCHING) + predicate.getSql());
+            ps.setString(1, STATE_WAITING);
+            ps.setString(2, STATE_PAUSED);
+            ps.setString(3, STATE_PAUSED_BLOCKED);
+            ps.setBigDecimal(4, new BigDecimal(String.valueOf(nextFireTimeNotBefore)));
+            predicate.setParameters(ps, 5);
+            count += ps.executeUpdate();
+            return count;
         } finally {
-            closeResultSet(rs);
             closeStatement(ps);
         }
     }
@@ -1043,53 +1679,14 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     public int insertTrigger(Connection conn, OperableTrigger trigger, String state,
             JobDetail jobDetail) throws SQLException, IOException {
 
-        ByteArrayOutputStream baos = null;
-        if(trigger.getJobDataMap().size() > 0) {
-            baos = serializeJobData(trigger.getJobDataMap());
-        }
-        
         PreparedStatement ps = null;
 
         int insertResult = 0;
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, trigger.getJobKey().getName());
-            ps.setString(4, trigger.getJobKey().getGroup());
-            ps.setString(5, trigger.getDescription());
-            if(trigger.getNextFireTime() != null)
-                ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
-                        .getNextFireTime().getTime())));
-            else
-                ps.setBigDecimal(6, null);
-            long prevFireTime = -1;
-            if (trigger.getPreviousFireTime() != null) {
-                prevFireTime = trigger.getPreviousFireTime().getTime();
-            }
-            ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
-            ps.setString(8, state);
-            
-            TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
-            
-            String type = TTYPE_BLOB;
-            if(tDel != null)
-                type = tDel.getHandledTriggerTypeDiscriminator();
-            ps.setString(9, type);
-            
-            ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
-                    .getStartTime().getTime())));
-            long endTime = 0;
-            if (trigger.getEndTime() != null) {
-                endTime = trigger.getEndTime().getTime();
-            }
-            ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
-            ps.setString(12, trigger.getCalendarName());
-            ps.setInt(13, trigger.getMisfireInstruction());
-            setBytes(ps, 14, baos);
-            ps.setInt(15, trigger.getPriority());
-            
+            TriggerPersistenceDelegate tDel = setTriggerParameters(ps, trigger, state);
+
             insertResult = ps.executeUpdate();
             
             if(tDel == null)
@@ -1104,6 +1701,101 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Insert the base trigger data of several triggers, as a single JDBC
+     * batch, followed by their extended (simple, cron, blob, ...) data.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggersAndJobs
+     *          the triggers to insert, with the job each of them references
+     * @param state
+     *          the state that the triggers should be stored in
+     * @return the number of base trigger rows inserted
+     */
+    public int insertTriggers(Connection conn, Map<OperableTrigger, JobDetail> triggersAndJobs,
+            String state) throws SQLException, IOException {
+        if (triggersAndJobs.isEmpty()) {
+            return 0;
+        }
+
+        PreparedStatement ps = null;
+
+        int insertResult = 0;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
+            for (OperableTrigger trigger : triggersAndJobs.keySet()) {
+                setTriggerParameters(ps, trigger, state);
+                ps.addBatch();
+            }
+
+            insertResult = countBatchResults(ps.executeBatch());
+
+            // the extended rows reference the base rows, so come second
+            for (Map.Entry<OperableTrigger, JobDetail> e : triggersAndJobs.entrySet()) {
+                TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(e.getKey());
+                if(tDel == null)
+                    insertBlobTrigger(conn, e.getKey());
+                else
+                    tDel.insertExtendedTriggerProperties(conn, e.getKey(), state, e.getValue());
+            }
+        } finally {
+            closeStatement(ps);
+        }
+
+        return insertResult;
+    }
+
+    private TriggerPersistenceDelegate setTriggerParameters(PreparedStatement ps, OperableTrigger trigger,
+            String state) throws SQLException, IOException {
+
+        ByteArrayOutputStream baos = null;
+        if(trigger.getJobDataMap().size() > 0) {
+            baos = serializeJobData(trigger.getJobDataMap());
+        }
+
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, trigger.getJobKey().getName());
+        ps.setString(4, trigger.getJobKey().getGroup());
+        ps.setString(5, trigger.getDescription());
+        if(trigger.getNextFireTime() != null)
+            ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
+                    .getNextFireTime().getTime())));
+        else
+            ps.setBigDecimal(6, null);
+        long prevFireTime = -1;
+        if (trigger.getPreviousFireTime() != null) {
+            prevFireTime = trigger.getPreviousFireTime().getTime();
+        }
+        ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
+        ps.setString(8, state);
+        
+        TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
+        
+        String type = TTYPE_BLOB;
+        if(tDel != null)
+            type = tDel.getHandledTriggerTypeDiscriminator();
+        ps.setString(9, type);
+        
+        ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
+                .getStartTime().getTime())));
+        long endTime = 0;
+        if (trigger.getEndTime() != null) {
+            endTime = trigger.getEndTime().getTime();
+        }
+        ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
+        ps.setString(12, trigger.getCalendarName());
+        ps.setInt(13, trigger.getMisfireInstruction());
+        setBytes(ps, 14, baos);
+        ps.setInt(15, trigger.getPriority());
+
+        return tDel;
+    }
+
     /**
      * <p>
      * Insert the blob trigger data.
@@ -1690,7 +2382,7 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     public List<OperableTrigger> selectTriggersForJob(Connection conn, JobKey jobKey) throws SQLException, ClassNotFoundException,
             IOException, JobPersistenceException {
 
-        LinkedList<OperableTrigger> trigList = new LinkedList<OperableTrigger>();
+        List<TriggerKey> keys = new ArrayList<TriggerKey>();
         PreparedStatement ps = null;
         ResultSet rs = null;
 
@@ -1701,23 +2393,20 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             rs = ps.executeQuery();
 
             while (rs.next()) {
-                OperableTrigger t = selectTrigger(conn, triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
-                if(t != null) {
-                    trigList.add(t);
-                }
+                keys.add(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
             }
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
         }
 
-        return trigList;
+        return new ArrayList<OperableTrigger>(selectTriggers(conn, keys).values());
     }
 
     public List<OperableTrigger> selectTriggersForCalendar(Connection conn, String calName)
         throws SQLException, ClassNotFoundException, IOException, JobPersistenceException {
 
-        LinkedList<OperableTrigger> trigList = new LinkedList<OperableTrigger>();
+        List<TriggerKey> keys = new ArrayList<TriggerKey>();
         PreparedStatement ps = null;
         ResultSet rs = null;
 
@@ -1727,14 +2416,14 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             rs = ps.executeQuery();
 
             while (rs.next()) {
-                trigList.add(selectTrigger(conn, triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP))));
+                keys.add(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
             }
         } finally {
             closeResultSet(rs);
             closeStatement(ps);
         }
 
-        return trigList;
+        return new ArrayList<OperableTrigger>(selectTriggers(conn, keys).values());
     }
 
     /**
@@ -1761,41 +2450,9 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             rs = ps.executeQuery();
 
             if (rs.next()) {
-                String jobName = rs.getString(COL_JOB_NAME);
-                String jobGroup = rs.getString(COL_JOB_GROUP);
-                String description = rs.getString(COL_DESCRIPTION);
-                long nextFireTime = rs.getLong(COL_NEXT_FIRE_TIME);
-                long prevFireTime = rs.getLong(COL_PREV_FIRE_TIME);
-                String triggerType = rs.getString(COL_TRIGGER_TYPE);
-                long startTime = rs.getLong(COL_START_TIME);
-                long endTime = rs.getLong(COL_END_TIME);
-                String calendarName = rs.getString(COL_CALENDAR_NAME);
-                int misFireInstr = rs.getInt(COL_MISFIRE_INSTRUCTION);
-                int priority = rs.getInt(COL_PRIORITY);
+                TriggerRow row = readTriggerRow(rs, triggerKey);
 
-                Map<?, ?> map = null;
-                if (canUseProperties()) {
-                    map = getMapFromProperties(rs);
-                } else {
-                    map = (Map<?, ?>) getObjectFromBlob(rs, COL_JOB_DATAMAP);
-                }
-                
-                Date nft = null;
-                if (nextFireTime > 0) {
-                    nft = new Date(nextFireTime);
-                }
-
-                Date pft = null;
-                if (prevFireTime > 0) {
-                    pft = new Date(prevFireTime);
-                }
-                Date startTimeD = new Date(startTime);
-                Date endTimeD = null;
-                if (endTime > 0) {
-                    endTimeD = new Date(endTime);
-                }
-
-                if (triggerType.equals(TTYPE_BLOB)) {
+                if (row.triggerType.equals(TTYPE_BLOB)) {
                     rs.close(); rs = null;
                     ps.close(); ps = null;
 
@@ -1809,10 +2466,10 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
                     }
                 }
                 else {
-                    TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(triggerType);
+                    TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(row.triggerType);
                     
                     if(tDel == null)
-                        throw new JobPersistenceException("No TriggerPersistenceDelegate for trigger discriminator type: " + triggerType);
+                        throw new JobPersistenceException("No TriggerPersistenceDelegate for trigger discriminator type: " + row.triggerType);
 
                     TriggerPropertyBundle triggerProps = null;
                     try {
@@ -1826,27 +2483,7 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
                         }
                     }
 
-                    TriggerBuilder<?> tb = newTrigger()
-                        .withDescription(description)
-                        .withPriority(priority)
-                        .startAt(startTimeD)
-                        .endAt(endTimeD)
-                        .withIdentity(triggerKey)
-                        .modifiedByCalendar(calendarName)
-                        .withSchedule(triggerProps.getScheduleBuilder())
-                        .forJob(jobKey(jobName, jobGroup));
-    
-                    if (null != map) {
-                        tb.usingJobData(new JobDataMap(map));
-                    }
-    
-                    trigger = (OperableTrigger) tb.build();
-                    
-                    trigger.setMisfireInstruction(misFireInstr);
-                    trigger.setNextFireTime(nft);
-                    trigger.setPreviousFireTime(pft);
-                    
-                    setTriggerStateProperties(trigger, triggerProps);
+                    trigger = buildTrigger(row, triggerProps);
                 }                
             }
 
@@ -1857,6 +2494,212 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Select the triggers of the given keys, with one statement per
+     * <code>MAX_KEYS_PER_STATEMENT</code> keys for the trigger rows and one
+     * for the extended properties of each type of trigger, when its
+     * <code>TriggerPersistenceDelegate</code> is a
+     * <code>{@link BulkTriggerPersistenceDelegate}</code>.
+     * </p>
+     * 
+     * @return the triggers by key, in the order of the given keys, without
+     *         the keys of the triggers that don't exist
+     */
+    public Map<TriggerKey, OperableTrigger> selectTriggers(Connection conn, Collection<TriggerKey> triggerKeys)
+        throws SQLException, ClassNotFoundException, IOException, JobPersistenceException {
+        List<TriggerKey> keys = new ArrayList<TriggerKey>(new LinkedHashSet<TriggerKey>(triggerKeys));
+        Map<TriggerKey, OperableTrigger> found = new HashMap<TriggerKey, OperableTrigger>();
+
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_STATEMENT) {
+            SqlPredicate predicate = SqlPredicate.forKeys(
+                    keys.subList(from, Math.min(from + MAX_KEYS_PER_STATEMENT, keys.size())),
+                    COL_TRIGGER_NAME, COL_TRIGGER_GROUP);
+            Map<String, List<TriggerRow>> rowsByType = new HashMap<String, List<TriggerRow>>();
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(rtp(SELECT_TRIGGERS_MATCHING) + predicate.getSql());
+                predicate.setParameters(ps, 1);
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    TriggerRow row = readTriggerRow(rs, null);
+                    List<TriggerRow> rows = rowsByType.get(row.triggerType);
+                    if (rows == null) {
+                        rows = new ArrayList<TriggerRow>();
+                        rowsByType.put(row.triggerType, rows);
+                    }
+                    rows.add(row);
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+
+            for (Map.Entry<String, List<TriggerRow>> entry : rowsByType.entrySet()) {
+                selectTriggers(conn, entry.getKey(), entry.getValue(), found);
+            }
+        }
+
+        Map<TriggerKey, OperableTrigger> triggers = new LinkedHashMap<TriggerKey, OperableTrigger>();
+        for (TriggerKey key : keys) {
+            OperableTrigger trigger = found.get(key);
+            if (trigger != null) {
+                triggers.put(key, trigger);
+            }
+        }
+        return triggers;
+    }
+
+    private void selectTriggers(Connection conn, String triggerType, List<TriggerRow> rows,
+            Map<TriggerKey, OperableTrigger> found)
+        throws SQLException, ClassNotFoundException, IOException, JobPersistenceException {
+        List<TriggerKey> keys = new ArrayList<TriggerKey>(rows.size());
+        for (TriggerRow row : rows) {
+            keys.add(row.key);
+        }
+        SqlPredicate predicate = SqlPredicate.forKeys(keys, COL_TRIGGER_NAME, COL_TRIGGER_GROUP);
+
+        if (triggerType.equals(TTYPE_BLOB)) {
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(rtp(SELECT_BLOB_TRIGGERS_MATCHING) + predicate.getSql());
+                predicate.setParameters(ps, 1);
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    found.put(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                            (OperableTrigger) getObjectFromBlob(rs, COL_BLOB));
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+            return;
+        }
+
+        TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(triggerType);
+
+        if(tDel == null)
+            throw new JobPersistenceException("No TriggerPersistenceDelegate for trigger discriminator type: " + triggerType);
+
+        Map<TriggerKey, TriggerPropertyBundle> bundles;
+        if (tDel instanceof BulkTriggerPersistenceDelegate) {
+            bundles = ((BulkTriggerPersistenceDelegate) tDel).loadExtendedTriggerProperties(conn, predicate);
+        } else {
+            bundles = new HashMap<TriggerKey, TriggerPropertyBundle>();
+            for (TriggerKey key : keys) {
+                try {
+                    bundles.put(key, tDel.loadExtendedTriggerProperties(conn, key));
+                } catch (IllegalStateException isex) {
+                    // checked below whether the trigger has been deleted
+                }
+            }
+        }
+
+        for (TriggerRow row : rows) {
+            TriggerPropertyBundle triggerProps = bundles.get(row.key);
+            if (triggerProps == null) {
+                if (!triggerExists(conn, row.key)) {
+                    // QTZ-386 Trigger has been deleted
+                    continue;
+                }
+                // fails like selectTrigger() when the extended properties are missing
+                triggerProps = tDel.loadExtendedTriggerProperties(conn, row.key);
+            }
+            found.put(row.key, buildTrigger(row, triggerProps));
+        }
+    }
+
+    /**
+     * The columns of a row of the triggers table, read before the extended
+     * properties of the trigger.
+     */
+    private static class TriggerRow {
+        TriggerKey key;
+        String jobName;
+        String jobGroup;
+        String description;
+        long nextFireTime;
+        long prevFireTime;
+        String triggerType;
+        long startTime;
+        long endTime;
+        String calendarName;
+        int misfireInstruction;
+        int priority;
+        Map<?, ?> jobDataMap;
+    }
+
+    private TriggerRow readTriggerRow(ResultSet rs, TriggerKey key)
+        throws SQLException, ClassNotFoundException, IOException {
+        TriggerRow row = new TriggerRow();
+        row.key = key != null ? key : triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP));
+        row.jobName = rs.getString(COL_JOB_NAME);
+        row.jobGroup = rs.getString(COL_JOB_GROUP);
+        row.description = rs.getString(COL_DESCRIPTION);
+        row.nextFireTime = rs.getLong(COL_NEXT_FIRE_TIME);
+        row.prevFireTime = rs.getLong(COL_PREV_FIRE_TIME);
+        row.triggerType = rs.getString(COL_TRIGGER_TYPE);
+        row.startTime = rs.getLong(COL_START_TIME);
+        row.endTime = rs.getLong(COL_END_TIME);
+        row.calendarName = rs.getString(COL_CALENDAR_NAME);
+        row.misfireInstruction = rs.getInt(COL_MISFIRE_INSTRUCTION);
+        row.priority = rs.getInt(COL_PRIORITY);
+
+        if (canUseProperties()) {
+            row.jobDataMap = getMapFromProperties(rs);
+        } else {
+            row.jobDataMap = (Map<?, ?>) getObjectFromBlob(rs, COL_JOB_DATAMAP);
+        }
+        return row;
+    }
+
+    private OperableTrigger buildTrigger(TriggerRow row, TriggerPropertyBundle triggerProps)
+        throws JobPersistenceException {
+        Date nft = null;
+        if (row.nextFireTime > 0) {
+            nft = new Date(row.nextFireTime);
+        }
+
+        Date pft = null;
+        if (row.prevFireTime > 0) {
+            pft = new Date(row.prevFireTime);
+        }
+        Date startTimeD = new Date(row.startTime);
+        Date endTimeD = null;
+        if (row.endTime > 0) {
+            endTimeD = new Date(row.endTime);
+        }
+
+        TriggerBuilder<?> tb = newTrigger()
+            .withDescription(row.description)
+            .withPriority(row.priority)
+            .startAt(startTimeD)
+            .endAt(endTimeD)
+            .withIdentity(row.key)
+            .modifiedByCalendar(row.calendarName)
+            .withSchedule(triggerProps.getScheduleBuilder())
+            .forJob(row.jobName, row.jobGroup);
+
+        if (null != row.jobDataMap) {
+            tb.usingJobData(new JobDataMap(row.jobDataMap));
+        }
+
+        OperableTrigger trigger = (OperableTrigger) tb.build();
+
+        trigger.setMisfireInstruction(row.misfireInstruction);
+        trigger.setNextFireTime(nft);
+        trigger.setPreviousFireTime(pft);
+
+        setTriggerStateProperties(trigger, triggerProps);
+        return trigger;
+    }
+
     private boolean isTriggerStillPresent(PreparedStatement ps) throws SQLException {
         ResultSet rs = null;
         try {
@@ -2087,6 +2930,33 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Select the names of the trigger groups matching the given predicate,
+     * which may only be on the trigger group column.
+     * </p>
+     */
+    public List<String> selectTriggerGroups(Connection conn, SqlPredicate predicate) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_TRIGGER_GROUPS_MATCHING) + predicate.getSql());
+            predicate.setParameters(ps, 1);
+            rs = ps.executeQuery();
+
+            LinkedList<String> list = new LinkedList<String>();
+            while (rs.next()) {
+                list.add(rs.getString(1));
+            }
+
+            return list;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Select all of the triggers contained in a given group.
@@ -2171,6 +3041,25 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Delete the paused trigger groups matching the given predicate, which
+     * may only be on the trigger group column.
+     * </p>
+     */
+    public int deletePausedTriggerGroups(Connection conn, SqlPredicate predicate)
+        throws SQLException {
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(DELETE_PAUSED_TRIGGER_GROUPS_MATCHING) + predicate.getSql());
+            predicate.setParameters(ps, 1);
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
     public int deleteAllPausedTriggerGroups(Connection conn)
         throws SQLException {
         PreparedStatement ps = null;
@@ -3088,6 +3977,21 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * Serialize a single value of a <code>{@link org.quartz.JobDataMap}</code>.
+     */
+    protected ByteArrayOutputStream serializeJobDataValue(String key, Object value)
+        throws IOException {
+        try {
+            return serializeObject(value);
+        } catch (NotSerializableException e) {
+            throw new NotSerializableException(
+                "Unable to serialize JobDataMap for insertion into " + 
+                "database because the value of property '" + 
+                key + "' is not serializable: " + e.getMessage());
+        }
+    }
+
     /**
      * Find the key of the first non-serializable value in the given Map.
      * 
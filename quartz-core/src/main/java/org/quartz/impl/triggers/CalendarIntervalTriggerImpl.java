@@ -34,6 +34,7 @@ import org.quartz.SchedulerException;
 import org.quartz.SimpleTrigger;
 import org.quartz.Trigger;
 import org.quartz.TriggerUtils;
+import org.quartz.utils.TimeMath;
 
 
 /**
@@ -480,12 +481,11 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
         }
 
         if (instr == MISFIRE_INSTRUCTION_DO_NOTHING) {
-            Date newFireTime = getFireTimeAfter(new Date());
-            while (newFireTime != null && cal != null
-                    && !cal.isTimeIncluded(newFireTime.getTime())) {
-                newFireTime = getFireTimeAfter(newFireTime);
+            long next = getFireTimeAfterMillis(System.currentTimeMillis());
+            while (next != 0 && cal != null && !cal.isTimeIncluded(next)) {
+                next = getFireTimeAfterMillis(next);
             }
-            setNextFireTime(newFireTime);
+            setNextFireTime((next == 0) ? null : new Date(next));
         } else if (instr == MISFIRE_INSTRUCTION_FIRE_ONCE_NOW) { 
             // fire once now...
             setNextFireTime(new Date());
@@ -510,23 +510,22 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
     public void triggered(org.quartz.Calendar calendar) {
         timesTriggered++;
         previousFireTime = nextFireTime;
-        nextFireTime = getFireTimeAfter(nextFireTime);
 
-        while (nextFireTime != null && calendar != null
-                && !calendar.isTimeIncluded(nextFireTime.getTime())) {
-            
-            nextFireTime = getFireTimeAfter(nextFireTime);
+        long next = getFireTimeAfterMillis(
+                (nextFireTime == null) ? System.currentTimeMillis() : nextFireTime.getTime());
+
+        // step over excluded times without creating intermediate Dates
+        while (next != 0 && calendar != null && !calendar.isTimeIncluded(next)) {
+
+            next = getFireTimeAfterMillis(next);
 
-            if(nextFireTime == null)
-                break;
-            
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
-                nextFireTime = null;
+            if (next != 0 && TimeMath.getYearUTC(next) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+                next = 0;
             }
         }
+
+        nextFireTime = (next == 0) ? null : new Date(next);
     }
 
 
@@ -552,9 +551,7 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
                 break;
             
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 nextFireTime = null;
             }
 
@@ -597,9 +594,7 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
                 break;
 
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 return null;
             }
         }
@@ -674,6 +669,71 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
     public Date getFireTimeAfter(Date afterTime) {
         return getFireTimeAfter(afterTime, false);
     }
+
+    /**
+     * <p>
+     * Returns the next time at which the <code>CalendarIntervalTrigger</code>
+     * will fire, after the given time, or 0 if the trigger will not fire after
+     * the given time. Second, minute and hour intervals are computed without
+     * any <code>Calendar</code> arithmetic.
+     * </p>
+     */
+    @Override
+    public long getFireTimeAfterMillis(long afterMillis) {
+        long unitMillis = getFixedIntervalUnitMillis();
+        if (unitMillis == 0) {
+            Date time = getFireTimeAfter(new Date(afterMillis), false);
+            return (time == null) ? 0 : time.getTime();
+        }
+
+        if (complete) {
+            return 0;
+        }
+
+        long startMillis = getStartTime().getTime();
+        long endMillis = (getEndTime() == null) ? Long.MAX_VALUE : getEndTime()
+                .getTime();
+
+        if (endMillis <= afterMillis) {
+            return 0;
+        }
+
+        if (afterMillis < startMillis) {
+            return startMillis;
+        }
+
+        long time = getFixedIntervalFireTimeAfter(afterMillis, startMillis, unitMillis);
+
+        return (endMillis <= time) ? 0 : time;
+    }
+
+    /**
+     * The length of the repeat interval unit, if it is of a fixed length
+     * (seconds, minutes and hours), 0 otherwise.
+     */
+    private long getFixedIntervalUnitMillis() {
+        switch (getRepeatIntervalUnit()) {
+            case SECOND:
+                return 1000L;
+            case MINUTE:
+                return 60L * 1000L;
+            case HOUR:
+                return 60L * 60L * 1000L;
+            default:
+                return 0L;
+        }
+    }
+
+    private long getFixedIntervalFireTimeAfter(long afterMillis, long startMillis, long unitMillis) {
+        long secondsAfterStart = 1 + (afterMillis - startMillis) / 1000L;
+        long intervalSeconds = getRepeatInterval() * (unitMillis / 1000L);
+
+        long jumpCount = secondsAfterStart / intervalSeconds;
+        if(secondsAfterStart % intervalSeconds != 0)
+            jumpCount++;
+
+        return startMillis + jumpCount * intervalSeconds * 1000L;
+    }
     
     protected Date getFireTimeAfter(Date afterTime, boolean ignoreEndTime) {
         if (complete) {
@@ -705,38 +765,18 @@ public class CalendarIntervalTriggerImpl extends AbstractTrigger<CalendarInterva
         Date time = null;
         long repeatLong = getRepeatInterval();
         
-        Calendar aTime = Calendar.getInstance();
-        aTime.setTime(afterTime);
-
-        Calendar sTime = Calendar.getInstance();
-        if(timeZone != null)
-            sTime.setTimeZone(timeZone);
-        sTime.setTime(getStartTime());
-        sTime.setLenient(true);
-        
-        if(getRepeatIntervalUnit().equals(IntervalUnit.SECOND)) {
-            long jumpCount = secondsAfterStart / repeatLong;
-            if(secondsAfterStart % repeatLong != 0)
-                jumpCount++;
-            sTime.add(Calendar.SECOND, getRepeatInterval() * (int)jumpCount);
-            time = sTime.getTime();
-        }
-        else if(getRepeatIntervalUnit().equals(IntervalUnit.MINUTE)) {
-            long jumpCount = secondsAfterStart / (repeatLong * 60L);
-            if(secondsAfterStart % (repeatLong * 60L) != 0)
-                jumpCount++;
-            sTime.add(Calendar.MINUTE, getRepeatInterval() * (int)jumpCount);
-            time = sTime.getTime();
-        }
-        else if(getRepeatIntervalUnit().equals(IntervalUnit.HOUR)) {
-            long jumpCount = secondsAfterStart / (repeatLong * 60L * 60L);
-            if(secondsAfterStart % (repeatLong * 60L * 60L) != 0)
-                jumpCount++;
-            sTime.add(Calendar.HOUR_OF_DAY, getRepeatInterval() * (int)jumpCount);
-            time = sTime.getTime();
+        long unitMillis = getFixedIntervalUnitMillis();
+        if(unitMillis != 0) {
+            time = new Date(getFixedIntervalFireTimeAfter(afterMillis, startMillis, unitMillis));
         }
         else { // intervals a day or greater ...
 
+            Calendar sTime = Calendar.getInstance();
+            if(timeZone != null)
+                sTime.setTimeZone(timeZone);
+            sTime.setTime(getStartTime());
+            sTime.setLenient(true);
+
             int initialHourOfDay = sTime.get(Calendar.HOUR_OF_DAY);
             
             if(getRepeatIntervalUnit().equals(IntervalUnit.DAY)) {
@@ -0,0 +1,212 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.impl.triggers;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.quartz.CronExpression;
+
+/**
+ * <p>
+ * Interns parsed <code>{@link CronExpression}</code>s by expression and time
+ * zone, so that <code>{@link CronTriggerImpl}</code>s with the same schedule
+ * share a single parsed instance, together with a memo of its upcoming fire
+ * times.
+ * </p>
+ *
+ * <p>
+ * The shared <code>CronExpression</code>s must never be modified - a trigger
+ * changing its time zone switches to the entry of the new time zone instead.
+ * </p>
+ */
+final class CronExpressionCache {
+
+    /**
+     * The maximum number of distinct (expression, time zone) pairs kept. Once
+     * reached, the least recently requested entry is evicted; triggers that
+     * already hold it keep using it, unshared.
+     */
+    static final int MAX_ENTRIES = 10000;
+
+    /**
+     * The number of consecutive fire times memoized per expression.
+     */
+    static final int MEMO_LENGTH = 16;
+
+    // in access order, guarded by itself; only consulted when a trigger's
+    // expression or time zone is set, never when it fires
+    private static final Map<String, Entry> ENTRIES = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CronExpressionCache.Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private CronExpressionCache() {
+    }
+
+    /**
+     * Get the shared entry for the given cron expression string, parsing it
+     * if it was not seen before.
+     */
+    static Entry getEntry(String cronExpression, TimeZone timeZone) throws ParseException {
+        if (cronExpression == null) {
+            throw new IllegalArgumentException("cronExpression cannot be null");
+        }
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+
+        String key = key(cronExpression.toUpperCase(Locale.US), timeZone);
+        Entry entry = lookup(key, timeZone);
+        if (entry == null) {
+            CronExpression expression = new CronExpression(cronExpression);
+            expression.setTimeZone((TimeZone) timeZone.clone());
+            entry = store(key, new Entry(expression));
+        }
+        return entry;
+    }
+
+    /**
+     * Get the shared entry for the schedule of the given (already parsed)
+     * cron expression, resolved in the given time zone. The given expression
+     * itself is never shared.
+     */
+    static Entry getEntry(CronExpression cronExpression, TimeZone timeZone) {
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+        String key = key(cronExpression.getCronExpression(), timeZone);
+        Entry entry = lookup(key, timeZone);
+        if (entry == null) {
+            CronExpression expression = new CronExpression(cronExpression);
+            expression.setTimeZone((TimeZone) timeZone.clone());
+            entry = store(key, new Entry(expression));
+        }
+        return entry;
+    }
+
+    private static String key(String cronExpression, TimeZone timeZone) {
+        return timeZone.getID() + '|' + cronExpression;
+    }
+
+    private static Entry lookup(String key, TimeZone timeZone) {
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.get(key);
+        }
+        // custom time zones may re-use an ID with different rules
+        if (entry != null && !entry.getExpression().getTimeZone().hasSameRules(timeZone)) {
+            return null;
+        }
+        return entry;
+    }
+
+    private static Entry store(String key, Entry entry) {
+        synchronized (ENTRIES) {
+            Entry existing = ENTRIES.get(key);
+            if (existing != null && existing.getExpression().getTimeZone().hasSameRules(entry.getExpression().getTimeZone())) {
+                return existing;
+            }
+            // a custom time zone re-using an ID replaces the older entry
+            ENTRIES.put(key, entry);
+            return entry;
+        }
+    }
+
+    /**
+     * A shared, parsed <code>CronExpression</code> and the memo of its
+     * upcoming fire times.
+     */
+    static final class Entry {
+
+        private final CronExpression expression;
+
+        /**
+         * A chain of fire times: each element is the result of
+         * <code>getTimeAfter()</code> for the one before it. The first element
+         * is the time the chain was computed from. Replaced as a whole, never
+         * modified.
+         */
+        private volatile long[] memo;
+
+        Entry(CronExpression expression) {
+            this.expression = expression;
+        }
+
+        CronExpression getExpression() {
+            return expression;
+        }
+
+        /**
+         * Equivalent to <code>getExpression().getTimeAfter(afterTime)</code>,
+         * answered from the memo if another trigger already asked for the
+         * same time.
+         */
+        Date getTimeAfter(Date afterTime) {
+            long next = getTimeAfter(afterTime.getTime());
+            return (next == 0) ? null : new Date(next);
+        }
+
+        /**
+         * Primitive counterpart of <code>getTimeAfter(Date)</code>, which
+         * returns 0 if there is no time after the given one. Answers from the
+         * memo create no <code>Date</code>.
+         */
+        long getTimeAfter(long after) {
+            long[] chain = memo;
+            if (chain != null) {
+                int i = Arrays.binarySearch(chain, after);
+                if (i >= 0 && i < chain.length - 1) {
+                    return chain[i + 1];
+                }
+            }
+
+            Date next = expression.getTimeAfter(new Date(after));
+
+            // only move the memo forward, triggers lagging behind compute
+            // their own fire times instead of thrashing it
+            if (next != null && (chain == null || after >= chain[chain.length - 1])) {
+                memo = computeChain(after, next);
+            }
+
+            return (next == null) ? 0 : next.getTime();
+        }
+
+        private long[] computeChain(long after, Date next) {
+            long[] chain = new long[MEMO_LENGTH];
+            chain[0] = after;
+            int length = 1;
+            while (next != null && length < MEMO_LENGTH) {
+                chain[length++] = next.getTime();
+                if (length < MEMO_LENGTH) {
+                    next = expression.getTimeAfter(next);
+                }
+            }
+            return (length == MEMO_LENGTH) ? chain : Arrays.copyOf(chain, length);
+        }
+    }
+}
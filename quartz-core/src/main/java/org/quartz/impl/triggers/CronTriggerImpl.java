@@ -31,6 +31,7 @@ import org.quartz.ScheduleBuilder;
 import org.quartz.Scheduler;
 import org.quartz.Trigger;
 import org.quartz.TriggerUtils;
+import org.quartz.utils.TimeMath;
 
 
 /**
@@ -76,7 +77,9 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
 
+    // possibly shared with other triggers (see CronExpressionCache), never modify
     private CronExpression cronEx = null;
+    private transient CronExpressionCache.Entry cronEntry = null;
     private Date startTime = null;
     private Date endTime = null;
     private Date nextFireTime = null;
@@ -338,17 +341,13 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     
     @Override
     public Object clone() {
-        CronTriggerImpl copy = (CronTriggerImpl) super.clone();
-        if (cronEx != null) {
-            copy.setCronExpression(new CronExpression(cronEx));
-        }
-        return copy;
+        // the cron expression is never modified, so the copy can share it
+        return super.clone();
     }
 
     public void setCronExpression(String cronExpression) throws ParseException {
         TimeZone origTz = getTimeZone();
-        this.cronEx = new CronExpression(cronExpression);
-        this.cronEx.setTimeZone(origTz);
+        setCronEntry(CronExpressionCache.getEntry(cronExpression, origTz));
     }
 
     /* (non-Javadoc)
@@ -363,9 +362,22 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      * CronExpression over-rides any that was already set on the Trigger.
      */
     public void setCronExpression(CronExpression cronExpression) {
-        this.cronEx = cronExpression;
+        setCronEntry(CronExpressionCache.getEntry(cronExpression, cronExpression.getTimeZone()));
         this.timeZone = cronExpression.getTimeZone();
     }
+
+    private void setCronEntry(CronExpressionCache.Entry entry) {
+        this.cronEntry = entry;
+        this.cronEx = entry.getExpression();
+    }
+
+    private CronExpressionCache.Entry getCronEntry() {
+        if (cronEntry == null && cronEx != null) {
+            // e.g. after deserialization
+            setCronEntry(CronExpressionCache.getEntry(cronEx, cronEx.getTimeZone()));
+        }
+        return cronEntry;
+    }
     
     /**
      * <p>
@@ -514,7 +526,7 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      */
     public void setTimeZone(TimeZone timeZone) {
         if(cronEx != null) {
-            cronEx.setTimeZone(timeZone);
+            setCronEntry(CronExpressionCache.getEntry(cronEx, timeZone));
         }
         this.timeZone = timeZone;
     }
@@ -539,21 +551,33 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
      */
     @Override
     public Date getFireTimeAfter(Date afterTime) {
-        if (afterTime == null) {
-            afterTime = new Date();
-        }
+        long time = getFireTimeAfterMillis(
+                (afterTime == null) ? System.currentTimeMillis() : afterTime.getTime());
+        return (time == 0) ? null : new Date(time);
+    }
 
-        if (getStartTime().after(afterTime)) {
-            afterTime = new Date(getStartTime().getTime() - 1000l);
+    /**
+     * <p>
+     * Returns the next time at which the <code>CronTrigger</code> will fire,
+     * after the given time, or 0 if the trigger will not fire after the given
+     * time.
+     * </p>
+     */
+    @Override
+    public long getFireTimeAfterMillis(long afterMillis) {
+        long startMillis = getStartTime().getTime();
+        if (startMillis > afterMillis) {
+            afterMillis = startMillis - 1000l;
         }
 
-        if (getEndTime() != null && (afterTime.compareTo(getEndTime()) >= 0)) {
-            return null;
+        long endMillis = (getEndTime() == null) ? Long.MAX_VALUE : getEndTime().getTime();
+        if (afterMillis >= endMillis) {
+            return 0;
         }
-        
-        Date pot = getTimeAfter(afterTime);
-        if (getEndTime() != null && pot != null && pot.after(getEndTime())) {
-            return null;
+
+        long pot = getTimeAfterMillis(afterMillis);
+        if (pot > endMillis) {
+            return 0;
         }
 
         return pot;
@@ -630,12 +654,11 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
         }
 
         if (instr == MISFIRE_INSTRUCTION_DO_NOTHING) {
-            Date newFireTime = getFireTimeAfter(new Date());
-            while (newFireTime != null && cal != null
-                    && !cal.isTimeIncluded(newFireTime.getTime())) {
-                newFireTime = getFireTimeAfter(newFireTime);
+            long next = getFireTimeAfterMillis(System.currentTimeMillis());
+            while (next != 0 && cal != null && !cal.isTimeIncluded(next)) {
+                next = getFireTimeAfterMillis(next);
             }
-            setNextFireTime(newFireTime);
+            setNextFireTime((next == 0) ? null : new Date(next));
         } else if (instr == MISFIRE_INSTRUCTION_FIRE_ONCE_NOW) {
             setNextFireTime(new Date());
         }
@@ -732,12 +755,16 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     @Override
     public void triggered(org.quartz.Calendar calendar) {
         previousFireTime = nextFireTime;
-        nextFireTime = getFireTimeAfter(nextFireTime);
 
-        while (nextFireTime != null && calendar != null
-                && !calendar.isTimeIncluded(nextFireTime.getTime())) {
-            nextFireTime = getFireTimeAfter(nextFireTime);
+        long next = getFireTimeAfterMillis(
+                (nextFireTime == null) ? System.currentTimeMillis() : nextFireTime.getTime());
+
+        // step over excluded times without creating intermediate Dates
+        while (next != 0 && calendar != null && !calendar.isTimeIncluded(next)) {
+            next = getFireTimeAfterMillis(next);
         }
+
+        nextFireTime = (next == 0) ? null : new Date(next);
     }
 
     /**
@@ -763,9 +790,7 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
             
             //avoid infinite loop
             // Use gregorian only because the constant is based on Gregorian
-            java.util.Calendar c = new java.util.GregorianCalendar(); 
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 nextFireTime = null;
             }
             
@@ -851,7 +876,13 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     ////////////////////////////////////////////////////////////////////////////
 
     protected Date getTimeAfter(Date afterTime) {
-        return (cronEx == null) ? null : cronEx.getTimeAfter(afterTime);
+        long time = getTimeAfterMillis(afterTime.getTime());
+        return (time == 0) ? null : new Date(time);
+    }
+
+    private long getTimeAfterMillis(long afterMillis) {
+        CronExpressionCache.Entry entry = getCronEntry();
+        return (entry == null) ? 0 : entry.getTimeAfter(afterMillis);
     }
 
     /**
@@ -31,6 +31,7 @@ import org.quartz.SchedulerException;
 import org.quartz.TimeOfDay;
 import org.quartz.Trigger;
 import org.quartz.DateBuilder.IntervalUnit;
+import org.quartz.utils.TimeMath;
 
 /**
  * A concrete implementation of DailyTimeIntervalTrigger that is used to fire a <code>{@link org.quartz.JobDetail}</code>
@@ -448,12 +449,11 @@ public class DailyTimeIntervalTriggerImpl extends AbstractTrigger<DailyTimeInter
         }
 
         if (instr == MISFIRE_INSTRUCTION_DO_NOTHING) {
-            Date newFireTime = getFireTimeAfter(new Date());
-            while (newFireTime != null && cal != null
-                    && !cal.isTimeIncluded(newFireTime.getTime())) {
-                newFireTime = getFireTimeAfter(newFireTime);
+            long next = getFireTimeAfterMillis(System.currentTimeMillis());
+            while (next != 0 && cal != null && !cal.isTimeIncluded(next)) {
+                next = getFireTimeAfterMillis(next);
             }
-            setNextFireTime(newFireTime);
+            setNextFireTime((next == 0) ? null : new Date(next));
         } else if (instr == MISFIRE_INSTRUCTION_FIRE_ONCE_NOW) { 
             // fire once now...
             setNextFireTime(new Date());
@@ -478,24 +478,23 @@ public class DailyTimeIntervalTriggerImpl extends AbstractTrigger<DailyTimeInter
     public void triggered(org.quartz.Calendar calendar) {
         timesTriggered++;
         previousFireTime = nextFireTime;
-        nextFireTime = getFireTimeAfter(nextFireTime);
 
-        while (nextFireTime != null && calendar != null
-                && !calendar.isTimeIncluded(nextFireTime.getTime())) {
-            
-            nextFireTime = getFireTimeAfter(nextFireTime);
+        long next = getFireTimeAfterMillis(
+                (nextFireTime == null) ? System.currentTimeMillis() : nextFireTime.getTime());
+
+        // step over excluded times without creating intermediate Dates
+        while (next != 0 && calendar != null && !calendar.isTimeIncluded(next)) {
+
+            next = getFireTimeAfterMillis(next);
 
-            if(nextFireTime == null)
-                break;
-            
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
-                nextFireTime = null;
+            if (next != 0 && TimeMath.getYearUTC(next) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+                next = 0;
             }
         }
-        
+
+        nextFireTime = (next == 0) ? null : new Date(next);
+
         if (nextFireTime == null) {
             complete = true;
         }
@@ -523,9 +522,7 @@ public class DailyTimeIntervalTriggerImpl extends AbstractTrigger<DailyTimeInter
                 break;
             
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 nextFireTime = null;
             }
 
@@ -570,9 +567,7 @@ public class DailyTimeIntervalTriggerImpl extends AbstractTrigger<DailyTimeInter
               break;
       
           //avoid infinite loop
-          java.util.Calendar c = java.util.Calendar.getInstance();
-          c.setTime(nextFireTime);
-          if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+          if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
               return null;
           }
       }
@@ -736,6 +731,39 @@ public class DailyTimeIntervalTriggerImpl extends AbstractTrigger<DailyTimeInter
         return fireTime;
     }
 
+    /**
+     * <p>
+     * Returns the next time at which the <code>DailyTimeIntervalTrigger</code> will
+     * fire, after the given time, or 0 if the trigger will not fire after the
+     * given time.
+     * </p>
+     * 
+     * <p>
+     * A completed trigger, or one past its repeat count or end time, answers
+     * without creating any <code>Date</code>. Otherwise the time of day
+     * computations of <code>getFireTimeAfter(Date)</code> are used, as they
+     * depend on the trigger's time zone.
+     * </p>
+     */
+    @Override
+    public long getFireTimeAfterMillis(long afterMillis) {
+        if (complete) {
+            return 0;
+        }
+
+        if (repeatCount != REPEAT_INDEFINITELY && timesTriggered > repeatCount) {
+            return 0;
+        }
+
+        Date eTime = getEndTime();
+        if (eTime != null && Math.max(afterMillis + 1000L, startTime.getTime()) > eTime.getTime()) {
+            return 0;
+        }
+
+        Date fireTime = getFireTimeAfter(new Date(afterMillis));
+        return (fireTime == null) ? 0 : fireTime.getTime();
+    }
+
     private boolean isSameDay(Date d1, Date d2) {
     
       Calendar c1 = createCalendarTime(d1);
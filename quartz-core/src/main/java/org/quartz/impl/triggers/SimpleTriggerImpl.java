@@ -31,6 +31,7 @@ import org.quartz.SimpleScheduleBuilder;
 import org.quartz.SimpleTrigger;
 import org.quartz.Trigger;
 import org.quartz.TriggerUtils;
+import org.quartz.utils.TimeMath;
 
 
 /**
@@ -486,38 +487,12 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
         if (instr == MISFIRE_INSTRUCTION_FIRE_NOW) {
             setNextFireTime(new Date());
         } else if (instr == MISFIRE_INSTRUCTION_RESCHEDULE_NEXT_WITH_EXISTING_COUNT) {
-            Date newFireTime = getFireTimeAfter(new Date());
-            while (newFireTime != null && cal != null
-                    && !cal.isTimeIncluded(newFireTime.getTime())) {
-                newFireTime = getFireTimeAfter(newFireTime);
-
-                if(newFireTime == null)
-                    break;
-                
-                //avoid infinite loop
-                java.util.Calendar c = java.util.Calendar.getInstance();
-                c.setTime(newFireTime);
-                if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
-                    newFireTime = null;
-                }
-            }
+            long next = getIncludedFireTimeAfterMillis(System.currentTimeMillis(), cal);
+            Date newFireTime = (next == 0) ? null : new Date(next);
             setNextFireTime(newFireTime);
         } else if (instr == MISFIRE_INSTRUCTION_RESCHEDULE_NEXT_WITH_REMAINING_COUNT) {
-            Date newFireTime = getFireTimeAfter(new Date());
-            while (newFireTime != null && cal != null
-                    && !cal.isTimeIncluded(newFireTime.getTime())) {
-                newFireTime = getFireTimeAfter(newFireTime);
-
-                if(newFireTime == null)
-                    break;
-                
-                //avoid infinite loop
-                java.util.Calendar c = java.util.Calendar.getInstance();
-                c.setTime(newFireTime);
-                if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
-                    newFireTime = null;
-                }
-            }
+            long next = getIncludedFireTimeAfterMillis(System.currentTimeMillis(), cal);
+            Date newFireTime = (next == 0) ? null : new Date(next);
             if (newFireTime != null) {
                 int timesMissed = computeNumTimesFiredBetween(nextFireTime,
                         newFireTime);
@@ -578,23 +553,32 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
     public void triggered(Calendar calendar) {
         timesTriggered++;
         previousFireTime = nextFireTime;
-        nextFireTime = getFireTimeAfter(nextFireTime);
 
-        while (nextFireTime != null && calendar != null
-                && !calendar.isTimeIncluded(nextFireTime.getTime())) {
-            
-            nextFireTime = getFireTimeAfter(nextFireTime);
+        long next = getIncludedFireTimeAfterMillis(
+                (nextFireTime == null) ? System.currentTimeMillis() : nextFireTime.getTime(), calendar);
+
+        nextFireTime = (next == 0) ? null : new Date(next);
+    }
+
+    /**
+     * The first fire time after the given time that the given calendar
+     * includes, or 0. Steps over excluded times without creating
+     * intermediate <code>Date</code>s.
+     */
+    private long getIncludedFireTimeAfterMillis(long afterMillis, Calendar calendar) {
+        long next = getFireTimeAfterMillis(afterMillis);
+
+        while (next != 0 && calendar != null && !calendar.isTimeIncluded(next)) {
+
+            next = getFireTimeAfterMillis(next);
 
-            if(nextFireTime == null)
-                break;
-            
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
-                nextFireTime = null;
+            if (next != 0 && TimeMath.getYearUTC(next) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+                next = 0;
             }
         }
+
+        return next;
     }
 
     /**
@@ -618,9 +602,7 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
                 break;
             
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 nextFireTime = null;
             }
 
@@ -662,9 +644,7 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
                 break;
             
             //avoid infinite loop
-            java.util.Calendar c = java.util.Calendar.getInstance();
-            c.setTime(nextFireTime);
-            if (c.get(java.util.Calendar.YEAR) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
+            if (TimeMath.getYearUTC(nextFireTime.getTime()) > YEAR_TO_GIVEUP_SCHEDULING_AT) {
                 return null;
             }
         }
@@ -739,47 +719,57 @@ public class SimpleTriggerImpl extends AbstractTrigger<SimpleTrigger> implements
      */
     @Override
     public Date getFireTimeAfter(Date afterTime) {
+        long time = getFireTimeAfterMillis(
+                (afterTime == null) ? System.currentTimeMillis() : afterTime.getTime());
+        return (time == 0) ? null : new Date(time);
+    }
+
+    /**
+     * <p>
+     * Returns the next time at which the <code>SimpleTrigger</code> will
+     * fire, after the given time, or 0 if the trigger will not fire after the
+     * given time.
+     * </p>
+     */
+    @Override
+    public long getFireTimeAfterMillis(long afterMillis) {
         if (complete) {
-            return null;
+            return 0;
         }
 
         if ((timesTriggered > repeatCount)
                 && (repeatCount != REPEAT_INDEFINITELY)) {
-            return null;
+            return 0;
         }
 
-        if (afterTime == null) {
-            afterTime = new Date();
-        }
+        long startMillis = getStartTime().getTime();
 
-        if (repeatCount == 0 && afterTime.compareTo(getStartTime()) >= 0) {
-            return null;
+        if (repeatCount == 0 && afterMillis >= startMillis) {
+            return 0;
         }
 
-        long startMillis = getStartTime().getTime();
-        long afterMillis = afterTime.getTime();
         long endMillis = (getEndTime() == null) ? Long.MAX_VALUE : getEndTime()
                 .getTime();
 
         if (endMillis <= afterMillis) {
-            return null;
+            return 0;
         }
 
         if (afterMillis < startMillis) {
-            return new Date(startMillis);
+            return startMillis;
         }
 
         long numberOfTimesExecuted = ((afterMillis - startMillis) / repeatInterval) + 1;
 
         if ((numberOfTimesExecuted > repeatCount) && 
             (repeatCount != REPEAT_INDEFINITELY)) {
-            return null;
+            return 0;
         }
 
-        Date time = new Date(startMillis + (numberOfTimesExecuted * repeatInterval));
+        long time = startMillis + (numberOfTimesExecuted * repeatInterval);
 
-        if (endMillis <= time.getTime()) {
-            return null;
+        if (endMillis <= time) {
+            return 0;
         }
 
         return time;
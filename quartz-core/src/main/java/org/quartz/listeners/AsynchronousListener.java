@@ -0,0 +1,43 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.listeners;
+
+/**
+ * Marks a <code>{@link org.quartz.JobListener}</code>,
+ * <code>{@link org.quartz.TriggerListener}</code> or
+ * <code>{@link org.quartz.SchedulerListener}</code> as asynchronous.
+ *
+ * <p>The scheduler delivers the events of an asynchronous listener from a
+ * bounded queue on separate threads, rather than on the worker or scheduler
+ * thread the event happened on, so a slow listener does not delay the
+ * execution of jobs. Events are delivered to each listener in the order they
+ * happened. When the queue is full, the notifying thread waits for room by
+ * default; other overflow policies drop events (logging each one) or
+ * deliver them on the notifying thread. Job execution contexts are passed as
+ * snapshots taken when the event happened.</p>
+ *
+ * <p>An asynchronous <code>TriggerListener</code> can not veto job executions:
+ * its <code>vetoJobExecution()</code> method is never called. Exceptions
+ * thrown by asynchronous listeners are logged.</p>
+ *
+ * <p>Existing listeners can be made asynchronous with
+ * <code>{@link AsynchronousListeners}</code>.</p>
+ *
+ * @see AsynchronousListeners
+ */
+public interface AsynchronousListener {
+
+}
@@ -0,0 +1,99 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.listeners;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.quartz.JobListener;
+import org.quartz.SchedulerListener;
+import org.quartz.TriggerListener;
+
+/**
+ * Wraps existing listeners so that they are registered as
+ * <code>{@link AsynchronousListener}</code>s, e.g.
+ *
+ * <pre>
+ * scheduler.getListenerManager().addJobListener(
+ *         AsynchronousListeners.jobListener(new AuditListener()), allJobs());
+ * </pre>
+ *
+ * <p>The wrappers themselves simply delegate to the wrapped listener; it is
+ * the scheduler that delivers their events asynchronously.</p>
+ */
+public final class AsynchronousListeners {
+
+    private AsynchronousListeners() {
+    }
+
+    /**
+     * Wrap the given <code>JobListener</code> as an asynchronous listener.
+     */
+    public static JobListener jobListener(JobListener listener) {
+        return wrap(JobListener.class, listener);
+    }
+
+    /**
+     * Wrap the given <code>TriggerListener</code> as an asynchronous listener,
+     * which never vetoes job executions.
+     */
+    public static TriggerListener triggerListener(TriggerListener listener) {
+        return wrap(TriggerListener.class, listener);
+    }
+
+    /**
+     * Wrap the given <code>SchedulerListener</code> as an asynchronous listener.
+     */
+    public static SchedulerListener schedulerListener(SchedulerListener listener) {
+        return wrap(SchedulerListener.class, listener);
+    }
+
+    private static <L> L wrap(Class<L> type, final L listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        if (listener instanceof AsynchronousListener) {
+            return listener;
+        }
+
+        Object wrapper = Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[] { type, AsynchronousListener.class },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getDeclaringClass() == Object.class) {
+                            if (method.getName().equals("equals")) {
+                                return proxy == args[0];
+                            }
+                            if (method.getName().equals("hashCode")) {
+                                return System.identityHashCode(proxy);
+                            }
+                            return "Asynchronous " + listener;
+                        }
+                        if (method.getName().equals("vetoJobExecution")) {
+                            return Boolean.FALSE;
+                        }
+                        try {
+                            return method.invoke(listener, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+        return type.cast(wrapper);
+    }
+}
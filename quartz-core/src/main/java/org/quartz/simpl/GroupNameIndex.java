@@ -0,0 +1,204 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+
+/**
+ * <p>
+ * An index of group names that finds the groups matched by a
+ * <code>{@link StringOperatorName}</code> in time proportional to the number
+ * of matching groups rather than to the number of groups.
+ * </p>
+ *
+ * <p>
+ * Prefixes are looked up in the sorted names, suffixes in the sorted
+ * reversed names. Substrings are looked up in an optional index of the
+ * trigrams of the names; without it, <code>CONTAINS</code> scans all of the
+ * names.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe, the <code>{@link RAMJobStore}</code>
+ * guards it with its lock.
+ * </p>
+ */
+public class GroupNameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final TreeSet<String> names = new TreeSet<String>();
+
+    private final TreeSet<String> reversedNames = new TreeSet<String>();
+
+    private HashMap<String, Set<String>> namesByGram;
+
+    public GroupNameIndex() {
+        this(false);
+    }
+
+    /**
+     * @param indexSubstrings whether to index the trigrams of the names, to
+     * speed up <code>CONTAINS</code> lookups at the cost of memory.
+     */
+    public GroupNameIndex(boolean indexSubstrings) {
+        if (indexSubstrings) {
+            namesByGram = new HashMap<String, Set<String>>();
+        }
+    }
+
+    public boolean isIndexSubstrings() {
+        return namesByGram != null;
+    }
+
+    public boolean add(String name) {
+        if (!names.add(name)) {
+            return false;
+        }
+        reversedNames.add(reverse(name));
+        if (namesByGram != null) {
+            for (String gram : grams(name)) {
+                Set<String> grpNames = namesByGram.get(gram);
+                if (grpNames == null) {
+                    grpNames = new HashSet<String>();
+                    namesByGram.put(gram, grpNames);
+                }
+                grpNames.add(name);
+            }
+        }
+        return true;
+    }
+
+    public boolean remove(String name) {
+        if (!names.remove(name)) {
+            return false;
+        }
+        reversedNames.remove(reverse(name));
+        if (namesByGram != null) {
+            for (String gram : grams(name)) {
+                Set<String> grpNames = namesByGram.get(gram);
+                if (grpNames != null) {
+                    grpNames.remove(name);
+                    if (grpNames.isEmpty()) {
+                        namesByGram.remove(gram);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        names.clear();
+        reversedNames.clear();
+        if (namesByGram != null) {
+            namesByGram.clear();
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * <p>
+     * Get the names for which the given operator evaluates to true against
+     * the given value. The returned list is a copy, so the index may be
+     * changed while iterating it.
+     * </p>
+     */
+    public List<String> matching(StringOperatorName operator, String value) {
+        switch (operator) {
+            case EQUALS:
+                return names.contains(value) ? Collections.singletonList(value) : Collections.<String>emptyList();
+            case ANYTHING:
+                return new ArrayList<String>(names);
+            case STARTS_WITH:
+                return withPrefix(names, value, false);
+            case ENDS_WITH:
+                return withPrefix(reversedNames, reverse(value), true);
+            case CONTAINS:
+                return containing(value);
+            default:
+                List<String> matches = new ArrayList<String>();
+                for (String name : names) {
+                    if (operator.evaluate(name, value)) {
+                        matches.add(name);
+                    }
+                }
+                return matches;
+        }
+    }
+
+    private static List<String> withPrefix(TreeSet<String> sortedNames, String prefix, boolean reversed) {
+        List<String> matches = new ArrayList<String>();
+        // all of the names starting with the prefix follow it in the sorted set
+        for (String name : sortedNames.tailSet(prefix, true)) {
+            if (!name.startsWith(prefix)) {
+                break;
+            }
+            matches.add(reversed ? reverse(name) : name);
+        }
+        return matches;
+    }
+
+    private List<String> containing(String value) {
+        Set<String> candidates = names;
+        if (namesByGram != null && value.length() >= GRAM_LENGTH) {
+            // every name containing the value contains each of its grams, so
+            // the names of the rarest gram are enough candidates
+            for (String gram : grams(value)) {
+                Set<String> grpNames = namesByGram.get(gram);
+                if (grpNames == null) {
+                    return new ArrayList<String>(0);
+                }
+                if (grpNames.size() < candidates.size()) {
+                    candidates = grpNames;
+                }
+            }
+        }
+
+        List<String> matches = new ArrayList<String>();
+        for (String name : candidates) {
+            if (name.contains(value)) {
+                matches.add(name);
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new HashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            grams.add(name.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String reverse(String name) {
+        return new StringBuilder(name).reverse().toString();
+    }
+}
@@ -17,18 +17,25 @@
 
 package org.quartz.simpl;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicLong;
@@ -40,20 +47,27 @@ import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.JobPersistenceException;
 import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.ResultPage;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.Trigger.TriggerTimeComparator;
 import org.quartz.impl.JobDetailImpl;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.matchers.StringMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.SchedulerSignaler;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.utils.CalendarUpdates;
+import org.quartz.utils.Key;
+import org.quartz.utils.PageToken;
+import org.quartz.utils.PagedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,6 +112,15 @@ public class RAMJobStore implements JobStore {
 
     protected HashMap<String, HashMap<TriggerKey, TriggerWrapper>> triggersByGroup = new HashMap<String, HashMap<TriggerKey, TriggerWrapper>>(25);
 
+    protected GroupNameIndex jobGroupIndex = new GroupNameIndex();
+
+    protected GroupNameIndex triggerGroupIndex = new GroupNameIndex();
+
+    // the jobs and triggers of each group sorted by name, for paging
+    protected HashMap<String, TreeMap<String, JobWrapper>> sortedJobsByGroup = new HashMap<String, TreeMap<String, JobWrapper>>(25);
+
+    protected HashMap<String, TreeMap<String, TriggerWrapper>> sortedTriggersByGroup = new HashMap<String, TreeMap<String, TriggerWrapper>>(25);
+
     protected TreeSet<TriggerWrapper> timeTriggers = new TreeSet<TriggerWrapper>(new TriggerWrapperComparator());
 
     protected HashMap<String, Calendar> calendarsByName = new HashMap<String, Calendar>(25);
@@ -111,9 +134,33 @@ public class RAMJobStore implements JobStore {
     protected HashSet<String> pausedJobGroups = new HashSet<String>();
 
     protected HashSet<JobKey> blockedJobs = new HashSet<JobKey>();
+
+    // the acquired triggers, which are not in timeTriggers; entries whose
+    // trigger changed state some other way are dropped when next visited
+    protected HashMap<TriggerKey, TriggerWrapper> acquiredTriggers = new HashMap<TriggerKey, TriggerWrapper>();
+
+    /**
+     * The number of triggers from which pausing or resuming them together
+     * may rebuild <code>timeTriggers</code> instead of updating it per trigger.
+     */
+    private static final int BULK_TIME_INDEX_UPDATE_SIZE = 64;
+
+    /**
+     * The order of trigger pages by next fire time, then by key.
+     */
+    private static final Comparator<TriggerWrapper> NEXT_FIRE_TIME_ORDER = new Comparator<TriggerWrapper>() {
+        public int compare(TriggerWrapper tw1, TriggerWrapper tw2) {
+            int comp = tw1.trigger.getNextFireTime().compareTo(tw2.trigger.getNextFireTime());
+            return comp != 0 ? comp : tw1.key.compareTo(tw2.key);
+        }
+    };
     
     protected long misfireThreshold = 5000l;
 
+    protected int calendarUpdateChunkSize = CalendarUpdates.DEFAULT_CHUNK_SIZE;
+
+    protected int calendarUpdateThreadCount = CalendarUpdates.DEFAULT_THREAD_COUNT;
+
     protected SchedulerSignaler signaler;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -190,6 +237,62 @@ public class RAMJobStore implements JobStore {
         this.misfireThreshold = misfireThreshold;
     }
 
+    public int getCalendarUpdateChunkSize() {
+        return calendarUpdateChunkSize;
+    }
+
+    /**
+     * The number of triggers whose fire times are re-computed together (by
+     * one thread, against one copy of the calendar) when a calendar is
+     * replaced with <code>updateTriggers</code> set.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setCalendarUpdateChunkSize(int calendarUpdateChunkSize) {
+        if (calendarUpdateChunkSize < 1) {
+            throw new IllegalArgumentException("Calendar update chunk size must be larger than 0");
+        }
+        this.calendarUpdateChunkSize = calendarUpdateChunkSize;
+    }
+
+    public int getCalendarUpdateThreadCount() {
+        return calendarUpdateThreadCount;
+    }
+
+    /**
+     * The maximum number of threads used to re-compute the fire times of the
+     * triggers referencing a replaced calendar. Defaults to the number of
+     * available processors, 1 disables parallel re-computation.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setCalendarUpdateThreadCount(int calendarUpdateThreadCount) {
+        this.calendarUpdateThreadCount = calendarUpdateThreadCount;
+    }
+
+    public boolean isIndexGroupSubstrings() {
+        synchronized (lock) {
+            return triggerGroupIndex.isIndexSubstrings();
+        }
+    }
+
+    /**
+     * Whether to index the trigrams of the job and trigger group names, so
+     * that group matchers using <code>CONTAINS</code> don't have to test
+     * every group. Prefix and suffix lookups are always indexed.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setIndexGroupSubstrings(boolean indexGroupSubstrings) {
+        synchronized (lock) {
+            jobGroupIndex = new GroupNameIndex(indexGroupSubstrings);
+            for (String group : jobsByGroup.keySet()) {
+                jobGroupIndex.add(group);
+            }
+            triggerGroupIndex = new GroupNameIndex(indexGroupSubstrings);
+            for (String group : triggersByGroup.keySet()) {
+                triggerGroupIndex.add(group);
+            }
+        }
+    }
+
     /**
      * <p>
      * Called by the QuartzScheduler to inform the <code>JobStore</code> that
@@ -293,9 +396,12 @@ public class RAMJobStore implements JobStore {
                 if (grpMap == null) {
                     grpMap = new HashMap<JobKey, JobWrapper>(100);
                     jobsByGroup.put(newJob.getKey().getGroup(), grpMap);
+                    jobGroupIndex.add(newJob.getKey().getGroup());
+                    sortedJobsByGroup.put(newJob.getKey().getGroup(), new TreeMap<String, JobWrapper>());
                 }
                 // add to jobs by group
                 grpMap.put(newJob.getKey(), jw);
+                sortedJobsByGroup.get(newJob.getKey().getGroup()).put(newJob.getKey().getName(), jw);
                 // add to jobs by FQN map
                 jobsByKey.put(jw.key, jw);
             } else {
@@ -333,8 +439,11 @@ public class RAMJobStore implements JobStore {
                 HashMap<JobKey, JobWrapper> grpMap = jobsByGroup.get(jobKey.getGroup());
                 if (grpMap != null) {
                     grpMap.remove(jobKey);
+                    sortedJobsByGroup.get(jobKey.getGroup()).remove(jobKey.getName());
                     if (grpMap.size() == 0) {
                         jobsByGroup.remove(jobKey.getGroup());
+                        jobGroupIndex.remove(jobKey.getGroup());
+                        sortedJobsByGroup.remove(jobKey.getGroup());
                     }
                 }
             }
@@ -343,25 +452,76 @@ public class RAMJobStore implements JobStore {
         return found;
     }
 
+    /**
+     * <p>
+     * Remove (delete) the given <code>{@link org.quartz.Job}s</code>, and
+     * all of the <code>{@link org.quartz.Trigger}s</code> that reference them,
+     * removing the triggers from the time index together.
+     * </p>
+     */
     public boolean removeJobs(List<JobKey> jobKeys)
             throws JobPersistenceException {
         boolean allFound = true;
 
         synchronized (lock) {
-            for(JobKey key: jobKeys)
-                allFound = removeJob(key) && allFound;
+            List<TriggerWrapper> removedTriggers = new ArrayList<TriggerWrapper>();
+            Set<JobKey> orphanedJobs = new HashSet<JobKey>();
+            for (JobKey key : jobKeys) {
+                List<TriggerWrapper> jobList = triggersByJob.remove(key);
+                if (jobList != null) {
+                    for (TriggerWrapper tw : jobList) {
+                        if (removeTriggerWrapper(tw.key, false) != null) {
+                            removedTriggers.add(tw);
+                            orphanedJobs.add(key);
+                        }
+                    }
+                }
+            }
+            removeFromTimeTriggers(removedTriggers);
+
+            for (JobKey key : jobKeys) {
+                JobWrapper jw = jobsByKey.get(key);
+                boolean found = removeJob(key);
+                // like removeJob(), which removes a non-durable job as orphaned with its last trigger
+                if (found && jw != null && !jw.jobDetail.isDurable() && orphanedJobs.contains(key)) {
+                    signaler.notifySchedulerListenersJobDeleted(key);
+                }
+                allFound = found && allFound;
+            }
         }
 
         return allFound;
     }
 
+    /**
+     * <p>
+     * Remove (delete) the given <code>{@link org.quartz.Trigger}s</code>,
+     * removing them from the time index together, and then any non-durable
+     * job left without triggers.
+     * </p>
+     */
     public boolean removeTriggers(List<TriggerKey> triggerKeys)
             throws JobPersistenceException {
         boolean allFound = true;
 
         synchronized (lock) {
-            for(TriggerKey key: triggerKeys)
-                allFound = removeTrigger(key) && allFound;
+            List<TriggerWrapper> removedTriggers = new ArrayList<TriggerWrapper>(triggerKeys.size());
+            for (TriggerKey key : triggerKeys) {
+                TriggerWrapper tw = removeTriggerWrapper(key, true);
+                if (tw != null) {
+                    removedTriggers.add(tw);
+                } else {
+                    allFound = false;
+                }
+            }
+            removeFromTimeTriggers(removedTriggers);
+
+            Set<JobKey> jobKeys = new HashSet<JobKey>();
+            for (TriggerWrapper tw : removedTriggers) {
+                if (jobKeys.add(tw.jobKey)) {
+                    removeOrphanedJob(tw.jobKey);
+                }
+            }
         }
 
         return allFound;
@@ -448,8 +608,11 @@ public class RAMJobStore implements JobStore {
             if (grpMap == null) {
                 grpMap = new HashMap<TriggerKey, TriggerWrapper>(100);
                 triggersByGroup.put(newTrigger.getKey().getGroup(), grpMap);
+                triggerGroupIndex.add(newTrigger.getKey().getGroup());
+                sortedTriggersByGroup.put(newTrigger.getKey().getGroup(), new TreeMap<String, TriggerWrapper>());
             }
             grpMap.put(newTrigger.getKey(), tw);
+            sortedTriggersByGroup.get(newTrigger.getKey().getGroup()).put(newTrigger.getKey().getName(), tw);
             // add to triggers by FQN map
             triggersByKey.put(tw.key, tw);
 
@@ -485,19 +648,46 @@ public class RAMJobStore implements JobStore {
         boolean found;
 
         synchronized (lock) {
-            // remove from triggers by FQN map
-            TriggerWrapper tw = triggersByKey.remove(key);
+            TriggerWrapper tw = removeTriggerWrapper(key, true);
             found = tw != null;
             if (found) {
-                // remove from triggers by group
-                HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(key.getGroup());
-                if (grpMap != null) {
-                    grpMap.remove(key);
-                    if (grpMap.size() == 0) {
-                        triggersByGroup.remove(key.getGroup());
-                    }
+                timeTriggers.remove(tw);
+
+                if (removeOrphanedJob) {
+                    removeOrphanedJob(tw.jobKey);
                 }
-                //remove from triggers by job
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Remove the trigger with the given key from all of the maps, but not
+     * from <code>timeTriggers</code>.
+     *
+     * @param fromJobList whether to remove it from <code>triggersByJob</code>,
+     *        callers removing all of the triggers of a job drop the whole list.
+     * @return the removed wrapper, or <code>null</code> if there was none.
+     */
+    private TriggerWrapper removeTriggerWrapper(TriggerKey key, boolean fromJobList) {
+        // remove from triggers by FQN map
+        TriggerWrapper tw = triggersByKey.remove(key);
+        if (tw != null) {
+            acquiredTriggers.remove(key);
+            // remove from triggers by group
+            HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(key.getGroup());
+            if (grpMap != null) {
+                grpMap.remove(key);
+                sortedTriggersByGroup.get(key.getGroup()).remove(key.getName());
+                if (grpMap.size() == 0) {
+                    triggersByGroup.remove(key.getGroup());
+                    triggerGroupIndex.remove(key.getGroup());
+                    sortedTriggersByGroup.remove(key.getGroup());
+                }
+            }
+            //remove from triggers by job
+            if (fromJobList) {
                 List<TriggerWrapper> jobList = triggersByJob.get(tw.jobKey);
                 if(jobList != null) {
                     jobList.remove(tw);
@@ -505,22 +695,19 @@ public class RAMJobStore implements JobStore {
                         triggersByJob.remove(tw.jobKey);
                     }
                 }
-               
-                timeTriggers.remove(tw);
-
-                if (removeOrphanedJob) {
-                    JobWrapper jw = jobsByKey.get(tw.jobKey);
-                    List<OperableTrigger> trigs = getTriggersForJob(tw.jobKey);
-                    if ((trigs == null || trigs.size() == 0) && !jw.jobDetail.isDurable()) {
-                        if (removeJob(jw.key)) {
-                            signaler.notifySchedulerListenersJobDeleted(jw.key);
-                        }
-                    }
-                }
             }
         }
+        return tw;
+    }
 
-        return found;
+    private void removeOrphanedJob(JobKey jobKey) {
+        JobWrapper jw = jobsByKey.get(jobKey);
+        List<TriggerWrapper> trigs = triggersByJob.get(jobKey);
+        if (jw != null && (trigs == null || trigs.size() == 0) && !jw.jobDetail.isDurable()) {
+            if (removeJob(jw.key)) {
+                signaler.notifySchedulerListenersJobDeleted(jw.key);
+            }
+        }
     }
 
 
@@ -549,8 +736,11 @@ public class RAMJobStore implements JobStore {
                 HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(triggerKey.getGroup());
                 if (grpMap != null) {
                     grpMap.remove(triggerKey);
+                    sortedTriggersByGroup.get(triggerKey.getGroup()).remove(triggerKey.getName());
                     if (grpMap.size() == 0) {
                         triggersByGroup.remove(triggerKey.getGroup());
+                        triggerGroupIndex.remove(triggerKey.getGroup());
+                        sortedTriggersByGroup.remove(triggerKey.getGroup());
                     }
                 }
                 
@@ -592,6 +782,25 @@ public class RAMJobStore implements JobStore {
         }
     }
 
+    /**
+     * <p>
+     * Retrieve the <code>{@link org.quartz.JobDetail}</code>s of the given
+     * keys, under a single acquisition of the lock.
+     * </p>
+     */
+    public Map<JobKey, JobDetail> retrieveJobs(Collection<JobKey> jobKeys) {
+        Map<JobKey, JobDetail> jobs = new LinkedHashMap<JobKey, JobDetail>();
+        synchronized(lock) {
+            for (JobKey jobKey : jobKeys) {
+                JobWrapper jw = jobsByKey.get(jobKey);
+                if (jw != null) {
+                    jobs.put(jobKey, (JobDetail)jw.jobDetail.clone());
+                }
+            }
+        }
+        return jobs;
+    }
+
     /**
      * <p>
      * Retrieve the given <code>{@link org.quartz.Trigger}</code>.
@@ -607,6 +816,25 @@ public class RAMJobStore implements JobStore {
             return (tw != null) ? (OperableTrigger)tw.getTrigger().clone() : null;
         }
     }
+
+    /**
+     * <p>
+     * Retrieve the <code>{@link org.quartz.Trigger}</code>s of the given
+     * keys, under a single acquisition of the lock.
+     * </p>
+     */
+    public Map<TriggerKey, OperableTrigger> retrieveTriggers(Collection<TriggerKey> triggerKeys) {
+        Map<TriggerKey, OperableTrigger> triggers = new LinkedHashMap<TriggerKey, OperableTrigger>();
+        synchronized(lock) {
+            for (TriggerKey triggerKey : triggerKeys) {
+                TriggerWrapper tw = triggersByKey.get(triggerKey);
+                if (tw != null) {
+                    triggers.put(triggerKey, (OperableTrigger)tw.getTrigger().clone());
+                }
+            }
+        }
+        return triggers;
+    }
     
     /**
      * Determine whether a {@link Job} with the given identifier already 
@@ -660,31 +888,35 @@ public class RAMJobStore implements JobStore {
             if (tw == null) {
                 return TriggerState.NONE;
             }
-    
-            if (tw.state == TriggerWrapper.STATE_COMPLETE) {
-                return TriggerState.COMPLETE;
-            }
-    
-            if (tw.state == TriggerWrapper.STATE_PAUSED) {
-                return TriggerState.PAUSED;
-            }
-    
-            if (tw.state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
-                return TriggerState.PAUSED;
-            }
-    
-            if (tw.state == TriggerWrapper.STATE_BLOCKED) {
-                return TriggerState.BLOCKED;
-            }
-    
-            if (tw.state == TriggerWrapper.STATE_ERROR) {
-                return TriggerState.ERROR;
-            }
-    
-            return TriggerState.NORMAL;
+
+            return getTriggerState(tw);
         }
     }
 
+    private static TriggerState getTriggerState(TriggerWrapper tw) {
+        if (tw.state == TriggerWrapper.STATE_COMPLETE) {
+            return TriggerState.COMPLETE;
+        }
+
+        if (tw.state == TriggerWrapper.STATE_PAUSED) {
+            return TriggerState.PAUSED;
+        }
+
+        if (tw.state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
+            return TriggerState.PAUSED;
+        }
+
+        if (tw.state == TriggerWrapper.STATE_BLOCKED) {
+            return TriggerState.BLOCKED;
+        }
+
+        if (tw.state == TriggerWrapper.STATE_ERROR) {
+            return TriggerState.ERROR;
+        }
+
+        return TriggerState.NORMAL;
+    }
+
     /**
      * Reset the current state of the identified <code>{@link Trigger}</code>
      * from {@link TriggerState#ERROR} to {@link TriggerState#NORMAL} or
@@ -761,16 +993,21 @@ public class RAMJobStore implements JobStore {
             calendarsByName.put(name, calendar);
     
             if(obj != null && updateTriggers) {
-                for (TriggerWrapper tw : getTriggerWrappersForCalendar(name)) {
-                    OperableTrigger trig = tw.getTrigger();
-                    boolean removed = timeTriggers.remove(tw);
-
-                    trig.updateWithNewCalendar(calendar, getMisfireThreshold());
-
-                    if (removed) {
-                        timeTriggers.add(tw);
+                ArrayList<TriggerWrapper> tws = getTriggerWrappersForCalendar(name);
+                ArrayList<OperableTrigger> trigs = new ArrayList<OperableTrigger>(tws.size());
+                ArrayList<TriggerWrapper> removed = new ArrayList<TriggerWrapper>(tws.size());
+                for (TriggerWrapper tw : tws) {
+                    trigs.add(tw.getTrigger());
+                    // take it out of the time index while its next fire time changes
+                    if (timeTriggers.remove(tw)) {
+                        removed.add(tw);
                     }
                 }
+
+                CalendarUpdates.updateWithNewCalendar(trigs, calendar, getMisfireThreshold(),
+                        getCalendarUpdateChunkSize(), getCalendarUpdateThreadCount());
+
+                timeTriggers.addAll(removed);
             }
         }
     }
@@ -896,12 +1133,13 @@ public class RAMJobStore implements JobStore {
                     break;
 
                 default:
-                    for (Map.Entry<String, HashMap<JobKey, JobWrapper>> entry : jobsByGroup.entrySet()) {
-                        if(operator.evaluate(entry.getKey(), compareToValue) && entry.getValue() != null) {
+                    for (String group : jobGroupIndex.matching(operator, compareToValue)) {
+                        HashMap<JobKey, JobWrapper> groupJobs = jobsByGroup.get(group);
+                        if(groupJobs != null) {
                             if(outList == null) {
                                 outList = new HashSet<JobKey>();
                             }
-                            for (JobWrapper jobWrapper : entry.getValue().values()) {
+                            for (JobWrapper jobWrapper : groupJobs.values()) {
                                 if(jobWrapper != null) {
                                     outList.add(jobWrapper.jobDetail.getKey());
                                 }
@@ -960,12 +1198,13 @@ public class RAMJobStore implements JobStore {
                     break;
 
                 default:
-                    for (Map.Entry<String, HashMap<TriggerKey, TriggerWrapper>> entry : triggersByGroup.entrySet()) {
-                        if(operator.evaluate(entry.getKey(), compareToValue) && entry.getValue() != null) {
+                    for (String group : triggerGroupIndex.matching(operator, compareToValue)) {
+                        HashMap<TriggerKey, TriggerWrapper> groupTriggers = triggersByGroup.get(group);
+                        if(groupTriggers != null) {
                             if(outList == null) {
                                 outList = new HashSet<TriggerKey>();
                             }
-                            for (TriggerWrapper triggerWrapper : entry.getValue().values()) {
+                            for (TriggerWrapper triggerWrapper : groupTriggers.values()) {
                                 if(triggerWrapper != null) {
                                     outList.add(triggerWrapper.trigger.getKey());
                                 }
@@ -978,6 +1217,242 @@ public class RAMJobStore implements JobStore {
         return outList == null ? Collections.<TriggerKey>emptySet() : outList;
     }
 
+    /**
+     * <p>
+     * Get one page of the jobs of the matching groups, ordered by group and
+     * then by name.
+     * </p>
+     *
+     * <p>
+     * The jobs of each group are kept sorted by name, so a page only visits
+     * the groups from the page token on and, within them, the jobs it
+     * returns: it is cheap to get however many jobs the store holds.
+     * </p>
+     */
+    public ResultPage<JobDetail> retrieveJobPage(GroupMatcher<JobKey> matcher, String pageToken, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+        JobKey after = PageToken.decodeJobKey(pageToken);
+        List<JobDetail> page = new ArrayList<JobDetail>();
+
+        synchronized (lock) {
+            for (String group : sortedGroupsFrom(jobGroupIndex, matcher, after)) {
+                NavigableMap<String, JobWrapper> names = sortedJobsByGroup.get(group);
+                if (names == null) {
+                    continue;
+                }
+                if (after != null && group.equals(after.getGroup())) {
+                    names = names.tailMap(after.getName(), false);
+                }
+                for (JobWrapper jw : names.values()) {
+                    page.add((JobDetail) jw.jobDetail.clone());
+                    if (page.size() > pageSize) {
+                        break;
+                    }
+                }
+                if (page.size() > pageSize) {
+                    break;
+                }
+            }
+        }
+
+        String nextPageToken = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            nextPageToken = PageToken.encode(page.get(pageSize - 1).getKey());
+        }
+        return new ResultPage<JobDetail>(page, nextPageToken);
+    }
+
+    /**
+     * <p>
+     * Get one page of the triggers matching the given query, ordered by
+     * group and then by name.
+     * </p>
+     *
+     * <p>
+     * Like <code>retrieveJobPage()</code>, a page visits the triggers in
+     * order from the page token on, until it is full; the triggers that are
+     * not in the states or the next fire time window of the query are
+     * visited too, so a selective query costs more than the page it returns.
+     * </p>
+     *
+     * @see #retrieveJobPage(GroupMatcher, String, int)
+     */
+    public ResultPage<OperableTrigger> retrieveTriggerPage(TriggerQuery query) {
+        if (query.isOrderedByNextFireTime()) {
+            return retrieveTriggerPageByNextFireTime(query);
+        }
+        int pageSize = query.getPageSize();
+        TriggerKey after = PageToken.decodeTriggerKey(query.getPageToken());
+        List<OperableTrigger> page = new ArrayList<OperableTrigger>();
+
+        synchronized (lock) {
+            for (String group : sortedGroupsFrom(triggerGroupIndex, query.getMatcher(), after)) {
+                NavigableMap<String, TriggerWrapper> names = sortedTriggersByGroup.get(group);
+                if (names == null) {
+                    continue;
+                }
+                if (after != null && group.equals(after.getGroup())) {
+                    names = names.tailMap(after.getName(), false);
+                }
+                for (TriggerWrapper tw : names.values()) {
+                    if (!query.isMatch(getTriggerState(tw), tw.trigger.getNextFireTime())) {
+                        continue;
+                    }
+                    page.add((OperableTrigger) tw.trigger.clone());
+                    if (page.size() > pageSize) {
+                        break;
+                    }
+                }
+                if (page.size() > pageSize) {
+                    break;
+                }
+            }
+        }
+
+        String nextPageToken = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            nextPageToken = PageToken.encode(page.get(pageSize - 1).getKey());
+        }
+        return new ResultPage<OperableTrigger>(page, nextPageToken);
+    }
+
+    /**
+     * <p>
+     * Walk the waiting triggers in the order of <code>timeTriggers</code>,
+     * from the start of the window, until a full page is found; the other
+     * triggers are not in <code>timeTriggers</code>, and are checked one by
+     * one. A query for <code>NORMAL</code> triggers only checks the acquired
+     * triggers, the only other ones in that state, rather than all of them.
+     * </p>
+     */
+    private ResultPage<OperableTrigger> retrieveTriggerPageByNextFireTime(TriggerQuery query) {
+        int pageSize = query.getPageSize();
+        Date afterTime = PageToken.decodeNextFireTime(query.getPageToken());
+        TriggerKey afterKey = PageToken.decodeTriggerKey(query.getPageToken());
+        Date from = query.getNextFireTimeFrom();
+        if (afterTime != null && (from == null || afterTime.after(from))) {
+            from = afterTime;
+        }
+        TreeSet<TriggerWrapper> selected = new TreeSet<TriggerWrapper>(NEXT_FIRE_TIME_ORDER);
+
+        synchronized (lock) {
+            if (query.getStates().isEmpty() || query.getStates().contains(TriggerState.NORMAL)) {
+                SortedSet<TriggerWrapper> waiting = timeTriggers;
+                if (from != null) {
+                    // sorts before any trigger firing at or after from
+                    OperableTrigger probe = new SimpleTriggerImpl();
+                    probe.setKey(new TriggerKey("probe"));
+                    probe.setNextFireTime(new Date(from.getTime() - 1));
+                    probe.setPriority(0);
+                    waiting = timeTriggers.tailSet(new TriggerWrapper(probe));
+                }
+                for (TriggerWrapper tw : waiting) {
+                    Date nextFireTime = tw.trigger.getNextFireTime();
+                    if (query.getNextFireTimeTo() != null && !nextFireTime.before(query.getNextFireTimeTo())) {
+                        break;
+                    }
+                    if (selected.size() > pageSize && nextFireTime.after(selected.last().trigger.getNextFireTime())) {
+                        break;
+                    }
+                    selectByNextFireTime(tw, query, afterTime, afterKey, selected);
+                }
+            }
+            if (query.getStates().equals(EnumSet.of(TriggerState.NORMAL))) {
+                for (Iterator<TriggerWrapper> it = acquiredTriggers.values().iterator(); it.hasNext();) {
+                    TriggerWrapper tw = it.next();
+                    if (tw.state != TriggerWrapper.STATE_ACQUIRED || triggersByKey.get(tw.key) != tw) {
+                        it.remove();
+                        continue;
+                    }
+                    selectByNextFireTime(tw, query, afterTime, afterKey, selected);
+                }
+            } else {
+                for (TriggerWrapper tw : triggersByKey.values()) {
+                    if (tw.state != TriggerWrapper.STATE_WAITING) {
+                        selectByNextFireTime(tw, query, afterTime, afterKey, selected);
+                    }
+                }
+            }
+        }
+
+        List<OperableTrigger> page = new ArrayList<OperableTrigger>(selected.size());
+        for (TriggerWrapper tw : selected) {
+            page.add((OperableTrigger) tw.trigger.clone());
+        }
+        String nextPageToken = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            OperableTrigger last = page.get(pageSize - 1);
+            nextPageToken = PageToken.encode(last.getNextFireTime(), last.getKey());
+        }
+        return new ResultPage<OperableTrigger>(page, nextPageToken);
+    }
+
+    private void selectByNextFireTime(TriggerWrapper tw, TriggerQuery query, Date afterTime, TriggerKey afterKey,
+            TreeSet<TriggerWrapper> selected) {
+        Date nextFireTime = tw.trigger.getNextFireTime();
+        if (nextFireTime == null || !query.isMatch(getTriggerState(tw), nextFireTime)
+                || !query.getMatcher().isMatch(tw.key)) {
+            return;
+        }
+        if (afterTime != null) {
+            int comp = nextFireTime.compareTo(afterTime);
+            if (comp < 0 || (comp == 0 && tw.key.compareTo(afterKey) <= 0)) {
+                return;
+            }
+        }
+        selected.add(tw);
+        if (selected.size() > query.getPageSize() + 1) {
+            selected.pollLast();
+        }
+    }
+
+    /**
+     * <p>
+     * Iterate over the jobs of the matching groups, acquiring the lock once
+     * per batch, so that the scheduler is not held up by a long iteration.
+     * </p>
+     */
+    public Iterator<JobDetail> iterateJobs(final GroupMatcher<JobKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<JobDetail>(new PagedIterator.PageSource<JobDetail>() {
+            public ResultPage<JobDetail> fetchPage(String pageToken) {
+                return retrieveJobPage(matcher, pageToken, batchSize);
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Iterate over the triggers of the matching groups, acquiring the lock
+     * once per batch.
+     * </p>
+     */
+    public Iterator<OperableTrigger> iterateTriggers(final GroupMatcher<TriggerKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<OperableTrigger>(new PagedIterator.PageSource<OperableTrigger>() {
+            public ResultPage<OperableTrigger> fetchPage(String pageToken) {
+                return retrieveTriggerPage(new TriggerQuery().withMatcher(matcher)
+                        .withPageToken(pageToken).withPageSize(batchSize));
+            }
+        });
+    }
+
+    private static List<String> sortedGroupsFrom(GroupNameIndex index, GroupMatcher<?> matcher, Key<?> after) {
+        List<String> groups = new ArrayList<String>(
+                index.matching(matcher.getCompareWithOperator(), matcher.getCompareToValue()));
+        Collections.sort(groups);
+        if (after != null) {
+            int from = Collections.binarySearch(groups, after.getGroup());
+            groups = groups.subList(from < 0 ? -from - 1 : from, groups.size());
+        }
+        return groups;
+    }
+
     /**
      * <p>
      * Get the names of all of the <code>{@link org.quartz.Job}</code>
@@ -1121,22 +1596,21 @@ public class RAMJobStore implements JobStore {
                     }
                     break;
                 default :
-                    for (String group : triggersByGroup.keySet()) {
-                        if(operator.evaluate(group, matcher.getCompareToValue())) {
-                            if(pausedTriggerGroups.add(matcher.getCompareToValue())) {
-                                pausedGroups.add(group);
-                            }
+                    for (String group : triggerGroupIndex.matching(operator, matcher.getCompareToValue())) {
+                        if(pausedTriggerGroups.add(group)) {
+                            pausedGroups.add(group);
                         }
                     }
             }
 
+            List<TriggerWrapper> toPause = new ArrayList<TriggerWrapper>();
             for (String pausedGroup : pausedGroups) {
-                Set<TriggerKey> keys = getTriggerKeys(GroupMatcher.triggerGroupEquals(pausedGroup));
-
-                for (TriggerKey key: keys) {
-                    pauseTrigger(key);
+                HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(pausedGroup);
+                if (grpMap != null) {
+                    toPause.addAll(grpMap.values());
                 }
             }
+            pauseTriggerWrappers(toPause);
         }
 
         return pausedGroups;
@@ -1183,23 +1657,26 @@ public class RAMJobStore implements JobStore {
                     }
                     break;
                 default :
-                    for (String group : jobsByGroup.keySet()) {
-                        if(operator.evaluate(group, matcher.getCompareToValue())) {
-                            if (pausedJobGroups.add(group)) {
-                                pausedGroups.add(group);
-                            }
+                    for (String group : jobGroupIndex.matching(operator, matcher.getCompareToValue())) {
+                        if (pausedJobGroups.add(group)) {
+                            pausedGroups.add(group);
                         }
                     }
             }
 
+            List<TriggerWrapper> toPause = new ArrayList<TriggerWrapper>();
             for (String groupName : pausedGroups) {
-                for (JobKey jobKey: getJobKeys(GroupMatcher.jobGroupEquals(groupName))) {
-                    List<OperableTrigger> triggersOfJob = getTriggersForJob(jobKey);
-                    for (OperableTrigger trigger: triggersOfJob) {
-                        pauseTrigger(trigger.getKey());
+                HashMap<JobKey, JobWrapper> grpMap = jobsByGroup.get(groupName);
+                if (grpMap != null) {
+                    for (JobKey jobKey : grpMap.keySet()) {
+                        List<TriggerWrapper> jobList = triggersByJob.get(jobKey);
+                        if (jobList != null) {
+                            toPause.addAll(jobList);
+                        }
                     }
                 }
             }
+            pauseTriggerWrappers(toPause);
         }
 
         return pausedGroups;
@@ -1265,18 +1742,20 @@ public class RAMJobStore implements JobStore {
         Set<String> groups = new HashSet<String>();
 
         synchronized (lock) {
-            Set<TriggerKey> keys = getTriggerKeys(matcher);
-
-            for (TriggerKey triggerKey: keys) {
-                groups.add(triggerKey.getGroup());
-                if(triggersByKey.get(triggerKey) != null) {
-                    String jobGroup = triggersByKey.get(triggerKey).jobKey.getGroup();
-                    if(pausedJobGroups.contains(jobGroup)) {
-                        continue;
+            List<TriggerWrapper> toResume = new ArrayList<TriggerWrapper>();
+            for (String group : triggerGroupIndex.matching(matcher.getCompareWithOperator(), matcher.getCompareToValue())) {
+                HashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(group);
+                if (grpMap == null) {
+                    continue;
+                }
+                groups.add(group);
+                for (TriggerWrapper tw : grpMap.values()) {
+                    if (!pausedJobGroups.contains(tw.jobKey.getGroup())) {
+                        toResume.add(tw);
                     }
                 }
-                resumeTrigger(triggerKey);
             }
+            resumeTriggerWrappers(toResume);
 
             // Find all matching paused trigger groups, and then remove them.
             StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
@@ -1354,12 +1833,14 @@ public class RAMJobStore implements JobStore {
                 pausedJobGroups.remove(resumedGroup);
             }
 
+            List<TriggerWrapper> toResume = new ArrayList<TriggerWrapper>();
             for (JobKey key: keys) {
-                List<OperableTrigger> triggersOfJob = getTriggersForJob(key);
-                for (OperableTrigger trigger: triggersOfJob) {
-                    resumeTrigger(trigger.getKey());
+                List<TriggerWrapper> jobList = triggersByJob.get(key);
+                if (jobList != null) {
+                    toResume.addAll(jobList);
                 }
             }
+            resumeTriggerWrappers(toResume);
         }
         return resumedGroups;
     }
@@ -1382,11 +1863,14 @@ public class RAMJobStore implements JobStore {
     public void pauseAll() {
 
         synchronized (lock) {
-            List<String> names = getTriggerGroupNames();
-
-            for (String name: names) {
-                pauseTriggers(GroupMatcher.triggerGroupEquals(name));
+            List<TriggerWrapper> toPause = new ArrayList<TriggerWrapper>();
+            for (Map.Entry<String, HashMap<TriggerKey, TriggerWrapper>> entry : triggersByGroup.entrySet()) {
+                // like pauseTriggers(), only the groups not paused yet
+                if (pausedTriggerGroups.add(entry.getKey())) {
+                    toPause.addAll(entry.getValue().values());
+                }
             }
+            pauseTriggerWrappers(toPause);
         }
     }
 
@@ -1411,12 +1895,142 @@ public class RAMJobStore implements JobStore {
         }
     }
 
-    protected boolean applyMisfire(TriggerWrapper tw) {
+    /**
+     * <p>
+     * Pause the given triggers, unscheduling them from
+     * <code>timeTriggers</code> together.
+     * </p>
+     *
+     * @see #pauseTrigger(TriggerKey)
+     */
+    protected void pauseTriggerWrappers(Collection<TriggerWrapper> tws) {
+        List<TriggerWrapper> unscheduled = new ArrayList<TriggerWrapper>();
+        for (TriggerWrapper tw : tws) {
+            // if the trigger is "complete" pausing it does not make sense...
+            if (tw.trigger == null || tw.state == TriggerWrapper.STATE_COMPLETE) {
+                continue;
+            }
+            if (tw.state == TriggerWrapper.STATE_WAITING) {
+                unscheduled.add(tw);
+            }
+            if (tw.state == TriggerWrapper.STATE_BLOCKED) {
+                tw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+            } else {
+                tw.state = TriggerWrapper.STATE_PAUSED;
+            }
+        }
+        removeFromTimeTriggers(unscheduled);
+    }
+
+    /**
+     * <p>
+     * Resume the given triggers, applying their misfire instructions
+     * against the same misfire time and scheduling them in
+     * <code>timeTriggers</code> together.
+     * </p>
+     *
+     * @see #resumeTrigger(TriggerKey)
+     */
+    protected void resumeTriggerWrappers(Collection<TriggerWrapper> tws) {
+        long misfireTime = getMisfireTime();
+        List<TriggerWrapper> scheduled = new ArrayList<TriggerWrapper>();
+        for (TriggerWrapper tw : tws) {
+            // if the trigger is not paused resuming it does not make sense...
+            if (tw.trigger == null || (tw.state != TriggerWrapper.STATE_PAUSED &&
+                    tw.state != TriggerWrapper.STATE_PAUSED_BLOCKED)) {
+                continue;
+            }
+
+            if (blockedJobs.contains(tw.jobKey)) {
+                tw.state = TriggerWrapper.STATE_BLOCKED;
+            } else {
+                tw.state = TriggerWrapper.STATE_WAITING;
+            }
+
+            applyMisfire(tw, misfireTime);
+
+            if (tw.state == TriggerWrapper.STATE_WAITING) {
+                scheduled.add(tw);
+            }
+        }
+        addToTimeTriggers(scheduled);
+    }
+
+    /**
+     * Remove the given triggers from <code>timeTriggers</code>. When they are
+     * a large part of it, one pass over the index is cheaper than looking up
+     * each of them.
+     */
+    protected void removeFromTimeTriggers(Collection<TriggerWrapper> tws) {
+        if (tws.size() < BULK_TIME_INDEX_UPDATE_SIZE || tws.size() * 4 < timeTriggers.size()) {
+            for (TriggerWrapper tw : tws) {
+                timeTriggers.remove(tw);
+            }
+            return;
+        }
+
+        Set<TriggerWrapper> removed = new HashSet<TriggerWrapper>(tws);
+        for (Iterator<TriggerWrapper> it = timeTriggers.iterator(); it.hasNext();) {
+            if (removed.contains(it.next())) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Add the given triggers to <code>timeTriggers</code>. When they are a
+     * large part of it, they are sorted and merged with it, and the index is
+     * bulk-loaded from the merged list instead of re-balanced once per
+     * trigger.
+     */
+    protected void addToTimeTriggers(List<TriggerWrapper> tws) {
+        if (tws.size() < BULK_TIME_INDEX_UPDATE_SIZE || tws.size() * 4 < timeTriggers.size()) {
+            timeTriggers.addAll(tws);
+            return;
+        }
+
+        Comparator<? super TriggerWrapper> comparator = timeTriggers.comparator();
+        List<TriggerWrapper> added = new ArrayList<TriggerWrapper>(tws);
+        Collections.sort(added, comparator);
+
+        List<TriggerWrapper> merged = new ArrayList<TriggerWrapper>(timeTriggers.size() + added.size());
+        Iterator<TriggerWrapper> existing = timeTriggers.iterator();
+        TriggerWrapper next = existing.hasNext() ? existing.next() : null;
+        for (TriggerWrapper tw : added) {
+            while (next != null && comparator.compare(next, tw) < 0) {
+                merged.add(next);
+                next = existing.hasNext() ? existing.next() : null;
+            }
+            // like TreeSet.add(), keep the element already in the set
+            if ((next != null && comparator.compare(next, tw) == 0) ||
+                    (!merged.isEmpty() && comparator.compare(merged.get(merged.size() - 1), tw) == 0)) {
+                continue;
+            }
+            merged.add(tw);
+        }
+        while (next != null) {
+            merged.add(next);
+            next = existing.hasNext() ? existing.next() : null;
+        }
 
+        TreeSet<TriggerWrapper> rebuilt = new TreeSet<TriggerWrapper>(comparator);
+        rebuilt.addAll(new SortedListSet(merged, comparator));
+        timeTriggers = rebuilt;
+    }
+
+    private long getMisfireTime() {
         long misfireTime = System.currentTimeMillis();
         if (getMisfireThreshold() > 0) {
             misfireTime -= getMisfireThreshold();
         }
+        return misfireTime;
+    }
+
+    protected boolean applyMisfire(TriggerWrapper tw) {
+        return applyMisfire(tw, getMisfireTime());
+    }
+
+    protected boolean applyMisfire(TriggerWrapper tw, long misfireTime) {
 
         Date tnft = tw.trigger.getNextFireTime();
         if (tnft == null || tnft.getTime() > misfireTime 
@@ -1426,7 +2040,10 @@ public class RAMJobStore implements JobStore {
 
         Calendar cal = null;
         if (tw.trigger.getCalendarName() != null) {
-            cal = retrieveCalendar(tw.trigger.getCalendarName());
+            // the stored instance never leaves the store, no need for a copy
+            synchronized (lock) {
+                cal = calendarsByName.get(tw.trigger.getCalendarName());
+            }
         }
 
         signaler.notifyTriggerListenersMisfired((OperableTrigger)tw.trigger.clone());
@@ -1513,6 +2130,7 @@ public class RAMJobStore implements JobStore {
                 }
 
                 tw.state = TriggerWrapper.STATE_ACQUIRED;
+                acquiredTriggers.put(tw.key, tw);
                 tw.trigger.setFireInstanceId(getFiredTriggerRecordId());
                 OperableTrigger trig = (OperableTrigger) tw.trigger.clone();
                 if (result.isEmpty()) {
@@ -1542,6 +2160,7 @@ public class RAMJobStore implements JobStore {
             TriggerWrapper tw = triggersByKey.get(trigger.getKey());
             if (tw != null && tw.state == TriggerWrapper.STATE_ACQUIRED) {
                 tw.state = TriggerWrapper.STATE_WAITING;
+                acquiredTriggers.remove(tw.key);
                 timeTriggers.add(tw);
             }
         }
@@ -1584,6 +2203,7 @@ public class RAMJobStore implements JobStore {
                 trigger.triggered(cal);
                 //tw.state = TriggerWrapper.STATE_EXECUTING;
                 tw.state = TriggerWrapper.STATE_WAITING;
+                acquiredTriggers.remove(tw.key);
 
                 TriggerFiredBundle bndle = new TriggerFiredBundle(retrieveJob(
                         tw.jobKey), trigger, cal,
@@ -1885,3 +2505,71 @@ class TriggerWrapper {
         return this.trigger;
     }
 }
+
+/**
+ * An already sorted list, seen as a <code>SortedSet</code> so that a
+ * <code>TreeSet</code> with the same comparator can be built from it in
+ * linear time by <code>addAll()</code>.
+ */
+class SortedListSet extends AbstractSet<TriggerWrapper> implements SortedSet<TriggerWrapper> {
+
+    private final List<TriggerWrapper> list;
+
+    private final Comparator<? super TriggerWrapper> comparator;
+
+    SortedListSet(List<TriggerWrapper> list, Comparator<? super TriggerWrapper> comparator) {
+        this.list = list;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public Iterator<TriggerWrapper> iterator() {
+        return Collections.unmodifiableList(list).iterator();
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    public Comparator<? super TriggerWrapper> comparator() {
+        return comparator;
+    }
+
+    public TriggerWrapper first() {
+        if (list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return list.get(0);
+    }
+
+    public TriggerWrapper last() {
+        if (list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return list.get(list.size() - 1);
+    }
+
+    public SortedSet<TriggerWrapper> subSet(TriggerWrapper fromElement, TriggerWrapper toElement) {
+        if (comparator.compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return new SortedListSet(list.subList(indexOf(fromElement), indexOf(toElement)), comparator);
+    }
+
+    public SortedSet<TriggerWrapper> headSet(TriggerWrapper toElement) {
+        return new SortedListSet(list.subList(0, indexOf(toElement)), comparator);
+    }
+
+    public SortedSet<TriggerWrapper> tailSet(TriggerWrapper fromElement) {
+        return new SortedListSet(list.subList(indexOf(fromElement), list.size()), comparator);
+    }
+
+    /**
+     * The index of the first element that is not less than the given one.
+     */
+    private int indexOf(TriggerWrapper element) {
+        int index = Collections.binarySearch(list, element, comparator);
+        return index < 0 ? -index - 1 : index;
+    }
+}
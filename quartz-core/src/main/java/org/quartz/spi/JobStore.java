@@ -17,7 +17,10 @@
 
 package org.quartz.spi;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,13 +31,17 @@ import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.JobPersistenceException;
 import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.ResultPage;
 import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
 import org.quartz.Trigger.CompletedExecutionInstruction;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.utils.PageToken;
+import org.quartz.utils.PagedIterator;
 
 /**
  * <p>
@@ -183,6 +190,29 @@ public interface JobStore {
     JobDetail retrieveJob(JobKey jobKey) 
         throws JobPersistenceException;
 
+    /**
+     * Retrieve the <code>{@link org.quartz.JobDetail}</code> s of the given
+     * keys, at once rather than one at a time.
+     *
+     * <p>
+     * The default implementation retrieves the jobs one at a time.
+     * </p>
+     *
+     * @return The jobs by key, in the order of the given keys, without the
+     *         keys that have no match.
+     */
+    default Map<JobKey, JobDetail> retrieveJobs(Collection<JobKey> jobKeys)
+        throws JobPersistenceException {
+        Map<JobKey, JobDetail> jobs = new LinkedHashMap<JobKey, JobDetail>();
+        for (JobKey key : jobKeys) {
+            JobDetail job = retrieveJob(key);
+            if (job != null) {
+                jobs.put(key, job);
+            }
+        }
+        return jobs;
+    }
+
     /**
      * Store the given <code>{@link org.quartz.Trigger}</code>.
      *
@@ -247,6 +277,29 @@ public interface JobStore {
      */
     OperableTrigger retrieveTrigger(TriggerKey triggerKey) throws JobPersistenceException;
 
+    /**
+     * Retrieve the <code>{@link org.quartz.Trigger}</code> s of the given
+     * keys, at once rather than one at a time.
+     *
+     * <p>
+     * The default implementation retrieves the triggers one at a time.
+     * </p>
+     *
+     * @return The triggers by key, in the order of the given keys, without
+     *         the keys that have no match.
+     */
+    default Map<TriggerKey, OperableTrigger> retrieveTriggers(Collection<TriggerKey> triggerKeys)
+        throws JobPersistenceException {
+        Map<TriggerKey, OperableTrigger> triggers = new LinkedHashMap<TriggerKey, OperableTrigger>();
+        for (TriggerKey key : triggerKeys) {
+            OperableTrigger trigger = retrieveTrigger(key);
+            if (trigger != null) {
+                triggers.put(key, trigger);
+            }
+        }
+        return triggers;
+    }
+
     
     /**
      * Determine whether a {@link Job} with the given identifier already 
@@ -375,6 +428,127 @@ public interface JobStore {
     Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher)
         throws JobPersistenceException;
 
+    /**
+     * Get one page of the <code>{@link org.quartz.JobDetail}</code> s of the
+     * jobs in the matching groups, ordered by group and then by name.
+     *
+     * <p>
+     * The page is selected by a single query of the store rather than by
+     * retrieving the jobs of every group one at a time, so that large stores
+     * can be browsed without loading all of their jobs.
+     * </p>
+     *
+     * <p>
+     * The default implementation gets the keys of all of the matching jobs
+     * and retrieves the jobs of the page one at a time.
+     * </p>
+     *
+     * @param pageToken the <code>nextPageToken</code> of the previous page,
+     *        or <code>null</code> for the first page.
+     * @param pageSize the maximum number of jobs in the page.
+     */
+    default ResultPage<JobDetail> retrieveJobPage(GroupMatcher<JobKey> matcher, String pageToken, int pageSize)
+        throws JobPersistenceException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+        List<JobDetail> page = new ArrayList<JobDetail>(pageSize);
+        for (JobKey key : PageToken.sortedAfter(getJobKeys(matcher), PageToken.decodeJobKey(pageToken))) {
+            JobDetail job = retrieveJob(key);
+            if (job == null) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                return new ResultPage<JobDetail>(page, PageToken.encode(page.get(pageSize - 1).getKey()));
+            }
+            page.add(job);
+        }
+        return new ResultPage<JobDetail>(page, null);
+    }
+
+    /**
+     * Get one page of the triggers matching the given query, ordered by
+     * group and then by name.
+     *
+     * <p>
+     * The default implementation gets the keys of all of the triggers of the
+     * matching groups and retrieves them one at a time until the page is
+     * full; for a query ordered by next fire time, it retrieves all of them.
+     * </p>
+     *
+     * @see #retrieveJobPage(GroupMatcher, String, int)
+     */
+    default ResultPage<OperableTrigger> retrieveTriggerPage(TriggerQuery query)
+        throws JobPersistenceException {
+        if (query.isOrderedByNextFireTime()) {
+            List<OperableTrigger> matching = new ArrayList<OperableTrigger>();
+            for (TriggerKey key : getTriggerKeys(query.getMatcher())) {
+                OperableTrigger trigger = retrieveTrigger(key);
+                if (trigger != null && query.isMatch(getTriggerState(key), trigger.getNextFireTime())) {
+                    matching.add(trigger);
+                }
+            }
+            return PageToken.pageByNextFireTime(matching, query);
+        }
+        int pageSize = query.getPageSize();
+        TriggerKey after = PageToken.decodeTriggerKey(query.getPageToken());
+        List<OperableTrigger> page = new ArrayList<OperableTrigger>(pageSize);
+        for (TriggerKey key : PageToken.sortedAfter(getTriggerKeys(query.getMatcher()), after)) {
+            OperableTrigger trigger = retrieveTrigger(key);
+            if (trigger == null || !query.isMatch(getTriggerState(key), trigger.getNextFireTime())) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                return new ResultPage<OperableTrigger>(page, PageToken.encode(page.get(pageSize - 1).getKey()));
+            }
+            page.add(trigger);
+        }
+        return new ResultPage<OperableTrigger>(page, null);
+    }
+
+    /**
+     * Iterate over the <code>{@link org.quartz.JobDetail}</code> s of the
+     * jobs in the matching groups, ordered by group and then by name,
+     * retrieving them in batches of the given size as the iteration goes.
+     *
+     * <p>
+     * The default implementation gets each batch with
+     * <code>{@link #retrieveJobPage(GroupMatcher, String, int)}</code>.
+     * </p>
+     *
+     * @see org.quartz.utils.PagedIterator
+     */
+    default Iterator<JobDetail> iterateJobs(final GroupMatcher<JobKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<JobDetail>(new PagedIterator.PageSource<JobDetail>() {
+            public ResultPage<JobDetail> fetchPage(String pageToken) throws JobPersistenceException {
+                return retrieveJobPage(matcher, pageToken, batchSize);
+            }
+        });
+    }
+
+    /**
+     * Iterate over the triggers in the matching groups, ordered by group and
+     * then by name, retrieving them in batches of the given size as the
+     * iteration goes.
+     *
+     * <p>
+     * The default implementation gets each batch with
+     * <code>{@link #retrieveTriggerPage(TriggerQuery)}</code>.
+     * </p>
+     *
+     * @see #iterateJobs(GroupMatcher, int)
+     */
+    default Iterator<OperableTrigger> iterateTriggers(final GroupMatcher<TriggerKey> matcher, final int batchSize)
+        throws JobPersistenceException {
+        return new PagedIterator<OperableTrigger>(new PagedIterator.PageSource<OperableTrigger>() {
+            public ResultPage<OperableTrigger> fetchPage(String pageToken) throws JobPersistenceException {
+                return retrieveTriggerPage(new TriggerQuery().withMatcher(matcher)
+                        .withPageToken(pageToken).withPageSize(batchSize));
+            }
+        });
+    }
+
     /**
      * Get the names of all of the <code>{@link org.quartz.Job}</code>
      * groups.
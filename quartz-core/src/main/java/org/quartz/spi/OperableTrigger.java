@@ -110,7 +110,27 @@ public interface OperableTrigger extends MutableTrigger {
      */
     public void updateWithNewCalendar(Calendar cal, long misfireThreshold);
 
-    
+    /**
+     * <p>
+     * This method should not be used by the Quartz client.
+     * </p>
+     *
+     * <p>
+     * Primitive counterpart of <code>getFireTimeAfter(Date)</code>, for the
+     * scheduling loops that step a trigger over excluded calendar times.
+     * Implementations whose fire times are plain arithmetic should override
+     * it to avoid creating intermediate <code>Date</code>s.
+     * </p>
+     *
+     * @return the next fire time in milliseconds, or 0 if the trigger will
+     *         not fire after the given time.
+     */
+    default long getFireTimeAfterMillis(long afterTime) {
+        Date fireTime = getFireTimeAfter(new Date(afterTime));
+        return (fireTime == null) ? 0 : fireTime.getTime();
+    }
+
+
     /**
      * <p>
      * Validates whether the properties of the <code>JobDetail</code> are
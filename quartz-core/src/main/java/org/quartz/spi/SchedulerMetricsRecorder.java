@@ -0,0 +1,76 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.spi;
+
+/**
+ * <p>
+ * Receives the latencies measured along the scheduling pipeline of a
+ * <code>{@link org.quartz.core.QuartzScheduler}</code>, from the acquisition
+ * of triggers to the completion of their jobs, to feed them into a metrics
+ * system.
+ * </p>
+ *
+ * <p>
+ * A recorder is configured with the
+ * <code>org.quartz.scheduler.metricsRecorder.class</code> property, and
+ * properties prefixed with <code>org.quartz.scheduler.metricsRecorder</code>
+ * are set on it as bean properties. It is called on the scheduler thread
+ * and the worker threads, so it must be thread-safe and fast.
+ * </p>
+ *
+ * @see org.quartz.core.LatencyHistograms
+ */
+public interface SchedulerMetricsRecorder {
+
+    /**
+     * The steps of the scheduling pipeline that are measured.
+     */
+    enum Metric {
+        /** The duration of <code>JobStore.acquireNextTriggers()</code>. */
+        ACQUIRE_NEXT_TRIGGERS("AcquireNextTriggers"),
+        /** How late a job started, compared to the scheduled fire time of its trigger. */
+        FIRE_LAG("FireLag"),
+        /** The duration of <code>JobStore.triggersFired()</code>. */
+        TRIGGERS_FIRED("TriggersFired"),
+        /** How long a job waited between being handed to the thread pool and starting to run. */
+        THREAD_POOL_HANDOFF("ThreadPoolHandoff"),
+        /** The duration of <code>Job.execute()</code>. */
+        JOB_RUN_TIME("JobRunTime"),
+        /** The duration of <code>JobStore.triggeredJobComplete()</code>. */
+        TRIGGERED_JOB_COMPLETE("TriggeredJobComplete");
+
+        private final String displayName;
+
+        Metric(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Record one measurement of the given metric.
+     *
+     * @param nanos the latency in nanoseconds; may be negative for
+     *        <code>FIRE_LAG</code>, when a trigger fires early within the
+     *        batch time window.
+     */
+    void record(Metric metric, long nanos);
+}
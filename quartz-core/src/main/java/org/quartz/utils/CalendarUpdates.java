@@ -0,0 +1,95 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.utils;
+
+import java.util.List;
+
+import org.quartz.Calendar;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * <p>
+ * Re-computes the fire times of the <code>{@link org.quartz.Trigger}</code>s
+ * referencing a <code>{@link Calendar}</code> that has been replaced.
+ * </p>
+ *
+ * <p>
+ * The triggers are split into chunks that are processed in parallel. Each
+ * chunk works against its own copy of the calendar, as <code>Calendar</code>
+ * implementations are not required to be thread-safe, while all triggers of a
+ * chunk share that copy.
+ * </p>
+ *
+ * <p>
+ * Used by the <code>{@link org.quartz.spi.JobStore}</code> implementations
+ * from <code>storeCalendar(..., updateTriggers = true)</code>.
+ * </p>
+ */
+public final class CalendarUpdates {
+
+    /**
+     * The default number of triggers re-computed by one task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * The default number of threads used to re-compute trigger fire times.
+     */
+    public static final int DEFAULT_THREAD_COUNT = ParallelChunks.DEFAULT_THREAD_COUNT;
+
+    private CalendarUpdates() {
+    }
+
+    /**
+     * <p>
+     * Call <code>updateWithNewCalendar()</code> on each of the given triggers.
+     * If there are more triggers than <code>chunkSize</code> and more than one
+     * thread is allowed, the work is spread over up to <code>threadCount</code>
+     * threads; the method returns once all triggers have been updated.
+     * </p>
+     *
+     * @throws RuntimeException the first exception thrown by a trigger.
+     */
+    @SuppressWarnings("unchecked")
+    public static void updateWithNewCalendar(List<? extends OperableTrigger> triggers,
+            final Calendar calendar, final long misfireThreshold, int chunkSize, int threadCount) {
+
+        int count = triggers.size();
+        if (chunkSize < 1) {
+            chunkSize = DEFAULT_CHUNK_SIZE;
+        }
+
+        if (threadCount <= 1 || count <= chunkSize) {
+            for (OperableTrigger trigger : triggers) {
+                trigger.updateWithNewCalendar(calendar, misfireThreshold);
+            }
+            return;
+        }
+
+        ParallelChunks.execute((List<OperableTrigger>) triggers, chunkSize, threadCount,
+                "QuartzCalendarUpdate", RuntimeException.class,
+                new ParallelChunks.ChunkTask<OperableTrigger, RuntimeException>() {
+                    public void run(List<OperableTrigger> chunk) {
+                        Calendar cal = (calendar == null) ? null : (Calendar) calendar.clone();
+                        for (OperableTrigger trigger : chunk) {
+                            trigger.updateWithNewCalendar(cal, misfireThreshold);
+                        }
+                    }
+                });
+    }
+}
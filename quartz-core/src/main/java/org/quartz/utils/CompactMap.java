@@ -0,0 +1,658 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.utils;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * A <code>Map</code> that stores its entries in flat arrays rather than in
+ * linked entry objects, which makes it small and cheap to copy.
+ * </p>
+ *
+ * <p>
+ * Up to <code>{@link #MAX_ARRAY_SIZE}</code> entries are kept in insertion
+ * slots and found by a linear scan; larger maps switch to an open addressing
+ * hash table. Primitive values given to the typed <code>put</code> methods of
+ * <code>{@link StringKeyDirtyFlagMap}</code> are kept unboxed, and are only
+ * boxed when read as objects.
+ * </p>
+ *
+ * <p>
+ * It is serialized as a <code>HashMap</code>, so that the serialized form of
+ * the maps wrapping it doesn't change. Like <code>HashMap</code>, it is not
+ * thread safe, and its iteration order is undefined.
+ * </p>
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = -2807316245094453786L;
+
+    /**
+     * The number of entries up to which no hash table is used.
+     */
+    public static final int MAX_ARRAY_SIZE = 8;
+
+    static final byte OBJECT = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte FLOAT = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+    static final byte CHAR = 6;
+
+    private static final int MIN_TABLE_SIZE = 16;
+
+    private static final Object NULL_KEY = new Object();
+
+    private static final Object REMOVED = new Object();
+
+    private Object[] keys;
+
+    private Object[] values;
+
+    // the kind and bits of primitive values, allocated with the first one
+    private byte[] kinds;
+
+    private long[] bits;
+
+    private int size;
+
+    // used hash table slots, including removed ones
+    private int occupied;
+
+    private boolean hashed;
+
+    private int modCount;
+
+    private transient Set<Entry<K, V>> entrySetView;
+
+    private transient Set<K> keySetView;
+
+    private transient Collection<V> valuesView;
+
+    public CompactMap() {
+    }
+
+    public CompactMap(Map<? extends K, ? extends V> map) {
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = indexOf(key);
+        return slot < 0 ? null : (V) valueAt(slot);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        return (V) store(key, value, OBJECT, 0L);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) valueAt(slot);
+        removeAt(slot);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0 || hashed) {
+            keys = null;
+            values = null;
+            kinds = null;
+            bits = null;
+            size = 0;
+            occupied = 0;
+            hashed = false;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySetView == null) {
+            entrySetView = new EntrySet();
+        }
+        return entrySetView;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySetView == null) {
+            keySetView = new KeySet();
+        }
+        return keySetView;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompactMap<K, V> clone() {
+        CompactMap<K, V> copy;
+        try {
+            copy = (CompactMap<K, V>) super.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IncompatibleClassChangeError("Not Cloneable.");
+        }
+        if (keys != null) {
+            copy.keys = keys.clone();
+            copy.values = values.clone();
+        }
+        if (kinds != null) {
+            copy.kinds = kinds.clone();
+            copy.bits = bits.clone();
+        }
+        copy.modCount = 0;
+        copy.entrySetView = null;
+        copy.keySetView = null;
+        copy.valuesView = null;
+        return copy;
+    }
+
+    /*
+     * Primitive values, used by StringKeyDirtyFlagMap.
+     */
+
+    void putInline(K key, byte kind, long primitiveBits) {
+        store(key, null, kind, primitiveBits);
+    }
+
+    /**
+     * The slot of the given key if its value is kept unboxed as the given
+     * kind, otherwise -1.
+     */
+    int primitiveSlot(Object key, byte kind) {
+        if (kinds == null) {
+            return -1;
+        }
+        int slot = indexOf(key);
+        return slot >= 0 && kinds[slot] == kind ? slot : -1;
+    }
+
+    long bitsAt(int slot) {
+        return bits[slot];
+    }
+
+    /*
+     * Slots.
+     */
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        Object k = maskNull(key);
+        if (!hashed) {
+            for (int i = 0; i < size; i++) {
+                Object candidate = keys[i];
+                if (candidate == k || k.equals(candidate)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int mask = keys.length - 1;
+        for (int i = hash(k) & mask; ; i = (i + 1) & mask) {
+            Object candidate = keys[i];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate == k || (candidate != REMOVED && k.equals(candidate))) {
+                return i;
+            }
+        }
+    }
+
+    private Object store(K key, Object value, byte kind, long primitiveBits) {
+        int slot = indexOf(key);
+        if (slot >= 0) {
+            Object old = valueAt(slot);
+            setAt(slot, value, kind, primitiveBits);
+            return old;
+        }
+
+        Object k = maskNull(key);
+        slot = freeSlot(k);
+        keys[slot] = k;
+        setAt(slot, value, kind, primitiveBits);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    private int freeSlot(Object k) {
+        if (!hashed) {
+            if (size < MAX_ARRAY_SIZE) {
+                if (keys == null || size == keys.length) {
+                    resizeArrays(keys == null ? 4 : Math.min(MAX_ARRAY_SIZE, keys.length * 2));
+                }
+                return size;
+            }
+            rehash(tableSizeFor(size + 1));
+        } else if ((occupied + 1) * 4 > keys.length * 3) {
+            rehash(tableSizeFor(size + 1));
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(k) & mask;
+        while (keys[i] != null && keys[i] != REMOVED) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == null) {
+            occupied++;
+        }
+        return i;
+    }
+
+    private static int tableSizeFor(int entries) {
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize < entries * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    private void resizeArrays(int length) {
+        keys = keys == null ? new Object[length] : Arrays.copyOf(keys, length);
+        values = values == null ? new Object[length] : Arrays.copyOf(values, length);
+        if (kinds != null) {
+            kinds = Arrays.copyOf(kinds, length);
+            bits = Arrays.copyOf(bits, length);
+        }
+    }
+
+    private void rehash(int tableSize) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldKinds = kinds;
+        long[] oldBits = bits;
+        int oldSlots = hashed ? oldKeys.length : size;
+
+        keys = new Object[tableSize];
+        values = new Object[tableSize];
+        if (oldKinds != null) {
+            kinds = new byte[tableSize];
+            bits = new long[tableSize];
+        }
+
+        int mask = tableSize - 1;
+        for (int j = 0; j < oldSlots; j++) {
+            Object k = oldKeys[j];
+            if (k == null || k == REMOVED) {
+                continue;
+            }
+            int i = hash(k) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = k;
+            values[i] = oldValues[j];
+            if (oldKinds != null) {
+                kinds[i] = oldKinds[j];
+                bits[i] = oldBits[j];
+            }
+        }
+        hashed = true;
+        occupied = size;
+        modCount++;
+    }
+
+    private void removeAt(int slot) {
+        if (!hashed) {
+            // keep the slots dense by moving the last entry into the gap
+            int last = --size;
+            keys[slot] = keys[last];
+            values[slot] = values[last];
+            keys[last] = null;
+            values[last] = null;
+            if (kinds != null) {
+                kinds[slot] = kinds[last];
+                bits[slot] = bits[last];
+                kinds[last] = OBJECT;
+            }
+        } else {
+            // a slot ending a probe sequence can be freed, others must stay marked
+            if (keys[(slot + 1) & (keys.length - 1)] == null) {
+                keys[slot] = null;
+                occupied--;
+            } else {
+                keys[slot] = REMOVED;
+            }
+            values[slot] = null;
+            if (kinds != null) {
+                kinds[slot] = OBJECT;
+            }
+            size--;
+        }
+        modCount++;
+    }
+
+    private void setAt(int slot, Object value, byte kind, long primitiveBits) {
+        if (kind != OBJECT && kinds == null) {
+            kinds = new byte[keys.length];
+            bits = new long[keys.length];
+        }
+        values[slot] = value;
+        if (kinds != null) {
+            kinds[slot] = kind;
+            bits[slot] = primitiveBits;
+        }
+    }
+
+    private Object valueAt(int slot) {
+        if (kinds == null) {
+            return values[slot];
+        }
+        long b = bits[slot];
+        switch (kinds[slot]) {
+            case INT:
+                return Integer.valueOf((int) b);
+            case LONG:
+                return Long.valueOf(b);
+            case FLOAT:
+                return Float.valueOf(Float.intBitsToFloat((int) b));
+            case DOUBLE:
+                return Double.valueOf(Double.longBitsToDouble(b));
+            case BOOLEAN:
+                return Boolean.valueOf(b != 0L);
+            case CHAR:
+                return Character.valueOf((char) b);
+            default:
+                return values[slot];
+        }
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new HashMap<K, V>(this);
+    }
+
+    /*
+     * Views.
+     */
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+
+        // the array slots are visited backwards, so that removing one only
+        // moves an entry that was visited already
+        private int next;
+
+        private int last = -1;
+
+        private int expectedModCount = modCount;
+
+        SlotIterator() {
+            next = hashed ? advance(0) : size - 1;
+        }
+
+        private int advance(int from) {
+            int i = from;
+            while (i < keys.length && (keys[i] == null || keys[i] == REMOVED)) {
+                i++;
+            }
+            return i;
+        }
+
+        abstract T element(int slot);
+
+        public boolean hasNext() {
+            return hashed ? next < keys.length : next >= 0;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = hashed ? advance(next + 1) : next - 1;
+            return element(last);
+        }
+
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class SlotEntry implements Entry<K, V> {
+
+        private final int slot;
+
+        private final K key;
+
+        private V value;
+
+        SlotEntry(int slot, K key, V value) {
+            this.slot = slot;
+            this.key = key;
+            this.value = value;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public V setValue(V newValue) {
+            V old = value;
+            if (keys != null && slot < keys.length && keys[slot] == maskNull(key)) {
+                setAt(slot, newValue, OBJECT, 0L);
+            } else {
+                put(key, newValue);
+            }
+            value = newValue;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                    && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new SlotIterator<Entry<K, V>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                Entry<K, V> element(int slot) {
+                    return new SlotEntry(slot, (K) unmaskNull(keys[slot]), (V) valueAt(slot));
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            int slot = indexOf(e.getKey());
+            if (slot < 0) {
+                return false;
+            }
+            Object value = valueAt(slot);
+            return value == null ? e.getValue() == null : value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeAt(indexOf(((Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new SlotIterator<K>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                K element(int slot) {
+                    return (K) unmaskNull(keys[slot]);
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int slot = indexOf(o);
+            if (slot < 0) {
+                return false;
+            }
+            removeAt(slot);
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new SlotIterator<V>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                V element(int slot) {
+                    return (V) valueAt(slot);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+}
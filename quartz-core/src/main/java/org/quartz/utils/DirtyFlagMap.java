@@ -19,7 +19,9 @@ package org.quartz.utils;
 
 import java.lang.reflect.Array;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -43,8 +45,12 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
      */
     private static final long serialVersionUID = 1433884852607126222L;
 
+    private static final int MAX_DIRTY_KEYS = 32;
+
     private boolean dirty = false;
     private Map<K,V> map;
+    // the keys changed since the dirty flag was cleared, null if not known
+    private transient Set<K> dirtyKeys;
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -89,6 +95,15 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         map = new HashMap<K,V>(initialCapacity, loadFactor);
     }
 
+    /**
+     * <p>
+     * Create a DirtyFlagMap that wraps the given map, which is not copied.
+     * </p>
+     */
+    protected DirtyFlagMap(final Map<K,V> wrappedMap) {
+        map = wrappedMap;
+    }
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      *
@@ -104,6 +119,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
      */
     public void clearDirtyFlag() {
         dirty = false;
+        dirtyKeys = null;
     }
 
     /**
@@ -115,6 +131,52 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         return dirty;
     }
 
+    /**
+     * <p>
+     * Get the keys of the entries that were added, changed or removed since
+     * the 'dirty' flag was last cleared.
+     * </p>
+     *
+     * @return the keys, which are empty if the <code>Map</code> is not dirty,
+     * or <code>null</code> if the changes can not be told key by key, for
+     * example after it was cleared, modified through its collection views or
+     * deserialized, or after many keys were changed.
+     */
+    public Set<K> getDirtyKeys() {
+        if (!dirty) {
+            return Collections.emptySet();
+        }
+        return dirtyKeys == null ? null : Collections.unmodifiableSet(dirtyKeys);
+    }
+
+    private void markDirty(final K key) {
+        if (!dirty) {
+            dirty = true;
+            dirtyKeys = new HashSet<K>();
+        }
+        if (dirtyKeys != null) {
+            dirtyKeys.add(key);
+            if (dirtyKeys.size() > MAX_DIRTY_KEYS) {
+                dirtyKeys = null;
+            }
+        }
+    }
+
+    private void markDirty(final Map<? extends K, ? extends V> t) {
+        if (t.size() > MAX_DIRTY_KEYS) {
+            markAllDirty();
+            return;
+        }
+        for (K key : t.keySet()) {
+            markDirty(key);
+        }
+    }
+
+    private void markAllDirty() {
+        dirty = true;
+        dirtyKeys = null;
+    }
+
     /**
      * <p>
      * Get a direct handle to the underlying Map.
@@ -126,7 +188,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
 
     public void clear() {
         if (!map.isEmpty()) {
-            dirty = true;
+            markAllDirty();
         }
         map.clear();
     }
@@ -171,24 +233,40 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
     }
 
     public V put(final K key, final V val) {
-        dirty = true;
+        markDirty(key);
 
         return map.put(key, val);
     }
 
+    /**
+     * Store a primitive value unboxed if the wrapped map is a
+     * <code>CompactMap</code>.
+     *
+     * @return whether the value was stored.
+     */
+    boolean putInline(final K key, final byte kind, final long bits) {
+        if (!(map instanceof CompactMap)) {
+            return false;
+        }
+        markDirty(key);
+        ((CompactMap<K,V>) map).putInline(key, kind, bits);
+        return true;
+    }
+
     public void putAll(final Map<? extends K, ? extends V> t) {
         if (!t.isEmpty()) {
-            dirty = true;
+            markDirty(t);
         }
 
         map.putAll(t);
     }
 
+    @SuppressWarnings("unchecked") // the key of a removed entry is a K
     public V remove(final Object key) {
         V obj = map.remove(key);
 
         if (obj != null) {
-            dirty = true;
+            markDirty((K) key);
         }
 
         return obj;
@@ -208,8 +286,15 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         DirtyFlagMap<K,V> copy;
         try {
             copy = (DirtyFlagMap<K,V>) super.clone();
+            if (dirtyKeys != null) {
+                copy.dirtyKeys = new HashSet<K>(dirtyKeys);
+            }
             if (map instanceof HashMap) {
                 copy.map = (Map<K,V>)((HashMap<K,V>)map).clone();
+            } else if (map instanceof CompactMap) {
+                copy.map = ((CompactMap<K,V>)map).clone();
+            } else if (map instanceof OverlayMap) {
+                copy.map = new CompactMap<K,V>(map);
             }
         } catch (CloneNotSupportedException ex) {
             throw new IncompatibleClassChangeError("Not Cloneable.");
@@ -240,7 +325,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         public boolean remove(final Object o) {
             boolean removed = collection.remove(o);
             if (removed) {
-                dirty = true;
+                markAllDirty();
             }
             return removed;
         }
@@ -248,7 +333,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         public boolean removeAll(final Collection<?> c) {
             boolean changed = collection.removeAll(c);
             if (changed) {
-                dirty = true;
+                markAllDirty();
             }
             return changed;
         }
@@ -256,14 +341,14 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         public boolean retainAll(final Collection<?> c) {
             boolean changed = collection.retainAll(c);
             if (changed) {
-                dirty = true;
+                markAllDirty();
             }
             return changed;
         }
 
         public void clear() {
             if (collection.isEmpty() == false) {
-                dirty = true;
+                markAllDirty();
             }
             collection.clear();
         }
@@ -305,7 +390,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
 
         public void remove() {
-            dirty = true;
+            markAllDirty();
             iterator.remove();
         }
 
@@ -388,7 +473,7 @@ public class DirtyFlagMap<K,V> implements Map<K,V>, Cloneable, java.io.Serializa
         }
 
         public V setValue(final V o) {
-            dirty = true;
+            markDirty(entry.getKey());
             return entry.setValue(o);
         }
 
@@ -0,0 +1,174 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.utils;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * A map of the entries of a base map, overlaid by the entries of a second
+ * map. Lookups by key read through to the two maps, so creating an
+ * <code>OverlayMap</code> copies nothing. The entries are copied into a map
+ * of its own only once the <code>OverlayMap</code> is modified or iterated;
+ * from then on, changes to the two maps are no longer visible through it.
+ * </p>
+ *
+ * <p>
+ * Like <code>HashMap</code>, it is not thread safe.
+ * </p>
+ */
+public class OverlayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 5296482154930425624L;
+
+    private Map<? extends K, ? extends V> base;
+
+    private Map<? extends K, ? extends V> overlay;
+
+    private CompactMap<K, V> copy;
+
+    /**
+     * @param base the map providing the entries not in <code>overlay</code>.
+     * @param overlay the map whose entries take precedence.
+     */
+    public OverlayMap(Map<? extends K, ? extends V> base, Map<? extends K, ? extends V> overlay) {
+        this.base = base;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Whether the entries have been copied, i.e. no longer read through.
+     */
+    public boolean isMaterialized() {
+        return copy != null;
+    }
+
+    private CompactMap<K, V> materialize() {
+        if (copy == null) {
+            CompactMap<K, V> entries = copyOf(base);
+            entries.putAll(overlay);
+            copy = entries;
+            base = null;
+            overlay = null;
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CompactMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        Map<? extends K, ? extends V> wrapped =
+                map instanceof DirtyFlagMap ? ((DirtyFlagMap<? extends K, ? extends V>) map).getWrappedMap() : map;
+        if (wrapped instanceof CompactMap) {
+            return (CompactMap<K, V>) ((CompactMap<? extends K, ? extends V>) wrapped).clone();
+        }
+        return new CompactMap<K, V>(map);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (copy != null) {
+            return copy.get(key);
+        }
+        V value = overlay.get(key);
+        if (value != null || overlay.containsKey(key)) {
+            return value;
+        }
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (copy != null) {
+            return copy.containsKey(key);
+        }
+        return overlay.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        if (copy != null) {
+            return copy.size();
+        }
+        int size = base.size();
+        for (K key : overlay.keySet()) {
+            if (!base.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (copy != null) {
+            return copy.isEmpty();
+        }
+        return base.isEmpty() && overlay.isEmpty();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        materialize().putAll(m);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (copy != null) {
+            copy.clear();
+        } else {
+            base = null;
+            overlay = null;
+            copy = new CompactMap<K, V>();
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return materialize().keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return materialize().values();
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new HashMap<K, V>(materialize());
+    }
+}
@@ -0,0 +1,209 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.quartz.JobKey;
+import org.quartz.ResultPage;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
+
+/**
+ * <p>
+ * Encodes the key of the last item of a <code>{@link org.quartz.ResultPage}</code>
+ * as the token from which the following page is requested, so that job
+ * stores can resume a query ordered by group and name after that key.
+ * </p>
+ * 
+ * <p>
+ * A token is the length of the group, a colon, the group and the name, so
+ * that groups and names may contain any character. A query ordered by next
+ * fire time resumes after the next fire time and the key of the last
+ * trigger, encoded as the time in milliseconds and an <code>@</code>
+ * followed by the key.
+ * </p>
+ */
+public final class PageToken {
+
+    /**
+     * The order of the items of a page: by group and then by name, unlike
+     * <code>{@link Key#compareTo(Key)}</code>, which puts the default group
+     * first.
+     */
+    public static final Comparator<Key<?>> KEY_ORDER = new Comparator<Key<?>>() {
+        public int compare(Key<?> k1, Key<?> k2) {
+            int r = k1.getGroup().compareTo(k2.getGroup());
+            return r != 0 ? r : k1.getName().compareTo(k2.getName());
+        }
+    };
+
+    private PageToken() {
+    }
+
+    /**
+     * Sort the given keys in the order of the items of a page, without the
+     * keys up to and including the given one.
+     *
+     * @param after the key to start after, or <code>null</code> to keep all
+     * of the keys.
+     */
+    public static <K extends Key<?>> List<K> sortedAfter(Collection<K> keys, Key<?> after) {
+        List<K> sorted = new ArrayList<K>(keys.size());
+        for (K key : keys) {
+            if (after == null || KEY_ORDER.compare(key, after) > 0) {
+                sorted.add(key);
+            }
+        }
+        Collections.sort(sorted, KEY_ORDER);
+        return sorted;
+    }
+
+    public static String encode(Key<?> key) {
+        return key.getGroup().length() + ":" + key.getGroup() + key.getName();
+    }
+
+    public static String encode(Date nextFireTime, TriggerKey key) {
+        return nextFireTime.getTime() + "@" + encode(key);
+    }
+
+    /**
+     * Get the page of the given triggers requested by a query ordered by
+     * next fire time, for job stores that can not select the page itself.
+     *
+     * @param triggers all of the triggers matching the query, in any order.
+     */
+    public static <T extends Trigger> ResultPage<T> pageByNextFireTime(Collection<T> triggers, TriggerQuery query) {
+        final Date afterTime = decodeNextFireTime(query.getPageToken());
+        final TriggerKey afterKey = decodeTriggerKey(query.getPageToken());
+        List<T> sorted = new ArrayList<T>(triggers.size());
+        for (T trigger : triggers) {
+            Date nextFireTime = trigger.getNextFireTime();
+            if (nextFireTime == null) {
+                continue;
+            }
+            if (afterTime != null) {
+                int comp = nextFireTime.compareTo(afterTime);
+                if (comp < 0 || (comp == 0 && KEY_ORDER.compare(trigger.getKey(), afterKey) <= 0)) {
+                    continue;
+                }
+            }
+            sorted.add(trigger);
+        }
+        Collections.sort(sorted, new Comparator<T>() {
+            public int compare(T t1, T t2) {
+                int comp = t1.getNextFireTime().compareTo(t2.getNextFireTime());
+                return comp != 0 ? comp : KEY_ORDER.compare(t1.getKey(), t2.getKey());
+            }
+        });
+        int pageSize = query.getPageSize();
+        if (sorted.size() <= pageSize) {
+            return new ResultPage<T>(sorted, null);
+        }
+        T last = sorted.get(pageSize - 1);
+        return new ResultPage<T>(sorted.subList(0, pageSize), encode(last.getNextFireTime(), last.getKey()));
+    }
+
+    /**
+     * @return the next fire time encoded in the given token, or
+     * <code>null</code> if the token is <code>null</code>.
+     * @throws IllegalArgumentException if the token is malformed or does not
+     * hold a next fire time.
+     */
+    public static Date decodeNextFireTime(String token) {
+        if (token == null) {
+            return null;
+        }
+        int at = keyStart(token) - 1;
+        if (at < 1 || token.charAt(at) != '@') {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        try {
+            return new Date(Long.parseLong(token.substring(0, at)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+    }
+
+    /**
+     * @return the key encoded in the given token, or <code>null</code> if the
+     * token is <code>null</code>.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static JobKey decodeJobKey(String token) {
+        String[] groupAndName = decode(token);
+        return groupAndName == null ? null : new JobKey(groupAndName[1], groupAndName[0]);
+    }
+
+    /**
+     * @return the key encoded in the given token, or <code>null</code> if the
+     * token is <code>null</code>.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static TriggerKey decodeTriggerKey(String token) {
+        String[] groupAndName = decode(token);
+        return groupAndName == null ? null : new TriggerKey(groupAndName[1], groupAndName[0]);
+    }
+
+    private static String[] decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        int start = keyStart(token);
+        if (start > 0) {
+            token = token.substring(start);
+        }
+        int colon = token.indexOf(':');
+        if (colon < 1) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        int groupLength;
+        try {
+            groupLength = Integer.parseInt(token.substring(0, colon));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        // the name is never empty
+        if (groupLength < 0 || groupLength > token.length() - colon - 2) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        int nameStart = colon + 1 + groupLength;
+        return new String[] { token.substring(colon + 1, nameStart), token.substring(nameStart) };
+    }
+
+    /**
+     * Get the index of the key in a token that starts with a next fire time,
+     * or 0 if it starts with the key.
+     */
+    private static int keyStart(String token) {
+        int i = 0;
+        if (token.startsWith("-")) {
+            i++;
+        }
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        return i < token.length() && token.charAt(i) == '@' ? i + 1 : 0;
+    }
+}
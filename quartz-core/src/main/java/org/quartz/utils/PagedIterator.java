@@ -0,0 +1,96 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+
+package org.quartz.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.quartz.JobPersistenceException;
+import org.quartz.ResultPage;
+
+/**
+ * <p>
+ * Iterates over the items of a paged query, fetching one page at a time as
+ * the iteration reaches its end, so that only one page of items is held in
+ * memory and no store resource is held between pages.
+ * </p>
+ *
+ * <p>
+ * The first page is fetched by the constructor. As
+ * <code>{@link Iterator}</code> methods can not throw checked exceptions,
+ * a failure to fetch a following page is thrown as an
+ * <code>IllegalStateException</code> caused by the
+ * <code>JobPersistenceException</code>.
+ * </p>
+ *
+ * @see org.quartz.spi.JobStore#iterateJobs(org.quartz.impl.matchers.GroupMatcher, int)
+ */
+public class PagedIterator<T> implements Iterator<T> {
+
+    /**
+     * Fetches the pages of the query.
+     */
+    public interface PageSource<T> {
+
+        /**
+         * @param pageToken the token of the page to fetch, or <code>null</code>
+         *        for the first page.
+         */
+        ResultPage<T> fetchPage(String pageToken) throws JobPersistenceException;
+    }
+
+    private final PageSource<T> source;
+
+    private Iterator<T> items;
+
+    private String nextPageToken;
+
+    public PagedIterator(PageSource<T> source) throws JobPersistenceException {
+        this.source = source;
+        load(source.fetchPage(null));
+    }
+
+    private void load(ResultPage<T> page) {
+        items = page.getItems().iterator();
+        nextPageToken = page.getNextPageToken();
+    }
+
+    public boolean hasNext() {
+        // a page may be empty while a following one is not, if its items
+        // were removed after their keys were selected
+        while (!items.hasNext() && nextPageToken != null) {
+            try {
+                load(source.fetchPage(nextPageToken));
+            } catch (JobPersistenceException e) {
+                throw new IllegalStateException("Couldn't fetch the next page: " + e.getMessage(), e);
+            }
+        }
+        return items.hasNext();
+    }
+
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return items.next();
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
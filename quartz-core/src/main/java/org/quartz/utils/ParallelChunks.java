@@ -0,0 +1,149 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Runs a task over a list split into chunks, with the chunks processed in
+ * parallel by a short-lived pool of daemon threads. Small lists, or a thread
+ * count of one, are processed on the calling thread.
+ * </p>
+ *
+ * <p>
+ * Used for CPU-bound work on many triggers at once, such as computing fire
+ * times, where the chunks share nothing but read-only state.
+ * </p>
+ */
+public final class ParallelChunks {
+
+    /**
+     * The default number of threads used to process chunks.
+     */
+    public static final int DEFAULT_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private ParallelChunks() {
+    }
+
+    /**
+     * The work done on one chunk.
+     */
+    public interface ChunkTask<T, E extends Exception> {
+
+        void run(List<T> chunk) throws E;
+    }
+
+    /**
+     * <p>
+     * Run the given task on the given items, in chunks of
+     * <code>chunkSize</code> items, using up to <code>threadCount</code>
+     * threads. Returns once all chunks have been processed.
+     * </p>
+     *
+     * @param exceptionType the checked exception type of the task, exceptions
+     *          of which are re-thrown as they are.
+     * @throws E the first exception thrown by a chunk.
+     */
+    public static <T, E extends Exception> void execute(List<T> items, int chunkSize, int threadCount,
+            String threadNamePrefix, Class<E> exceptionType, final ChunkTask<T, E> task) throws E {
+
+        int count = items.size();
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        if (threadCount <= 1 || count <= chunkSize) {
+            if (count > 0) {
+                task.run(items);
+            }
+            return;
+        }
+
+        if (!(items instanceof RandomAccess)) {
+            items = new ArrayList<T>(items);
+        }
+
+        int chunks = (count + chunkSize - 1) / chunkSize;
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(threadCount, chunks), new ChunkThreadFactory(threadNamePrefix));
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>(chunks);
+            for (int from = 0; from < count; from += chunkSize) {
+                final List<T> chunk = items.subList(from, Math.min(count, from + chunkSize));
+                results.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        task.run(chunk);
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (exceptionType.isInstance(cause)) {
+                        throw exceptionType.cast(cause);
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException("Chunk failed", cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for chunks", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class ChunkThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        ChunkThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + THREAD_NUMBER.incrementAndGet());
+            t.setDaemon(true);
+            t.setContextClassLoader(loader);
+            return t;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.quartz.utils;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * <p>
@@ -50,6 +51,10 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
         super(initialCapacity, loadFactor);
     }
 
+    protected StringKeyDirtyFlagMap(Map<String, Object> wrappedMap) {
+        super(wrappedMap);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return super.equals(obj);
@@ -61,6 +66,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
         return getWrappedMap().hashCode();
     }
     
+    @SuppressWarnings("unchecked")
+    private CompactMap<String, Object> compactMap() {
+        Map<String, Object> map = getWrappedMap();
+        return map instanceof CompactMap ? (CompactMap<String, Object>) map : null;
+    }
+
     /**
      * Get a copy of the Map's String keys in an array of Strings.
      */
@@ -174,7 +185,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, int value) {
-        super.put(key, Integer.valueOf(value));
+        if (!putInline(key, CompactMap.INT, value)) {
+            super.put(key, Integer.valueOf(value));
+        }
     }
 
     /**
@@ -183,7 +196,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, long value) {
-        super.put(key, Long.valueOf(value));
+        if (!putInline(key, CompactMap.LONG, value)) {
+            super.put(key, Long.valueOf(value));
+        }
     }
 
     /**
@@ -192,7 +207,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, float value) {
-        super.put(key, Float.valueOf(value));
+        if (!putInline(key, CompactMap.FLOAT, Float.floatToRawIntBits(value))) {
+            super.put(key, Float.valueOf(value));
+        }
     }
 
     /**
@@ -201,7 +218,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, double value) {
-        super.put(key, Double.valueOf(value));
+        if (!putInline(key, CompactMap.DOUBLE, Double.doubleToRawLongBits(value))) {
+            super.put(key, Double.valueOf(value));
+        }
     }
 
     /**
@@ -210,7 +229,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, boolean value) {
-        super.put(key, Boolean.valueOf(value));
+        if (!putInline(key, CompactMap.BOOLEAN, value ? 1L : 0L)) {
+            super.put(key, Boolean.valueOf(value));
+        }
     }
 
     /**
@@ -219,7 +240,9 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      * </p>
      */
     public void put(String key, char value) {
-        super.put(key, Character.valueOf(value));
+        if (!putInline(key, CompactMap.CHAR, value)) {
+            super.put(key, Character.valueOf(value));
+        }
     }
 
     /**
@@ -250,6 +273,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not an Integer.
      */
     public int getInt(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.INT);
+        if (slot >= 0) {
+            return (int) compact.bitsAt(slot);
+        }
+
         Object obj = get(key);
     
         try {
@@ -270,6 +299,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not a Long.
      */
     public long getLong(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.LONG);
+        if (slot >= 0) {
+            return compact.bitsAt(slot);
+        }
+
         Object obj = get(key);
     
         try {
@@ -290,6 +325,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not a Float.
      */
     public float getFloat(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.FLOAT);
+        if (slot >= 0) {
+            return Float.intBitsToFloat((int) compact.bitsAt(slot));
+        }
+
         Object obj = get(key);
     
         try {
@@ -310,6 +351,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not a Double.
      */
     public double getDouble(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.DOUBLE);
+        if (slot >= 0) {
+            return Double.longBitsToDouble(compact.bitsAt(slot));
+        }
+
         Object obj = get(key);
     
         try {
@@ -330,6 +377,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not a Boolean.
      */
     public boolean getBoolean(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.BOOLEAN);
+        if (slot >= 0) {
+            return compact.bitsAt(slot) != 0L;
+        }
+
         Object obj = get(key);
     
         try {
@@ -350,6 +403,12 @@ public class StringKeyDirtyFlagMap extends DirtyFlagMap<String, Object> {
      *           if the identified object is not a Character.
      */
     public char getChar(String key) {
+        CompactMap<String, Object> compact = compactMap();
+        int slot = compact == null ? -1 : compact.primitiveSlot(key, CompactMap.CHAR);
+        if (slot >= 0) {
+            return (char) compact.bitsAt(slot);
+        }
+
         Object obj = get(key);
     
         try {
@@ -0,0 +1,205 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.utils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Calendar arithmetic on primitive epoch milliseconds, for the hot paths of
+ * the trigger and calendar implementations that would otherwise build a
+ * <code>{@link java.util.Calendar}</code> (and a <code>{@link java.util.Date}</code>)
+ * just to read a single field.
+ * </p>
+ *
+ * <p>
+ * Time zones are resolved through <code>{@link ZoneRules}</code>, which are
+ * cached per time zone. Zones whose rules differ from the ones the JDK knows
+ * for their ID (e.g. a <code>{@link java.util.SimpleTimeZone}</code> with a
+ * custom ID) are answered by <code>{@link TimeZone#getOffset(long)}</code>
+ * instead. A <code>null</code> time zone stands for
+ * <code>{@link TimeZone#getDefault()}</code>, as it does throughout Quartz.
+ * Day and week-day values use the <code>java.util.Calendar</code> constants.
+ * </p>
+ */
+public final class TimeMath {
+
+    public static final long MILLIS_IN_DAY = 24L * 60L * 60L * 1000L;
+
+    private static final int MAX_CACHED_ZONES = 64;
+
+    /** Marks zones without usable <code>ZoneRules</code>, compared by identity. */
+    private static final ZoneRules NO_RULES = ZoneRules.of(ZoneOffset.UTC);
+
+    // keyed on (copies of) the zones themselves, not on their IDs: custom
+    // zones may share an ID with a zone that has different rules
+    private static final ConcurrentMap<TimeZone, ZoneRules> RULES = new ConcurrentHashMap<TimeZone, ZoneRules>();
+
+    private TimeMath() {
+    }
+
+    /**
+     * Get the offset from UTC, in milliseconds, in effect at the given time.
+     */
+    public static long getOffsetMillis(long timeInMillis, TimeZone timeZone) {
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+
+        ZoneRules rules = getRules(timeZone);
+        if (rules == NO_RULES) {
+            return timeZone.getOffset(timeInMillis);
+        }
+        if (rules.isFixedOffset()) {
+            return rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+        }
+        return rules.getOffset(Instant.ofEpochMilli(timeInMillis)).getTotalSeconds() * 1000L;
+    }
+
+    private static ZoneRules getRules(TimeZone timeZone) {
+        ZoneRules rules = RULES.get(timeZone);
+        if (rules == null) {
+            rules = resolveRules(timeZone);
+            if (RULES.size() >= MAX_CACHED_ZONES) {
+                RULES.clear();
+            }
+            // cache a copy, the caller may still modify its zone
+            RULES.putIfAbsent((TimeZone) timeZone.clone(), rules);
+        }
+        return rules;
+    }
+
+    private static ZoneRules resolveRules(TimeZone timeZone) {
+        try {
+            ZoneId zoneId = timeZone.toZoneId();
+            if (timeZone.hasSameRules(TimeZone.getTimeZone(zoneId))) {
+                return zoneId.getRules();
+            }
+        } catch (DateTimeException e) {
+            // an ID unknown to java.time
+        }
+        return NO_RULES;
+    }
+
+    /**
+     * Get the number of days since 1970-01-01 of the local date of the given
+     * time.
+     */
+    public static long getLocalEpochDay(long timeInMillis, TimeZone timeZone) {
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+        return Math.floorDiv(timeInMillis + getOffsetMillis(timeInMillis, timeZone), MILLIS_IN_DAY);
+    }
+
+    /**
+     * Get the first instant of the local day containing the given time. If
+     * midnight does not exist on that day (a daylight saving gap), this is
+     * the instant the day actually starts at.
+     */
+    public static long getStartOfDay(long timeInMillis, TimeZone timeZone) {
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+        long offset = getOffsetMillis(timeInMillis, timeZone);
+        long localMidnight = Math.floorDiv(timeInMillis + offset, MILLIS_IN_DAY) * MILLIS_IN_DAY;
+
+        long candidate = localMidnight - offset;
+        long candidateOffset = getOffsetMillis(candidate, timeZone);
+        if (candidateOffset == offset) {
+            return candidate;
+        }
+
+        // an offset transition lies between midnight and the given time
+        long other = localMidnight - candidateOffset;
+        if (getOffsetMillis(other, timeZone) == candidateOffset) {
+            return other;
+        }
+        // midnight falls into a gap, the day starts with the transition
+        return Math.max(candidate, other);
+    }
+
+    /**
+     * Get the first instant of the local day following the one containing
+     * the given time.
+     */
+    public static long getStartOfNextDay(long timeInMillis, TimeZone timeZone) {
+        // local days are between 23 and 25 hours long
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+        return getStartOfDay(getStartOfDay(timeInMillis, timeZone) + MILLIS_IN_DAY + MILLIS_IN_DAY / 2, timeZone);
+    }
+
+    /**
+     * Get the day of the week of the given time, as one of the
+     * <code>java.util.Calendar.SUNDAY</code> ... <code>SATURDAY</code> constants.
+     */
+    public static int getDayOfWeek(long timeInMillis, TimeZone timeZone) {
+        // 1970-01-01 was a Thursday
+        return (int) Math.floorMod(getLocalEpochDay(timeInMillis, timeZone) + 4, 7L) + java.util.Calendar.SUNDAY;
+    }
+
+    /**
+     * Get the day of the month (1-31) of the given time.
+     */
+    public static int getDayOfMonth(long timeInMillis, TimeZone timeZone) {
+        return (int) (civilFromDays(getLocalEpochDay(timeInMillis, timeZone)) % 100L);
+    }
+
+    /**
+     * Get the month of the given time, as one of the
+     * <code>java.util.Calendar.JANUARY</code> ... <code>DECEMBER</code> constants.
+     */
+    public static int getMonth(long timeInMillis, TimeZone timeZone) {
+        return (int) (civilFromDays(getLocalEpochDay(timeInMillis, timeZone)) / 100L % 100L) - 1;
+    }
+
+    /**
+     * Get the year of the given time in UTC. Intended for coarse checks, such
+     * as giving up scheduling in the distant future, where the time zone does
+     * not matter.
+     */
+    public static int getYearUTC(long timeInMillis) {
+        return (int) (civilFromDays(Math.floorDiv(timeInMillis, MILLIS_IN_DAY)) / 10000L);
+    }
+
+    /**
+     * Convert days since 1970-01-01 to the proleptic Gregorian date, packed as
+     * <code>year * 10000 + month * 100 + day</code>.
+     */
+    private static long civilFromDays(long epochDay) {
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097L;
+        long yoe = (doe - doe / 1460L + doe / 36524L - doe / 146096L) / 365L;
+        long doy = doe - (365L * yoe + yoe / 4L - yoe / 100L);
+        long mp = (5L * doy + 2L) / 153L;
+        long day = doy - (153L * mp + 2L) / 5L + 1L;
+        long month = (mp < 10L) ? mp + 3L : mp - 9L;
+        long year = yoe + era * 400L + ((month <= 2L) ? 1L : 0L);
+        return year * 10000L + month * 100L + day;
+    }
+}
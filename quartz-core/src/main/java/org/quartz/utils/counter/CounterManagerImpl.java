@@ -17,14 +17,26 @@
 package org.quartz.utils.counter;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Timer;
+import java.util.concurrent.TimeUnit;
 
 import org.quartz.utils.counter.sampled.SampledCounter;
 import org.quartz.utils.counter.sampled.SampledCounterImpl;
+import org.quartz.utils.counter.sampled.StripedSampledCounterImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An implementation of a {@link CounterManager}.
+ * <p>
+ * Sampled counters are sampled by a single daemon tick thread, shared by all
+ * counter managers, which is started with the first sampled counter and
+ * stops once the last one is shut down. Counters created by a
+ * {@link SampledCounterImpl} config are still scheduled on the
+ * <code>Timer</code> of the manager, if it was given one.
+ * </p>
  * 
  * @author <a href="mailto:asanoujam@terracottatech.com">Abhishek Sanoujam</a>
  * @since 1.8
@@ -32,10 +44,28 @@ import org.quartz.utils.counter.sampled.SampledCounterImpl;
  */
 public class CounterManagerImpl implements CounterManager {
 
+    private static final String TICK_THREAD_NAME = "QuartzCounterSampler";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CounterManagerImpl.class);
+
+    /**
+     * The samplers of all counter managers, guarded by itself.
+     */
+    private static final List<Sampler> SAMPLERS = new ArrayList<Sampler>();
+
+    private static Thread tickThread;
+
     private Timer timer;
     private boolean shutdown;
     private List<Counter> counters = new ArrayList<Counter>();
 
+    /**
+     * Constructor for a counter manager whose sampled counters are all
+     * sampled by the shared tick thread
+     */
+    public CounterManagerImpl() {
+    }
+
     /**
      * Constructor that accepts a timer that will be used for scheduling sampled
      * counter if any is created
@@ -61,7 +91,8 @@ public class CounterManagerImpl implements CounterManager {
                     ((SampledCounter) counter).shutdown();
                 }
             }
-            if(killTimer)
+            unregisterSamplers(this, null);
+            if(killTimer && timer != null)
                 timer.cancel();
         } finally {
             shutdown = true;
@@ -79,9 +110,32 @@ public class CounterManagerImpl implements CounterManager {
             throw new NullPointerException("config cannot be null");
         }
         Counter counter = config.createCounter();
-        if (counter instanceof SampledCounterImpl) {
+        if (counter instanceof StripedSampledCounterImpl) {
+            final StripedSampledCounterImpl sampledCounter = (StripedSampledCounterImpl) counter;
+            registerSampler(new Sampler(this, counter, sampledCounter.getIntervalMillis()) {
+                @Override
+                boolean sample() {
+                    if (sampledCounter.isShutdown()) {
+                        return false;
+                    }
+                    sampledCounter.recordSample();
+                    return true;
+                }
+            });
+        } else if (counter instanceof SampledCounterImpl) {
             SampledCounterImpl sampledCounter = (SampledCounterImpl) counter;
-            timer.schedule(sampledCounter.getTimerTask(), sampledCounter.getIntervalMillis(), sampledCounter.getIntervalMillis());
+            if (timer != null) {
+                timer.schedule(sampledCounter.getTimerTask(), sampledCounter.getIntervalMillis(), sampledCounter.getIntervalMillis());
+            } else {
+                final Runnable task = sampledCounter.getTimerTask();
+                registerSampler(new Sampler(this, counter, sampledCounter.getIntervalMillis()) {
+                    @Override
+                    boolean sample() {
+                        task.run();
+                        return true;
+                    }
+                });
+            }
         }
         counters.add(counter);
         return counter;
@@ -94,7 +148,135 @@ public class CounterManagerImpl implements CounterManager {
         if (counter instanceof SampledCounter) {
             SampledCounter sc = (SampledCounter) counter;
             sc.shutdown();
+            unregisterSamplers(this, counter);
         }
     }
 
+    private static void registerSampler(Sampler sampler) {
+        synchronized (SAMPLERS) {
+            SAMPLERS.add(sampler);
+            if (tickThread == null) {
+                startTickThread();
+            } else {
+                SAMPLERS.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Start the tick thread, holding the lock of <code>SAMPLERS</code>.
+     */
+    private static void startTickThread() {
+        tickThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    tick();
+                } catch (Throwable t) {
+                    LOG.error("Sampling of counters failed.", t);
+                } finally {
+                    synchronized (SAMPLERS) {
+                        if (tickThread == Thread.currentThread()) {
+                            tickThread = null;
+                            // the failed sampler was dropped, keep sampling the others
+                            if (!SAMPLERS.isEmpty()) {
+                                startTickThread();
+                            }
+                        }
+                    }
+                }
+            }
+        }, TICK_THREAD_NAME);
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    /**
+     * Remove the samplers of the given manager, only that of the given counter
+     * if not null.
+     */
+    private static void unregisterSamplers(CounterManagerImpl manager, Counter counter) {
+        synchronized (SAMPLERS) {
+            for (Iterator<Sampler> it = SAMPLERS.iterator(); it.hasNext();) {
+                Sampler sampler = it.next();
+                if (sampler.manager == manager && (counter == null || sampler.counter == counter)) {
+                    it.remove();
+                }
+            }
+            SAMPLERS.notifyAll();
+        }
+    }
+
+    private static void tick() {
+        synchronized (SAMPLERS) {
+            while (true) {
+                if (SAMPLERS.isEmpty()) {
+                    tickThread = null;
+                    return;
+                }
+
+                long now = System.nanoTime();
+                long wait = Long.MAX_VALUE;
+                for (Iterator<Sampler> it = SAMPLERS.iterator(); it.hasNext();) {
+                    Sampler sampler = it.next();
+                    if (now - sampler.nextSample >= 0) {
+                        boolean active;
+                        try {
+                            active = sampler.sample();
+                        } catch (RuntimeException e) {
+                            // keep sampling the other counters
+                            LOG.warn("Failed to sample counter " + sampler.counter, e);
+                            active = true;
+                        } catch (Error e) {
+                            // so that the restarted tick thread does not fail on it again
+                            it.remove();
+                            throw e;
+                        }
+                        if (!active) {
+                            it.remove();
+                            continue;
+                        }
+                        sampler.nextSample += sampler.intervalNanos;
+                        if (now - sampler.nextSample >= 0) {
+                            // fell behind, e.g. after a long GC pause: skip the missed samples
+                            sampler.nextSample = now + sampler.intervalNanos;
+                        }
+                    }
+                    wait = Math.min(wait, sampler.nextSample - now);
+                }
+
+                if (wait > 0 && wait != Long.MAX_VALUE) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(SAMPLERS, wait);
+                    } catch (InterruptedException ignore) {
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples one counter at a fixed rate on the tick thread.
+     */
+    private abstract static class Sampler {
+        final CounterManagerImpl manager;
+        final Counter counter;
+        final long intervalNanos;
+        long nextSample;
+
+        Sampler(CounterManagerImpl manager, Counter counter, long intervalMillis) {
+            this.manager = manager;
+            this.counter = counter;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            this.nextSample = System.nanoTime() + intervalNanos;
+        }
+
+        /**
+         * Record a sample of the counter.
+         * 
+         * @return false if the counter was shut down, and should no longer be
+         *         sampled
+         */
+        abstract boolean sample();
+    }
+
 }
@@ -0,0 +1,249 @@
+/**
+ *  All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.quartz.utils.counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values, such as latencies in
+ * nanoseconds.
+ * <p>
+ * Like an HDR histogram, values are counted in buckets of logarithmically
+ * growing width: by default values below 128 are counted exactly, larger
+ * values in buckets no wider than 1/64th of their lower bound, so
+ * percentiles are accurate to within about 1.6% over the whole range of
+ * <code>long</code>.
+ * Recording a value takes an atomic increment of its bucket and an atomic
+ * addition to the sum, without any lock. The minimum and maximum are kept
+ * exactly, so that they are not rounded to the bounds of their buckets.
+ * </p>
+ * <p>
+ * Reading a {@link Snapshot} or resetting while values are recorded is not
+ * atomic: a value recorded meanwhile may be missed or counted twice.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    /**
+     * The default number of bits of precision, for buckets no wider than
+     * 1/64th of their lower bound.
+     */
+    public static final int DEFAULT_PRECISION = 7;
+
+    private final int precision;
+
+    private final AtomicLongArray counts;
+
+    private final AtomicLong sum = new AtomicLong();
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Create a histogram whose buckets are no wider than
+     * 1/2<sup>precision - 1</sup>th of their lower bound. Lowering the
+     * precision shrinks the histogram, e.g. a precision of 3 takes 248
+     * buckets instead of 3712, for values accurate to within 25%.
+     *
+     * @param precision between 2 and 16
+     */
+    public LatencyHistogram(int precision) {
+        if (precision < 2 || precision > 16) {
+            throw new IllegalArgumentException("Precision (" + precision + ") must be between 2 and 16");
+        }
+        this.precision = precision;
+        this.counts = new AtomicLongArray(bucketCount(precision));
+    }
+
+    /**
+     * Record a value, negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(value, precision));
+        sum.addAndGet(value);
+
+        long currentMin = min.get();
+        while (value < currentMin && !min.compareAndSet(currentMin, value)) {
+            currentMin = min.get();
+        }
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Clear the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0L);
+        }
+        sum.set(0L);
+        min.set(Long.MAX_VALUE);
+        max.set(0L);
+    }
+
+    /**
+     * Get a copy of the recorded values, from which percentiles can be read.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(precision, copy, count, sum.get(), min.get(), max.get());
+    }
+
+    static int bucketCount(int precision) {
+        return (1 << precision) + (Long.SIZE - 1 - precision) * (1 << (precision - 1));
+    }
+
+    static int bucketIndex(long value) {
+        return bucketIndex(value, DEFAULT_PRECISION);
+    }
+
+    static int bucketIndex(long value, int precision) {
+        int subBucketCount = 1 << precision;
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        int subBucketHalfCount = subBucketCount >> 1;
+        // keep the precision - 1 bits following the highest one bit
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (precision - 1);
+        int mantissa = (int) (value >>> shift);
+        return subBucketCount + (shift - 1) * subBucketHalfCount + (mantissa - subBucketHalfCount);
+    }
+
+    static long lowestValueInBucket(int index) {
+        return lowestValueInBucket(index, DEFAULT_PRECISION);
+    }
+
+    static long lowestValueInBucket(int index, int precision) {
+        int subBucketCount = 1 << precision;
+        if (index < subBucketCount) {
+            return index;
+        }
+        int subBucketHalfCount = subBucketCount >> 1;
+        int shift = (index - subBucketCount) / subBucketHalfCount + 1;
+        long mantissa = (index - subBucketCount) % subBucketHalfCount + subBucketHalfCount;
+        return mantissa << shift;
+    }
+
+    static long highestValueInBucket(int index) {
+        return highestValueInBucket(index, DEFAULT_PRECISION);
+    }
+
+    static long highestValueInBucket(int index, int precision) {
+        int subBucketCount = 1 << precision;
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index - subBucketCount) / (subBucketCount >> 1) + 1;
+        return lowestValueInBucket(index, precision) + (1L << shift) - 1;
+    }
+
+    /**
+     * The values of a {@link LatencyHistogram} at some point in time.
+     */
+    public static class Snapshot {
+
+        private final int precision;
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long min;
+
+        private final long max;
+
+        Snapshot(int precision, long[] counts, long count, long sum, long min, long max) {
+            this.precision = precision;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return count == 0 ? 0 : max;
+        }
+
+        public long getMin() {
+            if (count == 0) {
+                return 0;
+            }
+            if (min != Long.MAX_VALUE) {
+                return min;
+            }
+            // a value counted while the snapshot was taken, but not yet compared
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return lowestValueInBucket(i, precision);
+                }
+            }
+            return 0;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Get the value below which the given percentage of the values fall,
+         * as the highest value of the bucket of that value.
+         *
+         * @param percentile between 0 and 100
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0.0), 100.0) / 100.0 * count);
+            if (rank < 1) {
+                rank = 1;
+            }
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueInBucket(i, precision), getMax());
+                }
+            }
+            return getMax();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ *  All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.quartz.utils.counter;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter whose value is spread over several cells, in the manner of
+ * <code>java.util.concurrent.atomic.LongAdder</code>, so that threads
+ * incrementing it concurrently mostly update different cache lines instead
+ * of contending on a single <code>AtomicLong</code>.
+ * <p>
+ * Each thread adds to the cell picked by its id, so {@link #add(long)} is a
+ * single uncontended atomic addition. Reading the value sums all of the
+ * cells: the methods of {@link Counter} that return the updated value are
+ * therefore more expensive than {@link #add(long)}, and under concurrent
+ * updates return a value that may already include other threads' updates.
+ * {@link #getAndSet(long)} swaps each cell out atomically, so no concurrent
+ * update is lost when a counter is read and reset.
+ * </p>
+ * 
+ * @see CounterImpl
+ */
+public class StripedCounterImpl implements Counter, Serializable {
+
+    private static final long serialVersionUID = 3102536916476402613L;
+
+    /**
+     * The distance, in longs, between two cells, so that each one sits on its
+     * own pair of cache lines.
+     */
+    private static final int CELL_PADDING = 16;
+
+    private static final int CELL_COUNT = cellCount(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(CELL_COUNT * CELL_PADDING);
+
+    /**
+     * Default Constructor
+     */
+    public StripedCounterImpl() {
+        this(0L);
+    }
+
+    /**
+     * Constructor with initial value
+     * 
+     * @param initialValue
+     */
+    public StripedCounterImpl(long initialValue) {
+        cells.set(0, initialValue);
+    }
+
+    static int cellCount(int processors) {
+        int count = 1;
+        while (count < processors * 2 && count < 64) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    private int cellIndex() {
+        long id = Thread.currentThread().getId();
+        // spread consecutive thread ids, such as those of a thread pool's workers
+        int hash = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return (hash & (CELL_COUNT - 1)) * CELL_PADDING;
+    }
+
+    /**
+     * Add the given amount to the counter, without reading its value: the
+     * cheapest way to update it.
+     * 
+     * @param amount
+     */
+    public void add(long amount) {
+        cells.getAndAdd(cellIndex(), amount);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long increment() {
+        add(1L);
+        return getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long decrement() {
+        add(-1L);
+        return getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getAndSet(long newValue) {
+        long oldValue = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            oldValue += cells.getAndSet(i * CELL_PADDING, 0L);
+        }
+        if (newValue != 0) {
+            cells.getAndAdd(0, newValue);
+        }
+        return oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getValue() {
+        long value = 0;
+        for (int i = 0; i < CELL_COUNT; i++) {
+            value += cells.get(i * CELL_PADDING);
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long increment(long amount) {
+        add(amount);
+        return getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long decrement(long amount) {
+        add(amount * -1);
+        return getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setValue(long newValue) {
+        getAndSet(newValue);
+    }
+
+}
@@ -84,10 +84,13 @@ public class SampledCounterConfig extends CounterConfig {
     }
 
     /**
-     * {@inheritDoc}
+     * Creates and returns a {@link StripedSampledCounterImpl}, to be sampled
+     * by the tick thread of a <code>CounterManagerImpl</code>
+     * 
+     * @return The counter created by this config
      */
     @Override
     public Counter createCounter() {
-        return new SampledCounterImpl(this);
+        return new StripedSampledCounterImpl(this);
     }
 }
\ No newline at end of file
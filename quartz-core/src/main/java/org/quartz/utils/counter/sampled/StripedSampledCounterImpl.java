@@ -0,0 +1,204 @@
+/**
+ *  All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.quartz.utils.counter.sampled;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.quartz.utils.counter.StripedCounterImpl;
+
+/**
+ * A {@link SampledCounter} built on a {@link StripedCounterImpl}, keeping its
+ * history of samples in a ring buffer of primitive longs.
+ * <p>
+ * Unlike {@link SampledCounterImpl}, it has no <code>TimerTask</code> of its
+ * own: it is sampled by the shared tick thread of
+ * <code>{@link org.quartz.utils.counter.CounterManagerImpl}</code>, and
+ * recording a sample allocates nothing. The history is written by that single
+ * thread under a sequence lock, so readers never block it: they copy the
+ * history and retry if a sample was recorded meanwhile.
+ * </p>
+ * 
+ * @see SampledCounterConfig
+ */
+public class StripedSampledCounterImpl extends StripedCounterImpl implements SampledCounter {
+
+    private static final long serialVersionUID = -7236012917470436614L;
+
+    private static final int MILLIS_PER_SEC = 1000;
+
+    private final int historySize;
+
+    private final AtomicLongArray timestamps;
+
+    private final AtomicLongArray values;
+
+    /**
+     * Odd while a sample is being recorded, and twice the number of samples
+     * recorded otherwise.
+     */
+    private volatile long version;
+
+    /**
+     * Should the counter reset on each sample?
+     */
+    protected final boolean resetOnSample;
+
+    private final long intervalMillis;
+
+    private volatile boolean shutdown;
+
+    /**
+     * Constructor accepting a {@link SampledCounterConfig}
+     * 
+     * @param config
+     */
+    public StripedSampledCounterImpl(SampledCounterConfig config) {
+        super(config.getInitialValue());
+
+        this.intervalMillis = config.getIntervalSecs() * MILLIS_PER_SEC;
+        this.historySize = config.getHistorySize();
+        this.timestamps = new AtomicLongArray(historySize);
+        this.values = new AtomicLongArray(historySize);
+        this.resetOnSample = config.isResetOnSample();
+
+        recordSample();
+    }
+
+    /**
+     * Record the current value of the counter in its history, resetting it
+     * if so configured. Called by the tick thread once per interval.
+     */
+    public synchronized void recordSample() {
+        final long sample;
+        if (resetOnSample) {
+            sample = getAndReset();
+        } else {
+            sample = getValue();
+        }
+
+        long current = version;
+        int slot = (int) ((current >>> 1) % historySize);
+        version = current + 1;
+        timestamps.set(slot, System.currentTimeMillis());
+        values.set(slot, sample);
+        version = current + 2;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public TimeStampedCounterValue getMostRecentSample() {
+        while (true) {
+            long current = version;
+            if ((current & 1) == 0) {
+                if (current == 0) {
+                    return null;
+                }
+                int slot = (int) (((current >>> 1) - 1) % historySize);
+                long timestamp = timestamps.get(slot);
+                long value = values.get(slot);
+                if (version == current) {
+                    return new TimeStampedCounterValue(timestamp, value);
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Returns the value of the most recent sample, without allocating.
+     * 
+     * @return the most recent sampled value, or 0 if none was recorded yet
+     */
+    public long getMostRecentSampleValue() {
+        while (true) {
+            long current = version;
+            if ((current & 1) == 0) {
+                if (current == 0) {
+                    return 0L;
+                }
+                long value = values.get((int) (((current >>> 1) - 1) % historySize));
+                if (version == current) {
+                    return value;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The most recent sample comes first.
+     * </p>
+     */
+    public TimeStampedCounterValue[] getAllSampleValues() {
+        while (true) {
+            long current = version;
+            if ((current & 1) == 0) {
+                long recorded = current >>> 1;
+                int count = (int) Math.min(recorded, historySize);
+                long[] sampleTimestamps = new long[count];
+                long[] sampleValues = new long[count];
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) ((recorded - 1 - i) % historySize);
+                    sampleTimestamps[i] = timestamps.get(slot);
+                    sampleValues[i] = values.get(slot);
+                }
+                if (version == current) {
+                    TimeStampedCounterValue[] result = new TimeStampedCounterValue[count];
+                    for (int i = 0; i < count; i++) {
+                        result[i] = new TimeStampedCounterValue(sampleTimestamps[i], sampleValues[i]);
+                    }
+                    return result;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Returns true once this counter was shut down, and should no longer be
+     * sampled.
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Returns the sampling interval in millis
+     * 
+     * @return the sampling interval in millis
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getAndReset() {
+        return getAndSet(0L);
+    }
+}
@@ -22,6 +22,16 @@ create table qrtz_job_details (
 primary key (sched_name,job_name,job_group)
 );
 
+# only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+create table qrtz_job_data_entries (
+    sched_name varchar(120) not null,
+	job_name varchar(200) not null,
+	job_group varchar(200) not null,
+	entry_key varchar(200) not null,
+	entry_value long varbinary,
+primary key (sched_name,job_name,job_group,entry_key)
+);
+
 create table qrtz_triggers(
     sched_name varchar(120) not null,
 	trigger_name varchar(200) not null,
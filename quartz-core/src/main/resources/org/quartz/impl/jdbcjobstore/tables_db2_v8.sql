@@ -16,6 +16,7 @@ DROP TABLE QRTZ_SIMPLE_TRIGGERS;
 DROP TABLE QRTZ_SIMPROP_TRIGGERS;
 DROP TABLE QRTZ_CRON_TRIGGERS;
 DROP TABLE QRTZ_TRIGGERS;
+DROP TABLE QRTZ_JOB_DATA_ENTRIES;
 DROP TABLE QRTZ_JOB_DETAILS;
 DROP TABLE QRTZ_CALENDARS;
 DROP TABLE QRTZ_BLOB_TRIGGERS;
@@ -34,6 +35,16 @@ job_data blob(2000),
 primary key (sched_name,job_name,job_group)
 );
 
+# only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+create table qrtz_job_data_entries(
+sched_name varchar(120) not null,
+job_name varchar(80) not null,
+job_group varchar(80) not null,
+entry_key varchar(200) not null,
+entry_value blob(2000),
+primary key (sched_name,job_name,job_group,entry_key)
+);
+
 create table qrtz_triggers(
 sched_name varchar(120) not null,
 trigger_name varchar(80) not null,
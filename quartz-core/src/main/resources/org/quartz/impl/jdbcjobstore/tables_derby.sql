@@ -36,6 +36,7 @@
 -- drop table qrtz_cron_triggers;
 -- drop table qrtz_blob_triggers;
 -- drop table qrtz_triggers;
+-- drop table qrtz_job_data_entries;
 -- drop table qrtz_job_details;
 -- drop table qrtz_calendars;
 
@@ -53,6 +54,16 @@ job_data blob,
 primary key (sched_name,job_name,job_group)
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+create table qrtz_job_data_entries (
+sched_name varchar(120) not null,
+job_name varchar(200) not null,
+job_group varchar(200) not null,
+entry_key varchar(200) not null,
+entry_value blob,
+primary key (sched_name,job_name,job_group,entry_key)
+);
+
 create table qrtz_triggers(
 sched_name varchar(120) not null,
 trigger_name varchar(200) not null,
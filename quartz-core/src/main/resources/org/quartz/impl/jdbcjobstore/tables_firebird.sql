@@ -13,6 +13,7 @@ DROP TABLE QRTZ_SIMPROP_TRIGGERS;
 DROP TABLE QRTZ_CRON_TRIGGERS;
 DROP TABLE QRTZ_BLOB_TRIGGERS;
 DROP TABLE QRTZ_TRIGGERS;
+DROP TABLE QRTZ_JOB_DATA_ENTRIES;
 DROP TABLE QRTZ_JOB_DETAILS;
 DROP TABLE QRTZ_CALENDARS;
 
@@ -31,6 +32,16 @@ CREATE TABLE QRTZ_JOB_DETAILS (
     CONSTRAINT PK_QRTZ_JOB_DETAILS PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE QRTZ_JOB_DATA_ENTRIES (
+    SCHED_NAME VARCHAR(120) NOT NULL,
+    JOB_NAME  VARCHAR(60) NOT NULL,
+    JOB_GROUP VARCHAR(60) NOT NULL,
+    ENTRY_KEY VARCHAR(200) NOT NULL,
+    ENTRY_VALUE BLOB,
+    CONSTRAINT PK_QRTZ_JOB_DATA_ENTRIES PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE QRTZ_TRIGGERS (
     SCHED_NAME VARCHAR(120) NOT NULL,
     TRIGGER_NAME VARCHAR(60) NOT NULL,
@@ -68,6 +68,15 @@ CREATE TABLE QRTZ_JOB_DETAILS (
   JOB_DATA IMAGE NULL
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE QRTZ_JOB_DATA_ENTRIES (
+  SCHED_NAME VARCHAR(120) NOT NULL,
+  JOB_NAME VARCHAR (200)  NOT NULL ,
+  JOB_GROUP VARCHAR (200)  NOT NULL ,
+  ENTRY_KEY VARCHAR (200)  NOT NULL ,
+  ENTRY_VALUE IMAGE NULL
+);
+
 CREATE TABLE QRTZ_SIMPLE_TRIGGERS (
   SCHED_NAME VARCHAR(120) NOT NULL,
   TRIGGER_NAME VARCHAR (200)  NOT NULL ,
@@ -172,6 +181,15 @@ ALTER TABLE QRTZ_JOB_DETAILS  ADD
     JOB_GROUP
   );
 
+ALTER TABLE QRTZ_JOB_DATA_ENTRIES  ADD
+  CONSTRAINT PK_QRTZ_JOB_DATA_ENTRIES PRIMARY KEY  
+  (
+    SCHED_NAME,
+    JOB_NAME,
+    JOB_GROUP,
+    ENTRY_KEY
+  );
+
 ALTER TABLE QRTZ_SIMPLE_TRIGGERS  ADD
   CONSTRAINT PK_QRTZ_SIMPLE_TRIGGERS PRIMARY KEY  
   (
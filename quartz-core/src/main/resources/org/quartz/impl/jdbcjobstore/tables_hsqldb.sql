@@ -13,6 +13,7 @@ DROP TABLE qrtz_cron_triggers IF EXISTS;
 DROP TABLE qrtz_simple_triggers IF EXISTS;
 DROP TABLE qrtz_simprop_triggers IF EXISTS;
 DROP TABLE qrtz_triggers IF EXISTS;
+DROP TABLE qrtz_job_data_entries IF EXISTS;
 DROP TABLE qrtz_job_details IF EXISTS;
 
 CREATE TABLE qrtz_job_details
@@ -30,6 +31,17 @@ JOB_DATA BLOB NULL,
 PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE qrtz_job_data_entries
+(
+SCHED_NAME VARCHAR(120) NOT NULL,
+JOB_NAME VARCHAR(200) NOT NULL,
+JOB_GROUP VARCHAR(200) NOT NULL,
+ENTRY_KEY VARCHAR(200) NOT NULL,
+ENTRY_VALUE BLOB NULL,
+PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE qrtz_triggers
 (
 SCHED_NAME VARCHAR(120) NOT NULL,
@@ -24,6 +24,17 @@ JOB_DATA OTHER NULL,
 PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE qrtz_job_data_entries
+(
+SCHED_NAME VARCHAR(120) NOT NULL,
+JOB_NAME LONGVARCHAR(80) NOT NULL,
+JOB_GROUP LONGVARCHAR(80) NOT NULL,
+ENTRY_KEY LONGVARCHAR(200) NOT NULL,
+ENTRY_VALUE OTHER NULL,
+PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE qrtz_triggers
 (
 SCHED_NAME VARCHAR(120) NOT NULL,
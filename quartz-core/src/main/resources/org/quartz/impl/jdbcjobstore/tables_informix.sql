@@ -104,6 +104,19 @@ ALTER TABLE qjob_details
 ADD CONSTRAINT PRIMARY KEY (SCHED_NAME,JOB_NAME, JOB_GROUP);
 
 
+{ only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString }
+CREATE TABLE qjob_data_entries (
+SCHED_NAME VARCHAR(120) NOT NULL,
+JOB_NAME varchar(80) NOT NULL,
+JOB_GROUP varchar(80) NOT NULL,
+ENTRY_KEY varchar(200) NOT NULL,
+ENTRY_VALUE byte in table
+);
+
+ALTER TABLE qjob_data_entries
+ADD CONSTRAINT PRIMARY KEY (SCHED_NAME,JOB_NAME, JOB_GROUP, ENTRY_KEY);
+
+
 CREATE TABLE qsimple_triggers (
 SCHED_NAME VARCHAR(120) NOT NULL,
 TRIGGER_NAME varchar(80) NOT NULL,
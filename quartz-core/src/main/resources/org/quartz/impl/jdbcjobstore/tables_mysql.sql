@@ -16,6 +16,7 @@ DROP TABLE IF EXISTS QRTZ_SIMPROP_TRIGGERS;
 DROP TABLE IF EXISTS QRTZ_CRON_TRIGGERS;
 DROP TABLE IF EXISTS QRTZ_BLOB_TRIGGERS;
 DROP TABLE IF EXISTS QRTZ_TRIGGERS;
+DROP TABLE IF EXISTS QRTZ_JOB_DATA_ENTRIES;
 DROP TABLE IF EXISTS QRTZ_JOB_DETAILS;
 DROP TABLE IF EXISTS QRTZ_CALENDARS;
 
@@ -35,6 +36,17 @@ CREATE TABLE QRTZ_JOB_DETAILS
     PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+-- only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE QRTZ_JOB_DATA_ENTRIES
+  (
+    SCHED_NAME VARCHAR(120) NOT NULL,
+    JOB_NAME  VARCHAR(200) NOT NULL,
+    JOB_GROUP VARCHAR(200) NOT NULL,
+    ENTRY_KEY VARCHAR(200) NOT NULL,
+    ENTRY_VALUE BLOB NULL,
+    PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE QRTZ_TRIGGERS
   (
     SCHED_NAME VARCHAR(120) NOT NULL,
@@ -13,6 +13,7 @@ delete from qrtz_simprop_triggers;
 delete from qrtz_cron_triggers;
 delete from qrtz_blob_triggers;
 delete from qrtz_triggers;
+delete from qrtz_job_data_entries;
 delete from qrtz_job_details;
 delete from qrtz_calendars;
 delete from qrtz_paused_trigger_grps;
@@ -26,6 +27,7 @@ drop table qrtz_cron_triggers;
 drop table qrtz_simple_triggers;
 drop table qrtz_simprop_triggers;
 drop table qrtz_triggers;
+drop table qrtz_job_data_entries;
 drop table qrtz_job_details;
 drop table qrtz_paused_trigger_grps;
 drop table qrtz_locks;
@@ -47,6 +49,17 @@ CREATE TABLE qrtz_job_details
     PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+# only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE qrtz_job_data_entries
+  (
+    SCHED_NAME VARCHAR(120) NOT NULL,
+    JOB_NAME  VARCHAR2(80) NOT NULL,
+    JOB_GROUP VARCHAR2(80) NOT NULL,
+    ENTRY_KEY VARCHAR2(200) NOT NULL,
+    ENTRY_VALUE BLOB(4K) NULL,
+    PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE qrtz_triggers
   (
     SCHED_NAME VARCHAR(120) NOT NULL,
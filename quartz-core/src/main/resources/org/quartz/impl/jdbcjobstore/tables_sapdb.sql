@@ -20,6 +20,17 @@ CREATE TABLE QRTZ_JOB_DETAILS
     PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP)
 );
 
+# only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE QRTZ_JOB_DATA_ENTRIES
+(
+    SCHED_NAME VARCHAR(120) NOT NULL,
+    JOB_NAME  VARCHAR(200) NOT NULL,
+    JOB_GROUP VARCHAR(200) NOT NULL,
+    ENTRY_KEY VARCHAR(200) NOT NULL,
+    ENTRY_VALUE LONG BYTE NULL,
+    PRIMARY KEY (SCHED_NAME,JOB_NAME,JOB_GROUP,ENTRY_KEY)
+);
+
 CREATE TABLE QRTZ_TRIGGERS
 (
     SCHED_NAME VARCHAR(120) NOT NULL,
@@ -75,6 +75,10 @@ IF EXISTS (SELECT * FROM dbo.sysobjects WHERE id = OBJECT_ID(N'[dbo].[QRTZ_LOCKS
 DROP TABLE [dbo].[QRTZ_LOCKS]
 GO
 
+IF EXISTS (SELECT * FROM dbo.sysobjects WHERE id = OBJECT_ID(N'[dbo].[QRTZ_JOB_DATA_ENTRIES]') AND OBJECTPROPERTY(id, N'ISUSERTABLE') = 1)
+DROP TABLE [dbo].[QRTZ_JOB_DATA_ENTRIES]
+GO
+
 IF EXISTS (SELECT * FROM dbo.sysobjects WHERE id = OBJECT_ID(N'[dbo].[QRTZ_JOB_DETAILS]') AND OBJECTPROPERTY(id, N'ISUSERTABLE') = 1)
 DROP TABLE [dbo].[QRTZ_JOB_DETAILS]
 GO
@@ -158,6 +162,16 @@ CREATE TABLE [dbo].[QRTZ_JOB_DETAILS] (
 ) ON [PRIMARY]
 GO
 
+--# only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString
+CREATE TABLE [dbo].[QRTZ_JOB_DATA_ENTRIES] (
+  [SCHED_NAME] [VARCHAR] (120)  NOT NULL ,
+  [JOB_NAME] [VARCHAR] (200)  NOT NULL ,
+  [JOB_GROUP] [VARCHAR] (200)  NOT NULL ,
+  [ENTRY_KEY] [VARCHAR] (200)  NOT NULL ,
+  [ENTRY_VALUE] [IMAGE] NULL
+) ON [PRIMARY]
+GO
+
 CREATE TABLE [dbo].[QRTZ_SIMPLE_TRIGGERS] (
   [SCHED_NAME] [VARCHAR] (120)  NOT NULL ,
   [TRIGGER_NAME] [VARCHAR] (200)  NOT NULL ,
@@ -272,6 +286,16 @@ ALTER TABLE [dbo].[QRTZ_JOB_DETAILS] WITH NOCHECK ADD
   )  ON [PRIMARY]
 GO
 
+ALTER TABLE [dbo].[QRTZ_JOB_DATA_ENTRIES] WITH NOCHECK ADD
+  CONSTRAINT [PK_QRTZ_JOB_DATA_ENTRIES] PRIMARY KEY  CLUSTERED
+  (
+    [SCHED_NAME],
+    [JOB_NAME],
+    [JOB_GROUP],
+    [ENTRY_KEY]
+  )  ON [PRIMARY]
+GO
+
 ALTER TABLE [dbo].[QRTZ_SIMPLE_TRIGGERS] WITH NOCHECK ADD
   CONSTRAINT [PK_QRTZ_SIMPLE_TRIGGERS] PRIMARY KEY  CLUSTERED
   (
@@ -43,6 +43,9 @@ go
 IF OBJECT_ID('QRTZ_TRIGGERS') IS NOT NULL 
 delete from QRTZ_TRIGGERS
 go
+IF OBJECT_ID('QRTZ_JOB_DATA_ENTRIES') IS NOT NULL 
+delete from QRTZ_JOB_DATA_ENTRIES
+go
 IF OBJECT_ID('QRTZ_JOB_DETAILS') IS NOT NULL 
 delete from QRTZ_JOB_DETAILS
 go
@@ -96,6 +99,8 @@ drop table QRTZ_BLOB_TRIGGERS
 go
 drop table QRTZ_TRIGGERS
 go
+drop table QRTZ_JOB_DATA_ENTRIES
+go
 drop table QRTZ_JOB_DETAILS
 go
 drop table QRTZ_CALENDARS
@@ -173,6 +178,16 @@ JOB_DATA image null
 )
 go
 
+/* only used with the persistJobDataDeltas setting of org.quartz.jobStore.driverDelegateInitString */
+create table QRTZ_JOB_DATA_ENTRIES (
+SCHED_NAME varchar(120) not null,
+JOB_NAME varchar(200) not null,
+JOB_GROUP varchar(200) not null,
+ENTRY_KEY varchar(200) not null,
+ENTRY_VALUE image null
+)
+go
+
 create table QRTZ_SIMPLE_TRIGGERS (
 SCHED_NAME varchar(120) not null,
 TRIGGER_NAME varchar(200) not null,
@@ -262,6 +277,10 @@ alter table QRTZ_JOB_DETAILS
 add constraint PK_qrtz_job_details primary key clustered (SCHED_NAME,JOB_NAME, JOB_GROUP)
 go
 
+alter table QRTZ_JOB_DATA_ENTRIES
+add constraint PK_qrtz_job_data_entries primary key clustered (SCHED_NAME,JOB_NAME, JOB_GROUP, ENTRY_KEY)
+go
+
 alter table QRTZ_SIMPLE_TRIGGERS
 add constraint PK_qrtz_simple_triggers primary key clustered (SCHED_NAME,TRIGGER_NAME, TRIGGER_GROUP)
 go
@@ -15,8 +15,12 @@
  */
 package org.quartz;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import junit.framework.Assert;
@@ -25,10 +29,12 @@ import junit.framework.TestCase;
 import org.hamcrest.collection.IsIterableContainingInOrder;
 import org.quartz.Trigger.TriggerState;
 import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.calendar.HolidayCalendar;
 import org.quartz.impl.jdbcjobstore.JobStoreSupport;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.simpl.RAMJobStore;
 import org.quartz.spi.*;
 
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
@@ -447,6 +453,180 @@ public abstract class AbstractJobStoreTest extends TestCase {
 
     }
 
+    public void testRetrieveJobPage() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            this.fJobStore.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job" + i, "pageA").storeDurably().build(), false);
+        }
+        for (int i = 0; i < 3; i++) {
+            this.fJobStore.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job" + i, "pageB").storeDurably().build(), false);
+        }
+
+        GroupMatcher<JobKey> matcher = GroupMatcher.jobGroupStartsWith("page");
+        ResultPage<JobDetail> page = this.fJobStore.retrieveJobPage(matcher, null, 3);
+        assertEquals(3, page.getItems().size());
+        assertEquals(new JobKey("job0", "pageA"), page.getItems().get(0).getKey());
+        assertEquals(new JobKey("job2", "pageA"), page.getItems().get(2).getKey());
+        assertTrue(page.hasNextPage());
+
+        page = this.fJobStore.retrieveJobPage(matcher, page.getNextPageToken(), 3);
+        assertEquals(new JobKey("job3", "pageA"), page.getItems().get(0).getKey());
+        assertEquals(new JobKey("job0", "pageB"), page.getItems().get(2).getKey());
+
+        // a job removed after the page was returned doesn't disturb the following pages
+        this.fJobStore.removeJob(new JobKey("job0", "pageB"));
+        page = this.fJobStore.retrieveJobPage(matcher, page.getNextPageToken(), 3);
+        assertEquals(2, page.getItems().size());
+        assertEquals(new JobKey("job1", "pageB"), page.getItems().get(0).getKey());
+        assertFalse(page.hasNextPage());
+
+        page = this.fJobStore.retrieveJobPage(GroupMatcher.jobGroupEquals("pageB"), null, 2);
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.hasNextPage());
+    }
+
+    public void testRetrieveTriggerPage() throws Exception {
+        long baseFireTime = DateBuilder.evenMinuteDateAfterNow().getTime() + 60000L;
+        for (int i = 0; i < 6; i++) {
+            OperableTrigger trigger = new SimpleTriggerImpl("trigger" + i, "pageGroup",
+                    this.fJobDetail.getName(), this.fJobDetail.getGroup(),
+                    new Date(baseFireTime + i * 1000L), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            this.fJobStore.storeTrigger(trigger, false);
+        }
+        this.fJobStore.pauseTrigger(new TriggerKey("trigger1", "pageGroup"));
+
+        TriggerQuery query = new TriggerQuery()
+            .withMatcher(GroupMatcher.triggerGroupEquals("pageGroup"))
+            .withStates(TriggerState.NORMAL)
+            .withNextFireTimeBetween(new Date(baseFireTime + 1000L), new Date(baseFireTime + 5000L))
+            .withPageSize(2);
+        ResultPage<OperableTrigger> page = this.fJobStore.retrieveTriggerPage(query);
+        assertEquals(2, page.getItems().size());
+        assertEquals(new TriggerKey("trigger2", "pageGroup"), page.getItems().get(0).getKey());
+        assertEquals(new TriggerKey("trigger3", "pageGroup"), page.getItems().get(1).getKey());
+        assertTrue(page.hasNextPage());
+
+        page = this.fJobStore.retrieveTriggerPage(query.withPageToken(page.getNextPageToken()));
+        assertEquals(1, page.getItems().size());
+        assertEquals(new TriggerKey("trigger4", "pageGroup"), page.getItems().get(0).getKey());
+        assertFalse(page.hasNextPage());
+
+        page = this.fJobStore.retrieveTriggerPage(new TriggerQuery().withStates(TriggerState.PAUSED));
+        assertEquals(1, page.getItems().size());
+        assertEquals(new TriggerKey("trigger1", "pageGroup"), page.getItems().get(0).getKey());
+
+        page = this.fJobStore.retrieveTriggerPage(new TriggerQuery().withMatcher(GroupMatcher.triggerGroupContains("age")));
+        assertEquals(6, page.getItems().size());
+        assertFalse(page.hasNextPage());
+    }
+
+    public void testRetrieveTriggerPageByNextFireTime() throws Exception {
+        long baseFireTime = DateBuilder.evenMinuteDateAfterNow().getTime() + 60000L;
+        // trigger4 fires first, trigger0 and trigger1 fire together last
+        for (int i = 0; i < 5; i++) {
+            OperableTrigger trigger = new SimpleTriggerImpl("trigger" + i, "fireTimeGroup",
+                    this.fJobDetail.getName(), this.fJobDetail.getGroup(),
+                    new Date(baseFireTime + Math.min(4 - i, 3) * 1000L), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            this.fJobStore.storeTrigger(trigger, false);
+        }
+        this.fJobStore.pauseTrigger(new TriggerKey("trigger2", "fireTimeGroup"));
+        List<OperableTrigger> acquired = this.fJobStore.acquireNextTriggers(baseFireTime, 1, 0L);
+        assertEquals(new TriggerKey("trigger4", "fireTimeGroup"), acquired.get(0).getKey());
+
+        TriggerQuery query = new TriggerQuery()
+            .withNextFireTimeBetween(new Date(baseFireTime), new Date(baseFireTime + 60000L))
+            .orderByNextFireTime()
+            .withPageSize(2);
+        ResultPage<OperableTrigger> page = this.fJobStore.retrieveTriggerPage(query);
+        assertEquals(new TriggerKey("trigger4", "fireTimeGroup"), page.getItems().get(0).getKey());
+        assertEquals(new TriggerKey("trigger3", "fireTimeGroup"), page.getItems().get(1).getKey());
+
+        page = this.fJobStore.retrieveTriggerPage(query.withPageToken(page.getNextPageToken()));
+        assertEquals(new TriggerKey("trigger2", "fireTimeGroup"), page.getItems().get(0).getKey());
+        assertEquals(new TriggerKey("trigger0", "fireTimeGroup"), page.getItems().get(1).getKey());
+
+        page = this.fJobStore.retrieveTriggerPage(query.withPageToken(page.getNextPageToken()));
+        assertEquals(1, page.getItems().size());
+        assertEquals(new TriggerKey("trigger1", "fireTimeGroup"), page.getItems().get(0).getKey());
+        assertFalse(page.hasNextPage());
+
+        page = this.fJobStore.retrieveTriggerPage(new TriggerQuery()
+            .withStates(TriggerState.NORMAL)
+            .withNextFireTimeBetween(null, new Date(baseFireTime + 3000L))
+            .orderByNextFireTime());
+        assertEquals(2, page.getItems().size());
+        assertEquals(new TriggerKey("trigger4", "fireTimeGroup"), page.getItems().get(0).getKey());
+        assertEquals(new TriggerKey("trigger3", "fireTimeGroup"), page.getItems().get(1).getKey());
+
+        page = this.fJobStore.retrieveTriggerPage(new TriggerQuery()
+            .withStates(TriggerState.PAUSED)
+            .orderByNextFireTime());
+        assertEquals(1, page.getItems().size());
+        assertEquals(new TriggerKey("trigger2", "fireTimeGroup"), page.getItems().get(0).getKey());
+    }
+
+    public void testRetrieveJobsAndTriggers() throws Exception {
+        List<JobKey> jobKeys = new ArrayList<JobKey>();
+        for (int i = 0; i < 5; i++) {
+            JobDetail job = JobBuilder.newJob(MyJob.class).withIdentity("job" + i, "bulkGroup")
+                .usingJobData("index", i).storeDurably().build();
+            this.fJobStore.storeJob(job, false);
+            jobKeys.add(job.getKey());
+        }
+        jobKeys.add(new JobKey("missing", "bulkGroup"));
+        Collections.reverse(jobKeys);
+
+        Map<JobKey, JobDetail> jobs = this.fJobStore.retrieveJobs(jobKeys);
+        assertEquals(5, jobs.size());
+        assertEquals(new JobKey("job4", "bulkGroup"), jobs.keySet().iterator().next());
+        assertEquals(2, jobs.get(new JobKey("job2", "bulkGroup")).getJobDataMap().getInt("index"));
+
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>();
+        for (int i = 0; i < 3; i++) {
+            List<Trigger> triggers = new ArrayList<Trigger>();
+            triggers.add(TriggerBuilder.newTrigger().withIdentity("simple" + i, "bulkGroup")
+                .forJob(this.fJobDetail).startAt(new Date(System.currentTimeMillis() + 60000L))
+                .withSchedule(SimpleScheduleBuilder.repeatSecondlyForever(i + 1)).build());
+            triggers.add(TriggerBuilder.newTrigger().withIdentity("cron" + i, "bulkGroup")
+                .forJob(this.fJobDetail).withSchedule(CronScheduleBuilder.cronSchedule("0 0 " + i + " * * ?")).build());
+            triggers.add(TriggerBuilder.newTrigger().withIdentity("calendar" + i, "bulkGroup")
+                .forJob(this.fJobDetail).usingJobData("index", i)
+                .withSchedule(CalendarIntervalScheduleBuilder.calendarIntervalSchedule().withIntervalInDays(i + 1)).build());
+            for (Trigger trigger : triggers) {
+                ((OperableTrigger) trigger).computeFirstFireTime(null);
+                this.fJobStore.storeTrigger((OperableTrigger) trigger, false);
+                triggerKeys.add(trigger.getKey());
+            }
+        }
+        triggerKeys.add(new TriggerKey("missing", "bulkGroup"));
+
+        Map<TriggerKey, OperableTrigger> triggers = this.fJobStore.retrieveTriggers(triggerKeys);
+        assertEquals(9, triggers.size());
+        assertEquals(new TriggerKey("simple0", "bulkGroup"), triggers.keySet().iterator().next());
+        assertEquals(2000L, ((SimpleTrigger) triggers.get(new TriggerKey("simple1", "bulkGroup"))).getRepeatInterval());
+        assertEquals("0 0 2 * * ?", ((CronTrigger) triggers.get(new TriggerKey("cron2", "bulkGroup"))).getCronExpression());
+        CalendarIntervalTrigger calendarTrigger = (CalendarIntervalTrigger) triggers.get(new TriggerKey("calendar1", "bulkGroup"));
+        assertEquals(2, calendarTrigger.getRepeatInterval());
+        assertEquals(1, calendarTrigger.getJobDataMap().getInt("index"));
+
+        Iterator<OperableTrigger> iterator = this.fJobStore.iterateTriggers(GroupMatcher.triggerGroupEquals("bulkGroup"), 2);
+        List<TriggerKey> iterated = new ArrayList<TriggerKey>();
+        while (iterator.hasNext()) {
+            iterated.add(iterator.next().getKey());
+        }
+        assertEquals(9, iterated.size());
+        assertEquals(new TriggerKey("calendar0", "bulkGroup"), iterated.get(0));
+        assertEquals(new TriggerKey("simple2", "bulkGroup"), iterated.get(8));
+
+        Iterator<JobDetail> jobIterator = this.fJobStore.iterateJobs(GroupMatcher.jobGroupEquals("bulkGroup"), 10);
+        int count = 0;
+        while (jobIterator.hasNext()) {
+            assertEquals("job" + count++, jobIterator.next().getKey().getName());
+        }
+        assertEquals(5, count);
+    }
+
 	public void testAcquireTriggers() throws Exception {
 		SchedulerSignaler schedSignaler = new SampleSignaler();
 		ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
@@ -523,6 +703,40 @@ public abstract class AbstractJobStoreTest extends TestCase {
 		}
 	}
 
+    public void testStoreCalendarUpdatesTriggers() throws Exception {
+
+        if (this.fJobStore instanceof RAMJobStore) {
+            ((RAMJobStore) this.fJobStore).setCalendarUpdateChunkSize(10);
+            ((RAMJobStore) this.fJobStore).setCalendarUpdateThreadCount(4);
+        } else if (this.fJobStore instanceof JobStoreSupport) {
+            ((JobStoreSupport) this.fJobStore).setCalendarUpdateChunkSize(10);
+            ((JobStoreSupport) this.fJobStore).setCalendarUpdateThreadCount(4);
+        }
+
+        Date baseFireTime = DateBuilder.tomorrowAt(12, 0, 0);
+        this.fJobStore.storeCalendar("holidays", new HolidayCalendar(), false, false);
+
+        for (int i = 0; i < 50; i++) {
+            SimpleTriggerImpl trigger =
+                    new SimpleTriggerImpl("calTrigger" + i, "calTriggerGroup", this.fJobDetail.getName(),
+                            this.fJobDetail.getGroup(), baseFireTime, null, 100, 3600000L);
+            trigger.setCalendarName("holidays");
+            trigger.computeFirstFireTime(null);
+            this.fJobStore.storeTrigger(trigger, false);
+        }
+
+        HolidayCalendar holidays = new HolidayCalendar();
+        holidays.addExcludedDate(baseFireTime);
+        this.fJobStore.storeCalendar("holidays", holidays, true, true);
+
+        for (int i = 0; i < 50; i++) {
+            Date nextFireTime = this.fJobStore.retrieveTrigger(
+                    new TriggerKey("calTrigger" + i, "calTriggerGroup")).getNextFireTime();
+            assertTrue(nextFireTime.after(baseFireTime));
+            assertTrue(holidays.isTimeIncluded(nextFireTime.getTime()));
+        }
+    }
+
     public void testResetErrorTrigger() throws Exception {
 
         Date baseFireTimeDate = DateBuilder.evenMinuteDateAfterNow();
@@ -24,6 +24,7 @@ import static org.quartz.TriggerKey.triggerKey;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +35,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Test;
 
 import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.calendar.WeeklyCalendar;
 import org.quartz.impl.matchers.GroupMatcher;
 
 import static org.junit.Assert.assertEquals;
@@ -471,6 +473,48 @@ public abstract class AbstractSchedulerTest {
 		sched.shutdown(true);
 	}
     
+    @Test
+    public void testScheduleJobsFromIterator() throws Exception {
+        Scheduler sched = createScheduler("testScheduleJobsFromIterator", 2);
+        try {
+            // more than a chunk of triggers, some with a calendar
+            sched.addCalendar("weekly", new WeeklyCalendar(), false, false);
+
+            Map<JobDetail, Set<? extends Trigger>> jobsAndTriggers = new LinkedHashMap<JobDetail, Set<? extends Trigger>>();
+            for (int i = 0; i < 1200; i++) {
+                JobDetail job = newJob(TestJob.class).withIdentity("job" + i, "bulk").build();
+                TriggerBuilder<Trigger> trigger = newTrigger()
+                        .withIdentity("trigger" + i, "bulk")
+                        .startAt(DateBuilder.futureDate(1, DateBuilder.IntervalUnit.HOUR));
+                if (i % 3 == 0) {
+                    trigger.modifiedByCalendar("weekly");
+                }
+                Set<Trigger> triggers = new HashSet<Trigger>();
+                triggers.add((i % 2 == 0) ? trigger.build()
+                        : trigger.withSchedule(CronScheduleBuilder.cronSchedule("0 0 12 * * ?")).build());
+                jobsAndTriggers.put(job, triggers);
+            }
+
+            sched.scheduleJobsStreaming(jobsAndTriggers.entrySet().iterator(), false);
+
+            assertEquals(1200, sched.getJobKeys(GroupMatcher.jobGroupEquals("bulk")).size());
+            assertEquals(1200, sched.getTriggerKeys(GroupMatcher.triggerGroupEquals("bulk")).size());
+            Trigger cron = sched.getTrigger(triggerKey("trigger1", "bulk"));
+            assertTrue(cron instanceof CronTrigger);
+            assertNotNull(cron.getNextFireTime());
+            assertNotNull(sched.getTrigger(triggerKey("trigger1198", "bulk")).getNextFireTime());
+            assertEquals(TriggerState.NORMAL, sched.getTriggerState(triggerKey("trigger3", "bulk")));
+
+            try {
+                sched.scheduleJobsStreaming(jobsAndTriggers.entrySet().iterator(), false);
+                fail("Expected ObjectAlreadyExistsException");
+            } catch (ObjectAlreadyExistsException expected) {
+            }
+        } finally {
+            sched.shutdown(true);
+        }
+    }
+
     @Test
     public void testShutdownWithoutWaitIsUnclean() throws Exception {
         CyclicBarrier barrier = new CyclicBarrier(2);
@@ -16,6 +16,8 @@
 package org.quartz;
 
 import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
 
 import org.quartz.impl.triggers.CronTriggerImpl;
 
@@ -93,6 +95,65 @@ public class CronTriggerTest extends SerializationTestSupport {
                     );
     }
 
+    public void testTriggersWithSameScheduleAreIndependent() throws ParseException {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        CronExpression expected = new CronExpression("0 0/5 * * * ?");
+        expected.setTimeZone(utc);
+
+        CronTriggerImpl first = new CronTriggerImpl();
+        first.setTimeZone(utc);
+        first.setCronExpression("0 0/5 * * * ?");
+        first.setStartTime(new Date(1546300800000L)); // 2019-01-01T00:00:00Z
+        CronTriggerImpl second = (CronTriggerImpl) first.clone();
+
+        Date time = new Date(1577836800000L); // 2020-01-01T00:00:00Z
+        for (int i = 0; i < 40; i++) {
+            Date next = expected.getTimeAfter(time);
+            assertEquals(next, first.getFireTimeAfter(time));
+            assertEquals(next, second.getFireTimeAfter(time));
+            time = next;
+        }
+
+        // changing the time zone of one trigger must not affect the other
+        second.setTimeZone(TimeZone.getTimeZone("Asia/Kolkata"));
+        assertEquals(utc, first.getTimeZone());
+        assertEquals("Asia/Kolkata", second.getTimeZone().getID());
+
+        Date after = new Date(1577836800000L);
+        assertEquals(1577837100000L, first.getFireTimeAfter(after).getTime());
+        // Kolkata is +05:30, i.e. on a 5 minute boundary as well
+        assertEquals(1577837100000L, second.getFireTimeAfter(after).getTime());
+
+        CronTriggerImpl hourly = new CronTriggerImpl();
+        hourly.setTimeZone(TimeZone.getTimeZone("Asia/Kolkata"));
+        hourly.setCronExpression("0 0 * * * ?");
+        hourly.setStartTime(new Date(1546300800000L));
+        // the full hours in Kolkata are at half past in UTC
+        assertEquals(1577838600000L, hourly.getFireTimeAfter(after).getTime());
+        hourly.setTimeZone(utc);
+        assertEquals(1577840400000L, hourly.getFireTimeAfter(after).getTime());
+    }
+
+    public void testFireTimeAfterMillis() throws ParseException {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        CronTriggerImpl trigger = new CronTriggerImpl();
+        trigger.setTimeZone(utc);
+        trigger.setCronExpression("0 0/5 * * * ?");
+        trigger.setStartTime(new Date(1577836800000L)); // 2020-01-01T00:00:00Z
+        trigger.setEndTime(new Date(1577837700000L)); // 2020-01-01T00:15:00Z
+
+        // before the start time the first fire time is the start time
+        assertEquals(1577836800000L, trigger.getFireTimeAfterMillis(0L));
+        long time = 1577836800000L;
+        for (int i = 1; i <= 3; i++) {
+            time = trigger.getFireTimeAfterMillis(time);
+            assertEquals(1577836800000L + i * 300000L, time);
+            assertEquals(time, trigger.getFireTimeAfter(new Date(time - 300000L)).getTime());
+        }
+        assertEquals(0L, trigger.getFireTimeAfterMillis(time));
+        assertNull(trigger.getFireTimeAfter(new Date(time)));
+    }
+
     // http://jira.opensymphony.com/browse/QUARTZ-558
     public void testQuartz558() throws ParseException {
         CronTriggerImpl trigger = new CronTriggerImpl();
@@ -122,4 +122,52 @@ public class InterruptableJobTest extends TestCase {
         sched.shutdown();
     }
 
+    public void testJobInterruptionByKey() throws Exception {
+        TestInterruptableJob.interrupted.set(false);
+
+        Properties config = new Properties();
+        config.setProperty("org.quartz.scheduler.instanceName", "InterruptableJobTest_ByKey_Scheduler");
+        config.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        config.setProperty("org.quartz.threadPool.threadCount", "2");
+        config.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+        Scheduler sched = new StdSchedulerFactory(config).getScheduler();
+        sched.start();
+
+        JobDetail job = newJob()
+            .ofType(TestInterruptableJob.class)
+            .withIdentity("j2")
+            .build();
+
+        Trigger trigger = newTrigger()
+            .withIdentity("t2")
+            .forJob(job)
+            .startNow()
+            .build();
+
+        sched.scheduleJob(job, trigger);
+
+        sync.await();  // make sure the job starts running...
+
+        assertFalse("Expected no job to interrupt for unknown key ", sched.interrupt(JobKey.jobKey("other")));
+        assertFalse("Expected no job to interrupt for unknown id ", sched.interrupt("unknown"));
+        assertFalse("Job should not have been interrupted yet ", TestInterruptableJob.interrupted.get());
+
+        boolean interruptResult = sched.interrupt(job.getKey());
+
+        sync.await(); // wait for the job to terminate
+
+        assertTrue("Expected successful result from interruption of job ", interruptResult);
+        assertTrue("Expected interrupted flag to be set on job class ", TestInterruptableJob.interrupted.get());
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!sched.getCurrentlyExecutingJobs().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue("Number of executing jobs should be 0 ", sched.getCurrentlyExecutingJobs().isEmpty());
+        assertFalse("Expected no job to interrupt after completion ", sched.interrupt(job.getKey()));
+
+        sched.clear();
+
+        sched.shutdown();
+    }
 }
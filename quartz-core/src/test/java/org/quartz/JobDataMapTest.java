@@ -58,6 +58,65 @@ public class JobDataMapTest extends SerializationTestSupport {
         assertEquals(targetMap.isDirty(), deserializedMap.isDirty());
     }
     
+    public void testOverlayReadsThroughUntilModified() throws Exception {
+        JobDataMap jobMap = new JobDataMap();
+        jobMap.put("a", "job");
+        jobMap.put("b", "job");
+        JobDataMap triggerMap = new JobDataMap();
+        triggerMap.put("b", "trigger");
+        triggerMap.put("c", (Object) null);
+
+        JobDataMap merged = JobDataMap.overlay(jobMap, triggerMap);
+        assertEquals("job", merged.getString("a"));
+        assertEquals("trigger", merged.getString("b"));
+        assertTrue(merged.containsKey("c"));
+        assertNull(merged.get("c"));
+        assertEquals(3, merged.size());
+        assertFalse(merged.isDirty());
+
+        // reads through to the underlying maps until modified
+        jobMap.put("d", "job");
+        assertEquals("job", merged.getString("d"));
+
+        merged.put("a", "merged");
+        assertTrue(merged.isDirty());
+        assertEquals("merged", merged.getString("a"));
+        assertEquals("job", jobMap.getString("a"));
+        jobMap.put("e", "job");
+        assertFalse(merged.containsKey("e"));
+        assertEquals(4, merged.size());
+
+        JobDataMap expected = new JobDataMap();
+        expected.put("a", "merged");
+        expected.put("b", "trigger");
+        expected.put("c", (Object) null);
+        expected.put("d", "job");
+        assertEquals(expected, merged);
+    }
+
+    public void testOverlaySerializesAsPlainMap() throws Exception {
+        JobDataMap jobMap = new JobDataMap();
+        jobMap.put("a", "job");
+        JobDataMap triggerMap = new JobDataMap();
+        triggerMap.put("b", "trigger");
+        JobDataMap merged = JobDataMap.overlay(jobMap, triggerMap);
+
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes);
+        out.writeObject(merged);
+        out.close();
+        JobDataMap deserialized = (JobDataMap) new java.io.ObjectInputStream(
+                new java.io.ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(java.util.HashMap.class, deserialized.getWrappedMap().getClass());
+        assertEquals("job", deserialized.getString("a"));
+        assertEquals("trigger", deserialized.getString("b"));
+
+        JobDataMap cloned = (JobDataMap) JobDataMap.overlay(jobMap, triggerMap).clone();
+        assertEquals(org.quartz.utils.CompactMap.class, cloned.getWrappedMap().getClass());
+        assertEquals(2, cloned.size());
+    }
+
     public static void main(String[] args) throws Exception {
 		new JobDataMapTest().writeJobDataFile("2.1");
 	}
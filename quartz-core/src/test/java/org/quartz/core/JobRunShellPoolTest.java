@@ -0,0 +1,209 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.listeners.JobListenerSupport;
+
+/**
+ * Test recycling of JobRunShells and their JobExecutionContexts.
+ */
+public class JobRunShellPoolTest extends TestCase {
+
+    private static final int FIRES = 20;
+
+    static final Set<JobExecutionContext> contexts =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<JobExecutionContext, Boolean>()));
+
+    static final AtomicReference<String> failure = new AtomicReference<String>();
+
+    static volatile CountDownLatch done;
+
+    public static class RecordingJob implements Job {
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            contexts.add(context);
+            if (context.get("seen") != null) {
+                failure.set("data of previous execution visible");
+            }
+            context.put("seen", Boolean.TRUE);
+            if (!"detail".equals(context.getMergedJobDataMap().getString("fromJob"))
+                    || !"trigger".equals(context.getMergedJobDataMap().getString("fromTrigger"))
+                    || context.getRefireCount() != 0) {
+                failure.set("context not reset: " + context);
+            }
+            done.countDown();
+        }
+    }
+
+    public void testShellsAndContextsAreReused() throws Exception {
+        contexts.clear();
+        done = new CountDownLatch(FIRES);
+
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "testShellsAndContextsAreReused");
+        props.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "2");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_RECYCLE_JOB_RUN_SHELLS, "true");
+        Scheduler sched = new StdSchedulerFactory(props).getScheduler();
+
+        try {
+            sched.start();
+            sched.scheduleJob(newJob(RecordingJob.class).withIdentity("job").usingJobData("fromJob", "detail").build(),
+                    newTrigger().withIdentity("trigger").usingJobData("fromTrigger", "trigger").startNow()
+                            .withSchedule(simpleSchedule().withIntervalInMilliseconds(20).withRepeatCount(FIRES - 1))
+                            .build());
+
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertNull(failure.get(), failure.get());
+            assertTrue("Expected contexts to be reused, got " + contexts.size(), contexts.size() < FIRES);
+        } finally {
+            sched.shutdown(true);
+        }
+    }
+
+    public static class BlockingJob implements Job {
+        static volatile JobExecutionContext running;
+        static volatile CountDownLatch started;
+        static volatile CountDownLatch release;
+
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            running = context;
+            started.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class NamedJobListener extends JobListenerSupport {
+        public String getName() {
+            return "named";
+        }
+    }
+
+    public void testCurrentlyExecutingJobsAreSnapshots() throws Exception {
+        BlockingJob.started = new CountDownLatch(1);
+        BlockingJob.release = new CountDownLatch(1);
+
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "testCurrentlyExecutingJobsAreSnapshots");
+        props.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "1");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_RECYCLE_JOB_RUN_SHELLS, "true");
+        Scheduler sched = new StdSchedulerFactory(props).getScheduler();
+
+        try {
+            sched.start();
+            sched.scheduleJob(newJob(BlockingJob.class).withIdentity("job").build(),
+                    newTrigger().withIdentity("trigger").startNow().build());
+            assertTrue(BlockingJob.started.await(30, TimeUnit.SECONDS));
+
+            List<JobExecutionContext> executing = sched.getCurrentlyExecutingJobs();
+            assertEquals(1, executing.size());
+            assertNotSame(BlockingJob.running, executing.get(0));
+            assertEquals(BlockingJob.running.getFireInstanceId(), executing.get(0).getFireInstanceId());
+
+            BlockingJob.release.countDown();
+            sched.shutdown(true);
+
+            // the live context has been cleared for reuse, the snapshot has not
+            assertEquals("job", executing.get(0).getJobDetail().getKey().getName());
+        } finally {
+            BlockingJob.release.countDown();
+            sched.shutdown(true);
+        }
+    }
+
+    public void testCurrentlyExecutingJobsAreLiveWithoutRecycling() throws Exception {
+        BlockingJob.started = new CountDownLatch(1);
+        BlockingJob.release = new CountDownLatch(1);
+
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "testCurrentlyExecutingJobsAreLiveWithoutRecycling");
+        props.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "1");
+        Scheduler sched = new StdSchedulerFactory(props).getScheduler();
+
+        try {
+            sched.start();
+            sched.scheduleJob(newJob(BlockingJob.class).withIdentity("job").build(),
+                    newTrigger().withIdentity("trigger").startNow().build());
+            assertTrue(BlockingJob.started.await(30, TimeUnit.SECONDS));
+
+            List<JobExecutionContext> executing = sched.getCurrentlyExecutingJobs();
+            assertEquals(1, executing.size());
+            assertSame(BlockingJob.running, executing.get(0));
+            try {
+                executing.clear();
+                fail("Expected an unmodifiable list");
+            } catch (UnsupportedOperationException expected) {
+            }
+        } finally {
+            BlockingJob.release.countDown();
+            sched.shutdown(true);
+        }
+    }
+
+    public void testAsynchronousListenersAreRejected() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "testAsynchronousListenersAreRejected");
+        props.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "1");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_RECYCLE_JOB_RUN_SHELLS, "true");
+        props.setProperty(StdSchedulerFactory.PROP_JOB_LISTENER_PREFIX + ".named." + StdSchedulerFactory.PROP_LISTENER_CLASS,
+                NamedJobListener.class.getName());
+        props.setProperty(StdSchedulerFactory.PROP_JOB_LISTENER_PREFIX + ".named." + StdSchedulerFactory.PROP_LISTENER_ASYNC,
+                "true");
+
+        try {
+            new StdSchedulerFactory(props).getScheduler();
+            fail("Expected recycling with asynchronous listeners to be rejected");
+        } catch (SchedulerException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("named"));
+        }
+    }
+
+    public void testPoolKeepsAtMostMaxIdleShells() throws Exception {
+        JobRunShellPool pool = new JobRunShellPool(1);
+        JobRunShell first = pool.acquire(null, null);
+        JobRunShell second = pool.acquire(null, null);
+        assertNotSame(first, second);
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getIdleShellCount());
+        assertSame(first, pool.acquire(null, null));
+        assertEquals(0, pool.getIdleShellCount());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.JobStatistics;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+
+import junit.framework.TestCase;
+
+public class JobStatisticsRegistryTest extends TestCase {
+
+    private static final long MILLI = 1000000L;
+
+    static final CountDownLatch DONE = new CountDownLatch(4);
+
+    public void testStatistics() {
+        JobStatisticsRegistry registry = new JobStatisticsRegistry();
+        JobKey key = new JobKey("job", "group");
+        for (int i = 1; i <= 100; i++) {
+            registry.jobExecuted(key, i * MILLI, i, i % 10 == 0);
+        }
+        registry.jobExecuted(key, 50 * MILLI, Long.MIN_VALUE, false);
+        registry.triggerMisfired(key);
+        registry.jobExecuted(new JobKey("other", "group"), 10000 * MILLI, 0L, false);
+
+        JobStatistics statistics = registry.getJobStatistics(key);
+        assertEquals(key, statistics.getJobKey());
+        assertEquals(101, statistics.getFireCount());
+        assertEquals(10, statistics.getFailureCount());
+        assertEquals(1, statistics.getMisfireCount());
+        assertEquals(5100, statistics.getTotalRunTime());
+        assertTrue(statistics.getMedianRunTime() >= 50 && statistics.getMedianRunTime() <= 63);
+        assertTrue(statistics.getNinetyNinthPercentileRunTime() >= 99 && statistics.getNinetyNinthPercentileRunTime() <= 127);
+        assertEquals(100, statistics.getLastFireLag());
+
+        JobStatistics group = registry.getJobGroupStatistics("group");
+        assertNull(group.getJobKey());
+        assertEquals(102, group.getFireCount());
+        assertEquals(15100, group.getTotalRunTime());
+        assertNull(registry.getJobGroupStatistics("none"));
+
+        List<JobStatistics> top = registry.getTopJobStatistics(5);
+        assertEquals(2, top.size());
+        assertEquals("other", top.get(0).getJobKey().getName());
+        assertEquals(key, top.get(1).getJobKey());
+
+        registry.reset();
+        assertNull(registry.getJobStatistics(key));
+    }
+
+    public void testEvictionKeepsHeaviestJobs() {
+        JobStatisticsRegistry registry = new JobStatisticsRegistry(100);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 1000; i++) {
+                // every 50th job takes a hundred times longer than the others
+                registry.jobExecuted(new JobKey("job" + i), (i % 50 == 0 ? 100 : 1) * MILLI, 0L, false);
+            }
+        }
+
+        List<JobStatistics> top = registry.getTopJobStatistics(20);
+        assertEquals(20, top.size());
+        for (JobStatistics statistics : top) {
+            int i = Integer.parseInt(statistics.getJobKey().getName().substring(3));
+            assertEquals(0, i % 50);
+            assertTrue(statistics.getTotalRunTime() >= 200);
+        }
+        assertEquals(1, registry.getTopJobGroupStatistics(10).size());
+    }
+
+    public void testSchedulerCollectsWhenEnabled() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "JobStatisticsRegistryTest");
+        props.setProperty("org.quartz.threadPool.threadCount", "2");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_JOB_STATISTICS_ENABLED, "true");
+        Scheduler scheduler = new StdSchedulerFactory(props).getScheduler();
+        try {
+            scheduler.start();
+            for (int i = 0; i < 4; i++) {
+                scheduler.scheduleJob(newJob(i % 2 == 0 ? SleepingJob.class : FailingJob.class)
+                        .withIdentity("job" + i, i % 2 == 0 ? "sleeping" : "failing").build(),
+                        newTrigger().withIdentity("trigger" + i).startNow().build());
+            }
+            assertTrue(DONE.await(10, TimeUnit.SECONDS));
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (scheduler.getTopJobGroupStatistics(2).size() < 2
+                    || scheduler.getJobGroupStatistics("failing").getFireCount() < 2
+                    || scheduler.getJobGroupStatistics("sleeping").getFireCount() < 2) {
+                assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(20L);
+            }
+
+            JobStatistics sleeping = scheduler.getJobStatistics(new JobKey("job0", "sleeping"));
+            assertEquals(1, sleeping.getFireCount());
+            assertEquals(0, sleeping.getFailureCount());
+            assertTrue(sleeping.getTotalRunTime() >= 20);
+            assertEquals(2, scheduler.getJobGroupStatistics("failing").getFailureCount());
+            assertEquals("sleeping", scheduler.getTopJobGroupStatistics(1).get(0).getGroup());
+            assertEquals(4, scheduler.getTopJobStatistics(10).size());
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    public static class SleepingJob implements Job {
+        public void execute(JobExecutionContext context) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            DONE.countDown();
+        }
+    }
+
+    public static class FailingJob implements Job {
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            DONE.countDown();
+            throw new JobExecutionException("failed on purpose");
+        }
+    }
+}
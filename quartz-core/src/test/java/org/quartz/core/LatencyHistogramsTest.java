@@ -0,0 +1,83 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.spi.SchedulerMetricsRecorder.Metric;
+
+import junit.framework.TestCase;
+
+public class LatencyHistogramsTest extends TestCase {
+
+    static final CountDownLatch DONE = new CountDownLatch(3);
+
+    public void testConfiguredRecorderMeasuresPipeline() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "LatencyHistogramsTest");
+        props.setProperty("org.quartz.threadPool.threadCount", "2");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_METRICS_RECORDER_CLASS, RecordingHistograms.class.getName());
+        Scheduler scheduler = new StdSchedulerFactory(props).getScheduler();
+        try {
+            scheduler.start();
+            for (int i = 0; i < 3; i++) {
+                scheduler.scheduleJob(newJob(CountingJob.class).withIdentity("job" + i).build(),
+                        newTrigger().withIdentity("trigger" + i).startNow().build());
+            }
+            assertTrue(DONE.await(10, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown(true);
+        }
+
+        LatencyHistograms histograms = RecordingHistograms.instance;
+        assertEquals(3, histograms.getHistogram(Metric.JOB_RUN_TIME).snapshot().getCount());
+        assertEquals(3, histograms.getHistogram(Metric.FIRE_LAG).snapshot().getCount());
+        assertEquals(3, histograms.getHistogram(Metric.THREAD_POOL_HANDOFF).snapshot().getCount());
+        assertEquals(3, histograms.getHistogram(Metric.TRIGGERED_JOB_COMPLETE).snapshot().getCount());
+        assertTrue(histograms.getHistogram(Metric.ACQUIRE_NEXT_TRIGGERS).snapshot().getCount() > 0);
+        assertTrue(histograms.getHistogram(Metric.TRIGGERS_FIRED).snapshot().getCount() > 0);
+        assertTrue(histograms.getHistogram(Metric.JOB_RUN_TIME).snapshot().getMin() >= 10000000L);
+        assertEquals(Long.valueOf(3), histograms.toMap().get("JobRunTime.count"));
+    }
+
+    public static class RecordingHistograms extends LatencyHistograms {
+        static volatile RecordingHistograms instance;
+
+        public RecordingHistograms() {
+            instance = this;
+        }
+    }
+
+    public static class CountingJob implements Job {
+        public void execute(JobExecutionContext context) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            DONE.countDown();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerListener;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.listeners.AsynchronousListeners;
+import org.quartz.listeners.JobListenerSupport;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.quartz.spi.TriggerFiredBundle;
+
+/**
+ * Test asynchronous listener delivery.
+ */
+public class ListenerEventDispatcherTest extends TestCase {
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+        }
+    }
+
+    public static class RecordingJobListener extends JobListenerSupport {
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch executed = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile Thread thread;
+
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void jobToBeExecuted(JobExecutionContext context) {
+            thread = Thread.currentThread();
+            await(release);
+            events.add("toBeExecuted");
+        }
+
+        @Override
+        public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+            events.add("wasExecuted");
+            executed.countDown();
+        }
+    }
+
+    public static class ContextRecordingJobListener extends RecordingJobListener {
+
+        final List<JobExecutionContext> contexts = Collections.synchronizedList(new ArrayList<JobExecutionContext>());
+
+        @Override
+        public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+            contexts.add(context);
+            super.jobWasExecuted(context, jobException);
+        }
+    }
+
+    public static class VetoingTriggerListener extends TriggerListenerSupport {
+
+        public String getName() {
+            return "vetoing";
+        }
+
+        @Override
+        public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+            return true;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void testSlowListenerDoesNotDelayJobs() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "testSlowListenerDoesNotDelayJobs");
+        props.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "1");
+        Scheduler sched = new StdSchedulerFactory(props).getScheduler();
+
+        RecordingJobListener listener = new RecordingJobListener();
+        sched.getListenerManager().addJobListener(AsynchronousListeners.jobListener(listener));
+        // an asynchronous trigger listener can not veto
+        sched.getListenerManager().addTriggerListener(
+                AsynchronousListeners.triggerListener(new VetoingTriggerListener()));
+
+        try {
+            sched.start();
+            sched.scheduleJob(newJob(NoOpJob.class).withIdentity("job").build(),
+                    newTrigger().withIdentity("trigger").startNow().build());
+
+            // the job completes while the listener is still blocked
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (sched.checkExists(org.quartz.TriggerKey.triggerKey("trigger"))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(listener.events.isEmpty());
+
+            listener.release.countDown();
+            await(listener.executed);
+            assertEquals(2, listener.events.size());
+            assertEquals("toBeExecuted", listener.events.get(0));
+            assertEquals("wasExecuted", listener.events.get(1));
+            assertNotNull(listener.thread);
+            assertTrue(listener.thread.getName().startsWith("testSlowListenerDoesNotDelayJobs_ListenerEvents"));
+        } finally {
+            listener.release.countDown();
+            sched.shutdown(true);
+        }
+    }
+
+    public void testDiscardNewestDropsEventsWhenFull() throws Exception {
+        ListenerEventDispatcher dispatcher = new ListenerEventDispatcher("testDiscardNewest", 2, 10, 1,
+                ListenerEventDispatcher.OverflowPolicy.DISCARD_NEWEST);
+        RecordingJobListener listener = new RecordingJobListener();
+        JobListener async = dispatcher.asynchronous(JobListener.class, listener);
+
+        assertEquals("recording", async.getName());
+
+        // the first event blocks the event thread, two more fill the queue
+        async.jobToBeExecuted(null);
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (listener.thread == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        async.jobToBeExecuted(null);
+        async.jobToBeExecuted(null);
+        async.jobWasExecuted(null, null);
+        assertEquals(1, dispatcher.getDroppedEventCount());
+
+        listener.release.countDown();
+        dispatcher.shutdown(true);
+        assertEquals(3, listener.events.size());
+
+        // after shutdown, events are delivered on the calling thread
+        async.jobWasExecuted(null, null);
+        assertEquals(4, listener.events.size());
+    }
+
+    public void testCallerRunsWhenFull() throws Exception {
+        ListenerEventDispatcher dispatcher = new ListenerEventDispatcher("testCallerRuns", 1, 1, 1,
+                ListenerEventDispatcher.OverflowPolicy.CALLER_RUNS);
+        RecordingJobListener listener = new RecordingJobListener();
+        TriggerListener vetoing = dispatcher.asynchronous(TriggerListener.class, new VetoingTriggerListener());
+        assertFalse(vetoing.vetoJobExecution(null, null));
+
+        JobListener async = dispatcher.asynchronous(JobListener.class, listener);
+        async.jobToBeExecuted(null);
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (listener.thread == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        async.jobWasExecuted(null, null);
+        // the queue is full now, so this one runs here
+        async.jobWasExecuted(null, null);
+        assertEquals(1, listener.events.size());
+        assertEquals(0, dispatcher.getDroppedEventCount());
+
+        listener.release.countDown();
+        dispatcher.shutdown(true);
+        assertEquals(3, listener.events.size());
+    }
+
+    public void testShutdownDeliversQueuedEvents() throws Exception {
+        ListenerEventDispatcher dispatcher = new ListenerEventDispatcher("testShutdownDelivers", 10, 10, 1,
+                ListenerEventDispatcher.DEFAULT_OVERFLOW_POLICY);
+        RecordingJobListener listener = new RecordingJobListener();
+        JobListener async = dispatcher.asynchronous(JobListener.class, listener);
+
+        async.jobToBeExecuted(null);
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (listener.thread == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        async.jobWasExecuted(null, null);
+        async.jobWasExecuted(null, null);
+
+        // not waiting does not discard what is queued
+        dispatcher.shutdown(false);
+        listener.release.countDown();
+        listener.thread.join(10000L);
+        assertEquals(3, listener.events.size());
+        assertEquals(0, dispatcher.getDroppedEventCount());
+    }
+
+    public void testListenersGetContextSnapshots() throws Exception {
+        ListenerEventDispatcher dispatcher = new ListenerEventDispatcher("testSnapshots", 10, 10, 1,
+                ListenerEventDispatcher.DEFAULT_OVERFLOW_POLICY);
+        ContextRecordingJobListener listener = new ContextRecordingJobListener();
+        JobListener async = dispatcher.asynchronous(JobListener.class, listener);
+
+        async.jobToBeExecuted(null);
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (listener.thread == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        SimpleTriggerImpl trigger = new SimpleTriggerImpl("trigger", new Date());
+        Date now = new Date();
+        JobExecutionContextImpl context = new JobExecutionContextImpl(null, new TriggerFiredBundle(
+                newJob(NoOpJob.class).withIdentity("job").build(), trigger, null, false, now, now, null, null), null);
+        async.jobWasExecuted(context, null);
+        // the worker thread moves on with the live context
+        context.clear();
+
+        listener.release.countDown();
+        dispatcher.shutdown(true);
+        assertEquals(1, listener.contexts.size());
+        JobExecutionContext delivered = listener.contexts.get(0);
+        assertNotSame(context, delivered);
+        assertEquals("job", delivered.getJobDetail().getKey().getName());
+        assertEquals(now, delivered.getFireTime());
+    }
+}
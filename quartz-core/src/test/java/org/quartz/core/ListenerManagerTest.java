@@ -15,16 +15,22 @@
  */
 package org.quartz.core;
 
+import static org.quartz.JobKey.jobKey;
 import static org.quartz.impl.matchers.GroupMatcher.jobGroupEquals;
 import static org.quartz.impl.matchers.GroupMatcher.triggerGroupEquals;
+import static org.quartz.impl.matchers.KeyMatcher.keyEquals;
 import static org.quartz.impl.matchers.NameMatcher.jobNameContains;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import junit.framework.TestCase;
 
+import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.Matcher;
 import org.quartz.SchedulerListener;
 import org.quartz.TriggerKey;
 import org.quartz.TriggerListener;
@@ -154,6 +160,55 @@ public class ListenerManagerTest extends TestCase {
     }
 
 
+    public void testJobListenerDispatchTable() throws Exception {
+        JobListener all = new TestJobListener("all");
+        JobListener foo = new TestJobListener("foo");
+        JobListener named = new TestJobListener("named");
+        JobListener internal = new TestJobListener("internal");
+
+        ListenerManagerImpl manager = new ListenerManagerImpl();
+        manager.addJobListener(all);
+        manager.addJobListener(foo, jobGroupEquals("foo"));
+        manager.addJobListener(named, jobNameContains("bar"));
+        manager.setInternalJobListeners(Collections.singletonMap("internal", internal));
+
+        assertEquals(Arrays.asList(all, foo, internal),
+                Arrays.asList(manager.getJobListenerTable().getListeners(jobKey("a", "foo"))));
+        assertEquals(Arrays.asList(all, foo, named, internal),
+                Arrays.asList(manager.getJobListenerTable().getListeners(jobKey("bar", "foo"))));
+        assertEquals(Arrays.asList(all, internal),
+                Arrays.asList(manager.getJobListenerTable().getListeners(jobKey("a", "baz"))));
+
+        // changes replace the table rather than relying on stale cached keys
+        manager.addJobListenerMatcher("named", keyEquals(jobKey("a", "baz")));
+        manager.removeJobListener("all");
+        assertEquals(Arrays.asList(named, internal),
+                Arrays.asList(manager.getJobListenerTable().getListeners(jobKey("a", "baz"))));
+
+        manager.setJobListenerMatchers("foo", Collections.<Matcher<JobKey>>emptyList());
+        assertEquals(Arrays.asList(internal),
+                Arrays.asList(manager.getJobListenerTable().getListeners(jobKey("a", "foo"))));
+    }
+
+    public void testJobListenerDispatchTableEvictsUnusedKeys() throws Exception {
+        JobListener foo = new TestJobListener("foo");
+
+        ListenerManagerImpl manager = new ListenerManagerImpl();
+        manager.addJobListener(foo, jobGroupEquals("foo"));
+        ListenerDispatchTable<JobKey, JobListener> table = manager.getJobListenerTable();
+
+        JobKey hot = jobKey("hot", "foo");
+        table.getListeners(hot);
+        for (int i = 0; i < ListenerDispatchTable.MAX_CACHED_KEYS * 2; i++) {
+            table.getListeners(hot);
+            assertEquals(0, table.getListeners(jobKey("job" + i, "bar")).length);
+            assertTrue(table.getCachedKeyCount() <= ListenerDispatchTable.MAX_CACHED_KEYS);
+        }
+
+        assertEquals(Arrays.asList(foo), Arrays.asList(table.getListeners(hot)));
+        assertEquals(Arrays.asList(foo), Arrays.asList(table.getListeners(jobKey("new", "foo"))));
+    }
+
     public void testManagementOfSchedulerListeners() throws Exception {
         
         SchedulerListener tl1 = new TestSchedulerListener();
@@ -0,0 +1,210 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.core.remoting;
+
+import static org.quartz.CronScheduleBuilder.cronSchedule;
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InvalidClassException;
+import java.net.URI;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.quartz.CronTrigger;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.calendar.WeeklyCalendar;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.OperableTrigger;
+
+import junit.framework.TestCase;
+
+public class RemotingCodecTest extends TestCase {
+
+    private final RemotingCodec codec = new RemotingCodec(getClass().getClassLoader(), null);
+
+    private Object roundTrip(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), value);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Object result = codec.read(in);
+        assertEquals("trailing bytes", -1, in.read());
+        return result;
+    }
+
+    public void testScalars() throws Exception {
+        assertNull(roundTrip(null));
+        assertEquals(Boolean.TRUE, roundTrip(Boolean.TRUE));
+        assertEquals(Boolean.FALSE, roundTrip(Boolean.FALSE));
+        for (int i : new int[] { 0, -1, 1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE }) {
+            assertEquals(Integer.valueOf(i), roundTrip(i));
+        }
+        for (long l : new long[] { 0L, -1L, 300L, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            assertEquals(Long.valueOf(l), roundTrip(l));
+        }
+        assertEquals("", roundTrip(""));
+        assertEquals("gr\u00fc\u00dfe \u65e5\u672c", roundTrip("gr\u00fc\u00dfe \u65e5\u672c"));
+        assertEquals(new Date(1234567890123L), roundTrip(new Date(1234567890123L)));
+        assertEquals(new JobKey("job", "group"), roundTrip(new JobKey("job", "group")));
+        assertEquals(new TriggerKey("trigger", "group"), roundTrip(new TriggerKey("trigger", "group")));
+        assertEquals(TriggerState.PAUSED, roundTrip(TriggerState.PAUSED));
+        assertEquals(String.class, roundTrip(String.class));
+    }
+
+    public void testKeysAreSmallerThanSerialized() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), new JobKey("job", "group"));
+        assertTrue(bytes.size() < 16);
+    }
+
+    public void testCollections() throws Exception {
+        List<Object> list = new ArrayList<Object>(Arrays.<Object>asList("a", 1, new JobKey("j")));
+        assertEquals(list, roundTrip(list));
+        assertEquals(new HashSet<String>(Arrays.asList("x", "y")), roundTrip(new HashSet<String>(Arrays.asList("x", "y"))));
+        Map<JobKey, Object> map = new HashMap<JobKey, Object>();
+        map.put(new JobKey("a"), null);
+        map.put(new JobKey("b"), "value");
+        assertEquals(map, roundTrip(map));
+    }
+
+    public void testJobDataMapKeepsDirtyFlag() throws Exception {
+        JobDataMap map = new JobDataMap();
+        map.put("s", "string");
+        map.put("i", 42);
+        map.clearDirtyFlag();
+        JobDataMap copy = (JobDataMap) roundTrip(map);
+        assertEquals(map, copy);
+        assertFalse(copy.isDirty());
+
+        map.put("l", 7L);
+        assertTrue(((JobDataMap) roundTrip(map)).isDirty());
+    }
+
+    public void testJobDetail() throws Exception {
+        JobDetail job = newJob(NoOpJob.class)
+                .withIdentity("job", "group").withDescription("description").storeDurably().requestRecovery()
+                .usingJobData("key", "value").build();
+        JobDetail copy = (JobDetail) roundTrip(job);
+        assertEquals(job.getKey(), copy.getKey());
+        assertEquals(job.getDescription(), copy.getDescription());
+        assertEquals(job.getJobClass(), copy.getJobClass());
+        assertEquals(job.getJobDataMap(), copy.getJobDataMap());
+        assertTrue(copy.isDurable());
+        assertTrue(copy.requestsRecovery());
+    }
+
+    public void testTriggers() throws Exception {
+        Date start = new Date(1400000000000L);
+        SimpleTrigger simple = newTrigger().withIdentity("simple", "group").forJob("job", "group")
+                .startAt(start).withPriority(7).usingJobData("k", "v").modifiedByCalendar("cal")
+                .withSchedule(simpleSchedule().withIntervalInSeconds(10).withRepeatCount(5)
+                        .withMisfireHandlingInstructionNextWithRemainingCount()).build();
+        ((OperableTrigger) simple).setNextFireTime(new Date(1400000010000L));
+        SimpleTrigger simpleCopy = (SimpleTrigger) roundTrip(simple);
+        assertEquals(simple.getKey(), simpleCopy.getKey());
+        assertEquals(simple.getJobKey(), simpleCopy.getJobKey());
+        assertEquals(start, simpleCopy.getStartTime());
+        assertEquals(simple.getNextFireTime(), simpleCopy.getNextFireTime());
+        assertEquals(7, simpleCopy.getPriority());
+        assertEquals("cal", simpleCopy.getCalendarName());
+        assertEquals(10000L, simpleCopy.getRepeatInterval());
+        assertEquals(5, simpleCopy.getRepeatCount());
+        assertEquals(simple.getMisfireInstruction(), simpleCopy.getMisfireInstruction());
+        assertEquals(simple.getJobDataMap(), simpleCopy.getJobDataMap());
+
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        CronTrigger cron = newTrigger().withIdentity("cron").forJob("job")
+                .withSchedule(cronSchedule("0 15 10 ? * MON-FRI").inTimeZone(zone)).build();
+        CronTrigger cronCopy = (CronTrigger) roundTrip(cron);
+        assertEquals(cron.getKey(), cronCopy.getKey());
+        assertEquals("0 15 10 ? * MON-FRI", cronCopy.getCronExpression());
+        assertEquals(zone, cronCopy.getTimeZone());
+        assertEquals(cron.getFireTimeAfter(start), cronCopy.getFireTimeAfter(start));
+    }
+
+    public void testOtherObjectsAreSerialized() throws Exception {
+        WeeklyCalendar calendar = new WeeklyCalendar();
+        calendar.setDescription("weekdays");
+        assertEquals("weekdays", ((WeeklyCalendar) roundTrip(calendar)).getDescription());
+
+        GroupMatcher<JobKey> matcher = GroupMatcher.jobGroupStartsWith("gr");
+        assertEquals(matcher, roundTrip(matcher));
+
+        ObjectAlreadyExistsException e = (ObjectAlreadyExistsException) roundTrip(
+                new ObjectAlreadyExistsException("exists"));
+        assertEquals("exists", e.getMessage());
+    }
+
+    public void testOnlyAllowedClassesAreDeserialized() throws Exception {
+        URI uri = new URI("urn:quartz");
+        try {
+            roundTrip(uri);
+            fail("Expected InvalidClassException");
+        } catch (InvalidClassException expected) {
+        }
+
+        RemotingCodec allowing = new RemotingCodec(getClass().getClassLoader(), Arrays.asList("java.net.*"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        allowing.write(new DataOutputStream(bytes), new URI[] { uri });
+        URI[] uris = (URI[]) allowing.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(uri, uris[0]);
+    }
+
+    public void testExceptionsAreFilteredToo() throws Exception {
+        try {
+            roundTrip(new SQLException("failed"));
+            fail("Expected InvalidClassException");
+        } catch (InvalidClassException expected) {
+        }
+        // nor can a cause smuggle one in
+        try {
+            roundTrip(new ObjectAlreadyExistsException("exists").initCause(new SQLException("failed")));
+            fail("Expected InvalidClassException");
+        } catch (InvalidClassException expected) {
+        }
+
+        RemotingCodec allowing = new RemotingCodec(getClass().getClassLoader(), Arrays.asList("java.sql.SQLException"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        allowing.write(new DataOutputStream(bytes), new SQLException("failed"));
+        assertEquals("failed", ((SQLException) allowing.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))).getMessage());
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
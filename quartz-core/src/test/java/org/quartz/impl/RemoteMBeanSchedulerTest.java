@@ -35,6 +35,7 @@ import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
+import org.quartz.JobStatistics;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerMetaData;
@@ -50,10 +51,13 @@ import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 
+import javax.management.Attribute;
 import javax.management.AttributeList;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
 
 /**
  * RemoteMBeanSchedulerTest
@@ -328,6 +332,55 @@ public class RemoteMBeanSchedulerTest {
         assertThat(remoteScheduler.getJobGroupNames().isEmpty(), is(true));
     }
 
+    @Test
+    public void testJobStatistics() throws Exception {
+        String objectName = QuartzSchedulerResources.generateJMXObjectName(scheduler.getSchedulerName(), scheduler.getSchedulerInstanceId());
+        ManagementFactory.getPlatformMBeanServer().setAttribute(new ObjectName(objectName), new Attribute("JobStatisticsEnabled", true));
+        scheduler.start();
+
+        JobKey jobKey = new JobKey(JOB_KEY, GROUP_KEY);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (remoteScheduler.getJobStatistics(jobKey) == null) {
+            assertThat(System.currentTimeMillis() < deadline, is(true));
+            Thread.sleep(20L);
+        }
+        JobStatistics statistics = remoteScheduler.getJobStatistics(jobKey);
+        assertThat(statistics.getJobKey(), equalTo(jobKey));
+        assertThat(statistics.getFireCount(), is(1L));
+        assertThat(statistics.getFailureCount(), is(0L));
+        assertThat(remoteScheduler.getJobGroupStatistics(GROUP_KEY).getFireCount(), is(1L));
+        assertThat(remoteScheduler.getJobGroupStatistics(GROUP_KEY).getJobKey(), nullValue());
+        assertThat(remoteScheduler.getTopJobStatistics(10).size(), is(1));
+        assertThat(remoteScheduler.getTopJobGroupStatistics(10).get(0).getGroup(), equalTo(GROUP_KEY));
+    }
+
+    @Test
+    public void testTriggerPage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            scheduler.scheduleJob(newTrigger().withIdentity("pageTrigger" + i, "pageGroup")
+                    .forJob(JOB_KEY, GROUP_KEY).startAt(new Date(System.currentTimeMillis() + 60000L)).build());
+        }
+        ObjectName objectName = new ObjectName(QuartzSchedulerResources.generateJMXObjectName(scheduler.getSchedulerName(), scheduler.getSchedulerInstanceId()));
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        String[] signature = { String.class.getName(), String.class.getName(), String[].class.getName(),
+                Date.class.getName(), Date.class.getName(), String.class.getName(), int.class.getName() };
+
+        CompositeData page = (CompositeData) mbs.invoke(objectName, "getTriggerPage",
+                new Object[] { "EQUALS", "pageGroup", new String[] { "NORMAL" }, null, null, null, 2 }, signature);
+        assertThat(((TabularData) page.get("items")).size(), is(2));
+        assertThat(page.get("nextPageToken"), notNullValue());
+
+        page = (CompositeData) mbs.invoke(objectName, "getTriggerPage",
+                new Object[] { "EQUALS", "pageGroup", null, null, null, page.get("nextPageToken"), 2 }, signature);
+        assertThat(((TabularData) page.get("items")).size(), is(1));
+        assertThat(page.get("nextPageToken"), nullValue());
+
+        page = (CompositeData) mbs.invoke(objectName, "getJobDetailPage",
+                new Object[] { null, null, null, 10 },
+                new String[] { String.class.getName(), String.class.getName(), String.class.getName(), int.class.getName() });
+        assertThat(((TabularData) page.get("items")).size(), is(1));
+    }
+
     @Test
     public void testUnsupportedMethods() {
         try {
@@ -0,0 +1,144 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl;
+
+import static org.quartz.JobBuilder.newJob;
+
+import java.util.Arrays;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import junit.framework.TestCase;
+
+public class RemoteSchedulerCacheTest extends TestCase {
+
+    private static JobDetail job(String name) {
+        return newJob(RemotingSchedulerTest.NoOpJob.class).withIdentity(name).usingJobData("key", "value").build();
+    }
+
+    public void testDisabledCacheMisses() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(0L, 10);
+        assertFalse(cache.isEnabled());
+        cache.put(new JobKey("job"), job("job"), cache.getGeneration());
+        assertSame(RemoteSchedulerCache.MISS, cache.get(new JobKey("job")));
+        assertNull(cache.exists(new JobKey("job")));
+        assertEquals(0, cache.size());
+    }
+
+    public void testInvalidSettings() {
+        try {
+            new RemoteSchedulerCache(-1L, 10);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new RemoteSchedulerCache(1000L, 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testGetReturnsCopies() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 10);
+        JobKey key = new JobKey("job");
+        cache.put(key, job("job"), cache.getGeneration());
+
+        JobDetail cached = (JobDetail) cache.get(key);
+        assertEquals("value", cached.getJobDataMap().getString("key"));
+        cached.getJobDataMap().put("key", "changed");
+        assertEquals("value", ((JobDetail) cache.get(key)).getJobDataMap().getString("key"));
+        assertEquals(Boolean.TRUE, cache.exists(key));
+    }
+
+    public void testMissingValueIsCached() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 10);
+        JobKey key = new JobKey("missing");
+        cache.put(key, null, cache.getGeneration());
+        assertNull(cache.get(key));
+        assertEquals(Boolean.FALSE, cache.exists(key));
+    }
+
+    public void testExistenceDoesNotImplyValue() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 10);
+        JobKey key = new JobKey("job");
+        cache.putExists(key, true, cache.getGeneration());
+        assertEquals(Boolean.TRUE, cache.exists(key));
+        assertSame(RemoteSchedulerCache.MISS, cache.get(key));
+
+        cache.put(key, job("job"), cache.getGeneration());
+        cache.putExists(key, true, cache.getGeneration());
+        assertNotSame(RemoteSchedulerCache.MISS, cache.get(key));
+    }
+
+    public void testEntriesExpire() throws Exception {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(50L, 10);
+        JobKey key = new JobKey("job");
+        cache.put(key, job("job"), cache.getGeneration());
+        assertNotSame(RemoteSchedulerCache.MISS, cache.get(key));
+        Thread.sleep(100L);
+        assertSame(RemoteSchedulerCache.MISS, cache.get(key));
+        assertNull(cache.exists(key));
+    }
+
+    public void testReadRacingInvalidationIsDropped() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 10);
+        JobKey key = new JobKey("job");
+        long generation = cache.getGeneration();
+        // the job changes while its old value is in flight
+        cache.jobChanged(key);
+        cache.put(key, job("job"), generation);
+        assertSame(RemoteSchedulerCache.MISS, cache.get(key));
+    }
+
+    public void testLeastRecentlyUsedIsEvicted() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 2);
+        cache.put(new JobKey("a"), job("a"), cache.getGeneration());
+        cache.put(new JobKey("b"), job("b"), cache.getGeneration());
+        cache.get(new JobKey("a"));
+        cache.put(new JobKey("c"), job("c"), cache.getGeneration());
+
+        assertEquals(2, cache.size());
+        assertNotSame(RemoteSchedulerCache.MISS, cache.get(new JobKey("a")));
+        assertSame(RemoteSchedulerCache.MISS, cache.get(new JobKey("b")));
+        assertNotSame(RemoteSchedulerCache.MISS, cache.get(new JobKey("c")));
+    }
+
+    public void testSchedulerEventsInvalidate() {
+        RemoteSchedulerCache cache = new RemoteSchedulerCache(60000L, 10);
+        JobKey jobKey = new JobKey("job");
+        TriggerKey triggerKey = new TriggerKey("trigger");
+        cache.put(jobKey, job("job"), cache.getGeneration());
+        cache.putExists(triggerKey, true, cache.getGeneration());
+        cache.put(RemoteSchedulerCache.JOB_GROUP_NAMES, Arrays.asList("DEFAULT"), cache.getGeneration());
+
+        cache.getSchedulerListener().jobAdded(job("job"));
+        assertSame(RemoteSchedulerCache.MISS, cache.get(jobKey));
+        assertSame(RemoteSchedulerCache.MISS, cache.get(RemoteSchedulerCache.JOB_GROUP_NAMES));
+        assertEquals(Boolean.TRUE, cache.exists(triggerKey));
+
+        // a job that is not durable goes away with its last trigger
+        cache.put(jobKey, job("job"), cache.getGeneration());
+        cache.getSchedulerListener().jobUnscheduled(triggerKey);
+        assertNull(cache.exists(triggerKey));
+        assertNull(cache.exists(jobKey));
+
+        cache.putExists(triggerKey, true, cache.getGeneration());
+        cache.getSchedulerListener().schedulingDataCleared();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerMetaData;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.core.QuartzScheduler;
+import org.quartz.core.remoting.RemotingClient;
+import org.quartz.core.remoting.RemotingClient.Invocation;
+import org.quartz.core.remoting.RemotingTimeoutException;
+import org.quartz.impl.matchers.GroupMatcher;
+
+import junit.framework.TestCase;
+
+public class RemotingSchedulerTest extends TestCase {
+
+    private static final String SECRET = "RemotingSchedulerTestSecret";
+
+    private Scheduler server;
+
+    private Scheduler client;
+
+    @Override
+    protected void setUp() throws Exception {
+        Properties serverProps = new Properties();
+        serverProps.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "RemotingSchedulerTest");
+        serverProps.setProperty("org.quartz.threadPool.threadCount", "1");
+        serverProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_EXPORT, "true");
+        serverProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_HOST, "127.0.0.1");
+        serverProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_PORT, "0");
+        serverProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_SECRET, SECRET);
+        server = new StdSchedulerFactory(serverProps).getScheduler();
+
+        int port = ((QuartzScheduler) getField(server, "sched")).getRemotingPort();
+        assertTrue(port > 0);
+
+        // the proxy is bound under the name of the scheduler it serves
+        SchedulerRepository.getInstance().remove("RemotingSchedulerTest");
+
+        Properties clientProps = new Properties();
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "RemotingSchedulerTestClient");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_PROXY, "true");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_HOST, "127.0.0.1");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_SECRET, SECRET);
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_PORT, String.valueOf(port));
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_CALL_TIMEOUT, "10000");
+        client = new StdSchedulerFactory(clientProps).getScheduler();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        SchedulerRepository.getInstance().remove("RemotingSchedulerTest");
+    }
+
+    private static Object getField(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    public void testCallsReachServedScheduler() throws Exception {
+        assertTrue(client instanceof RemotingScheduler);
+        assertEquals("RemotingSchedulerTest", client.getSchedulerName());
+
+        JobDetail job = newJob(NoOpJob.class).withIdentity("job", "group").usingJobData("key", "value").storeDurably().build();
+        Trigger trigger = newTrigger().withIdentity("trigger", "group").forJob(job)
+                .withSchedule(simpleSchedule().withIntervalInHours(1).repeatForever()).build();
+        assertNotNull(client.scheduleJob(job, trigger));
+
+        assertTrue(client.checkExists(job.getKey()));
+        assertTrue(server.checkExists(trigger.getKey()));
+        assertEquals("value", client.getJobDetail(job.getKey()).getJobDataMap().getString("key"));
+        assertEquals(trigger.getKey(), client.getTrigger(trigger.getKey()).getKey());
+        assertEquals(Arrays.asList("group"), client.getJobGroupNames());
+
+        try {
+            client.addJob(job, false);
+            fail("Expected ObjectAlreadyExistsException");
+        } catch (ObjectAlreadyExistsException expected) {
+        }
+
+        assertTrue(client.deleteJob(job.getKey()));
+        assertFalse(server.checkExists(job.getKey()));
+    }
+
+    public void testMultiGetAndBatch() throws Throwable {
+        List<JobKey> jobKeys = new ArrayList<JobKey>();
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>();
+        for (int i = 0; i < 5; i++) {
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job" + i).build();
+            Trigger trigger = newTrigger().withIdentity("trigger" + i).forJob(job)
+                    .withSchedule(simpleSchedule().withIntervalInHours(1).repeatForever()).build();
+            server.scheduleJob(job, trigger);
+            jobKeys.add(job.getKey());
+            triggerKeys.add(trigger.getKey());
+        }
+        jobKeys.add(new JobKey("missing"));
+
+        RemotingScheduler remoting = (RemotingScheduler) client;
+        Map<JobKey, JobDetail> jobs = remoting.getJobDetails(jobKeys);
+        assertEquals(5, jobs.size());
+        assertEquals(new JobKey("job3"), jobs.get(new JobKey("job3")).getKey());
+        assertEquals(5, remoting.getTriggers(triggerKeys).size());
+
+        List<Invocation> invocations = Arrays.asList(
+                Invocation.of("checkExists", new Class<?>[] { JobKey.class }, new JobKey("job1")),
+                Invocation.of("deleteJob", new Class<?>[] { JobKey.class }, new JobKey("job2")),
+                Invocation.of("checkExists", new Class<?>[] { JobKey.class }, new JobKey("job2")));
+        remoting.invokeAll(invocations);
+        assertEquals(Boolean.TRUE, invocations.get(0).getResult());
+        assertEquals(Boolean.TRUE, invocations.get(1).getResult());
+        assertEquals(Boolean.FALSE, invocations.get(2).getResult());
+
+        SchedulerMetaData metaData = client.getMetaData();
+        assertEquals("RemotingSchedulerTest", metaData.getSchedulerName());
+        assertTrue(metaData.isSchedulerRemote());
+        assertEquals(1, metaData.getThreadPoolSize());
+    }
+
+    public void testConcurrentCallsShareConnection() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 200; i++) {
+                final JobKey key = new JobKey("job" + i);
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        client.addJob(newJob(NoOpJob.class).withIdentity(key).storeDurably().build(), false);
+                        return client.checkExists(key);
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(200, server.getJobKeys(GroupMatcher.<JobKey>anyGroup()).size());
+    }
+
+    public void testCacheIsInvalidatedByServerEvents() throws Exception {
+        SchedulerRepository.getInstance().remove("RemotingSchedulerTest");
+        Properties clientProps = new Properties();
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "RemotingSchedulerTestClient");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_PROXY, "true");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_HOST, "127.0.0.1");
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_SECRET, SECRET);
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_PORT,
+                String.valueOf(((QuartzScheduler) getField(server, "sched")).getRemotingPort()));
+        clientProps.setProperty(StdSchedulerFactory.PROP_SCHED_REMOTING_CACHE_TIME_TO_LIVE, "600000");
+        Scheduler cachingClient = new StdSchedulerFactory(clientProps).getScheduler();
+        RemoteSchedulerCache cache = ((RemotingScheduler) cachingClient).getCache();
+        assertTrue(cache.isEnabled());
+
+        JobKey key = new JobKey("job");
+        assertFalse(cachingClient.checkExists(key));
+        assertNull(cachingClient.getJobDetail(key));
+
+        // writes through the proxy are visible to its next read
+        cachingClient.addJob(newJob(NoOpJob.class).withIdentity(key).usingJobData("key", "first").storeDurably().build(), false);
+        assertEquals("first", cachingClient.getJobDetail(key).getJobDataMap().getString("key"));
+        assertEquals("first", cachingClient.getJobDetail(key).getJobDataMap().getString("key"));
+        assertTrue(cache.size() > 0);
+
+        // writes to the served scheduler are pushed to the proxy
+        server.addJob(newJob(NoOpJob.class).withIdentity(key).usingJobData("key", "second").storeDurably().build(), true);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!"second".equals(cachingClient.getJobDetail(key).getJobDataMap().getString("key"))) {
+            assertTrue("Cache was not invalidated", System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+
+        server.deleteJob(key);
+        deadline = System.currentTimeMillis() + 5000L;
+        while (cachingClient.checkExists(key)) {
+            assertTrue("Cache was not invalidated", System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+    public void testLargeFrameBeforeHelloClosesConnection() throws Exception {
+        int port = ((QuartzScheduler) getField(server, "sched")).getRemotingPort();
+        Socket socket = new Socket("127.0.0.1", port);
+        try {
+            socket.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(50 * 1024 * 1024);
+            out.writeByte(1);
+            out.flush();
+            try {
+                assertEquals(-1, socket.getInputStream().read());
+            } catch (SocketException closed) {
+                // reset by the server
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    public void testClientWithWrongSecretIsRefused() throws Exception {
+        int port = ((QuartzScheduler) getField(server, "sched")).getRemotingPort();
+        RemotingClient intruder = new RemotingClient("127.0.0.1", port, 10000L, "wrong", null, null);
+        try {
+            intruder.connect();
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("not authorized"));
+        }
+        assertFalse(intruder.isConnected());
+    }
+
+    public void testClassesNotAllowedAreNotDeserialized() throws Exception {
+        JobDetail job = newJob(NoOpJob.class).withIdentity("job").storeDurably()
+                .usingJobData(new JobDataMap(Collections.singletonMap("uri", new URI("urn:quartz")))).build();
+        try {
+            client.addJob(job, false);
+            fail("Expected SchedulerException");
+        } catch (SchedulerException expected) {
+        }
+        assertFalse(server.checkExists(job.getKey()));
+        // the connection is still usable
+        assertEquals("RemotingSchedulerTest", client.getSchedulerName());
+    }
+
+    public void testInterruptedCallKeepsConnection() throws Exception {
+        RemotingScheduler remoting = (RemotingScheduler) client;
+        assertEquals("RemotingSchedulerTest", client.getSchedulerName());
+        Object connectedClient = getField(remoting, "client");
+
+        Thread.currentThread().interrupt();
+        try {
+            client.getSchedulerName();
+            fail("Expected SchedulerException");
+        } catch (SchedulerException expected) {
+            assertTrue(expected.getCause() instanceof RemotingTimeoutException);
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals("RemotingSchedulerTest", client.getSchedulerName());
+        assertSame(connectedClient, getField(remoting, "client"));
+    }
+
+    public void testShutdownFromClient() throws Exception {
+        long start = System.currentTimeMillis();
+        client.shutdown();
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        assertTrue(server.isShutdown());
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
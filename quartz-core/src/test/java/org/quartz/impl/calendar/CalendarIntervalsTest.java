@@ -0,0 +1,101 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.impl.calendar;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+public class CalendarIntervalsTest extends TestCase {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        Calendar c = Calendar.getInstance(UTC);
+        c.clear();
+        c.set(year, month, day, hour, minute, 0);
+        return c.getTimeInMillis();
+    }
+
+    /**
+     * Weekends and a holiday, further restricted to business hours.
+     */
+    private DailyCalendar createChain() {
+        WeeklyCalendar weekly = new WeeklyCalendar(null, UTC);
+
+        HolidayCalendar holidays = new HolidayCalendar(weekly, UTC);
+        // Monday, 2019-12-23
+        holidays.addExcludedDate(new java.util.Date(utc(2019, Calendar.DECEMBER, 23, 0, 0)));
+
+        DailyCalendar daily = new DailyCalendar(holidays, "09:00", "17:00");
+        daily.setTimeZone(UTC);
+        daily.setInvertTimeRange(true);
+        return daily;
+    }
+
+    public void testChainedCalendarSkipsMergedRanges() {
+        DailyCalendar chain = createChain();
+
+        // Friday evening -> weekend -> holiday Monday -> Tuesday business hours
+        long friday = utc(2019, Calendar.DECEMBER, 20, 18, 0);
+        assertEquals(utc(2019, Calendar.DECEMBER, 24, 9, 0), chain.getNextIncludedTime(friday));
+
+        // within business hours the next millisecond is included
+        long tuesday = utc(2019, Calendar.DECEMBER, 24, 10, 0);
+        assertEquals(tuesday + 1, chain.getNextIncludedTime(tuesday));
+    }
+
+    public void testNextIncludedTimeAgreesWithIsTimeIncluded() {
+        DailyCalendar chain = createChain();
+
+        long start = utc(2019, Calendar.DECEMBER, 20, 0, 0);
+        long end = utc(2019, Calendar.DECEMBER, 26, 0, 0);
+        long minute = 60L * 1000L;
+
+        for (long t = start; t < end; t += 37 * minute) {
+            long next = chain.getNextIncludedTime(t);
+            assertTrue(chain.isTimeIncluded(next));
+            for (long probe = t + 1; probe < next; probe += minute) {
+                assertFalse(chain.isTimeIncluded(probe));
+            }
+        }
+    }
+
+    public void testCronCalendarOnWeeklyBase() throws Exception {
+        WeeklyCalendar weekly = new WeeklyCalendar(null, UTC);
+        // exclude every hour from 8:00 to 18:59 on weekdays
+        CronCalendar cron = new CronCalendar(weekly, "* * 8-18 ? * MON-FRI", UTC);
+
+        long friday = utc(2019, Calendar.DECEMBER, 20, 10, 30);
+        assertEquals(utc(2019, Calendar.DECEMBER, 20, 19, 0), cron.getNextIncludedTime(friday));
+
+        // Friday after hours is included, the following weekend is not
+        long fridayNight = utc(2019, Calendar.DECEMBER, 20, 23, 59) + 59999L;
+        assertEquals(utc(2019, Calendar.DECEMBER, 23, 0, 0), cron.getNextIncludedTime(fridayNight));
+    }
+
+    public void testAllDaysExcluded() {
+        WeeklyCalendar weekly = new WeeklyCalendar(UTC);
+        for (int wday = Calendar.SUNDAY; wday <= Calendar.SATURDAY; wday++) {
+            weekly.setDayExcluded(wday, true);
+        }
+        HolidayCalendar holidays = new HolidayCalendar(weekly, UTC);
+
+        assertEquals(0, holidays.getNextIncludedTime(utc(2019, Calendar.DECEMBER, 20, 0, 0)));
+    }
+}
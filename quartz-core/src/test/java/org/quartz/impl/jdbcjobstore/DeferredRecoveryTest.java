@@ -0,0 +1,238 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.core.QuartzScheduler;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.utils.ConnectionProvider;
+import org.quartz.utils.DBConnectionManager;
+
+public class DeferredRecoveryTest {
+
+    private static final String DS_NAME = "deferredRecoveryTest";
+
+    static volatile CountDownLatch recoveryAllowed;
+
+    static volatile CountDownLatch jobRun;
+
+    static volatile String initializerThreadName;
+
+    static volatile boolean slowProviderShutdown;
+
+    private Scheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DS_NAME);
+        recoveryAllowed = new CountDownLatch(1);
+        jobRun = new CountDownLatch(1);
+        initializerThreadName = null;
+        slowProviderShutdown = false;
+    }
+
+    private Scheduler createScheduler(Properties extraProps) throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "DeferredRecoveryTest");
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_FAST_START, "true");
+        props.setProperty("org.quartz.threadPool.threadCount", "1");
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, BlockingRecoveryJobStore.class.getName());
+        props.setProperty("org.quartz.jobStore.dataSource", DS_NAME);
+        props.putAll(extraProps);
+        scheduler = new StdSchedulerFactory(props).getScheduler();
+        return scheduler;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        recoveryAllowed.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown(true);
+        }
+        JdbcQuartzTestUtilities.destroyDatabase(DS_NAME);
+    }
+
+    private JobStoreSupport getJobStore() throws Exception {
+        Field sched = scheduler.getClass().getDeclaredField("sched");
+        sched.setAccessible(true);
+        Field resources = QuartzScheduler.class.getDeclaredField("resources");
+        resources.setAccessible(true);
+        Object rsrcs = resources.get(sched.get(scheduler));
+        return (JobStoreSupport) rsrcs.getClass().getMethod("getJobStore").invoke(rsrcs);
+    }
+
+    @Test
+    public void testDataSourcesInitializedInBackground() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("org.quartz.dataSource.slow.connectionProvider.class", SlowConnectionProvider.class.getName());
+        createScheduler(props);
+
+        assertTrue(getJobStore().isDeferRecovery());
+        assertTrue(initializerThreadName.startsWith("DeferredRecoveryTest_DataSourceInitializer-slow"));
+        DBConnectionManager.getInstance().getConnection("slow").close();
+    }
+
+    @Test
+    public void testDataSourcesShutDownWhenInstantiationFails() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("org.quartz.dataSource.slow.connectionProvider.class", SlowConnectionProvider.class.getName());
+        // a plugin without a class fails the scheduler while the DataSource is being initialized
+        props.setProperty(StdSchedulerFactory.PROP_PLUGIN_PREFIX + ".broken.name", "broken");
+        try {
+            createScheduler(props);
+            fail("Expected SchedulerException");
+        } catch (SchedulerException expected) {
+        }
+        assertTrue(slowProviderShutdown);
+    }
+
+    @Test
+    public void testStartDoesNotWaitForRecovery() throws Exception {
+        createScheduler(new Properties());
+        scheduler.start();
+        JobStoreSupport jobStore = getJobStore();
+        assertTrue(jobStore.isRecoveryPending());
+
+        // the store is usable while recovering, but nothing fires
+        scheduler.scheduleJob(JobBuilder.newJob(RecordingJob.class).withIdentity("job").build(),
+                TriggerBuilder.newTrigger().withIdentity("trigger").startNow().build());
+        assertTrue(scheduler.checkExists(new JobKey("job")));
+        assertFalse(jobRun.await(500L, TimeUnit.MILLISECONDS));
+
+        recoveryAllowed.countDown();
+        assertTrue(jobRun.await(10L, TimeUnit.SECONDS));
+        assertFalse(jobStore.isRecoveryPending());
+    }
+
+    @Test
+    public void testExplicitSettingOverridesFastStart() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, JobStoreTX.class.getName());
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_DEFER_RECOVERY, "false");
+        createScheduler(props);
+
+        assertFalse(getJobStore().isDeferRecovery());
+        scheduler.start();
+        assertFalse(getJobStore().isRecoveryPending());
+    }
+
+    @Test
+    public void testMisfiredAndCompleteTriggersRecoveredInChunks() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, JobStoreTX.class.getName());
+        props.setProperty("org.quartz.jobStore.recoveryChunkSize", "2");
+        createScheduler(props);
+
+        Date missed = new Date(System.currentTimeMillis() - 600000L);
+        for (int i = 0; i < 5; i++) {
+            scheduler.scheduleJob(JobBuilder.newJob(RecordingJob.class).withIdentity("job" + i).build(),
+                    TriggerBuilder.newTrigger().withIdentity("trigger" + i).startAt(missed)
+                            .withSchedule(SimpleScheduleBuilder.repeatHourlyForever()
+                                    .withMisfireHandlingInstructionNextWithRemainingCount()).build());
+        }
+        scheduler.scheduleJob(JobBuilder.newJob(RecordingJob.class).withIdentity("done").build(),
+                TriggerBuilder.newTrigger().withIdentity("done").startAt(new Date(System.currentTimeMillis() + 600000L)).build());
+        Connection conn = DBConnectionManager.getInstance().getConnection(DS_NAME);
+        try {
+            Statement statement = conn.createStatement();
+            assertEquals(1, statement.executeUpdate(
+                    "UPDATE QRTZ_TRIGGERS SET TRIGGER_STATE = 'COMPLETE' WHERE TRIGGER_NAME = 'done'"));
+            statement.close();
+        } finally {
+            conn.close();
+        }
+
+        scheduler.start();
+        JobStoreSupport jobStore = getJobStore();
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (jobStore.isRecoveryInProgress()) {
+            assertTrue("Recovery did not complete", System.currentTimeMillis() < deadline);
+            Thread.sleep(20L);
+        }
+
+        assertEquals(5L, jobStore.getRecoveredMisfiredTriggerCount());
+        assertEquals(1L, jobStore.getRemovedCompleteTriggerCount());
+        assertFalse(scheduler.checkExists(new TriggerKey("done")));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(scheduler.getTrigger(new TriggerKey("trigger" + i)).getNextFireTime().after(new Date()));
+        }
+        assertFalse(jobRun.await(200L, TimeUnit.MILLISECONDS));
+    }
+
+    public static class BlockingRecoveryJobStore extends JobStoreTX {
+
+        @Override
+        protected void recoverJobs() throws org.quartz.JobPersistenceException {
+            try {
+                recoveryAllowed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.recoverJobs();
+        }
+    }
+
+    public static class SlowConnectionProvider implements ConnectionProvider {
+
+        public void initialize() throws SQLException {
+            initializerThreadName = Thread.currentThread().getName();
+            try {
+                Thread.sleep(200L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public Connection getConnection() throws SQLException {
+            return DBConnectionManager.getInstance().getConnection(DS_NAME);
+        }
+
+        public void shutdown() throws SQLException {
+            slowProviderShutdown = true;
+        }
+    }
+
+    public static class RecordingJob implements Job {
+        public void execute(JobExecutionContext context) {
+            jobRun.countDown();
+        }
+    }
+}
@@ -16,10 +16,32 @@
 package org.quartz.impl.jdbcjobstore;
 
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.quartz.AbstractJobStoreTest;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.ResultPage;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.matchers.AndMatcher;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.NameMatcher;
+import org.quartz.impl.matchers.NotMatcher;
+import org.quartz.impl.matchers.OrMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
 
 public class JdbcJobStoreTest extends AbstractJobStoreTest {
 
@@ -29,6 +51,123 @@ public class JdbcJobStoreTest extends AbstractJobStoreTest {
         // nothing
     }
 
+    @SuppressWarnings("deprecation")
+    public void testPauseAndResumeTriggersMatching() throws Exception {
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        JobStoreSupport store = (JobStoreSupport) createJobStore("testPauseAndResumeTriggersMatching");
+        try {
+            store.initialize(loadHelper, null);
+            store.schedulerStarted();
+
+            JobDetail job = new JobDetailImpl("job", "jobs", NoOpJob.class);
+            store.storeJob(job, false);
+            Date start = new Date(System.currentTimeMillis() + 60000L);
+            String[] groups = { "a_b", "axb", "other" };
+            String[] names = { "t1", "t2", "skip" };
+            for (String group : groups) {
+                for (String name : names) {
+                    OperableTrigger trigger = new SimpleTriggerImpl(name, group, "job", "jobs", start, null, 0, 0);
+                    trigger.computeFirstFireTime(null);
+                    store.storeTrigger(trigger, false);
+                }
+            }
+
+            // the underscore is matched literally, not as a LIKE wildcard
+            GroupMatcher<TriggerKey> groupMatcher = GroupMatcher.triggerGroupStartsWith("a_");
+            NotMatcher<TriggerKey> notSkipped = NotMatcher.not(NameMatcher.<TriggerKey>nameEquals("skip"));
+            OrMatcher<TriggerKey> orOther = OrMatcher.or(groupMatcher,
+                    AndMatcher.and(GroupMatcher.<TriggerKey>groupEquals("other"), NameMatcher.<TriggerKey>nameEquals("t1")));
+            AndMatcher<TriggerKey> matcher = AndMatcher.and(orOther, notSkipped);
+
+            Set<TriggerKey> expected = new HashSet<TriggerKey>();
+            expected.add(new TriggerKey("t1", "a_b"));
+            expected.add(new TriggerKey("t2", "a_b"));
+            expected.add(new TriggerKey("t1", "other"));
+            assertNotNull(SqlPredicate.forTriggerKeys(matcher));
+            assertEquals(expected, store.getTriggerKeysMatching(matcher));
+
+            store.pauseTriggersMatching(matcher);
+            for (String group : groups) {
+                for (String name : names) {
+                    TriggerKey key = new TriggerKey(name, group);
+                    assertEquals(key.toString(), expected.contains(key) ? TriggerState.PAUSED : TriggerState.NORMAL,
+                            store.getTriggerState(key));
+                }
+            }
+
+            store.resumeTriggersMatching(matcher);
+            for (TriggerKey key : expected) {
+                assertEquals(TriggerState.NORMAL, store.getTriggerState(key));
+            }
+
+            store.pauseJobs(GroupMatcher.jobGroupEquals("jobs"));
+            assertEquals(TriggerState.PAUSED, store.getTriggerState(new TriggerKey("skip", "other")));
+            store.resumeJobs(GroupMatcher.jobGroupEquals("jobs"));
+            assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("skip", "other")));
+
+            // the paused groups are selected and deleted with the same pattern as the triggers
+            store.pauseTriggers(GroupMatcher.triggerGroupStartsWith("a"));
+            assertEquals(Collections.singleton("a_b"),
+                    store.resumeTriggers(GroupMatcher.triggerGroupStartsWith("a_")));
+            assertEquals(Collections.singleton("axb"), store.getPausedTriggerGroups());
+            assertEquals(TriggerState.NORMAL, store.getTriggerState(new TriggerKey("t1", "a_b")));
+            assertEquals(TriggerState.PAUSED, store.getTriggerState(new TriggerKey("t1", "axb")));
+
+            store.storeJob(new JobDetailImpl("job", "j_s", NoOpJob.class, true, false), false);
+            store.storeJob(new JobDetailImpl("job", "jxs", NoOpJob.class, true, false), false);
+            assertEquals(Collections.singleton("j_s"), store.pauseJobs(GroupMatcher.jobGroupStartsWith("j_")));
+            assertEquals(Collections.singleton("j_s"), store.resumeJobs(GroupMatcher.jobGroupStartsWith("j_")));
+        } finally {
+            destroyJobStore("testPauseAndResumeTriggersMatching");
+        }
+    }
+
+    public void testTriggerPagesLeaveOutCompleteTriggers() throws Exception {
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        JobStoreSupport store = (JobStoreSupport) createJobStore("testTriggerPagesLeaveOutCompleteTriggers");
+        try {
+            store.initialize(loadHelper, null);
+            store.schedulerStarted();
+
+            store.storeJob(new JobDetailImpl("job", "jobs", NoOpJob.class), false);
+            long now = System.currentTimeMillis();
+            OperableTrigger once = new SimpleTriggerImpl("once", "triggers", "job", "jobs", new Date(now), null, 0, 0);
+            once.computeFirstFireTime(null);
+            store.storeTrigger(once, false);
+            OperableTrigger later = new SimpleTriggerImpl("later", "triggers", "job", "jobs",
+                    new Date(now + 60000L), null, 0, 0);
+            later.computeFirstFireTime(null);
+            store.storeTrigger(later, false);
+
+            List<OperableTrigger> acquired = store.acquireNextTriggers(now + 1000L, 1, 0L);
+            assertEquals(once.getKey(), acquired.get(0).getKey());
+            store.triggersFired(acquired);
+            // stored with a next fire time of -1
+            assertEquals(TriggerState.COMPLETE, store.getTriggerState(once.getKey()));
+
+            ResultPage<OperableTrigger> page = store.retrieveTriggerPage(new TriggerQuery().orderByNextFireTime());
+            assertEquals(1, page.getItems().size());
+            assertEquals(later.getKey(), page.getItems().get(0).getKey());
+            assertTrue(store.retrieveTriggerPage(new TriggerQuery()
+                    .withStates(TriggerState.COMPLETE).orderByNextFireTime()).getItems().isEmpty());
+
+            page = store.retrieveTriggerPage(new TriggerQuery()
+                    .withNextFireTimeBetween(null, new Date(now + 120000L)));
+            assertEquals(1, page.getItems().size());
+            assertEquals(later.getKey(), page.getItems().get(0).getKey());
+            assertEquals(2, store.retrieveTriggerPage(new TriggerQuery()).getItems().size());
+        } finally {
+            destroyJobStore("testTriggerPagesLeaveOutCompleteTriggers");
+        }
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
     @Override
     protected JobStore createJobStore(String name) {
         try {
@@ -20,6 +20,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.quartz.JobBuilder.newJob;
 
 import java.io.IOException;
 import java.io.NotSerializableException;
@@ -27,13 +28,23 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
 import org.quartz.JobPersistenceException;
 import org.quartz.TriggerKey;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.OperableTrigger;
 import org.slf4j.LoggerFactory;
 import org.quartz.JobDataMap;
 import org.quartz.simpl.SimpleClassLoadHelper;
+import org.quartz.utils.DBConnectionManager;
 
 import junit.framework.TestCase;
 
@@ -135,6 +146,103 @@ public class StdJDBCDelegateTest extends TestCase {
         verify(persistenceDelegate).loadExtendedTriggerProperties(any(Connection.class), any(TriggerKey.class));
     }
 
+    public void testUpdateJobDataWritesChangedEntriesOnly() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase("testJobDataDeltas");
+        Connection conn = DBConnectionManager.getInstance().getConnection("testJobDataDeltas");
+        try {
+            StdJDBCDelegate delegate = new StdJDBCDelegate();
+            delegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE",
+                    new SimpleClassLoadHelper(), false, "persistJobDataDeltas=true");
+
+            JobDataMap data = new JobDataMap();
+            for (int i = 0; i < 10; i++) {
+                data.put("key" + i, "value" + i);
+            }
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job").usingJobData(data).build();
+            delegate.insertJobDetail(conn, job);
+
+            JobDetail loaded = delegate.selectJobDetail(conn, job.getKey(), new SimpleClassLoadHelper());
+            loaded.getJobDataMap().put("count", 1);
+            loaded.getJobDataMap().remove("key0");
+            assertEquals(2, delegate.updateJobData(conn, loaded));
+            assertEquals(2, countJobDataEntries(conn));
+
+            loaded = delegate.selectJobDetail(conn, job.getKey(), new SimpleClassLoadHelper());
+            assertFalse(loaded.getJobDataMap().isDirty());
+            assertEquals(1, loaded.getJobDataMap().getInt("count"));
+            assertFalse(loaded.getJobDataMap().containsKey("key0"));
+            assertEquals(10, loaded.getJobDataMap().size());
+
+            // the bulk select applies the entries of every job it loads
+            JobDetail other = newJob(NoOpJob.class).withIdentity("other").usingJobData("key0", "value0").build();
+            delegate.insertJobDetail(conn, other);
+            Map<JobKey, JobDetail> jobs = delegate.selectJobDetails(conn,
+                    Arrays.asList(job.getKey(), other.getKey()), new SimpleClassLoadHelper());
+            assertEquals(2, jobs.size());
+            assertEquals(loaded.getJobDataMap(), jobs.get(job.getKey()).getJobDataMap());
+            assertFalse(jobs.get(job.getKey()).getJobDataMap().isDirty());
+            assertEquals("value0", jobs.get(other.getKey()).getJobDataMap().getString("key0"));
+
+            // changing most of the map rewrites it as a whole
+            loaded.getJobDataMap().clear();
+            loaded.getJobDataMap().put("other", "value");
+            assertEquals(1, delegate.updateJobData(conn, loaded));
+            assertEquals(0, countJobDataEntries(conn));
+            loaded = delegate.selectJobDetail(conn, job.getKey(), new SimpleClassLoadHelper());
+            assertEquals(1, loaded.getJobDataMap().size());
+            assertEquals("value", loaded.getJobDataMap().getString("other"));
+        } finally {
+            conn.close();
+            JdbcQuartzTestUtilities.destroyDatabase("testJobDataDeltas");
+        }
+    }
+
+    public void testSelectTriggersFailsWhenExtendedPropertiesAreMissing() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase("testSelectTriggersMissingProps");
+        Connection conn = DBConnectionManager.getInstance().getConnection("testSelectTriggersMissingProps");
+        try {
+            StdJDBCDelegate delegate = new StdJDBCDelegate();
+            delegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE",
+                    new SimpleClassLoadHelper(), false, "");
+
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job").storeDurably().build();
+            delegate.insertJobDetail(conn, job);
+            OperableTrigger trigger = new SimpleTriggerImpl("trigger", null, "job", null, new Date(), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            delegate.insertTrigger(conn, trigger, Constants.STATE_WAITING, job);
+            assertEquals(1, delegate.selectTriggers(conn, Collections.singleton(trigger.getKey())).size());
+
+            conn.createStatement().executeUpdate("DELETE FROM QRTZ_SIMPLE_TRIGGERS");
+            try {
+                delegate.selectTriggers(conn, Collections.singleton(trigger.getKey()));
+                fail("Expected an IllegalStateException");
+            } catch (IllegalStateException expected) {
+                // like selectTrigger(), as the trigger row is still there
+            }
+
+            delegate.deleteTrigger(conn, trigger.getKey());
+            assertTrue(delegate.selectTriggers(conn, Collections.singleton(trigger.getKey())).isEmpty());
+        } finally {
+            conn.close();
+            JdbcQuartzTestUtilities.destroyDatabase("testSelectTriggersMissingProps");
+        }
+    }
+
+    private static int countJobDataEntries(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM QRTZ_JOB_DATA_ENTRIES");
+        try {
+            rs.next();
+            return rs.getInt(1);
+        } finally {
+            rs.close();
+        }
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
     static class TestStdJDBCDelegate extends StdJDBCDelegate {
 
         private final TriggerPersistenceDelegate testDelegate;
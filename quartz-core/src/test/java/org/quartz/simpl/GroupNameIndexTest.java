@@ -0,0 +1,71 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for GroupNameIndex.
+ */
+public class GroupNameIndexTest extends TestCase {
+
+    public void testMatchesLikeStringOperators() {
+        checkMatches(new GroupNameIndex(false));
+        checkMatches(new GroupNameIndex(true));
+    }
+
+    private void checkMatches(GroupNameIndex index) {
+        Random random = new Random(7);
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < 2000; i++) {
+            String name = randomName(random);
+            if (random.nextInt(4) == 0) {
+                assertEquals(names.remove(name), index.remove(name));
+            } else {
+                assertEquals(names.add(name), index.add(name));
+            }
+        }
+        assertEquals(names.size(), index.size());
+
+        for (int i = 0; i < 500; i++) {
+            String value = randomName(random);
+            value = value.substring(0, Math.min(value.length(), random.nextInt(5)));
+            for (StringOperatorName operator : StringOperatorName.values()) {
+                Set<String> expected = new HashSet<String>();
+                for (String name : names) {
+                    if (operator.evaluate(name, value)) {
+                        expected.add(name);
+                    }
+                }
+                assertEquals(operator + " " + value, expected, new HashSet<String>(index.matching(operator, value)));
+            }
+        }
+    }
+
+    private static String randomName(Random random) {
+        char[] chars = new char[1 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
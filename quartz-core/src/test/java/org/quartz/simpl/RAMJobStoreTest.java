@@ -15,11 +15,150 @@
  */
 package org.quartz.simpl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
 import org.quartz.AbstractJobStoreTest;
+import org.quartz.JobKey;
+import org.quartz.ResultPage;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerQuery;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
 
 public class RAMJobStoreTest extends AbstractJobStoreTest {
 
+    @SuppressWarnings("deprecation")
+    public void testBulkPauseResumeAndRemove() throws Exception {
+        RAMJobStore store = new RAMJobStore();
+        store.initialize(null, new SampleSignaler());
+        store.storeJob(new JobDetailImpl("job", "jobs", MyJob.class), false);
+
+        long now = System.currentTimeMillis();
+        List<TriggerKey> keys = new ArrayList<TriggerKey>();
+        for (int i = 0; i < 1000; i++) {
+            OperableTrigger trigger = new SimpleTriggerImpl("t" + i, "group" + (i % 10), "job", "jobs",
+                    new Date(now + 1000L * ((i * 7919) % 1000)), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+            keys.add(trigger.getKey());
+        }
+        List<TriggerWrapper> expectedOrder = new ArrayList<TriggerWrapper>(store.timeTriggers);
+
+        store.pauseAll();
+        assertTrue(store.timeTriggers.isEmpty());
+        for (TriggerKey key : keys) {
+            assertEquals(TriggerState.PAUSED, store.getTriggerState(key));
+        }
+
+        store.resumeTriggers(GroupMatcher.triggerGroupStartsWith("group"));
+        assertEquals(expectedOrder, new ArrayList<TriggerWrapper>(store.timeTriggers));
+        for (TriggerKey key : keys) {
+            assertEquals(TriggerState.NORMAL, store.getTriggerState(key));
+        }
+
+        store.pauseJobs(GroupMatcher.jobGroupEquals("jobs"));
+        assertTrue(store.timeTriggers.isEmpty());
+        store.resumeJobs(GroupMatcher.jobGroupEquals("jobs"));
+        assertEquals(expectedOrder, new ArrayList<TriggerWrapper>(store.timeTriggers));
+
+        store.removeTriggers(keys.subList(0, 500));
+        assertEquals(500, store.timeTriggers.size());
+        assertEquals(500, store.getNumberOfTriggers());
+        assertTrue(store.checkExists(new JobKey("job", "jobs")));
+
+        // the job is not durable, so it goes with its last trigger
+        store.removeTriggers(keys.subList(500, 1000));
+        assertTrue(store.timeTriggers.isEmpty());
+        assertFalse(store.checkExists(new JobKey("job", "jobs")));
+    }
+
+    public void testRemoveJobsNotifiesOrphanedJobs() throws Exception {
+        final List<JobKey> deleted = new ArrayList<JobKey>();
+        RAMJobStore store = new RAMJobStore();
+        store.initialize(null, new SampleSignaler() {
+            @Override
+            public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+                deleted.add(jobKey);
+            }
+        });
+        JobKey durable = new JobKey("durable", "jobs");
+        JobKey nonDurable = new JobKey("nonDurable", "jobs");
+        JobKey withoutTriggers = new JobKey("withoutTriggers", "jobs");
+        store.storeJob(new JobDetailImpl(durable.getName(), durable.getGroup(), MyJob.class, true, false), false);
+        store.storeJob(new JobDetailImpl(nonDurable.getName(), nonDurable.getGroup(), MyJob.class), false);
+        store.storeJob(new JobDetailImpl(withoutTriggers.getName(), withoutTriggers.getGroup(), MyJob.class, true, false), false);
+        for (JobKey jobKey : new JobKey[] { durable, nonDurable }) {
+            OperableTrigger trigger = new SimpleTriggerImpl(jobKey.getName(), "triggers", jobKey.getName(), jobKey.getGroup(),
+                    new Date(System.currentTimeMillis() + 60000L), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+
+        List<JobKey> jobKeys = new ArrayList<JobKey>();
+        jobKeys.add(durable);
+        jobKeys.add(nonDurable);
+        jobKeys.add(withoutTriggers);
+        assertTrue(store.removeJobs(jobKeys));
+        assertEquals(Collections.singletonList(nonDurable), deleted);
+        assertEquals(0, store.getNumberOfJobs());
+        assertEquals(0, store.getNumberOfTriggers());
+    }
+
+    public void testNormalTriggersByNextFireTimeIncludeAcquiredTriggers() throws Exception {
+        RAMJobStore store = new RAMJobStore();
+        store.initialize(null, new SampleSignaler());
+        store.storeJob(new JobDetailImpl("job", "jobs", MyJob.class, true, false), false);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            OperableTrigger trigger = new SimpleTriggerImpl("t" + i, "triggers", "job", "jobs",
+                    new Date(now + 1000L * i), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            store.storeTrigger(trigger, false);
+        }
+        store.pauseTrigger(new TriggerKey("t2", "triggers"));
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 2000L, 2, 5000L);
+        assertEquals(2, acquired.size());
+        // acquired, and then paused rather than fired
+        store.pauseTrigger(new TriggerKey("t1", "triggers"));
+
+        TriggerQuery query = new TriggerQuery().withStates(TriggerState.NORMAL).orderByNextFireTime();
+        ResultPage<OperableTrigger> page = store.retrieveTriggerPage(query);
+        assertEquals(1, page.getItems().size());
+        assertEquals(new TriggerKey("t0", "triggers"), page.getItems().get(0).getKey());
+
+        store.releaseAcquiredTrigger(acquired.get(0));
+        page = store.retrieveTriggerPage(query);
+        assertEquals(1, page.getItems().size());
+        assertEquals(2, store.retrieveTriggerPage(new TriggerQuery()
+                .withStates(TriggerState.PAUSED).orderByNextFireTime()).getItems().size());
+    }
+
+    public void testSortedListSetViews() {
+        TriggerWrapperComparator comparator = new TriggerWrapperComparator();
+        List<TriggerWrapper> list = new ArrayList<TriggerWrapper>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            OperableTrigger trigger = new SimpleTriggerImpl("t" + i, "group", "job", "jobs",
+                    new Date(now + 1000L * i), null, 0, 0);
+            trigger.computeFirstFireTime(null);
+            list.add(new TriggerWrapper(trigger));
+        }
+        SortedListSet set = new SortedListSet(list, comparator);
+
+        assertEquals(list.subList(2, 5), new ArrayList<TriggerWrapper>(set.tailSet(list.get(2))));
+        assertEquals(list.subList(0, 2), new ArrayList<TriggerWrapper>(set.headSet(list.get(2))));
+        assertEquals(list.subList(1, 3), new ArrayList<TriggerWrapper>(set.subSet(list.get(1), list.get(3))));
+        assertTrue(set.tailSet(list.get(2)).headSet(list.get(2)).isEmpty());
+        assertEquals(list.get(4), set.last());
+    }
+
     @Override
     protected JobStore createJobStore(String name) {
         RAMJobStore rs = new RAMJobStore();
@@ -0,0 +1,120 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.quartz.JobDataMap;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for CompactMap.
+ */
+public class CompactMapTest extends TestCase {
+
+    public void testBehavesLikeHashMap() {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        CompactMap<String, Integer> map = new CompactMap<String, Integer>();
+
+        for (int i = 0; i < 20000; i++) {
+            // keep the size moving around the switch to the hash table
+            String key = random.nextInt(10) == 0 ? null : "key" + random.nextInt(i < 10000 ? 12 : 60);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else if (op < 9) {
+                for (Iterator<String> it = map.keySet().iterator(); it.hasNext();) {
+                    String k = it.next();
+                    if (k != null && k.hashCode() % 3 == 0) {
+                        it.remove();
+                        expected.remove(k);
+                    }
+                }
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    public void testCloneIsIndependent() {
+        CompactMap<String, String> map = new CompactMap<String, String>();
+        for (int i = 0; i < 20; i++) {
+            map.put("key" + i, "value" + i);
+        }
+        CompactMap<String, String> copy = map.clone();
+        copy.put("key0", "changed");
+        copy.remove("key1");
+
+        assertEquals("value0", map.get("key0"));
+        assertEquals("value1", map.get("key1"));
+        assertEquals(20, map.size());
+        assertEquals(19, copy.size());
+    }
+
+    public void testPrimitiveValuesAreStoredInline() throws Exception {
+        JobDataMap data = new JobDataMap();
+        data.put("int", 42);
+        data.put("long", Long.MAX_VALUE);
+        data.put("float", 1.5f);
+        data.put("double", -2.25d);
+        data.put("boolean", true);
+        data.put("char", 'q');
+        data.put("string", "text");
+        assertTrue(data.isDirty());
+
+        assertEquals(42, data.getInt("int"));
+        assertEquals(Long.MAX_VALUE, data.getLong("long"));
+        assertEquals(1.5f, data.getFloat("float"), 0f);
+        assertEquals(-2.25d, data.getDouble("double"), 0d);
+        assertTrue(data.getBoolean("boolean"));
+        assertEquals('q', data.getChar("char"));
+
+        // boxed when read as objects
+        assertEquals(Integer.valueOf(42), data.get("int"));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), data.get("long"));
+        assertEquals(Float.valueOf(1.5f), data.get("float"));
+        assertEquals(Double.valueOf(-2.25d), data.get("double"));
+        assertEquals(Boolean.TRUE, data.get("boolean"));
+        assertEquals(Character.valueOf('q'), data.get("char"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(data);
+        out.close();
+        JobDataMap deserialized = (JobDataMap) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(HashMap.class, deserialized.getWrappedMap().getClass());
+        assertEquals(data, deserialized);
+        assertEquals(data, data.clone());
+    }
+}
@@ -188,4 +188,31 @@ public class DirtyFlagMapTest extends TestCase {
         assertTrue(dirtyFlagMap.isDirty());
         assertEquals(0, dirtyFlagMap.size());
     }    
+
+    public void testDirtyKeys() {
+        DirtyFlagMap<String, String> dirtyFlagMap = new DirtyFlagMap<String, String>();
+        dirtyFlagMap.put("a", "A");
+        dirtyFlagMap.put("b", "B");
+        dirtyFlagMap.put("c", "C");
+        assertEquals(3, dirtyFlagMap.getDirtyKeys().size());
+
+        dirtyFlagMap.clearDirtyFlag();
+        assertTrue(dirtyFlagMap.getDirtyKeys().isEmpty());
+        dirtyFlagMap.put("a", "AA");
+        dirtyFlagMap.remove("b");
+        dirtyFlagMap.remove("x");
+        assertEquals(new java.util.HashSet<String>(java.util.Arrays.asList("a", "b")), dirtyFlagMap.getDirtyKeys());
+
+        // the clone keeps its own changes
+        @SuppressWarnings("unchecked")
+        DirtyFlagMap<String, String> copy = (DirtyFlagMap<String, String>) dirtyFlagMap.clone();
+        copy.put("c", "CC");
+        assertEquals(2, dirtyFlagMap.getDirtyKeys().size());
+        assertEquals(3, copy.getDirtyKeys().size());
+
+        // changes through the collection views are not known by key
+        dirtyFlagMap.values().remove("C");
+        assertTrue(dirtyFlagMap.isDirty());
+        assertNull(dirtyFlagMap.getDirtyKeys());
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.quartz.utils;
+
+import java.util.Calendar;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+public class TimeMathTest extends TestCase {
+
+    private static final String[] ZONES = {
+        "UTC", "America/New_York", "Europe/London", "Australia/Lord_Howe",
+        "America/Sao_Paulo", "Asia/Kolkata"
+    };
+
+    private static long start(TimeZone tz) {
+        Calendar c = Calendar.getInstance(tz);
+        c.clear();
+        c.set(2018, Calendar.JANUARY, 1, 0, 0, 0);
+        return c.getTimeInMillis();
+    }
+
+    public void testFieldsAgreeWithJavaCalendar() {
+        for (String id : ZONES) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            long time = start(tz);
+            Calendar c = Calendar.getInstance(tz);
+
+            // two years in steps of a bit over seven hours, crossing the DST shifts
+            for (int i = 0; i < 2500; i++, time += 7L * 60L * 60L * 1000L + 13L * 60L * 1000L) {
+                c.setTimeInMillis(time);
+                assertEquals(id, c.get(Calendar.DAY_OF_WEEK), TimeMath.getDayOfWeek(time, tz));
+                assertEquals(id, c.get(Calendar.DAY_OF_MONTH), TimeMath.getDayOfMonth(time, tz));
+                assertEquals(id, c.get(Calendar.MONTH), TimeMath.getMonth(time, tz));
+            }
+        }
+    }
+
+    public void testStartOfDayAgreesWithJavaCalendar() {
+        for (String id : ZONES) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            long time = start(tz);
+            Calendar c = Calendar.getInstance(tz);
+
+            for (int i = 0; i < 800; i++, time += 23L * 60L * 60L * 1000L) {
+                c.setTimeInMillis(time);
+                assertEquals(id, startOfDay(c), TimeMath.getStartOfDay(time, tz));
+
+                c.setTimeInMillis(time);
+                c.add(Calendar.DATE, 1);
+                assertEquals(id, startOfDay(c), TimeMath.getStartOfNextDay(time, tz));
+            }
+        }
+    }
+
+    private static long startOfDay(Calendar c) {
+        c.set(Calendar.HOUR_OF_DAY, 0);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        return c.getTimeInMillis();
+    }
+
+    public void testStartOfDayInMidnightGap() {
+        // Sao Paulo skipped from 00:00 to 01:00 on 2018-11-04
+        TimeZone tz = TimeZone.getTimeZone("America/Sao_Paulo");
+        Calendar c = Calendar.getInstance(tz);
+        c.clear();
+        c.set(2018, Calendar.NOVEMBER, 4, 12, 0, 0);
+        long noon = c.getTimeInMillis();
+
+        long dayStart = TimeMath.getStartOfDay(noon, tz);
+        c.setTimeInMillis(dayStart);
+        assertEquals(4, c.get(Calendar.DAY_OF_MONTH));
+        assertEquals(1, c.get(Calendar.HOUR_OF_DAY));
+        assertEquals(0, c.get(Calendar.MINUTE));
+        assertFalse(TimeMath.getDayOfMonth(dayStart - 1, tz) == 4);
+    }
+
+    public void testCustomZones() {
+        TimeZone[] zones = {
+            new SimpleTimeZone(3600000, "Custom"),
+            // shares the ID of a real zone, but not its rules
+            new SimpleTimeZone(-5 * 3600000, "Europe/London",
+                    Calendar.MARCH, 8, -Calendar.SUNDAY, 7200000,
+                    Calendar.NOVEMBER, 1, -Calendar.SUNDAY, 7200000, 3600000),
+            TimeZone.getTimeZone("Europe/London")
+        };
+        for (TimeZone tz : zones) {
+            long time = start(tz);
+            Calendar c = Calendar.getInstance(tz);
+
+            for (int i = 0; i < 800; i++, time += 23L * 60L * 60L * 1000L) {
+                c.setTimeInMillis(time);
+                assertEquals(tz.getID(), c.get(Calendar.DAY_OF_WEEK), TimeMath.getDayOfWeek(time, tz));
+                assertEquals(tz.getID(), c.get(Calendar.DAY_OF_MONTH), TimeMath.getDayOfMonth(time, tz));
+                assertEquals(tz.getID(), startOfDay(c), TimeMath.getStartOfDay(time, tz));
+            }
+        }
+    }
+
+    public void testYearUTC() {
+        Calendar c = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        for (int year = 1969; year < 2400; year += 7) {
+            c.clear();
+            c.set(year, Calendar.DECEMBER, 31, 23, 59, 59);
+            assertEquals(year, TimeMath.getYearUTC(c.getTimeInMillis()));
+            assertEquals(year + 1, TimeMath.getYearUTC(c.getTimeInMillis() + 1000L));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.utils.counter;
+
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.quartz.utils.counter.sampled.SampledCounterConfig;
+import org.quartz.utils.counter.sampled.SampledCounterImpl;
+import org.quartz.utils.counter.sampled.StripedSampledCounterImpl;
+import org.quartz.utils.counter.sampled.TimeStampedCounterValue;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for CounterManagerImpl and the striped counters it samples.
+ */
+public class CounterManagerImplTest extends TestCase {
+
+    public void testStripedCounterLosesNoConcurrentUpdate() throws Exception {
+        final StripedCounterImpl counter = new StripedCounterImpl(5L);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        final long[] reset = new long[1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 100000; j++) {
+                        counter.add(1L);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < 10; i++) {
+            reset[0] += counter.getAndSet(0L);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(5L + threads.length * 100000L, reset[0] + counter.getValue());
+
+        counter.setValue(3L);
+        assertEquals(4L, counter.increment());
+        assertEquals(1L, counter.decrement(3L));
+    }
+
+    public void testHistoryWrapsAround() {
+        StripedSampledCounterImpl counter = new StripedSampledCounterImpl(new SampledCounterConfig(1, 3, true, 0L));
+        assertEquals(0L, counter.getMostRecentSampleValue());
+        for (int i = 1; i <= 5; i++) {
+            counter.add(i);
+            counter.recordSample();
+        }
+        assertEquals(5L, counter.getMostRecentSampleValue());
+        assertEquals(5L, counter.getMostRecentSample().getCounterValue());
+        assertEquals(0L, counter.getValue());
+
+        TimeStampedCounterValue[] samples = counter.getAllSampleValues();
+        assertEquals(3, samples.length);
+        assertEquals(5L, samples[0].getCounterValue());
+        assertEquals(4L, samples[1].getCounterValue());
+        assertEquals(3L, samples[2].getCounterValue());
+    }
+
+    public void testSharedTickThreadSamples() throws Exception {
+        CounterManagerImpl manager = new CounterManagerImpl();
+        StripedSampledCounterImpl counter = (StripedSampledCounterImpl) manager.createCounter(new SampledCounterConfig(1, 10, true, 0L));
+        counter.add(7L);
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (counter.getAllSampleValues().length < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertEquals(7L, counter.getMostRecentSampleValue());
+        assertTrue(tickThreadAlive());
+
+        manager.shutdown(true);
+        deadline = System.currentTimeMillis() + 5000L;
+        while (tickThreadAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertFalse(tickThreadAlive());
+        try {
+            manager.createCounter(new SampledCounterConfig(1, 10, true, 0L));
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testSamplingContinuesAfterError() throws Exception {
+        final CountDownLatch failed = new CountDownLatch(1);
+        CounterManagerImpl manager = new CounterManagerImpl();
+        try {
+            manager.createCounter(new SampledCounterConfig(1, 10, true, 0L) {
+                @Override
+                public Counter createCounter() {
+                    return new SampledCounterImpl(this) {
+                        @Override
+                        public TimerTask getTimerTask() {
+                            return new TimerTask() {
+                                @Override
+                                public void run() {
+                                    failed.countDown();
+                                    throw new AssertionError("expected failure of the tick thread");
+                                }
+                            };
+                        }
+                    };
+                }
+            });
+            StripedSampledCounterImpl counter = (StripedSampledCounterImpl) manager.createCounter(new SampledCounterConfig(1, 10, true, 0L));
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+
+            // the failed counter is dropped, and a new tick thread samples the others
+            counter.add(3L);
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (counter.getMostRecentSampleValue() != 3L && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50L);
+            }
+            assertEquals(3L, counter.getMostRecentSampleValue());
+            assertTrue(tickThreadAlive());
+        } finally {
+            manager.shutdown(true);
+        }
+    }
+
+    private static boolean tickThreadAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("QuartzCounterSampler".equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.utils.counter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for LatencyHistogram.
+ */
+public class LatencyHistogramTest extends TestCase {
+
+    public void testBuckets() {
+        int previous = -1;
+        for (long value : new long[] { 0, 1, 127, 128, 129, 255, 256, 1000, 1L << 40, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= previous);
+            assertTrue(LatencyHistogram.lowestValueInBucket(index) <= value);
+            assertTrue(LatencyHistogram.highestValueInBucket(index) >= value);
+            previous = index;
+        }
+    }
+
+    public void testLowPrecisionBuckets() {
+        assertEquals(248, LatencyHistogram.bucketCount(3));
+        for (long value = 0; value < 100000; value += 7) {
+            int index = LatencyHistogram.bucketIndex(value, 3);
+            assertTrue(index < 248);
+            assertTrue(LatencyHistogram.lowestValueInBucket(index, 3) <= value);
+            assertTrue(LatencyHistogram.highestValueInBucket(index, 3) >= value);
+        }
+        assertEquals(247, LatencyHistogram.bucketIndex(Long.MAX_VALUE, 3));
+    }
+
+    public void testPercentiles() {
+        Random random = new Random(3);
+        long[] values = new long[10000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.abs(random.nextGaussian() * 5000000L);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[0], snapshot.getMin());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        for (double percentile : new double[] { 50.0, 90.0, 99.0, 100.0 }) {
+            long expected = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+            long actual = snapshot.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + actual + " vs " + expected,
+                    actual >= expected && actual <= expected + expected / 64 + 1);
+        }
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99.0));
+        assertEquals(0, histogram.snapshot().getMin());
+    }
+}
@@ -36,6 +36,7 @@ drop table qrtz_simprop_triggers;
 drop table qrtz_cron_triggers;
 drop table qrtz_blob_triggers;
 drop table qrtz_triggers;
+drop table qrtz_job_data_entries;
 drop table qrtz_job_details;
 drop table qrtz_calendars;
 